@@ -0,0 +1,49 @@
+package store.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import store.domain.store.dto.response.ProductResponse;
+import store.domain.store.service.StoreServiceImpl;
+
+/**
+ * 상품 목록 조회와 프로모션 안내 조회 비용을 측정한다.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CatalogBenchmark {
+    private static final int PROMPT_QUANTITY = 7;
+
+    @Param({"100", "10000", "1000000"})
+    int catalogSize;
+
+    private StoreServiceImpl service;
+    private String promotionProductName;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = CatalogFixture.service(catalogSize);
+        // 카탈로그 중간에 있는 프로모션 상품을 골라 조회 위치에 따른 편차를 줄인다
+        int sku = (catalogSize / 2) / 3 * 3;
+        promotionProductName = CatalogFixture.productName(sku);
+    }
+
+    @Benchmark
+    public List<ProductResponse> getProducts() {
+        return service.getProducts();
+    }
+
+    @Benchmark
+    public int getNormalPurchaseQuantity() {
+        return service.getNormalPurchaseQuantity(promotionProductName, PROMPT_QUANTITY);
+    }
+}
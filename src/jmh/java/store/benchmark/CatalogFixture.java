@@ -0,0 +1,94 @@
+package store.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import store.domain.store.dao.ProductRepository;
+import store.domain.store.dao.PromotionRepository;
+import store.domain.store.domain.Product;
+import store.domain.store.domain.Promotion;
+import store.domain.store.dto.request.PurchaseRequest;
+import store.domain.store.service.StoreServiceImpl;
+
+/**
+ * 벤치마크용 상품/프로모션 카탈로그를 생성한다.
+ * 세 상품 중 하나는 프로모션 재고와 일반 재고를 함께 갖는다.
+ */
+final class CatalogFixture {
+    static final long SEED = 20241101L;
+
+    private static final String PRODUCT_HEADER = "name,price,quantity,promotion\n";
+    private static final String NO_PROMOTION = "null";
+    private static final int PROMOTION_EVERY = 3;
+    // 반복 측정 중에도 재고가 바닥나지 않도록 충분히 크게 잡는다
+    private static final int STOCK_PER_ROW = 500_000_000;
+    private static final int MAX_LINE_QUANTITY = 3;
+
+    private static final List<Promotion> PROMOTIONS = List.of(
+            Promotion.of("탄산2+1", 2, 1, LocalDate.now().minusYears(1), LocalDate.now().plusYears(1)),
+            Promotion.of("MD추천상품", 1, 1, LocalDate.now().minusYears(1), LocalDate.now().plusYears(1)),
+            Promotion.of("반짝할인", 1, 1, LocalDate.now().minusYears(1), LocalDate.now().plusYears(1))
+    );
+
+    private CatalogFixture() {
+    }
+
+    static String productName(int sku) {
+        return "상품" + sku;
+    }
+
+    static List<Product> products(int skuCount) {
+        List<Product> products = new ArrayList<>(skuCount + skuCount / PROMOTION_EVERY + 1);
+        for (int sku = 0; sku < skuCount; sku++) {
+            int price = priceOf(sku);
+            if (sku % PROMOTION_EVERY == 0) {
+                products.add(Product.of(productName(sku), price, STOCK_PER_ROW, promotionOf(sku).getName()));
+            }
+            products.add(Product.of(productName(sku), price, STOCK_PER_ROW, NO_PROMOTION));
+        }
+        return products;
+    }
+
+    static byte[] productsText(int skuCount) {
+        StringBuilder builder = new StringBuilder(PRODUCT_HEADER);
+        for (Product product : products(skuCount)) {
+            builder.append(product.getName()).append(',')
+                    .append(product.getPrice()).append(',')
+                    .append(product.getQuantity()).append(',')
+                    .append(product.getPromotionName()).append('\n');
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static List<Promotion> promotions() {
+        return PROMOTIONS;
+    }
+
+    static StoreServiceImpl service(int skuCount) {
+        return StoreServiceImpl.of(
+                ProductRepository.from(products(skuCount)),
+                PromotionRepository.from(promotions())
+        );
+    }
+
+    static List<PurchaseRequest> cart(SplittableRandom random, int skuCount, int lines) {
+        List<PurchaseRequest> cart = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            cart.add(PurchaseRequest.of(
+                    productName(random.nextInt(skuCount)),
+                    1 + random.nextInt(MAX_LINE_QUANTITY)
+            ));
+        }
+        return cart;
+    }
+
+    private static int priceOf(int sku) {
+        return 500 + (sku % 40) * 100;
+    }
+
+    private static Promotion promotionOf(int sku) {
+        return PROMOTIONS.get(sku % PROMOTIONS.size());
+    }
+}
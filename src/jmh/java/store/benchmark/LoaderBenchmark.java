@@ -0,0 +1,39 @@
+package store.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import store.domain.store.domain.Product;
+import store.domain.store.util.ResourceLoader;
+
+/**
+ * 카탈로그 크기에 따른 ResourceLoader.loadProducts 파싱 비용을 측정한다.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class LoaderBenchmark {
+    @Param({"100", "10000", "1000000"})
+    int catalogSize;
+
+    private byte[] productsText;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        productsText = CatalogFixture.productsText(catalogSize);
+    }
+
+    @Benchmark
+    public List<Product> loadProducts() {
+        return ResourceLoader.loadProducts(new ByteArrayInputStream(productsText));
+    }
+}
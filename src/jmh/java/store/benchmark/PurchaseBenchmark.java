@@ -0,0 +1,62 @@
+package store.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import store.domain.store.dto.request.PurchaseRequest;
+import store.domain.store.dto.response.ReceiptResponse;
+import store.domain.store.service.StoreServiceImpl;
+
+/**
+ * StoreServiceImpl.purchase의 처리량, 지연 시간, 할당량을 측정한다.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class PurchaseBenchmark {
+    private static final int CART_POOL_SIZE = 64;
+
+    @Param({"100", "10000", "1000000"})
+    int catalogSize;
+
+    @Param({"1", "10", "100", "1000"})
+    int cartSize;
+
+    private StoreServiceImpl service;
+    private List<List<PurchaseRequest>> carts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = CatalogFixture.service(catalogSize);
+        SplittableRandom random = new SplittableRandom(CatalogFixture.SEED);
+        carts = new ArrayList<>(CART_POOL_SIZE);
+        for (int i = 0; i < CART_POOL_SIZE; i++) {
+            carts.add(CatalogFixture.cart(random, catalogSize, cartSize));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int advance() {
+            next = (next + 1) % CART_POOL_SIZE;
+            return next;
+        }
+    }
+
+    @Benchmark
+    public ReceiptResponse purchase(Cursor cursor) {
+        return service.purchase(carts.get(cursor.advance()), true, true);
+    }
+}
@@ -0,0 +1,64 @@
+package store.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import store.domain.store.domain.Promotion;
+import store.domain.store.domain.Receipt;
+import store.domain.store.domain.Receipt.NormalPurchaseInfo;
+import store.domain.store.domain.ReceiptItem;
+
+/**
+ * 장바구니 크기에 따른 Receipt.of 생성 비용을 측정한다.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ReceiptBenchmark {
+    private static final int PRICE = 1_000;
+    private static final int QUANTITY = 3;
+
+    @Param({"1", "10", "100", "1000"})
+    int cartSize;
+
+    private List<ReceiptItem> items;
+    private List<ReceiptItem> freeItems;
+    private Map<String, Promotion> promotionMap;
+    private Map<String, NormalPurchaseInfo> normalPurchaseMap;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        items = new ArrayList<>(cartSize);
+        freeItems = new ArrayList<>();
+        promotionMap = new HashMap<>();
+        normalPurchaseMap = new HashMap<>();
+        Promotion promotion = CatalogFixture.promotions().get(0);
+
+        for (int i = 0; i < cartSize; i++) {
+            String name = CatalogFixture.productName(i);
+            items.add(ReceiptItem.of(name, QUANTITY, PRICE));
+            if (i % 3 == 0) {
+                freeItems.add(ReceiptItem.createFreeItem(name, 1));
+                promotionMap.put(name, promotion);
+            } else {
+                normalPurchaseMap.put(name, new NormalPurchaseInfo(QUANTITY, QUANTITY * PRICE));
+            }
+        }
+    }
+
+    @Benchmark
+    public Receipt receipt() {
+        return Receipt.of(items, freeItems, true, promotionMap, normalPurchaseMap);
+    }
+}
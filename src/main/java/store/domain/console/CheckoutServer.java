@@ -0,0 +1,290 @@
+package store.domain.console;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import store.domain.console.util.CommandReader;
+import store.domain.console.util.CommandWriter;
+import store.domain.store.presentation.StoreController;
+import store.domain.store.service.StoreService;
+
+/**
+ * 로컬 TCP 포트나 유닉스 도메인 소켓으로 여러 계산대 세션을 동시에 받는 서버.
+ *
+ * <p>연결마다 가상 스레드 하나에서 기존 StoreConsole 대화를 그대로 실행한다.
+ * 모든 세션은 하나의 StoreController와 상품/프로모션 저장소를 공유하므로 재고는 세션 사이에서도 일관되게 차감된다.
+ * 입력을 기다리는 세션은 가상 스레드가 캐리어 스레드를 놓아주고, 세션마다 작은 읽기 버퍼만 가지므로
+ * 대기 중인 세션이 많아도 비용이 거의 들지 않는다.
+ *
+ * <p>클라이언트는 콘솔과 같이 한 줄에 입력 하나를 UTF-8로 보내고, 출력은 화면 단위로 받는다.
+ * 한 줄은 store.server.max-line-bytes 시스템 속성(기본 64KB)을 넘을 수 없고, 넘으면 [ERROR]를 보내고 세션을 끝낸다.
+ * 재고 기록이나 영수증 저장소가 실패해 구매를 처리할 수 없을 때도 [ERROR]를 보내고 그 세션만 끝낸다.
+ * 세션이 끝나면 연결을 닫는다.
+ */
+public final class CheckoutServer implements AutoCloseable {
+    private static final String USAGE = "[ERROR] 사용법: CheckoutServer (--port N | --unix <소켓 파일>)";
+    private static final String LISTENING_MESSAGE = "계산대 서버가 %s에서 연결을 기다립니다.";
+    private static final String MAX_LINE_BYTES_PROPERTY = "store.server.max-line-bytes";
+    private static final int DEFAULT_MAX_LINE_BYTES = 64 * 1024;
+    private static final String ERROR_PREFIX = "[ERROR]";
+    private static final String ERROR_SESSION_FAILED = "[ERROR] 요청을 처리하지 못해 세션을 종료합니다.";
+
+    private final ServerSocketChannel serverChannel;
+    private final Path socketFile;
+    private final StoreController controller;
+    private final int maxLineBytes;
+    private final Set<SocketChannel> sessions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger sessionIds = new AtomicInteger();
+
+    private CheckoutServer(ServerSocketChannel serverChannel, Path socketFile, StoreController controller) {
+        this.serverChannel = serverChannel;
+        this.socketFile = socketFile;
+        this.controller = controller;
+        this.maxLineBytes = Math.max(1, Integer.getInteger(MAX_LINE_BYTES_PROPERTY, DEFAULT_MAX_LINE_BYTES));
+    }
+
+    /**
+     * 루프백 주소의 TCP 포트에서 연결을 받는 서버를 연다.
+     *
+     * @param port 포트 번호 (0이면 비어 있는 포트)
+     * @param controller 모든 세션이 공유할 컨트롤러
+     * @return 열린 서버
+     */
+    public static CheckoutServer openTcp(final int port, final StoreController controller) throws IOException {
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        return new CheckoutServer(channel, null, controller);
+    }
+
+    /**
+     * 유닉스 도메인 소켓 파일에서 연결을 받는 서버를 연다. 이전 실행이 남긴 소켓 파일은 지운다.
+     *
+     * @param socketFile 소켓 파일 경로
+     * @param controller 모든 세션이 공유할 컨트롤러
+     * @return 열린 서버
+     */
+    public static CheckoutServer openUnix(final Path socketFile, final StoreController controller)
+            throws IOException {
+        Files.deleteIfExists(socketFile);
+        ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        channel.bind(UnixDomainSocketAddress.of(socketFile));
+        return new CheckoutServer(channel, socketFile, controller);
+    }
+
+    /**
+     * 싱글톤 저장소를 공유하는 서버를 열고 종료될 때까지 연결을 받는다.
+     * 사용법: CheckoutServer (--port N | --unix &lt;소켓 파일&gt;)
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException(USAGE);
+        }
+        StoreController controller = StoreController.getInstance(StoreService.getInstance());
+        try (CheckoutServer server = open(args[0], args[1], controller)) {
+            System.out.printf(LISTENING_MESSAGE + "%n", server.address());
+            server.serve();
+        }
+    }
+
+    private static CheckoutServer open(String option, String value, StoreController controller) throws IOException {
+        if (option.equals("--unix")) {
+            return openUnix(Path.of(value), controller);
+        }
+        if (option.equals("--port")) {
+            try {
+                return openTcp(Integer.parseInt(value), controller);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(USAGE, e);
+            }
+        }
+        throw new IllegalArgumentException(USAGE);
+    }
+
+    public SocketAddress address() throws IOException {
+        return serverChannel.getLocalAddress();
+    }
+
+    /**
+     * 서버가 닫힐 때까지 연결을 받아 연결마다 가상 스레드에서 세션을 실행한다.
+     */
+    public void serve() throws IOException {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            }
+            sessions.add(channel);
+            Thread.ofVirtual()
+                    .name("checkout-session-" + sessionIds.incrementAndGet())
+                    .start(() -> runSession(channel));
+        }
+    }
+
+    /**
+     * 현재 연결된 세션 수를 반환한다.
+     */
+    public int activeSessions() {
+        return sessions.size();
+    }
+
+    private void runSession(SocketChannel channel) {
+        try (channel) {
+            ChannelLineReader lines = new ChannelLineReader(channel, maxLineBytes);
+            CommandWriter writer = CommandWriter.to(screen -> writeFully(channel, screen));
+            try {
+                StoreConsole.of(controller, CommandReader.of(lines::readLine), writer).run();
+            } catch (IllegalStateException e) {
+                // 재고 기록이나 영수증 저장에 실패한 경우로, 다른 세션은 그대로 두고 이 세션에만 알린 뒤 끝낸다
+                writer.write(errorMessageOf(e));
+                writer.flush();
+            }
+            lines.finish();
+        } catch (NoSuchElementException | UncheckedIOException | IOException e) {
+            // 클라이언트가 입력 도중 연결을 끊은 경우로, 이 세션만 정리한다
+        } finally {
+            sessions.remove(channel);
+        }
+    }
+
+    private static String errorMessageOf(IllegalStateException e) {
+        if (e.getMessage() != null && e.getMessage().startsWith(ERROR_PREFIX)) {
+            return e.getMessage();
+        }
+        return ERROR_SESSION_FAILED;
+    }
+
+    private static void writeFully(SocketChannel channel, String screen) {
+        ByteBuffer bytes = ByteBuffer.wrap(screen.getBytes(StandardCharsets.UTF_8));
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 연결 받기를 멈추고 남아 있는 세션의 연결을 모두 닫는다.
+     */
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        for (SocketChannel channel : sessions) {
+            channel.close();
+        }
+        if (socketFile != null) {
+            Files.deleteIfExists(socketFile);
+        }
+    }
+
+    /**
+     * 소켓에서 UTF-8 줄을 하나씩 읽는다.
+     * 대기 중인 세션의 메모리를 줄이기 위해 작은 버퍼 하나만 사용하고, 긴 줄을 받을 때만 줄 버퍼를 최대 길이까지 늘린다.
+     */
+    private static final class ChannelLineReader {
+        private static final int READ_BUFFER_BYTES = 256;
+        private static final String ERROR_LINE_TOO_LONG = "[ERROR] 입력 한 줄은 %d바이트를 넘을 수 없습니다.";
+
+        private final SocketChannel channel;
+        private final int maxLineBytes;
+        private final ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES).flip();
+        private byte[] line = new byte[64];
+        private int length;
+
+        private ChannelLineReader(SocketChannel channel, int maxLineBytes) {
+            this.channel = channel;
+            this.maxLineBytes = maxLineBytes;
+        }
+
+        /**
+         * 다음 줄을 읽는다. 줄 끝의 \r\n 또는 \n은 제외한다.
+         * 최대 길이를 넘는 줄은 콘솔이 [ERROR]를 출력하고 세션을 끝내도록 IllegalArgumentException을 던진다.
+         *
+         * @throws NoSuchElementException 더 읽을 줄이 없는 경우
+         * @throws IllegalArgumentException 줄이 최대 길이를 넘는 경우
+         */
+        private String readLine() {
+            length = 0;
+            while (true) {
+                while (buffer.hasRemaining()) {
+                    byte value = buffer.get();
+                    if (value == '\n') {
+                        return decode();
+                    }
+                    append(value);
+                }
+                if (!fill()) {
+                    if (length > 0) {
+                        return decode();
+                    }
+                    throw new NoSuchElementException("No line found");
+                }
+            }
+        }
+
+        /**
+         * 출력을 닫고, 이미 도착했지만 읽지 않은 입력을 기다리지 않고 최대 줄 길이만큼 버린다.
+         * 읽지 않은 입력을 남긴 채 닫으면 연결이 재설정되어 클라이언트가 마지막 화면을 받지 못할 수 있다.
+         */
+        private void finish() throws IOException {
+            channel.shutdownOutput();
+            channel.configureBlocking(false);
+            int discarded = 0;
+            int read;
+            do {
+                buffer.clear();
+                read = channel.read(buffer);
+                discarded += read;
+            } while (read > 0 && discarded < maxLineBytes);
+        }
+
+        private boolean fill() {
+            buffer.clear();
+            try {
+                int read = channel.read(buffer);
+                return read >= 0;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                buffer.flip();
+            }
+        }
+
+        private void append(byte value) {
+            if (length == maxLineBytes) {
+                throw new IllegalArgumentException(String.format(ERROR_LINE_TOO_LONG, maxLineBytes));
+            }
+            if (length == line.length) {
+                line = Arrays.copyOf(line, Math.min(length * 2, maxLineBytes));
+            }
+            line[length++] = value;
+        }
+
+        private String decode() {
+            int end = length;
+            if (end > 0 && line[end - 1] == '\r') {
+                end--;
+            }
+            return new String(line, 0, end, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -1,14 +1,14 @@
 package store.domain.console;
 
-import java.util.AbstractMap;
-import java.util.Arrays;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 import store.domain.console.util.CommandReader;
 import store.domain.console.util.CommandWriter;
+import store.domain.console.util.InputScanner;
+import store.domain.console.util.LineTemplate;
 import store.domain.store.dto.request.PurchaseRequest;
 import store.domain.store.dto.response.PurchaseResponse;
+import store.domain.store.dto.response.QuoteLineResponse;
 import store.domain.store.dto.response.ReceiptResponse;
 import store.domain.store.presentation.StoreController;
 import store.domain.store.service.StoreService;
@@ -17,41 +17,74 @@ import store.domain.store.dto.response.ProductResponse;
 public class StoreConsole {
     private static final String WELCOME_MESSAGE = "안녕하세요. W편의점입니다.";
     private static final String PRODUCT_LIST_MESSAGE = "현재 보유하고 있는 상품입니다.";
-    private static final String PRODUCT_FORMAT = "- %s %,d원 %s%s";
+    private static final LineTemplate PRODUCT_FORMAT = LineTemplate.compile("- %s %,d원 %s%s");
     private static final String PURCHASE_INPUT_MESSAGE =
             "\n구매하실 상품명과 수량을 입력해 주세요. (예: [사이다-2],[감자칩-1])";
-    private static final String PROMOTION_CONFIRM_MESSAGE =
-            "\n현재 %s은(는) %d개를 무료로  받을 수 있습니다. 추가하시겠습니까? (Y/N)";
-    private static final String NORMAL_PURCHASE_CONFIRM_MESSAGE =
-            "\n현재 %s %d개는 프로모션 할인이 적용되지 않습니다. 그래도 구매하시겠습니까? (Y/N)";
+    private static final LineTemplate PROMOTION_CONFIRM_MESSAGE = LineTemplate.compile(
+            "\n현재 %s은(는) %d개를 무료로  받을 수 있습니다. 추가하시겠습니까? (Y/N)");
+    private static final LineTemplate NORMAL_PURCHASE_CONFIRM_MESSAGE = LineTemplate.compile(
+            "\n현재 %s %d개는 프로모션 할인이 적용되지 않습니다. 그래도 구매하시겠습니까? (Y/N)");
     private static final String MEMBERSHIP_CONFIRM_MESSAGE = "\n멤버십 할인을 받으시겠습니까? (Y/N)";
-    private static final String ERROR_INVALID_INPUT = "[ERROR] 입력이 올바르지 않습니다.";
+    private static final String ERROR_INVALID_INPUT = "[ERROR] 입력이 올바르지 않습니다. (%d번째 글자)";
     private static final String RECEIPT_HEADER = "\n===========W 편의점=============";
+    private static final LineTemplate RECEIPT_ID_FORMAT = LineTemplate.compile("영수증 번호\t\t%d");
     private static final String RECEIPT_ITEMS_HEADER = "상품명\t\t수량\t금액";
     private static final String RECEIPT_FREE_HEADER = "===========증\t정=============";
     private static final String RECEIPT_FOOTER = "==============================";
-    private static final String RECEIPT_ITEM_FORMAT = "%s\t\t%d\t%,d";
-    private static final String RECEIPT_FREE_FORMAT = "%s\t\t%d";
-    private static final String RECEIPT_TOTAL_FORMAT = "총구매액\t\t%d\t%,d";
-    private static final String RECEIPT_DISCOUNT_FORMAT = "%s\t\t\t-%,d";
-    private static final String RECEIPT_FINAL_FORMAT = "내실돈\t\t\t %,d";
+    private static final LineTemplate RECEIPT_ITEM_FORMAT = LineTemplate.compile("%s\t\t%d\t%,d");
+    private static final LineTemplate RECEIPT_FREE_FORMAT = LineTemplate.compile("%s\t\t%d");
+    private static final LineTemplate RECEIPT_TOTAL_FORMAT = LineTemplate.compile("총구매액\t\t%d\t%,d");
+    private static final LineTemplate RECEIPT_DISCOUNT_FORMAT = LineTemplate.compile("%s\t\t\t-%,d");
+    private static final LineTemplate RECEIPT_FINAL_FORMAT = LineTemplate.compile("내실돈\t\t\t %,d");
     private static final String CONTINUE_SHOPPING_MESSAGE = "\n감사합니다. 구매하고 싶은 다른 상품  있나요? (Y/N)";
 
-    private final StoreController controller = StoreController.getInstance(StoreService.getInstance());
+    private final StoreController controller;
+    private final CommandReader reader;
+    private final CommandWriter writer;
+    private final InputScanner inputScanner = InputScanner.create();
+
+    public StoreConsole() {
+        this(StoreController.getInstance(StoreService.getInstance()), CommandReader.console(), CommandWriter.console());
+    }
+
+    private StoreConsole(StoreController controller, CommandReader reader, CommandWriter writer) {
+        this.controller = controller;
+        this.reader = reader;
+        this.writer = writer;
+    }
+
+    /**
+     * 주어진 컨트롤러와 입출력으로 동작하는 콘솔을 생성한다.
+     * 기록된 입력을 재생하거나 여러 매장을 동시에 구동할 때 싱글톤과 분리된 콘솔이 필요한 경우에 사용한다.
+     *
+     * @param controller 사용할 컨트롤러
+     * @param reader 입력을 읽을 리더
+     * @param writer 출력을 쓸 라이터
+     * @return 생성된 콘솔
+     */
+    public static StoreConsole of(
+            final StoreController controller,
+            final CommandReader reader,
+            final CommandWriter writer
+    ) {
+        return new StoreConsole(controller, reader, writer);
+    }
 
     public void run() {
         try {
             do {
                 processPurchase();
-                CommandWriter.write(CONTINUE_SHOPPING_MESSAGE);
+                writer.write(CONTINUE_SHOPPING_MESSAGE);
             } while (readYesNo());
         } catch (IllegalArgumentException e) {
-            CommandWriter.write(e.getMessage());
+            writer.write(e.getMessage());
+        } finally {
+            writer.flush();
         }
     }
 
     private void processPurchase() {
-        CommandWriter.write(WELCOME_MESSAGE);
+        writer.write(WELCOME_MESSAGE);
         printProductList();
 
         List<PurchaseRequest> requests = inputPurchaseRequests();
@@ -63,8 +96,8 @@ public class StoreConsole {
     }
 
     private void printProductList() {
-        CommandWriter.write(PRODUCT_LIST_MESSAGE);
-        CommandWriter.write("");
+        writer.write(PRODUCT_LIST_MESSAGE);
+        writer.write("");
         List<ProductResponse> products = controller.getProducts();
 
         for (ProductResponse product : products) {
@@ -73,7 +106,7 @@ public class StoreConsole {
                 promotionMark = " " + product.getPromotionName();
             }
 
-            CommandWriter.writeFormat(PRODUCT_FORMAT,
+            writer.writeFormat(PRODUCT_FORMAT,
                     product.getName(),
                     product.getPrice(),
                     product.getQuantity(),
@@ -82,47 +115,48 @@ public class StoreConsole {
     }
 
     private List<PurchaseRequest> inputPurchaseRequests() {
-        CommandWriter.write(PURCHASE_INPUT_MESSAGE);
-        String input = CommandReader.read();
-
+        writer.write(PURCHASE_INPUT_MESSAGE);
+        String input = readLine();
 
-        String pattern = "\\[([^-]+-\\d+)\\](,\\[([^-]+-\\d+)\\])*";
-        if (!input.matches(pattern)) {
-            throw new IllegalArgumentException(ERROR_INVALID_INPUT);
+        if (!inputScanner.scanCart(input)) {
+            throw invalidInput();
         }
 
-        return parseRequests(input);
+        return parseRequests();
     }
 
-    private List<PurchaseRequest> parseRequests(String input) {
-        return Arrays.stream(input.split(","))
-                .map(request -> request.replaceAll("[\\[\\]]", ""))
-                .map(request -> request.split("-"))
-                .map(parts -> PurchaseRequest.of(parts[0], Integer.parseInt(parts[1])))
-                .collect(Collectors.toList());
+    // 입력을 검사하며 기록해 둔 상품명 위치와 수량으로 요청을 만든다. 상품명 구간을 문자열로 잘라내지 않는다
+    private List<PurchaseRequest> parseRequests() {
+        CharSequence input = inputScanner.input();
+        List<PurchaseRequest> requests = new ArrayList<>(inputScanner.itemCount());
+        for (int i = 0; i < inputScanner.itemCount(); i++) {
+            requests.add(controller.createPurchaseRequest(input,
+                    inputScanner.itemNameStart(i), inputScanner.itemNameEnd(i), inputScanner.itemQuantity(i)));
+        }
+        return requests;
     }
 
     private boolean confirmPromotionUse(List<PurchaseRequest> requests) {
-        for (PurchaseRequest request : requests) {
+        // 장바구니 전체의 확인 사항을 한 번에 조회한다
+        List<QuoteLineResponse> lines = controller.quote(requests).getLines();
+        for (int i = 0; i < lines.size(); i++) {
+            QuoteLineResponse line = lines.get(i);
             // 먼저 프로모션 적용되지 않는 수량이 있는지 체크
-            int normalQuantity = controller.getNormalPurchaseQuantity(request.getProductName(), request.getQuantity());
-            if (normalQuantity > 0) {
-                CommandWriter.writeFormat(NORMAL_PURCHASE_CONFIRM_MESSAGE,
-                        request.getProductName(), normalQuantity);
+            if (line.needsNormalPurchaseConfirm()) {
+                writer.writeFormat(NORMAL_PURCHASE_CONFIRM_MESSAGE,
+                        line.getProductName(), line.getNormalPurchaseQuantity());
                 if (!readYesNo()) {
                     return false;
                 }
             }
 
             // 그 다음 프로모션 적용 확인
-            if (controller.canAddPromotionPurchase(request.getProductName(), request.getQuantity())) {
-                int freeCount = controller.getPromotionFreeCount(request.getProductName());
-                
-                CommandWriter.writeFormat(PROMOTION_CONFIRM_MESSAGE,
-                        request.getProductName(), freeCount);
+            if (line.canAddFreeQuantity()) {
+                writer.writeFormat(PROMOTION_CONFIRM_MESSAGE,
+                        line.getProductName(), line.getAdditionalFreeQuantity());
                 boolean usePromotion = readYesNo();
                 if (usePromotion) {
-                    request.addPromotionQuantity(freeCount);
+                    requests.get(i).addPromotionQuantity(line.getAdditionalFreeQuantity());
                 }
                 return usePromotion;
             }
@@ -131,51 +165,53 @@ public class StoreConsole {
     }
 
     private boolean confirmMembership() {
-        CommandWriter.write(MEMBERSHIP_CONFIRM_MESSAGE);
+        writer.write(MEMBERSHIP_CONFIRM_MESSAGE);
         return readYesNo();
     }
 
     private boolean readYesNo() {
-        String input = CommandReader.read().toUpperCase();
-        if (!input.matches("[YN]")) {
-            throw new IllegalArgumentException(ERROR_INVALID_INPUT);
+        int answer = inputScanner.scanYesNo(readLine());
+        if (answer == InputScanner.INVALID) {
+            throw invalidInput();
         }
-        return input.equals("Y");
+        return answer == InputScanner.YES;
+    }
+
+    // 처음 어긋난 위치를 1부터 세어 알려준다
+    private IllegalArgumentException invalidInput() {
+        return new IllegalArgumentException(String.format(ERROR_INVALID_INPUT, inputScanner.errorPosition() + 1));
+    }
+
+    // 입력을 기다리기 전에 지금까지 모은 화면을 한 번에 출력한다
+    private String readLine() {
+        writer.flush();
+        return reader.read();
     }
 
     private void printReceipt(ReceiptResponse receipt) {
-        CommandWriter.write(RECEIPT_HEADER);
-        CommandWriter.write(RECEIPT_ITEMS_HEADER);
+        writer.write(RECEIPT_HEADER);
+        // 영수증 저장소가 꺼져 있으면 번호가 없으므로 출력하지 않는다
+        if (receipt.getReceiptId() != ReceiptResponse.NOT_STORED) {
+            writer.writeFormat(RECEIPT_ID_FORMAT, receipt.getReceiptId());
+        }
+        writer.write(RECEIPT_ITEMS_HEADER);
         
-        receipt.getItems().stream()
-               .collect(Collectors.groupingBy(
-                   PurchaseResponse::getName,
-                   LinkedHashMap::new,  // 순서 유지를 위해 LinkedHashMap 사용
-                   Collectors.collectingAndThen(
-                       Collectors.toList(),
-                       items -> {
-                           int totalQuantity = items.stream().mapToInt(PurchaseResponse::getQuantity).sum();
-                           int totalAmount = items.stream().mapToInt(PurchaseResponse::getAmount).sum();
-                           return new AbstractMap.SimpleEntry<>(totalQuantity, totalAmount);
-                       }
-                   )
-               ))
-               .forEach((name, entry) -> 
-                   CommandWriter.writeFormat(RECEIPT_ITEM_FORMAT,
-                       name, entry.getKey(), entry.getValue())
-               );
+        // 같은 상품이 여러 줄로 나뉘어 있어도 상품명별로 합산해 출력
+        receipt.getGroupedItems().forEach(item ->
+                writer.writeFormat(RECEIPT_ITEM_FORMAT,
+                        item.getName(), item.getQuantity(), item.getAmount()));
 
         if (!receipt.getFreeItems().isEmpty()) {
-            CommandWriter.write(RECEIPT_FREE_HEADER);
+            writer.write(RECEIPT_FREE_HEADER);
             receipt.getFreeItems().forEach(this::printFreeItem);
         }
 
-        CommandWriter.write(RECEIPT_FOOTER);
+        writer.write(RECEIPT_FOOTER);
         printAmountInfo(receipt);
     }
 
     private void printFreeItem(PurchaseResponse item) {
-        CommandWriter.writeFormat(RECEIPT_FREE_FORMAT,
+        writer.writeFormat(RECEIPT_FREE_FORMAT,
                 item.getName(), item.getQuantity());
     }
 
@@ -185,14 +221,14 @@ public class StoreConsole {
                 .mapToInt(PurchaseResponse::getQuantity)
                 .sum();
         
-        CommandWriter.writeFormat(RECEIPT_TOTAL_FORMAT, 
+        writer.writeFormat(RECEIPT_TOTAL_FORMAT, 
                 totalQuantity, receipt.getTotalAmount());
         
-        CommandWriter.writeFormat(RECEIPT_DISCOUNT_FORMAT, 
+        writer.writeFormat(RECEIPT_DISCOUNT_FORMAT, 
                 "행사할인", receipt.getPromotionDiscountAmount());
-        CommandWriter.writeFormat(RECEIPT_DISCOUNT_FORMAT, 
+        writer.writeFormat(RECEIPT_DISCOUNT_FORMAT, 
                 "멤버십할인", receipt.getMembershipDiscountAmount());
         
-        CommandWriter.writeFormat(RECEIPT_FINAL_FORMAT, receipt.getFinalAmount());
+        writer.writeFormat(RECEIPT_FINAL_FORMAT, receipt.getFinalAmount());
     }
 }
\ No newline at end of file
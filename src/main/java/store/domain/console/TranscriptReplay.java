@@ -0,0 +1,207 @@
+package store.domain.console;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import store.domain.console.util.CommandReader;
+import store.domain.console.util.CommandWriter;
+import store.domain.store.dao.ProductRepository;
+import store.domain.store.dao.PromotionRepository;
+import store.domain.store.domain.Product;
+import store.domain.store.domain.Promotion;
+import store.domain.store.presentation.StoreController;
+import store.domain.store.service.StoreServiceImpl;
+import store.domain.store.util.ResourceLoader;
+import store.global.metrics.StoreMetrics;
+
+/**
+ * 기록된 세션 입력을 화면 없이 StoreConsole에 흘려 넣어 실제 대화 흐름 전체의 처리량을 측정한다.
+ *
+ * <p>입력 기록 파일은 ApplicationTest의 run(...)에 넘기는 입력과 같은 형식으로, 한 줄이 한 번의 입력이다.
+ * 세션마다 상품/프로모션 저장소부터 콘솔까지 새로 만들어 다른 세션의 재고에 영향을 주지 않는다.
+ * 세션의 영수증은 기록하지 않으므로 기본 매장의 영수증 기록이나 저장소에 섞이지 않는다.
+ * 지연 시간과 상품 조회 횟수는 모든 세션이 JMX에 등록된 지표 저장소에 함께 센다.
+ * 여러 세션을 스레드 풀에서 동시에 실행한 뒤 초당 세션 수와 세션 지연 시간 백분위를 출력한다.
+ * 지연 시간은 저장소를 만든 뒤 콘솔이 첫 입력을 읽기 시작해서 세션이 끝날 때까지의 시간이다.
+ */
+public final class TranscriptReplay {
+    private static final String USAGE =
+            "[ERROR] 사용법: TranscriptReplay [--threads N] [--repeat N] [--print] <입력 기록 파일>...";
+    private static final String SUMMARY_FORMAT = "세션 %d개 (입력이 모자라 끝나지 않은 세션 %d개), 스레드 %d개, %.1f 세션/초";
+    private static final String LATENCY_FORMAT = "세션 지연 시간(ms) p50 %.3f, p90 %.3f, p99 %.3f, 최대 %.3f";
+
+    private final List<Product> products;
+    private final List<Promotion> promotions;
+
+    private TranscriptReplay(List<Product> products, List<Promotion> promotions) {
+        this.products = products;
+        this.promotions = promotions;
+    }
+
+    /**
+     * 클래스패스의 상품/프로모션 파일로 세션을 만드는 재생기를 생성한다.
+     * 파일은 한 번만 읽고, 세션마다 읽어 둔 목록으로 새 저장소를 만든다.
+     */
+    public static TranscriptReplay fromResources() {
+        return new TranscriptReplay(ResourceLoader.loadProducts(), ResourceLoader.loadPromotions());
+    }
+
+    /**
+     * 입력 기록 파일들을 재생하고 결과를 출력한다.
+     * 사용법: TranscriptReplay [--threads N] [--repeat N] [--print] &lt;입력 기록 파일&gt;...
+     */
+    public static void main(String[] args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int repeat = 1;
+        boolean print = false;
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> threads = parsePositive(args, ++i);
+                case "--repeat" -> repeat = parsePositive(args, ++i);
+                case "--print" -> print = true;
+                default -> files.add(Path.of(args[i]));
+            }
+        }
+        if (files.isEmpty()) {
+            throw new IllegalArgumentException(USAGE);
+        }
+
+        List<List<String>> transcripts = new ArrayList<>();
+        for (int round = 0; round < repeat; round++) {
+            for (Path file : files) {
+                transcripts.add(Files.readAllLines(file, StandardCharsets.UTF_8));
+            }
+        }
+        Report report = fromResources().replayAll(transcripts, threads);
+        if (print) {
+            report.sessions().forEach(session -> System.out.print(session.output()));
+        }
+        System.out.printf(SUMMARY_FORMAT + "%n", report.sessions().size(), report.incompleteCount(), threads,
+                report.sessionsPerSecond());
+        System.out.printf(LATENCY_FORMAT + "%n", report.percentileMillis(50), report.percentileMillis(90),
+                report.percentileMillis(99), report.percentileMillis(100));
+    }
+
+    /**
+     * 세션 하나를 새 저장소에서 재생한다.
+     *
+     * @param inputs 순서대로 입력할 줄 목록
+     * @return 세션의 출력과 지연 시간
+     */
+    public Session replay(List<String> inputs) {
+        StoreController controller = StoreController.of(StoreServiceImpl.of(
+                ProductRepository.from(products, StoreMetrics.getInstance()),
+                PromotionRepository.from(promotions)
+        ));
+        StringBuilder output = new StringBuilder();
+        StoreConsole console = StoreConsole.of(controller, CommandReader.from(inputs),
+                CommandWriter.to(output::append));
+
+        long start = System.nanoTime();
+        boolean completed = true;
+        try {
+            console.run();
+        } catch (NoSuchElementException e) {
+            completed = false;
+        }
+        return new Session(output.toString(), System.nanoTime() - start, completed);
+    }
+
+    /**
+     * 여러 세션을 주어진 수의 스레드에서 동시에 재생한다.
+     *
+     * @param transcripts 세션별 입력 목록
+     * @param threads 동시에 재생할 스레드 수
+     * @return 입력 순서대로 정렬된 세션 결과와 전체 소요 시간
+     */
+    public Report replayAll(List<List<String>> transcripts, int threads) {
+        List<Callable<Session>> tasks = transcripts.stream()
+                .<Callable<Session>>map(inputs -> () -> replay(inputs))
+                .toList();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Session> sessions = new ArrayList<>(tasks.size());
+            for (Future<Session> future : executor.invokeAll(tasks)) {
+                sessions.add(future.get());
+            }
+            return new Report(sessions, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("[ERROR] 세션 재생이 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("[ERROR] 세션 재생에 실패했습니다.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int parsePositive(String[] args, int index) {
+        try {
+            int value = Integer.parseInt(args[index]);
+            if (value > 0) {
+                return value;
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException(USAGE, e);
+        }
+        throw new IllegalArgumentException(USAGE);
+    }
+
+    /**
+     * 재생한 세션 하나의 결과.
+     *
+     * @param output 콘솔에 출력된 내용
+     * @param elapsedNanos 세션 지연 시간
+     * @param completed 입력이 모자라지 않고 세션이 끝났는지 여부
+     */
+    public record Session(String output, long elapsedNanos, boolean completed) {
+    }
+
+    /**
+     * 여러 세션을 재생한 결과.
+     *
+     * @param sessions 입력 순서대로 정렬된 세션 결과
+     * @param elapsedNanos 전체 소요 시간
+     */
+    public record Report(List<Session> sessions, long elapsedNanos) {
+
+        public long incompleteCount() {
+            return sessions.stream()
+                    .filter(session -> !session.completed())
+                    .count();
+        }
+
+        public double sessionsPerSecond() {
+            return sessions.size() * 1_000_000_000.0 / Math.max(1, elapsedNanos);
+        }
+
+        /**
+         * 세션 지연 시간의 백분위 값을 밀리초로 반환한다(nearest-rank).
+         *
+         * @param percentile 0 초과 100 이하의 백분위
+         */
+        public double percentileMillis(double percentile) {
+            if (sessions.isEmpty()) {
+                return 0;
+            }
+            long[] latencies = sessions.stream()
+                    .mapToLong(Session::elapsedNanos)
+                    .toArray();
+            Arrays.sort(latencies);
+            int rank = (int) Math.ceil(percentile / 100 * latencies.length);
+            return latencies[Math.max(0, rank - 1)] / 1_000_000.0;
+        }
+    }
+}
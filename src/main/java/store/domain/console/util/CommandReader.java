@@ -1,9 +1,60 @@
 package store.domain.console.util;
 
 import camp.nextstep.edu.missionutils.Console;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
 
+/**
+ * 사용자 입력을 한 줄씩 읽는다.
+ * 기본은 콘솔에서 읽고, 기록된 입력을 재생할 때는 주어진 줄을 순서대로 돌려준다.
+ */
 public final class CommandReader {
-    public static String read() {
-        return Console.readLine();
+    private static final CommandReader CONSOLE = new CommandReader(Console::readLine);
+
+    private final Supplier<String> source;
+
+    private CommandReader(Supplier<String> source) {
+        this.source = source;
+    }
+
+    /**
+     * 콘솔에서 입력을 읽는 리더를 반환한다.
+     */
+    public static CommandReader console() {
+        return CONSOLE;
+    }
+
+    /**
+     * 주어진 줄을 순서대로 돌려주는 리더를 생성한다.
+     * 줄을 모두 읽은 뒤에는 콘솔 입력이 끝났을 때처럼 NoSuchElementException이 발생한다.
+     *
+     * @param lines 입력할 줄 목록
+     * @return 생성된 리더
+     */
+    public static CommandReader from(final List<String> lines) {
+        Iterator<String> iterator = lines.iterator();
+        return new CommandReader(() -> {
+            if (!iterator.hasNext()) {
+                throw new NoSuchElementException("No line found");
+            }
+            return iterator.next();
+        });
+    }
+
+    /**
+     * 주어진 공급자에서 한 줄씩 입력을 받는 리더를 생성한다.
+     * 입력이 끝나면 공급자는 NoSuchElementException을 던져야 한다.
+     *
+     * @param source 한 줄씩 입력을 돌려줄 공급자
+     * @return 생성된 리더
+     */
+    public static CommandReader of(final Supplier<String> source) {
+        return new CommandReader(source);
+    }
+
+    public String read() {
+        return source.get();
     }
 }
@@ -1,11 +1,64 @@
 package store.domain.console.util;
 
+import java.util.function.Consumer;
+
+/**
+ * 안내 문구와 결과를 한 줄씩 버퍼에 모았다가 화면 단위로 한 번에 출력한다.
+ * 기본은 표준 출력에 쓰고, 기록된 입력을 재생할 때는 주어진 곳으로 출력을 넘긴다.
+ * 버퍼를 재사용하므로 한 세션(한 스레드)에서만 사용해야 한다.
+ */
 public final class CommandWriter {
-    public static void write(final String message) {
-        System.out.println(message);
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final Consumer<String> sink;
+    private final StringBuilder buffer = new StringBuilder();
+
+    private CommandWriter(Consumer<String> sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * 표준 출력에 쓰는 라이터를 생성한다.
+     */
+    public static CommandWriter console() {
+        // 테스트가 표준 출력을 바꿔 끼워도 따라가도록 출력할 때마다 System.out을 읽는다
+        return new CommandWriter(screen -> {
+            System.out.print(screen);
+            System.out.flush();
+        });
+    }
+
+    /**
+     * 화면 단위로 모은 출력을 주어진 곳으로 넘기는 라이터를 생성한다.
+     * 넘겨지는 문자열은 줄바꿈으로 끝나는 여러 줄이다.
+     *
+     * @param sink 출력을 받을 곳
+     * @return 생성된 라이터
+     */
+    public static CommandWriter to(final Consumer<String> sink) {
+        return new CommandWriter(sink);
+    }
+
+    public void write(final String message) {
+        buffer.append(message).append(LINE_SEPARATOR);
+    }
+
+    /**
+     * 미리 해석해 둔 형식에 인자를 채워 한 줄을 쓴다.
+     */
+    public void writeFormat(LineTemplate template, Object... args) {
+        template.appendTo(buffer, args);
+        buffer.append(LINE_SEPARATOR);
     }
 
-    public static void writeFormat(String message, Object... args) {
-        write(String.format(message, args));
+    /**
+     * 모아 둔 출력을 한 번에 내보낸다. 입력을 기다리기 전과 세션이 끝날 때 호출한다.
+     */
+    public void flush() {
+        if (buffer.length() == 0) {
+            return;
+        }
+        sink.accept(buffer.toString());
+        buffer.setLength(0);
     }
 }
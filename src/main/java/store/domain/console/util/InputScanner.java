@@ -0,0 +1,187 @@
+package store.domain.console.util;
+
+import java.util.Arrays;
+
+/**
+ * 구매 입력([상품명-수량],[상품명-수량])과 Y/N 응답을 정규식 없이 한 번에 읽는다.
+ *
+ * <p>상품명의 위치와 수량은 재사용하는 int 배열에 기록하므로, 입력이 올바르면 객체를 만들지 않는다.
+ * 상품명은 문자열로 꺼내지 않고 input과 itemNameStart/itemNameEnd 구간으로 조회할 수 있다.
+ * 입력이 올바르지 않으면 예외 대신 false 또는 INVALID를 반환하고, 처음 어긋난 위치를 errorPosition으로 알려준다.
+ * 상품명은 '-', '[', ']', ','를 제외한 한 글자 이상이고 수량은 int 범위의 숫자다.
+ *
+ * <p>상태를 재사용하므로 한 세션(한 스레드)에서만 사용해야 한다.
+ */
+public final class InputScanner {
+    public static final int NO_ERROR = -1;
+    public static final int INVALID = -1;
+    public static final int NO = 0;
+    public static final int YES = 1;
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private CharSequence input;
+    private int[] nameStarts = new int[INITIAL_CAPACITY];
+    private int[] nameEnds = new int[INITIAL_CAPACITY];
+    private int[] quantities = new int[INITIAL_CAPACITY];
+    private int itemCount;
+    private int errorPosition = NO_ERROR;
+
+    private InputScanner() {
+    }
+
+    public static InputScanner create() {
+        return new InputScanner();
+    }
+
+    /**
+     * 구매 입력을 읽어 상품명 위치와 수량을 기록한다.
+     *
+     * @param input 구매 입력
+     * @return 입력이 올바른지 여부
+     */
+    public boolean scanCart(CharSequence input) {
+        this.input = input;
+        this.itemCount = 0;
+        this.errorPosition = NO_ERROR;
+        int length = input.length();
+        int position = 0;
+        do {
+            if (itemCount > 0) {
+                if (input.charAt(position) != ',') {
+                    errorPosition = position;
+                    return false;
+                }
+                position++;
+            }
+            position = scanItem(input, position, length);
+            if (position < 0) {
+                return false;
+            }
+        } while (position < length);
+        return true;
+    }
+
+    // [상품명-수량] 하나를 읽고 다음 위치를 반환한다. 올바르지 않으면 -1을 반환한다.
+    private int scanItem(CharSequence input, int start, int length) {
+        int position = start;
+        if (position >= length || input.charAt(position) != '[') {
+            return fail(position);
+        }
+        int nameStart = ++position;
+        while (position < length && isNameChar(input.charAt(position))) {
+            position++;
+        }
+        if (position == nameStart || position >= length || input.charAt(position) != '-') {
+            return fail(position);
+        }
+        int nameEnd = position++;
+        int digitStart = position;
+        long quantity = 0;
+        while (position < length && isDigit(input.charAt(position))) {
+            quantity = quantity * 10 + (input.charAt(position) - '0');
+            if (quantity > Integer.MAX_VALUE) {
+                return fail(position);
+            }
+            position++;
+        }
+        if (position == digitStart || position >= length || input.charAt(position) != ']') {
+            return fail(position);
+        }
+        append(nameStart, nameEnd, (int) quantity);
+        return position + 1;
+    }
+
+    /**
+     * Y/N 응답을 읽는다. 소문자도 허용한다.
+     *
+     * @param input 응답 입력
+     * @return YES, NO 또는 INVALID
+     */
+    public int scanYesNo(CharSequence input) {
+        this.errorPosition = NO_ERROR;
+        if (input.length() != 1) {
+            errorPosition = Math.min(input.length(), 1);
+            return INVALID;
+        }
+        char answer = Character.toUpperCase(input.charAt(0));
+        if (answer == 'Y') {
+            return YES;
+        }
+        if (answer == 'N') {
+            return NO;
+        }
+        errorPosition = 0;
+        return INVALID;
+    }
+
+    public int itemCount() {
+        return itemCount;
+    }
+
+    /**
+     * 마지막으로 읽은 구매 입력을 반환한다.
+     */
+    public CharSequence input() {
+        return input;
+    }
+
+    /**
+     * 마지막으로 읽은 구매 입력에서 index번째 상품명을 꺼낸다. 새 문자열을 만든다.
+     */
+    public String itemName(int index) {
+        return input.subSequence(nameStarts[index], nameEnds[index]).toString();
+    }
+
+    /**
+     * index번째 상품명이 input에서 시작하는 위치를 반환한다.
+     */
+    public int itemNameStart(int index) {
+        return nameStarts[index];
+    }
+
+    /**
+     * index번째 상품명이 input에서 끝나는 위치(포함하지 않음)를 반환한다.
+     */
+    public int itemNameEnd(int index) {
+        return nameEnds[index];
+    }
+
+    public int itemQuantity(int index) {
+        return quantities[index];
+    }
+
+    /**
+     * 마지막 입력에서 처음 어긋난 문자의 0부터 시작하는 위치를 반환한다. 입력이 올바랐으면 NO_ERROR다.
+     * 입력이 일찍 끝났으면 입력 길이를 반환한다.
+     */
+    public int errorPosition() {
+        return errorPosition;
+    }
+
+    private void append(int nameStart, int nameEnd, int quantity) {
+        if (itemCount == quantities.length) {
+            int capacity = itemCount * 2;
+            nameStarts = Arrays.copyOf(nameStarts, capacity);
+            nameEnds = Arrays.copyOf(nameEnds, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+        }
+        nameStarts[itemCount] = nameStart;
+        nameEnds[itemCount] = nameEnd;
+        quantities[itemCount] = quantity;
+        itemCount++;
+    }
+
+    private int fail(int position) {
+        errorPosition = position;
+        return -1;
+    }
+
+    private static boolean isNameChar(char value) {
+        return value != '-' && value != '[' && value != ']' && value != ',';
+    }
+
+    private static boolean isDigit(char value) {
+        return value >= '0' && value <= '9';
+    }
+}
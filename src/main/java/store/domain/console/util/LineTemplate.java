@@ -0,0 +1,123 @@
+package store.domain.console.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 출력 형식 문자열을 한 번만 해석해 두고, 줄을 만들 때마다 형식을 다시 해석하지 않고 버퍼에 바로 쓴다.
+ *
+ * <p>지원하는 변환은 %s, %d, 천 단위 구분 기호를 붙이는 %,d와 %% 뿐이다.
+ * 천 단위 구분 기호는 로케일과 관계없이 항상 ','를 사용한다.
+ */
+public final class LineTemplate {
+    private static final char TEXT = 's';
+    private static final char NUMBER = 'd';
+    private static final char GROUPED_NUMBER = ',';
+    private static final long[] POWERS_OF_TEN = powersOfTen();
+
+    private final String[] literals;
+    private final char[] conversions;
+
+    private LineTemplate(String[] literals, char[] conversions) {
+        this.literals = literals;
+        this.conversions = conversions;
+    }
+
+    /**
+     * 형식 문자열을 해석한다.
+     *
+     * @param format 형식 문자열
+     * @return 해석된 형식
+     * @throws IllegalArgumentException 지원하지 않는 변환이 있는 경우
+     */
+    public static LineTemplate compile(final String format) {
+        List<String> literals = new ArrayList<>();
+        StringBuilder conversions = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        int position = 0;
+        while (position < format.length()) {
+            char current = format.charAt(position++);
+            if (current != '%') {
+                literal.append(current);
+                continue;
+            }
+            if (format.startsWith("%", position)) {
+                literal.append('%');
+                position++;
+                continue;
+            }
+            char conversion = conversionAt(format, position);
+            position += conversion == GROUPED_NUMBER ? 2 : 1;
+            literals.add(literal.toString());
+            literal.setLength(0);
+            conversions.append(conversion);
+        }
+        literals.add(literal.toString());
+        return new LineTemplate(literals.toArray(String[]::new), conversions.toString().toCharArray());
+    }
+
+    private static char conversionAt(String format, int position) {
+        if (format.startsWith("s", position)) {
+            return TEXT;
+        }
+        if (format.startsWith("d", position)) {
+            return NUMBER;
+        }
+        if (format.startsWith(",d", position)) {
+            return GROUPED_NUMBER;
+        }
+        throw new IllegalArgumentException("[ERROR] 지원하지 않는 출력 형식입니다: " + format);
+    }
+
+    /**
+     * 인자를 채운 줄을 버퍼에 이어 쓴다.
+     *
+     * @param out 출력 버퍼
+     * @param args 변환 순서대로의 인자. %d와 %,d에는 정수를 넘겨야 한다.
+     * @throws IllegalArgumentException 인자 수가 맞지 않는 경우
+     */
+    public void appendTo(StringBuilder out, Object... args) {
+        if (args.length != conversions.length) {
+            throw new IllegalArgumentException("[ERROR] 출력 형식의 인자 수가 맞지 않습니다.");
+        }
+        for (int i = 0; i < conversions.length; i++) {
+            out.append(literals[i]);
+            switch (conversions[i]) {
+                case TEXT -> out.append(args[i]);
+                case NUMBER -> out.append(((Number) args[i]).longValue());
+                default -> appendGrouped(out, ((Number) args[i]).longValue());
+            }
+        }
+        out.append(literals[conversions.length]);
+    }
+
+    /**
+     * 정수를 천 단위마다 ','를 넣어 버퍼에 이어 쓴다. 중간 문자열이나 배열을 만들지 않는다.
+     */
+    public static void appendGrouped(StringBuilder out, long value) {
+        // Long.MIN_VALUE도 부호를 바꿀 수 있도록 음수 범위에서 계산한다
+        long negative = value < 0 ? value : -value;
+        if (value < 0) {
+            out.append('-');
+        }
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && negative <= -POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        for (int place = digits - 1; place >= 0; place--) {
+            out.append((char) ('0' - negative / POWERS_OF_TEN[place] % 10));
+            if (place > 0 && place % 3 == 0) {
+                out.append(',');
+            }
+        }
+    }
+
+    private static long[] powersOfTen() {
+        long[] powers = new long[19];
+        powers[0] = 1;
+        for (int i = 1; i < powers.length; i++) {
+            powers[i] = powers[i - 1] * 10;
+        }
+        return powers;
+    }
+}
@@ -0,0 +1,101 @@
+package store.domain.store.dao;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * 번호로 접근하는 int 값의 열.
+ * 힙의 int 배열이나 힙 밖의 다이렉트 버퍼에 값을 연속으로 저장하고, 읽기/쓰기/compare-and-set은 VarHandle로 처리한다.
+ * 크기를 늘리는 작업은 저장소를 적재하는 동안 한 스레드에서만 호출해야 한다.
+ */
+final class IntColumn {
+    private static final VarHandle ARRAY = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle BUFFER = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final boolean offHeap;
+    private int[] array;
+    private ByteBuffer buffer;
+    private int capacity;
+
+    private IntColumn(boolean offHeap, int capacity) {
+        this.offHeap = offHeap;
+        this.capacity = capacity;
+        if (offHeap) {
+            this.buffer = ByteBuffer.allocateDirect(capacity * Integer.BYTES).order(ByteOrder.nativeOrder());
+        } else {
+            this.array = new int[capacity];
+        }
+    }
+
+    static IntColumn of(boolean offHeap, int capacity) {
+        return new IntColumn(offHeap, capacity);
+    }
+
+    /**
+     * 버퍼의 남은 값을 한 번에 복사해 열을 만든다. 값마다 set을 호출하지 않는다.
+     *
+     * @param offHeap 힙 밖의 다이렉트 버퍼에 둘지 여부
+     * @param values 복사할 값
+     */
+    static IntColumn copyOf(boolean offHeap, IntBuffer values) {
+        IntColumn column = new IntColumn(offHeap, values.remaining());
+        if (offHeap) {
+            column.buffer.asIntBuffer().put(values);
+        } else {
+            values.get(column.array);
+        }
+        return column;
+    }
+
+    int get(int index) {
+        if (offHeap) {
+            return (int) BUFFER.getVolatile(buffer, index * Integer.BYTES);
+        }
+        return (int) ARRAY.getVolatile(array, index);
+    }
+
+    void set(int index, int value) {
+        if (offHeap) {
+            BUFFER.setVolatile(buffer, index * Integer.BYTES, value);
+            return;
+        }
+        ARRAY.setVolatile(array, index, value);
+    }
+
+    boolean compareAndSet(int index, int expected, int updated) {
+        if (offHeap) {
+            return BUFFER.compareAndSet(buffer, index * Integer.BYTES, expected, updated);
+        }
+        return ARRAY.compareAndSet(array, index, expected, updated);
+    }
+
+    /**
+     * 앞에서부터 count개의 값을 버퍼에 한 번에 복사한다.
+     */
+    void copyTo(IntBuffer target, int count) {
+        if (offHeap) {
+            target.put(buffer.asIntBuffer().limit(count));
+        } else {
+            target.put(array, 0, count);
+        }
+    }
+
+    void ensureCapacity(int size) {
+        if (size <= capacity) {
+            return;
+        }
+        int grown = Math.max(size, capacity + (capacity >> 1));
+        if (offHeap) {
+            ByteBuffer resized = ByteBuffer.allocateDirect(grown * Integer.BYTES).order(ByteOrder.nativeOrder());
+            resized.put(0, buffer, 0, capacity * Integer.BYTES);
+            buffer = resized;
+        } else {
+            array = Arrays.copyOf(array, grown);
+        }
+        capacity = grown;
+    }
+}
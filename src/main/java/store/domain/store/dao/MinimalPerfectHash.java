@@ -0,0 +1,207 @@
+package store.domain.store.dao;
+
+/**
+ * 적재가 끝난 키 집합에 대한 최소 완전 해시.
+ *
+ * <p>n개의 키를 0부터 n - 1까지의 칸에 충돌 없이 하나씩 대응시킨다(hash and displace).
+ * 키를 n개의 버킷으로 나눈 뒤 큰 버킷부터 모든 키가 빈 칸에 들어가는 시드를 찾아 버킷에 기록하고,
+ * 키가 하나뿐인 버킷은 남은 빈 칸을 직접 가리키도록 음수로 기록한다.
+ * 조회는 해시 계산 한 번과 배열 접근 한 번으로 끝난다.
+ *
+ * <p>집합에 없는 키도 어떤 칸에 대응되므로, 호출하는 쪽에서 칸의 키와 비교해 확인해야 한다.
+ */
+final class MinimalPerfectHash {
+    private static final int MAX_SEED = 1 << 20;
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final int[] seeds;
+
+    private MinimalPerfectHash(int[] seeds) {
+        this.seeds = seeds;
+    }
+
+    /**
+     * 키의 해시 값들로 최소 완전 해시를 만든다.
+     *
+     * @param hashes hashOf로 구한 키별 해시 값. 모두 달라야 한다.
+     * @return 생성된 해시
+     * @throws IllegalStateException 해시 값이 겹쳐 칸을 나눌 수 없는 경우
+     */
+    static MinimalPerfectHash build(long[] hashes) {
+        int size = hashes.length;
+        int[] seeds = new int[size];
+        if (size == 0) {
+            return new MinimalPerfectHash(seeds);
+        }
+        int[] bucketStarts = new int[size + 1];
+        int[] keys = groupByBucket(hashes, bucketStarts);
+        boolean[] taken = new boolean[size];
+        int[] slots = new int[size];
+
+        for (int bucket : bucketsBySizeDescending(bucketStarts)) {
+            int start = bucketStarts[bucket];
+            int length = bucketStarts[bucket + 1] - start;
+            if (length < 2) {
+                break;
+            }
+            seeds[bucket] = findSeed(hashes, keys, start, length, taken, slots);
+            for (int i = 0; i < length; i++) {
+                taken[slots[i]] = true;
+            }
+        }
+
+        // 키가 하나뿐인 버킷은 남은 빈 칸을 차례로 직접 가리킨다
+        int freeSlot = 0;
+        for (int bucket = 0; bucket < size; bucket++) {
+            if (bucketStarts[bucket + 1] - bucketStarts[bucket] != 1) {
+                continue;
+            }
+            while (taken[freeSlot]) {
+                freeSlot++;
+            }
+            taken[freeSlot] = true;
+            seeds[bucket] = -freeSlot - 1;
+        }
+        return new MinimalPerfectHash(seeds);
+    }
+
+    /**
+     * 키의 UTF-8 바이트로 64비트 해시 값을 구한다.
+     */
+    static long hashOf(byte[] key) {
+        return hashOf(key, 0, key.length);
+    }
+
+    /**
+     * 배열의 [from, to) 구간에 있는 키의 UTF-8 바이트로 64비트 해시 값을 구한다.
+     */
+    static long hashOf(byte[] key, int from, int to) {
+        long hash = FNV_OFFSET;
+        for (int i = from; i < to; i++) {
+            hash = (hash ^ (key[i] & 0xFF)) * FNV_PRIME;
+        }
+        return mix(hash, 0);
+    }
+
+    /**
+     * 문자열의 [start, end) 구간을 UTF-8로 인코딩한 바이트의 해시 값을 구한다.
+     * 바이트 배열을 만들지 않으며, 같은 구간을 getBytes로 바꾼 뒤 hashOf를 호출한 결과와 같다.
+     */
+    static long hashOf(CharSequence key, int start, int end) {
+        long hash = FNV_OFFSET;
+        for (int i = start; i < end; ) {
+            int encoded = Utf8Units.encode(key, i, end);
+            int length = Utf8Units.length(encoded);
+            for (int b = 0; b < length; b++) {
+                hash = (hash ^ (encoded >>> (b * Byte.SIZE) & 0xFF)) * FNV_PRIME;
+            }
+            i += Utf8Units.chars(length);
+        }
+        return mix(hash, 0);
+    }
+
+    /**
+     * 해시 값에 대응되는 칸 번호를 반환한다.
+     *
+     * @return 칸 번호 (키가 하나도 없으면 -1)
+     */
+    int slotOf(long hash) {
+        if (seeds.length == 0) {
+            return -1;
+        }
+        int seed = seeds[indexOf(mix(hash, 0), seeds.length)];
+        if (seed < 0) {
+            return -seed - 1;
+        }
+        return indexOf(mix(hash, seed), seeds.length);
+    }
+
+    int size() {
+        return seeds.length;
+    }
+
+    // 버킷 번호 순으로 키 번호를 모으고, bucketStarts에 버킷별 시작 위치를 채운다
+    private static int[] groupByBucket(long[] hashes, int[] bucketStarts) {
+        int size = hashes.length;
+        int[] buckets = new int[size];
+        for (int key = 0; key < size; key++) {
+            buckets[key] = indexOf(mix(hashes[key], 0), size);
+            bucketStarts[buckets[key] + 1]++;
+        }
+        for (int bucket = 0; bucket < size; bucket++) {
+            bucketStarts[bucket + 1] += bucketStarts[bucket];
+        }
+        int[] positions = bucketStarts.clone();
+        int[] keys = new int[size];
+        for (int key = 0; key < size; key++) {
+            keys[positions[buckets[key]]++] = key;
+        }
+        return keys;
+    }
+
+    private static int[] bucketsBySizeDescending(int[] bucketStarts) {
+        int size = bucketStarts.length - 1;
+        int maxLength = 0;
+        for (int bucket = 0; bucket < size; bucket++) {
+            maxLength = Math.max(maxLength, bucketStarts[bucket + 1] - bucketStarts[bucket]);
+        }
+        int[] counts = new int[maxLength + 2];
+        for (int bucket = 0; bucket < size; bucket++) {
+            counts[maxLength - (bucketStarts[bucket + 1] - bucketStarts[bucket]) + 1]++;
+        }
+        for (int i = 0; i <= maxLength; i++) {
+            counts[i + 1] += counts[i];
+        }
+        int[] ordered = new int[size];
+        for (int bucket = 0; bucket < size; bucket++) {
+            ordered[counts[maxLength - (bucketStarts[bucket + 1] - bucketStarts[bucket])]++] = bucket;
+        }
+        return ordered;
+    }
+
+    private static int findSeed(long[] hashes, int[] keys, int start, int length, boolean[] taken, int[] slots) {
+        for (int seed = 1; seed <= MAX_SEED; seed++) {
+            if (tryPlace(hashes, keys, start, length, seed, taken, slots)) {
+                return seed;
+            }
+        }
+        throw new IllegalStateException("[ERROR] 상품명 색인을 만들 수 없습니다.");
+    }
+
+    private static boolean tryPlace(
+            long[] hashes,
+            int[] keys,
+            int start,
+            int length,
+            int seed,
+            boolean[] taken,
+            int[] slots
+    ) {
+        for (int i = 0; i < length; i++) {
+            int slot = indexOf(mix(hashes[keys[start + i]], seed), taken.length);
+            if (taken[slot]) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (slots[j] == slot) {
+                    return false;
+                }
+            }
+            slots[i] = slot;
+        }
+        return true;
+    }
+
+    private static int indexOf(long hash, int size) {
+        return (int) Long.remainderUnsigned(hash, size);
+    }
+
+    private static long mix(long hash, int seed) {
+        long mixed = hash + seed * GOLDEN_GAMMA;
+        mixed = (mixed ^ (mixed >>> 33)) * 0xFF51AFD7ED558CCDL;
+        mixed = (mixed ^ (mixed >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return mixed ^ (mixed >>> 33);
+    }
+}
@@ -0,0 +1,267 @@
+package store.domain.store.dao;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 상품명에 0부터 시작하는 연속된 번호를 붙인다.
+ * 이름은 문자열 객체 대신 하나의 UTF-8 바이트 배열에 이어 붙여 저장한다.
+ * 적재하는 동안에는 개방 주소법 해시 테이블로 번호를 찾고, 적재가 끝나 seal을 호출하면
+ * 최소 완전 해시로 바꾸어 이름 비교 한 번으로 번호를 찾는다.
+ * 문자열로 찾을 때는 char를 UTF-8로 바로 인코딩하면서 해시하고 비교하므로 바이트 배열을 만들지 않는다.
+ * 번호의 상품명 문자열은 처음 요청될 때 한 번만 만든다.
+ * 추가와 seal은 저장소를 적재하는 동안 한 스레드에서만 호출해야 한다.
+ */
+final class NameTable {
+    private static final int EMPTY = 0;
+
+    private byte[] bytes = new byte[256];
+    private int byteSize;
+    private int[] offsets = new int[17];
+    private long[] hashes = new long[16];
+    // 값은 번호 + 1이며 0은 빈 칸이다
+    private int[] table = new int[32];
+    private int size;
+    private MinimalPerfectHash perfectHash;
+    private int[] idsBySlot;
+    // 적재가 끝난 뒤 만든 상품명. 같은 문자열을 여러 스레드가 만들어도 결과가 같으므로 동기화하지 않는다
+    private String[] canonicalNames;
+
+    /**
+     * 스냅샷에 저장해 둔 이름 바이트와 끝 위치로 적재가 끝난 테이블을 만든다.
+     * 번호는 저장할 때와 같고, 해시만 다시 계산해 최소 완전 해시를 만든다.
+     *
+     * @param bytes 이름을 번호 순서대로 이어 붙인 UTF-8 바이트
+     * @param offsets 번호마다의 시작 위치와 마지막 끝 위치 (길이 = 이름 수 + 1, 첫 값은 0)
+     * @throws IllegalStateException 위치가 올바르지 않거나 같은 이름이 두 번 있는 경우
+     */
+    static NameTable restore(byte[] bytes, int[] offsets) {
+        NameTable table = new NameTable();
+        int size = offsets.length - 1;
+        if (size < 0 || offsets[0] != 0 || offsets[size] != bytes.length) {
+            throw new IllegalStateException("[ERROR] 상품명 색인을 복원하지 못했습니다.");
+        }
+        long[] hashes = new long[size];
+        for (int id = 0; id < size; id++) {
+            if (offsets[id + 1] < offsets[id]) {
+                throw new IllegalStateException("[ERROR] 상품명 색인을 복원하지 못했습니다.");
+            }
+            hashes[id] = MinimalPerfectHash.hashOf(bytes, offsets[id], offsets[id + 1]);
+        }
+        table.bytes = bytes;
+        table.byteSize = bytes.length;
+        table.offsets = offsets;
+        table.hashes = hashes;
+        table.size = size;
+        table.table = null;
+        table.seal();
+        return table;
+    }
+
+    /**
+     * 상품명의 번호를 찾는다.
+     *
+     * @param name 상품명
+     * @return 번호 (없으면 -1)
+     */
+    int find(CharSequence name) {
+        return find(name, 0, name.length());
+    }
+
+    /**
+     * 문자열의 [start, end) 구간과 같은 상품명의 번호를 찾는다. 바이트 배열이나 부분 문자열을 만들지 않는다.
+     *
+     * @return 번호 (없으면 -1)
+     */
+    int find(CharSequence name, int start, int end) {
+        long hash = MinimalPerfectHash.hashOf(name, start, end);
+        if (perfectHash != null) {
+            int slot = perfectHash.slotOf(hash);
+            if (slot < 0 || !matches(idsBySlot[slot], name, start, end)) {
+                return -1;
+            }
+            return idsBySlot[slot];
+        }
+        int mask = table.length - 1;
+        for (int index = tableIndexOf(hash) & mask; table[index] != EMPTY; index = (index + 1) & mask) {
+            int id = table[index] - 1;
+            if (hashes[id] == hash && matches(id, name, start, end)) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * UTF-8 바이트로 주어진 상품명의 번호를 찾는다.
+     *
+     * @param key 상품명 바이트가 들어 있는 배열
+     * @param from 시작 위치
+     * @param to 끝 위치 (제외)
+     * @return 번호 (없으면 -1)
+     */
+    int find(byte[] key, int from, int to) {
+        long hash = MinimalPerfectHash.hashOf(key, from, to);
+        if (perfectHash != null) {
+            int slot = perfectHash.slotOf(hash);
+            if (slot < 0 || !matches(idsBySlot[slot], key, from, to)) {
+                return -1;
+            }
+            return idsBySlot[slot];
+        }
+        int mask = table.length - 1;
+        for (int index = tableIndexOf(hash) & mask; table[index] != EMPTY; index = (index + 1) & mask) {
+            int id = table[index] - 1;
+            if (hashes[id] == hash && matches(id, key, from, to)) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 아직 없는 상품명을 추가하고 새 번호를 반환한다.
+     */
+    int add(String name) {
+        byte[] key = name.getBytes(StandardCharsets.UTF_8);
+        return add(key, 0, key.length);
+    }
+
+    /**
+     * UTF-8 바이트로 주어진, 아직 없는 상품명을 추가하고 새 번호를 반환한다.
+     * 바이트는 복사하므로 호출한 쪽은 배열을 다시 사용해도 된다.
+     */
+    int add(byte[] key, int from, int to) {
+        if (perfectHash != null) {
+            throw new IllegalStateException("[ERROR] 적재가 끝난 뒤에는 상품을 추가할 수 없습니다.");
+        }
+        int length = to - from;
+        int id = size;
+        if (id == hashes.length) {
+            hashes = Arrays.copyOf(hashes, hashes.length * 2);
+            offsets = Arrays.copyOf(offsets, hashes.length + 1);
+        }
+        if (byteSize + length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(byteSize + length, bytes.length * 2));
+        }
+        System.arraycopy(key, from, bytes, byteSize, length);
+        byteSize += length;
+        offsets[id + 1] = byteSize;
+        hashes[id] = MinimalPerfectHash.hashOf(key, from, to);
+        size++;
+        // 적재율을 1/2 이하로 유지한다
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        } else {
+            insert(id);
+        }
+        return id;
+    }
+
+    /**
+     * 적재를 마치고 최소 완전 해시를 만든다. 적재용 해시 테이블은 버린다.
+     *
+     * @throws IllegalStateException 상품명 색인을 만들지 못한 경우
+     */
+    void seal() {
+        if (perfectHash != null) {
+            return;
+        }
+        // 적재하면서 구해 둔 해시를 그대로 쓴다
+        long[] keyHashes = Arrays.copyOf(hashes, size);
+        MinimalPerfectHash built = MinimalPerfectHash.build(keyHashes);
+        int[] ids = new int[size];
+        for (int id = 0; id < size; id++) {
+            ids[built.slotOf(keyHashes[id])] = id;
+        }
+        this.idsBySlot = ids;
+        this.perfectHash = built;
+        this.table = null;
+        this.hashes = null;
+        this.bytes = Arrays.copyOf(bytes, byteSize);
+        this.offsets = Arrays.copyOf(offsets, size + 1);
+        this.canonicalNames = new String[size];
+    }
+
+    /**
+     * 번호의 상품명을 반환한다. 적재가 끝난 뒤에는 번호마다 같은 문자열을 반환한다.
+     */
+    String nameOf(int id) {
+        if (canonicalNames == null) {
+            return decode(id);
+        }
+        String name = canonicalNames[id];
+        if (name == null) {
+            name = decode(id);
+            canonicalNames[id] = name;
+        }
+        return name;
+    }
+
+    private String decode(int id) {
+        return new String(bytes, offsets[id], offsets[id + 1] - offsets[id], StandardCharsets.UTF_8);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 번호 순서대로 이어 붙인 이름 바이트를 읽기 전용으로 반환한다. 적재가 끝난 뒤에만 호출해야 한다.
+     */
+    ByteBuffer nameBytes() {
+        return ByteBuffer.wrap(bytes, 0, byteSize).asReadOnlyBuffer();
+    }
+
+    /**
+     * 번호의 이름이 nameBytes에서 끝나는 위치를 반환한다.
+     */
+    int nameEnd(int id) {
+        return offsets[id + 1];
+    }
+
+    private boolean matches(int id, byte[] key, int from, int to) {
+        return Arrays.equals(bytes, offsets[id], offsets[id + 1], key, from, to);
+    }
+
+    private boolean matches(int id, CharSequence name, int start, int end) {
+        int position = offsets[id];
+        int limit = offsets[id + 1];
+        for (int i = start; i < end; ) {
+            int encoded = Utf8Units.encode(name, i, end);
+            int length = Utf8Units.length(encoded);
+            if (position + length > limit) {
+                return false;
+            }
+            for (int b = 0; b < length; b++) {
+                if (bytes[position++] != (byte) (encoded >>> (b * Byte.SIZE))) {
+                    return false;
+                }
+            }
+            i += Utf8Units.chars(length);
+        }
+        return position == limit;
+    }
+
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        for (int id = 0; id < size; id++) {
+            insert(id);
+        }
+    }
+
+    private void insert(int id) {
+        int mask = table.length - 1;
+        int index = tableIndexOf(hashes[id]) & mask;
+        while (table[index] != EMPTY) {
+            index = (index + 1) & mask;
+        }
+        table[index] = id + 1;
+    }
+
+    // 해시 테이블의 하위 비트만 쓰므로 상위 비트를 섞어 준다
+    private static int tableIndexOf(long hash) {
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
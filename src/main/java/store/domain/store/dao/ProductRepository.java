@@ -1,35 +1,247 @@
 package store.domain.store.dao;
 
 import store.domain.store.domain.Product;
+import store.domain.store.domain.ProductId;
+import store.domain.store.util.CompiledCatalog;
+import store.domain.store.util.MappedProductLoader;
 import store.domain.store.util.ResourceLoader;
-import java.util.ArrayList;
+import store.domain.store.util.StripedLock;
+import store.global.metrics.StoreMetrics;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Objects;
-import java.util.LinkedList;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * 상품 정보를 저장하고 관리하는 저장소.
  * 싱글톤 패턴을 사용하여 하나의 인스턴스만 유지한다.
+ * 상품명마다 프로모션/일반 상품 슬롯을 두어 조회와 저장을 O(1)로 처리한다.
+ * 상품 정보는 StockColumns의 열에 보관하고, 조회 결과의 상품 객체는 열의 칸을 가리킨다.
+ * 적재가 끝나면 상품명마다 연속된 ProductId를 최소 완전 해시로 찾을 수 있다.
+ * 재고나 상품 정보가 바뀔 때마다 버전을 올리고 변경된 상품명을 구독자에게 알린다.
+ * 상품 조회와 저장 횟수는 생성할 때 받은 StoreMetrics에 센다. 기본 저장소는 JMX에 등록된 지표 저장소를 쓴다.
  */
 public class ProductRepository {
-    private final List<Product> products;
+    /**
+     * findIdByName이 상품명을 찾지 못했을 때 반환하는 번호.
+     */
+    public static final int NOT_FOUND = -1;
+
+    private static final String PRODUCTS_FILE_PROPERTY = "store.products.file";
+    private static final String SNAPSHOT_FILE_PROPERTY = "store.snapshot.file";
+    private static final String JOURNAL_DIR_PROPERTY = "store.journal.dir";
+    private static final String JOURNAL_SYNC_RECORDS_PROPERTY = "store.journal.sync-records";
+    private static final String JOURNAL_SYNC_MILLIS_PROPERTY = "store.journal.sync-millis";
+    private static final String OFF_HEAP_PROPERTY = "store.stock.off-heap";
+
+    private final StockColumns columns;
+    private final StripedLock stockLock;
+    private final AtomicLong version;
+    private final List<Consumer<String>> changeListeners;
+    private final StoreMetrics metrics;
+    private volatile StockJournal journal;
+
+    private ProductRepository(StoreMetrics metrics) {
+        // store.stock.off-heap 시스템 속성이 true면 상품 정보를 힙 밖에 둔다
+        this(StockColumns.create(Boolean.getBoolean(OFF_HEAP_PROPERTY)), metrics);
+    }
+
+    private ProductRepository(StockColumns columns, StoreMetrics metrics) {
+        this.columns = columns;
+        this.stockLock = StripedLock.forAvailableProcessors();
+        this.version = new AtomicLong();
+        this.changeListeners = new CopyOnWriteArrayList<>();
+        this.metrics = metrics;
+    }
 
-    private ProductRepository() {
-        this.products = new LinkedList<>();
-        initializeProducts();
+    private ProductRepository(List<Product> products, StoreMetrics metrics) {
+        this(metrics);
+        products.forEach(this::add);
+        columns.seal();
     }
 
     private static class LazyHolder {
-        private static final ProductRepository INSTANCE = new ProductRepository();
+        private static final ProductRepository INSTANCE = createDefault();
+    }
+
+    // store.snapshot.file 시스템 속성의 스냅샷이 있으면 그 상태를, 없으면 상품 파일을 읽는다
+    // store.journal.dir 시스템 속성이 있으면 이전 실행의 재고 기록을 복원하고 이후 변경을 기록한다
+    private static ProductRepository createDefault() {
+        ProductRepository repository = loadDefault();
+        String journalDir = System.getProperty(JOURNAL_DIR_PROPERTY);
+        if (journalDir != null) {
+            repository.attachJournal(StockJournal.open(Path.of(journalDir), journalOptions()));
+            return repository;
+        }
+        // 재고 기록이 없으면 종료할 때 스냅샷을 남겨 다음 실행에서 복원한다
+        String snapshotFile = System.getProperty(SNAPSHOT_FILE_PROPERTY);
+        if (snapshotFile != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() ->
+                    StoreSnapshot.write(Path.of(snapshotFile), repository, PromotionRepository.getInstance())));
+        }
+        return repository;
+    }
+
+    private static ProductRepository loadDefault() {
+        StoreMetrics metrics = StoreMetrics.getInstance();
+        String snapshotFile = System.getProperty(SNAPSHOT_FILE_PROPERTY);
+        if (snapshotFile != null && Files.exists(Path.of(snapshotFile))) {
+            return fromSnapshot(Path.of(snapshotFile), metrics);
+        }
+        String productsFile = System.getProperty(PRODUCTS_FILE_PROPERTY);
+        if (productsFile != null) {
+            return fromFile(Path.of(productsFile), metrics);
+        }
+        return new ProductRepository(ResourceLoader.loadProducts(), metrics);
+    }
+
+    private static StockJournal.Options journalOptions() {
+        StockJournal.Options defaults = StockJournal.Options.defaults();
+        return new StockJournal.Options(
+                Integer.getInteger(JOURNAL_SYNC_RECORDS_PROPERTY, defaults.syncEveryRecords()),
+                Long.getLong(JOURNAL_SYNC_MILLIS_PROPERTY, defaults.syncIntervalMillis()),
+                defaults.segmentBytes()
+        );
     }
 
     public static ProductRepository getInstance() {
         return LazyHolder.INSTANCE;
     }
 
-    private void initializeProducts() {
-        products.addAll(ResourceLoader.loadProducts());
+    /**
+     * 주어진 상품 목록으로 별도의 저장소를 생성한다.
+     * 벤치마크나 여러 매장을 구동할 때처럼 싱글톤과 분리된 저장소가 필요한 경우에 사용한다.
+     * 조회와 저장 횟수는 JMX에 등록하지 않은 이 저장소만의 지표에 센다.
+     *
+     * @param products 파일 순서대로 정렬된 상품 목록
+     * @return 생성된 저장소
+     */
+    public static ProductRepository from(final List<Product> products) {
+        return from(products, StoreMetrics.create());
+    }
+
+    /**
+     * 주어진 상품 목록과 지표 저장소로 별도의 저장소를 생성한다.
+     *
+     * @param products 파일 순서대로 정렬된 상품 목록
+     * @param metrics 조회와 저장 횟수를 기록할 지표 저장소
+     * @return 생성된 저장소
+     */
+    public static ProductRepository from(final List<Product> products, final StoreMetrics metrics) {
+        return new ProductRepository(products, metrics);
+    }
+
+    /**
+     * 파일 시스템의 상품 파일을 메모리 매핑으로 읽어 저장소를 생성한다.
+     * 조회와 저장 횟수는 JMX에 등록하지 않은 이 저장소만의 지표에 센다.
+     *
+     * @param productsFile products.md 형식 또는 바이너리 카탈로그 파일 경로
+     * @return 생성된 저장소
+     */
+    public static ProductRepository fromFile(final Path productsFile) {
+        return fromFile(productsFile, StoreMetrics.create());
+    }
+
+    /**
+     * 파일 시스템의 상품 파일을 메모리 매핑으로 읽어 저장소를 생성한다.
+     * 파싱된 행은 상품 객체를 만들지 않고 곧바로 저장소의 열에 기록된다.
+     * 파일이 바이너리 카탈로그면 파싱 없이 레코드를 읽는다.
+     *
+     * @param productsFile products.md 형식 또는 바이너리 카탈로그 파일 경로
+     * @param metrics 조회와 저장 횟수를 기록할 지표 저장소
+     * @return 생성된 저장소
+     */
+    public static ProductRepository fromFile(final Path productsFile, final StoreMetrics metrics) {
+        ProductRepository repository = new ProductRepository(metrics);
+        if (CompiledCatalog.isCompiled(productsFile)) {
+            CompiledCatalog.open(productsFile).forEachProduct(repository.columns);
+        } else {
+            MappedProductLoader.load(productsFile, repository.columns);
+        }
+        repository.columns.seal();
+        return repository;
+    }
+
+    /**
+     * 스냅샷 파일을 메모리 매핑으로 읽어 저장소를 생성한다.
+     * 조회와 저장 횟수는 JMX에 등록하지 않은 이 저장소만의 지표에 센다.
+     *
+     * @param snapshotFile StoreSnapshot으로 저장한 파일 경로
+     * @return 생성된 저장소
+     */
+    public static ProductRepository fromSnapshot(final Path snapshotFile) {
+        return fromSnapshot(snapshotFile, StoreMetrics.create());
+    }
+
+    /**
+     * 스냅샷 파일을 메모리 매핑으로 읽어 저장소를 생성한다.
+     * 스냅샷에 저장된 열을 그대로 복사하므로 상품마다 객체를 만들지 않는다.
+     *
+     * @param snapshotFile StoreSnapshot으로 저장한 파일 경로
+     * @param metrics 조회와 저장 횟수를 기록할 지표 저장소
+     * @return 생성된 저장소
+     */
+    public static ProductRepository fromSnapshot(final Path snapshotFile, final StoreMetrics metrics) {
+        return new ProductRepository(
+                StoreSnapshot.readColumns(snapshotFile, Boolean.getBoolean(OFF_HEAP_PROPERTY)), metrics);
+    }
+
+    // 스냅샷이 열을 그대로 저장할 때 사용한다
+    StockColumns columns() {
+        return columns;
+    }
+
+    private void add(Product product) {
+        columns.add(product);
+    }
+
+    /**
+     * 상품명의 번호를 찾는다. 상품명 하나를 비교하는 것으로 끝나므로 없는 상품명도 바로 걸러낸다.
+     * 문자열의 문자를 바로 해시하므로 바이트 배열이나 Optional을 만들지 않는다.
+     *
+     * @param name 상품명
+     * @return 상품 번호 (없으면 NOT_FOUND)
+     */
+    public int findIdByName(CharSequence name) {
+        metrics.recordProductLookup();
+        return columns.idOf(name);
+    }
+
+    /**
+     * 문자열의 [start, end) 구간을 상품명으로 보고 번호를 찾는다. 구간을 잘라 새 문자열을 만들지 않는다.
+     *
+     * @param text 상품명이 들어 있는 문자열
+     * @param start 상품명 시작 위치
+     * @param end 상품명 끝 위치 (포함하지 않음)
+     * @return 상품 번호 (없으면 NOT_FOUND)
+     */
+    public int findIdByName(CharSequence text, int start, int end) {
+        metrics.recordProductLookup();
+        return columns.idOf(text, start, end);
+    }
+
+    /**
+     * 번호의 ProductId를 반환한다. 같은 번호에는 같은 객체를 반환한다.
+     *
+     * @param id findIdByName으로 찾은 상품 번호
+     */
+    public ProductId productIdOf(int id) {
+        return columns.productIdOf(id);
+    }
+
+    /**
+     * 번호의 상품명을 반환한다. 같은 번호에는 같은 문자열 객체를 반환한다.
+     *
+     * @param id findIdByName으로 찾은 상품 번호
+     */
+    public String nameOf(int id) {
+        return columns.nameOf(id);
     }
 
     /**
@@ -40,20 +252,12 @@ public class ProductRepository {
      * @return 조건을 만족하는 상품
      */
     public Optional<Product> findByNameAndQuantityGreaterThanEqual(String name, int quantity) {
-        // 같은 상품의 총 재고를 먼저 계산
-        int totalStock = products.stream()
-                .filter(product -> product.getName().equals(name))
-                .mapToInt(Product::getQuantity)
-                .sum();
-        
-        // 총 재고가 충분하면 상품 반환
-        if (totalStock >= quantity) {
-            return products.stream()
-                    .filter(product -> product.getName().equals(name))
-                    .findFirst();
+        metrics.recordProductLookup();
+        int id = columns.idOf(name);
+        if (id < 0 || columns.totalQuantity(id) < quantity) {
+            return Optional.empty();
         }
-        
-        return Optional.empty();
+        return Optional.of(columns.productAt(columns.firstCell(id)));
     }
 
 
@@ -61,7 +265,7 @@ public class ProductRepository {
      * product.md 파일 순서대로 모든 상품을 조회한다.
      */
     public List<Product> findAll() {
-        return new ArrayList<>(products);
+        return columns.products();
     }
 
 
@@ -69,45 +273,194 @@ public class ProductRepository {
      * 프로모션이 적용된 상품을 조회한다.
      */
     public Optional<Product> findPromotionProduct(String name) {
-        return products.stream()
-                .filter(product -> product.getName().equals(name))
-                .filter(Product::hasValidPromotion)
-                .findFirst();
+        return Optional.ofNullable(productInSlot(findIdByName(name), StockColumns.PROMOTION));
     }
 
     /**
      * 프로모션이 적용되지 않은 일반 상품을 조회한다.
      */
     public Optional<Product> findNormalProduct(String name) {
-        return products.stream()
-                .filter(product -> product.getName().equals(name))
-                .filter(product -> !product.hasValidPromotion())
-                .findFirst();
+        return Optional.ofNullable(productInSlot(findIdByName(name), StockColumns.NORMAL));
+    }
+
+    /**
+     * 번호로 프로모션이 적용된 상품을 조회한다. 구매 경로에서 Optional을 만들지 않도록 없으면 null을 반환한다.
+     *
+     * @param id 상품 번호
+     * @return 프로모션 상품 (없으면 null)
+     */
+    public Product promotionProductAt(int id) {
+        metrics.recordProductLookup();
+        return productInSlot(id, StockColumns.PROMOTION);
+    }
+
+    /**
+     * 번호로 프로모션이 적용되지 않은 일반 상품을 조회한다. 없으면 null을 반환한다.
+     *
+     * @param id 상품 번호
+     * @return 일반 상품 (없으면 null)
+     */
+    public Product normalProductAt(int id) {
+        metrics.recordProductLookup();
+        return productInSlot(id, StockColumns.NORMAL);
+    }
+
+    private Product productInSlot(int id, int slot) {
+        if (id < 0 || id >= columns.size()) {
+            return null;
+        }
+        int cell = StockColumns.cellOf(id, slot);
+        if (!columns.contains(cell)) {
+            return null;
+        }
+        return columns.productAt(cell);
     }
 
     /**
      * 상품을 저장하거나 업데이트한다.
-     * 동일한 상품명과 프로모션을 가진 상품이 있다면 교체한다.
+     * 동일한 상품명과 프로모션을 가진 상품이 있다면 그 가격과 재고로 교체한다.
      *
      * @param product 저장할 상품
      * @return 저장된 상품
      */
     public Product save(Product product) {
-        int index = findProductIndex(product);
-        if (index >= 0) {
-            products.set(index, product);
+        metrics.recordProductSave();
+        int id = columns.idOf(product.getName());
+        if (id < 0) {
+            return product;
         }
-        return product;
+        return executeWithStockLock(List.of(product.getName()), () -> {
+            int slot = StockColumns.slotOf(product);
+            int cell = StockColumns.cellOf(id, slot);
+            if (columns.canReplace(cell, product)) {
+                record(journal -> {
+                    journal.recordQuantity(product.getName(), slot, product.getQuantity());
+                    journal.awaitDurable();
+                });
+                columns.replace(cell, product);
+                markChanged(product.getName());
+            }
+            return product;
+        });
     }
 
-    private int findProductIndex(Product product) {
-        for (int i = 0; i < products.size(); i++) {
-            if (products.get(i).getName().equals(product.getName()) &&
-                products.get(i).getPromotionName() == product.getPromotionName()) {
-                return i;
+    /**
+     * 상품의 재고를 차감하고 변경 사실을 기록한다.
+     * 상품의 재고 락을 잡은 상태에서 호출해야 한다.
+     *
+     * @param product 재고를 차감할 상품
+     * @param quantity 차감할 수량
+     * @throws IllegalArgumentException 재고가 부족한 경우
+     * @throws IllegalStateException 재고 기록을 디스크에 반영하지 못한 경우
+     * @see #removeStocks(Map)
+     */
+    public void removeStock(Product product, int quantity) {
+        removeStocks(Map.of(product, quantity));
+    }
+
+    /**
+     * 여러 상품의 재고를 한 번에 차감하고 변경 사실을 기록한다.
+     * 상품의 재고 락을 잡은 상태에서 호출해야 한다.
+     *
+     * <p>재고 기록이 연결되어 있으면 모든 차감을 레코드 하나로 먼저 기록하고, 디스크 반영(fsync)이 끝난 뒤에야 재고를 바꾼다.
+     * 반영에 실패하면 재고는 그대로 둔 채 예외를 던지므로, 디스크에 남지 않은 판매가 화면이나 다른 계산대에
+     * 보이는 일은 없다. 실패한 재고 기록은 닫힌 상태로 남아 이후의 판매를 모두 거부한다.
+     * 반영을 기다리는 동안 락을 쥐고 있으므로 같은 상품의 다른 구매는 기다리지만,
+     * 다른 상품의 구매는 같은 fsync에 함께 묶인다.
+     *
+     * @param removals 상품별 차감 수량 (0 이하는 무시한다)
+     * @throws IllegalArgumentException 재고가 부족한 상품이 있는 경우 (아무 상품도 차감하지 않는다)
+     * @throws IllegalStateException 재고 기록을 디스크에 반영하지 못한 경우 (아무 상품도 차감하지 않는다)
+     */
+    public void removeStocks(Map<Product, Integer> removals) {
+        removals.forEach((product, quantity) -> {
+            if (!product.hasEnoughStock(quantity)) {
+                throw new IllegalArgumentException("[ERROR] 재고가 부족합니다.");
+            }
+        });
+        record(journal -> {
+            StockJournal.Batch batch = StockJournal.Batch.create();
+            removals.forEach((product, quantity) -> {
+                if (quantity > 0) {
+                    batch.remove(product.getName(), StockColumns.slotOf(product), quantity);
+                }
+            });
+            journal.record(batch);
+            journal.awaitDurable();
+        });
+        removals.forEach((product, quantity) -> {
+            if (quantity > 0) {
+                product.removeStock(quantity);
+                markChanged(product.getName());
             }
+        });
+    }
+
+    /**
+     * 재고 기록을 연결한다. 기록에 남아 있는 이전 실행의 재고를 먼저 복원한 뒤 이후의 변경을 기록한다.
+     *
+     * @param stockJournal 연결할 재고 기록
+     * @throws IllegalStateException 기록된 재고가 상품 정보와 맞지 않는 경우
+     */
+    public void attachJournal(StockJournal stockJournal) {
+        stockJournal.recoveredChanges().forEach(this::restore);
+        this.journal = stockJournal;
+    }
+
+    private void restore(StockChange change) {
+        int id = columns.idOf(change.name());
+        if (id < 0 || !columns.contains(StockColumns.cellOf(id, change.slot()))) {
+            return;
+        }
+        int cell = StockColumns.cellOf(id, change.slot());
+        long quantity = change.applyTo(columns.quantity(cell));
+        if (quantity < 0 || quantity > Integer.MAX_VALUE) {
+            throw new IllegalStateException(
+                    String.format("[ERROR] %s 상품의 재고 기록이 올바르지 않습니다.", change.name()));
         }
-        return -1;
+        columns.setQuantity(cell, (int) quantity);
+        markChanged(change.name());
+    }
+
+    private void record(Consumer<StockJournal> action) {
+        StockJournal current = journal;
+        if (current != null) {
+            action.accept(current);
+        }
+    }
+
+    /**
+     * 상품 정보가 바뀔 때마다 증가하는 버전을 반환한다.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * 상품 정보가 바뀔 때 변경된 상품명을 전달받을 구독자를 등록한다.
+     * 구독자는 버전이 올라가기 전에 호출되므로, 버전 변화를 확인한 쪽은 변경된 상품명도 함께 받은 상태다.
+     *
+     * @param listener 변경된 상품명을 받을 구독자
+     */
+    public void addChangeListener(Consumer<String> listener) {
+        changeListeners.add(listener);
+    }
+
+    private void markChanged(String name) {
+        changeListeners.forEach(listener -> listener.accept(name));
+        version.incrementAndGet();
+    }
+
+    /**
+     * 주어진 상품들의 재고 락을 모두 획득한 상태에서 작업을 실행한다.
+     * 재고 확인과 차감을 하나의 작업으로 묶어 다른 계산대와 겹치지 않게 한다.
+     *
+     * @param names 잠글 상품명 목록
+     * @param action 실행할 작업
+     * @return 작업 결과
+     */
+    public <T> T executeWithStockLock(Collection<String> names, Supplier<T> action) {
+        return stockLock.execute(names, action);
     }
 
     /**
@@ -120,4 +473,4 @@ public class ProductRepository {
         products.forEach(this::save);
         return products;
     }
-}
\ No newline at end of file
+}
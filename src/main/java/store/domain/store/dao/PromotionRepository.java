@@ -2,32 +2,62 @@ package store.domain.store.dao;
 
 import store.domain.store.domain.Promotion;
 import store.domain.store.util.ResourceLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 프로모션 정보를 저장하고 관리하는 저장소.
  * 싱글톤 패턴을 사용하여 하나의 인스턴스만 유지한다.
  */
 public class PromotionRepository {
+    private static final String SNAPSHOT_FILE_PROPERTY = "store.snapshot.file";
+
     private final List<Promotion> promotions;
+    private final AtomicLong version = new AtomicLong();
 
-    private PromotionRepository() {
-        this.promotions = new ArrayList<>();
-        initializePromotions();
+    private PromotionRepository(List<Promotion> promotions) {
+        this.promotions = new ArrayList<>(promotions);
     }
 
     private static class LazyHolder {
-        private static final PromotionRepository INSTANCE = new PromotionRepository();
+        private static final PromotionRepository INSTANCE = createDefault();
+    }
+
+    // store.snapshot.file 시스템 속성의 스냅샷이 있으면 그 상태를, 없으면 프로모션 파일을 읽는다
+    private static PromotionRepository createDefault() {
+        String snapshotFile = System.getProperty(SNAPSHOT_FILE_PROPERTY);
+        if (snapshotFile != null && Files.exists(Path.of(snapshotFile))) {
+            return fromSnapshot(Path.of(snapshotFile));
+        }
+        return new PromotionRepository(ResourceLoader.loadPromotions());
     }
 
     public static PromotionRepository getInstance() {
         return LazyHolder.INSTANCE;
     }
 
-    private void initializePromotions() {
-        promotions.addAll(ResourceLoader.loadPromotions());
+    /**
+     * 주어진 프로모션 목록으로 별도의 저장소를 생성한다.
+     *
+     * @param promotions 프로모션 목록
+     * @return 생성된 저장소
+     */
+    public static PromotionRepository from(final List<Promotion> promotions) {
+        return new PromotionRepository(promotions);
+    }
+
+    /**
+     * 스냅샷 파일을 메모리 매핑으로 읽어 저장소를 생성한다.
+     *
+     * @param snapshotFile StoreSnapshot으로 저장한 파일 경로
+     * @return 생성된 저장소
+     */
+    public static PromotionRepository fromSnapshot(final Path snapshotFile) {
+        return new PromotionRepository(StoreSnapshot.readPromotions(snapshotFile));
     }
 
     /**
@@ -42,6 +72,25 @@ public class PromotionRepository {
                 .findFirst();
     }
 
+    /**
+     * 모든 프로모션 목록을 반환한다.
+     *
+     * @return 프로모션 목록
+     */
+    public List<Promotion> findAll() {
+        return List.copyOf(promotions);
+    }
+
+    /**
+     * 프로모션이 변경될 때마다 증가하는 버전을 반환한다.
+     * 프로모션 정보를 캐시하는 쪽에서 다시 읽어야 하는지 판단할 때 사용한다.
+     *
+     * @return 현재 버전
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
     /**
      * 현재 유효한 프로모션 목록을 반환한다.
      *
@@ -63,6 +112,7 @@ public class PromotionRepository {
     public Promotion save(Promotion promotion) {
         promotions.removeIf(p -> p.getName().equals(promotion.getName()));
         promotions.add(promotion);
+        version.incrementAndGet();
         return promotion;
     }
 
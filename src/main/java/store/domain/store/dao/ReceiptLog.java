@@ -0,0 +1,376 @@
+package store.domain.store.dao;
+
+import camp.nextstep.edu.missionutils.DateTimes;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import store.domain.store.dto.response.PurchaseResponse;
+import store.domain.store.dto.response.ReceiptResponse;
+
+/**
+ * 발행한 영수증을 계산대와 날짜별 파일에 한 줄씩 추가하는 영수증 기록.
+ *
+ * <p>파일은 &lt;디렉터리&gt;/&lt;yyyy-MM-dd&gt;/lane-&lt;계산대&gt;.log 이고, 날짜가 바뀌면 새 파일에 기록한다.
+ * 한 줄은 탭으로 구분한 계산대, 발행 시각, 총구매액, 행사할인, 멤버십할인, 내실돈, 구매 상품, 증정 상품이다.
+ * 상품은 상품명:수량:금액을 ';'로 이어 쓰고 증정 상품의 금액은 행사할인 금액이다.
+ * 상품명의 '%', 탭, 줄바꿈, ':', ';'는 %XX로 바꾼다.
+ * 줄 단위 형식이라 파일을 임의의 바이트 위치에서 나누어도 다음 줄바꿈부터 읽으면 되므로 정산 작업이 파일을 나누어 병렬로 읽을 수 있다.
+ *
+ * <p>싱글톤은 store.receipts.dir 시스템 속성이 있을 때만 기록하고, 계산대 이름은 store.lane 속성(기본 1)을 쓴다.
+ */
+public final class ReceiptLog implements AutoCloseable {
+    private static final String RECEIPTS_DIR_PROPERTY = "store.receipts.dir";
+    private static final String LANE_PROPERTY = "store.lane";
+    private static final String DEFAULT_LANE = "1";
+    private static final String FILE_PREFIX = "lane-";
+    private static final String FILE_SUFFIX = ".log";
+    private static final char FIELD_SEPARATOR = '\t';
+    private static final char ITEM_SEPARATOR = ';';
+    private static final char PART_SEPARATOR = ':';
+    private static final char ESCAPE = '%';
+    private static final int FIELD_COUNT = 8;
+    private static final String ERROR_IO = "[ERROR] 영수증 기록을 저장하는데 실패했습니다.";
+    private static final String ERROR_LANE = "[ERROR] 계산대 이름은 영문, 숫자, '-', '_'만 사용할 수 있습니다.";
+
+    private final Path directory;
+    private final String lane;
+    private final StringBuilder line = new StringBuilder();
+    private FileChannel active;
+    private LocalDate activeDate;
+
+    private ReceiptLog(Path directory, String lane) {
+        this.directory = directory;
+        this.lane = lane;
+    }
+
+    private static class LazyHolder {
+        private static final ReceiptLog INSTANCE = createDefault();
+    }
+
+    private static ReceiptLog createDefault() {
+        String directory = System.getProperty(RECEIPTS_DIR_PROPERTY);
+        if (directory == null) {
+            return disabled();
+        }
+        ReceiptLog receiptLog = open(Path.of(directory), System.getProperty(LANE_PROPERTY, DEFAULT_LANE));
+        Runtime.getRuntime().addShutdownHook(new Thread(receiptLog::close));
+        return receiptLog;
+    }
+
+    /**
+     * store.receipts.dir 시스템 속성의 디렉터리에 기록하는 영수증 기록을 반환한다.
+     * 속성이 없으면 아무것도 기록하지 않는다.
+     */
+    public static ReceiptLog getInstance() {
+        return LazyHolder.INSTANCE;
+    }
+
+    /**
+     * 아무것도 기록하지 않는 영수증 기록을 반환한다. 시스템 속성과 관계없이 파일을 만들지 않는다.
+     */
+    public static ReceiptLog disabled() {
+        return new ReceiptLog(null, DEFAULT_LANE);
+    }
+
+    /**
+     * 디렉터리에 계산대의 영수증을 기록한다. 파일은 첫 영수증을 기록할 때 만든다.
+     *
+     * @param directory 영수증 기록 디렉터리
+     * @param lane 계산대 이름
+     * @throws IllegalArgumentException 계산대 이름에 사용할 수 없는 문자가 있는 경우
+     */
+    public static ReceiptLog open(final Path directory, final String lane) {
+        if (lane.isEmpty() || !lane.chars().allMatch(ReceiptLog::isLaneChar)) {
+            throw new IllegalArgumentException(ERROR_LANE);
+        }
+        return new ReceiptLog(directory, lane);
+    }
+
+    private static boolean isLaneChar(int value) {
+        return Character.isLetterOrDigit(value) && value < 0x80 || value == '-' || value == '_';
+    }
+
+    /**
+     * 날짜별 영수증 파일의 경로를 반환한다.
+     */
+    public static Path dayDirectory(Path directory, LocalDate date) {
+        return directory.resolve(date.toString());
+    }
+
+    /**
+     * 경로가 파일이면 그 파일을, 디렉터리면 그 아래(하위 디렉터리 포함)의 영수증 기록 파일을 이름 순서로 반환한다.
+     *
+     * @throws IllegalStateException 디렉터리를 읽지 못한 경우
+     */
+    public static List<Path> findLogFiles(Path path) {
+        if (!Files.isDirectory(path)) {
+            return List.of(path);
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            return files
+                    .filter(Files::isRegularFile)
+                    .filter(file -> file.getFileName().toString().endsWith(FILE_SUFFIX))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new IllegalStateException("[ERROR] 영수증 기록 디렉터리를 읽을 수 없습니다.", e);
+        }
+    }
+
+    /**
+     * 영수증 한 장을 한 줄로 추가한다. 줄 전체를 한 번의 쓰기로 파일에 넘긴다.
+     *
+     * @throws IllegalStateException 파일에 쓰지 못한 경우
+     */
+    public synchronized void append(ReceiptResponse receipt) {
+        if (directory == null) {
+            return;
+        }
+        LocalDateTime issuedAt = DateTimes.now();
+        line.setLength(0);
+        line.append(lane).append(FIELD_SEPARATOR)
+                .append(issuedAt).append(FIELD_SEPARATOR)
+                .append(receipt.getTotalAmount()).append(FIELD_SEPARATOR)
+                .append(receipt.getPromotionDiscountAmount()).append(FIELD_SEPARATOR)
+                .append(receipt.getMembershipDiscountAmount()).append(FIELD_SEPARATOR)
+                .append(receipt.getFinalAmount()).append(FIELD_SEPARATOR);
+        List<PurchaseResponse> items = receipt.getItems();
+        appendItems(receipt.getGroupedItems());
+        line.append(FIELD_SEPARATOR);
+        List<PurchaseResponse> freeItems = receipt.getFreeItems();
+        for (int i = 0; i < freeItems.size(); i++) {
+            PurchaseResponse item = freeItems.get(i);
+            int discountAmount = item.getQuantity() * firstUnitPrice(items, item.getName());
+            appendItem(i, item.getName(), item.getQuantity(), discountAmount);
+        }
+        line.append('\n');
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(line.toString().getBytes(StandardCharsets.UTF_8));
+            FileChannel channel = channelFor(issuedAt.toLocalDate());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(ERROR_IO, e);
+        }
+    }
+
+    private void appendItems(List<PurchaseResponse> items) {
+        for (int i = 0; i < items.size(); i++) {
+            PurchaseResponse item = items.get(i);
+            appendItem(i, item.getName(), item.getQuantity(), item.getAmount());
+        }
+    }
+
+    private void appendItem(int index, String name, int quantity, int amount) {
+        if (index > 0) {
+            line.append(ITEM_SEPARATOR);
+        }
+        appendEscaped(name);
+        line.append(PART_SEPARATOR).append(quantity)
+                .append(PART_SEPARATOR).append(amount);
+    }
+
+    // 증정 상품의 금액은 0원이므로, Receipt의 행사할인과 같게 처음 구매한 항목의 단가로 할인 금액을 계산한다
+    private static int firstUnitPrice(List<PurchaseResponse> items, String name) {
+        for (PurchaseResponse item : items) {
+            if (item.getName().equals(name) && item.getQuantity() > 0) {
+                return item.getAmount() / item.getQuantity();
+            }
+        }
+        return 0;
+    }
+
+    private void appendEscaped(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            char value = name.charAt(i);
+            if (value == ESCAPE || value == FIELD_SEPARATOR || value == '\n' || value == '\r'
+                    || value == ITEM_SEPARATOR || value == PART_SEPARATOR) {
+                line.append(ESCAPE)
+                        .append(Character.forDigit(value >> 4, 16))
+                        .append(Character.forDigit(value & 0xF, 16));
+                continue;
+            }
+            line.append(value);
+        }
+    }
+
+    private FileChannel channelFor(LocalDate date) throws IOException {
+        if (date.equals(activeDate)) {
+            return active;
+        }
+        if (active != null) {
+            active.close();
+        }
+        Path dayDirectory = Files.createDirectories(dayDirectory(directory, date));
+        active = FileChannel.open(dayDirectory.resolve(FILE_PREFIX + lane + FILE_SUFFIX),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        activeDate = date;
+        return active;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (active == null) {
+            return;
+        }
+        try {
+            active.force(false);
+            active.close();
+        } catch (IOException e) {
+            throw new IllegalStateException(ERROR_IO, e);
+        } finally {
+            active = null;
+            activeDate = null;
+        }
+    }
+
+    /**
+     * 줄바꿈을 뺀 한 줄을 영수증으로 읽는다.
+     *
+     * @param bytes 줄이 들어 있는 배열
+     * @param start 줄의 시작 위치
+     * @param end 줄의 끝 위치 (줄바꿈 제외)
+     * @return 읽은 영수증. 형식이 맞지 않으면 빈 값
+     */
+    public static Optional<LoggedReceipt> parse(byte[] bytes, int start, int end) {
+        int[] fieldEnds = new int[FIELD_COUNT];
+        int field = 0;
+        for (int i = start; i < end && field < FIELD_COUNT; i++) {
+            if (bytes[i] == FIELD_SEPARATOR) {
+                fieldEnds[field++] = i;
+            }
+        }
+        if (field != FIELD_COUNT - 1) {
+            return Optional.empty();
+        }
+        fieldEnds[FIELD_COUNT - 1] = end;
+        try {
+            return Optional.of(new LoggedReceipt(
+                    new String(bytes, start, fieldEnds[0] - start, StandardCharsets.US_ASCII),
+                    parseInt(bytes, fieldEnds[1] + 1, fieldEnds[2]),
+                    parseInt(bytes, fieldEnds[2] + 1, fieldEnds[3]),
+                    parseInt(bytes, fieldEnds[3] + 1, fieldEnds[4]),
+                    parseInt(bytes, fieldEnds[4] + 1, fieldEnds[5]),
+                    parseItems(bytes, fieldEnds[5] + 1, fieldEnds[6]),
+                    parseItems(bytes, fieldEnds[6] + 1, fieldEnds[7])
+            ));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static List<LoggedItem> parseItems(byte[] bytes, int start, int end) {
+        List<LoggedItem> items = new ArrayList<>();
+        int itemStart = start;
+        while (itemStart < end) {
+            int itemEnd = indexOf(bytes, ITEM_SEPARATOR, itemStart, end);
+            int amountStart = lastIndexOf(bytes, PART_SEPARATOR, itemStart, itemEnd) + 1;
+            int quantityStart = lastIndexOf(bytes, PART_SEPARATOR, itemStart, amountStart - 1) + 1;
+            if (amountStart <= itemStart || quantityStart <= itemStart) {
+                throw new IllegalArgumentException();
+            }
+            items.add(new LoggedItem(
+                    decodeName(bytes, itemStart, quantityStart - 1),
+                    parseInt(bytes, quantityStart, amountStart - 1),
+                    parseInt(bytes, amountStart, itemEnd)
+            ));
+            itemStart = itemEnd + 1;
+        }
+        return items;
+    }
+
+    private static String decodeName(byte[] bytes, int start, int end) {
+        if (indexOf(bytes, ESCAPE, start, end) == end) {
+            return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        }
+        byte[] decoded = new byte[end - start];
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            if (bytes[i] == ESCAPE && i + 2 < end) {
+                String hex = new String(bytes, i + 1, 2, StandardCharsets.US_ASCII);
+                decoded[length++] = (byte) Integer.parseInt(hex, 16);
+                i += 2;
+                continue;
+            }
+            decoded[length++] = bytes[i];
+        }
+        return new String(decoded, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static int parseInt(byte[] bytes, int start, int end) {
+        if (start >= end) {
+            throw new IllegalArgumentException();
+        }
+        boolean negative = bytes[start] == '-';
+        long value = 0;
+        for (int i = negative ? start + 1 : start; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9 || value > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException();
+            }
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException();
+        }
+        return (int) value;
+    }
+
+    private static int indexOf(byte[] bytes, char target, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (bytes[i] == target) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static int lastIndexOf(byte[] bytes, char target, int start, int end) {
+        for (int i = end - 1; i >= start; i--) {
+            if (bytes[i] == target) {
+                return i;
+            }
+        }
+        return start - 1;
+    }
+
+    /**
+     * 영수증 기록에서 읽은 영수증 한 장.
+     *
+     * @param lane 계산대 이름
+     * @param totalAmount 총구매액
+     * @param promotionDiscountAmount 행사할인
+     * @param membershipDiscountAmount 멤버십할인
+     * @param finalAmount 내실돈
+     * @param items 상품명별로 합산한 구매 상품
+     * @param freeItems 증정 상품. 금액은 행사할인 금액이다.
+     */
+    public record LoggedReceipt(
+            String lane,
+            int totalAmount,
+            int promotionDiscountAmount,
+            int membershipDiscountAmount,
+            int finalAmount,
+            List<LoggedItem> items,
+            List<LoggedItem> freeItems
+    ) {
+    }
+
+    /**
+     * 영수증의 상품 한 줄.
+     */
+    public record LoggedItem(String name, int quantity, int amount) {
+    }
+}
@@ -0,0 +1,387 @@
+package store.domain.store.dao;
+
+import camp.nextstep.edu.missionutils.DateTimes;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import store.domain.store.dto.response.ReceiptResponse;
+
+/**
+ * 발행한 영수증을 바이너리 세그먼트에 추가하고 영수증 번호로 바로 찾는 영수증 저장소.
+ *
+ * <p>영수증 번호는 1부터 차례로 붙인다. 세그먼트(receipts-&lt;번호&gt;.seg)는 일정 크기로 미리 잡아 메모리 매핑해 두고
+ * 레코드를 매핑에 복사해 추가하며, 다음 레코드가 들어가지 않으면 새 세그먼트로 넘어간다.
+ * 인덱스 파일(receipts.idx)은 번호 순서로 8바이트 항목(세그먼트 번호 24비트, 세그먼트 안의 위치 + 1 40비트)을 두고
+ * 64MB 구간씩 메모리 매핑한다. 번호로 구간과 항목 위치가 바로 계산되므로 조회는 항목 하나와 레코드 하나만 읽고,
+ * 저장된 영수증 수나 세그먼트 수와 관계없이 일정한 시간이 걸린다.
+ *
+ * <p>레코드를 먼저 쓰고 인덱스 항목을 쓴 뒤 마지막 번호를 갱신하므로, 조회하는 스레드는 락 없이 완성된 영수증만 본다.
+ * 매핑에 쓴 내용은 프로세스가 종료되어도 운영체제에 남고, 디스크 반영은 세그먼트를 넘기거나 닫을 때 한다.
+ * 시작할 때는 인덱스의 마지막 항목부터 레코드의 CRC를 확인해 온전히 기록되지 않은 영수증을 버린다.
+ *
+ * <p>싱글톤은 store.receipt-store.dir 시스템 속성이 있을 때만 기록하고,
+ * 세그먼트 크기는 store.receipt-store.segment-mb 속성(기본 64)을 쓴다.
+ */
+public final class ReceiptStore implements AutoCloseable {
+    /** 저장소가 꺼져 있어 기록하지 않은 영수증의 번호. */
+    public static final long NOT_STORED = ReceiptResponse.NOT_STORED;
+
+    private static final String DIRECTORY_PROPERTY = "store.receipt-store.dir";
+    private static final String SEGMENT_MB_PROPERTY = "store.receipt-store.segment-mb";
+    private static final int DEFAULT_SEGMENT_MB = 64;
+    private static final int MAX_SEGMENT_MB = 1024;
+    private static final String SEGMENT_PREFIX = "receipts-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String INDEX_FILE = "receipts.idx";
+    private static final int INDEX_ENTRY_BYTES = Long.BYTES;
+    private static final int ENTRIES_PER_WINDOW_SHIFT = 23;
+    private static final long ENTRIES_PER_WINDOW_MASK = (1L << ENTRIES_PER_WINDOW_SHIFT) - 1;
+    private static final long WINDOW_BYTES = (long) INDEX_ENTRY_BYTES << ENTRIES_PER_WINDOW_SHIFT;
+    private static final int OFFSET_BITS = 40;
+    private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+    private static final int MAX_SEGMENT_NUMBER = (1 << (Long.SIZE - OFFSET_BITS)) - 1;
+    private static final String ERROR_IO = "[ERROR] 영수증을 저장하는데 실패했습니다.";
+    private static final String ERROR_READ = "[ERROR] 영수증 저장소를 읽을 수 없습니다.";
+    private static final String ERROR_CORRUPTED = "[ERROR] 영수증 저장소 파일이 손상되었습니다.";
+    private static final String ERROR_CLOSED = "[ERROR] 영수증 저장소가 이미 닫혔습니다.";
+    private static final String ERROR_SEGMENT_SIZE = "[ERROR] 세그먼트 크기는 1MB 이상 1024MB 이하여야 합니다.";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final Map<Integer, MappedByteBuffer> segments = new ConcurrentHashMap<>();
+    private FileChannel indexChannel;
+    private volatile MappedByteBuffer[] indexWindows = new MappedByteBuffer[0];
+    private volatile long lastId;
+    private int activeSegment;
+    private MappedByteBuffer activeBuffer;
+    private int activePosition;
+    private ByteBuffer encodeBuffer = ByteBuffer.allocate(4096);
+    private boolean closed;
+
+    private ReceiptStore(Path directory, int segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    private static class LazyHolder {
+        private static final ReceiptStore INSTANCE = createDefault();
+    }
+
+    private static ReceiptStore createDefault() {
+        String directory = System.getProperty(DIRECTORY_PROPERTY);
+        if (directory == null) {
+            return disabled();
+        }
+        int segmentMegabytes = Integer.getInteger(SEGMENT_MB_PROPERTY, DEFAULT_SEGMENT_MB);
+        ReceiptStore receiptStore = open(Path.of(directory), segmentMegabytes);
+        Runtime.getRuntime().addShutdownHook(new Thread(receiptStore::close));
+        return receiptStore;
+    }
+
+    /**
+     * store.receipt-store.dir 시스템 속성의 디렉터리를 쓰는 영수증 저장소를 반환한다.
+     * 속성이 없으면 아무것도 기록하지 않고 조회 결과도 항상 비어 있다.
+     */
+    public static ReceiptStore getInstance() {
+        return LazyHolder.INSTANCE;
+    }
+
+    /**
+     * 아무것도 저장하지 않는 영수증 저장소를 반환한다. 조회 결과는 항상 비어 있다.
+     */
+    public static ReceiptStore disabled() {
+        return new ReceiptStore(null, 0);
+    }
+
+    /**
+     * 디렉터리의 영수증 저장소를 연다. 디렉터리가 없으면 만들고, 기존 저장소가 있으면 이어서 기록한다.
+     *
+     * @param directory 저장소 디렉터리
+     * @param segmentMegabytes 세그먼트 크기(MB)
+     * @throws IllegalArgumentException 세그먼트 크기가 범위를 벗어난 경우
+     * @throws IllegalStateException 저장소 파일을 열지 못했거나 손상된 경우
+     */
+    public static ReceiptStore open(final Path directory, final int segmentMegabytes) {
+        if (segmentMegabytes < 1 || segmentMegabytes > MAX_SEGMENT_MB) {
+            throw new IllegalArgumentException(ERROR_SEGMENT_SIZE);
+        }
+        ReceiptStore receiptStore = new ReceiptStore(directory, segmentMegabytes * 1024 * 1024);
+        try {
+            receiptStore.recover();
+        } catch (IOException e) {
+            receiptStore.close();
+            throw new IllegalStateException(ERROR_READ, e);
+        } catch (IllegalStateException e) {
+            receiptStore.close();
+            throw e;
+        }
+        return receiptStore;
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        indexChannel = FileChannel.open(directory.resolve(INDEX_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long capacity = indexChannel.size() / INDEX_ENTRY_BYTES;
+        if (capacity > 0) {
+            mapWindow((int) ((capacity - 1) >>> ENTRIES_PER_WINDOW_SHIFT));
+        }
+        lastId = countEntries(capacity);
+        while (lastId > 0 && !isIntact(lastId)) {
+            putEntry(lastId - 1, 0);
+            lastId--;
+        }
+
+        activeSegment = 1;
+        activePosition = ReceiptStoreFiles.SEGMENT_HEADER_BYTES;
+        if (lastId > 0) {
+            long entry = entryOf(lastId - 1);
+            activeSegment = segmentOf(entry);
+            MappedByteBuffer segment = segmentBuffer(activeSegment);
+            int offset = offsetOf(entry);
+            activePosition = offset + ReceiptStoreFiles.RECORD_HEADER_BYTES + segment.getInt(offset);
+        }
+        deleteSegmentsAfter(activeSegment);
+        openActiveSegment(activeSegment, segmentBytes);
+    }
+
+    // 인덱스 항목은 앞에서부터 빈틈없이 채워지므로, 0이 아닌 마지막 항목을 이분 탐색으로 찾는다
+    private long countEntries(long capacity) {
+        long low = 0;
+        long high = capacity;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (entryOf(middle) != 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private boolean isIntact(long id) throws IOException {
+        long entry = entryOf(id - 1);
+        Path path = segmentPath(directory, segmentOf(entry));
+        if (!Files.exists(path)) {
+            return false;
+        }
+        MappedByteBuffer segment = segmentBuffer(segmentOf(entry));
+        return ReceiptStoreFiles.validBodyLength(segment, offsetOf(entry), segment.limit()) >= 0;
+    }
+
+    private void deleteSegmentsAfter(int segment) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : files.toList()) {
+                int number = segmentNumberOf(path);
+                if (number > segment) {
+                    segments.remove(number);
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    private static int segmentNumberOf(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(name, SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length(), 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 영수증 한 장을 추가하고 붙인 영수증 번호를 반환한다. 저장소가 꺼져 있으면 NOT_STORED를 반환한다.
+     *
+     * @throws IllegalStateException 저장소가 닫혔거나 파일에 쓰지 못한 경우
+     */
+    public synchronized long append(ReceiptResponse receipt) {
+        if (directory == null) {
+            return NOT_STORED;
+        }
+        if (closed) {
+            throw new IllegalStateException(ERROR_CLOSED);
+        }
+        long id = lastId + 1;
+        LocalDateTime issuedAt = DateTimes.now();
+        int maxBytes = ReceiptStoreFiles.maxRecordBytes(receipt);
+        if (encodeBuffer.capacity() < maxBytes) {
+            encodeBuffer = ByteBuffer.allocate(Math.max(maxBytes, encodeBuffer.capacity() * 2));
+        }
+        ByteBuffer record = ReceiptStoreFiles.encode(encodeBuffer, id, issuedAt, receipt);
+        int length = record.remaining();
+        try {
+            if (activePosition > activeBuffer.capacity() - length) {
+                rollOver(length);
+            }
+            activeBuffer.put(activePosition, record, 0, length);
+            putEntry(id - 1, ((long) activeSegment << OFFSET_BITS) | (activePosition + 1L));
+        } catch (IOException e) {
+            throw new IllegalStateException(ERROR_IO, e);
+        }
+        activePosition += length;
+        lastId = id;
+        return id;
+    }
+
+    private void rollOver(int recordLength) throws IOException {
+        if (activeSegment == MAX_SEGMENT_NUMBER) {
+            throw new IOException("segment number overflow");
+        }
+        activeBuffer.force();
+        openActiveSegment(activeSegment + 1, ReceiptStoreFiles.SEGMENT_HEADER_BYTES + recordLength);
+    }
+
+    // 세그먼트 크기보다 큰 영수증은 그 영수증이 들어갈 만큼 큰 세그먼트를 만든다
+    private void openActiveSegment(int number, int minimumBytes) throws IOException {
+        Path path = segmentPath(directory, number);
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            boolean fresh = channel.size() < ReceiptStoreFiles.SEGMENT_HEADER_BYTES;
+            long size = Math.max(Math.max(segmentBytes, minimumBytes), channel.size());
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (fresh) {
+                buffer.putInt(0, ReceiptStoreFiles.SEGMENT_MAGIC);
+                buffer.putShort(Integer.BYTES, ReceiptStoreFiles.FORMAT_VERSION);
+                activePosition = ReceiptStoreFiles.SEGMENT_HEADER_BYTES;
+            }
+            checkHeader(buffer);
+            segments.put(number, buffer);
+            activeSegment = number;
+            activeBuffer = buffer;
+        }
+    }
+
+    /**
+     * 영수증 번호로 저장된 영수증을 찾는다. 락을 잡지 않으므로 기록 중에도 다른 스레드에서 조회할 수 있다.
+     *
+     * @return 영수증, 아직 발행되지 않은 번호이거나 저장소가 꺼져 있으면 빈 값
+     * @throws IllegalStateException 세그먼트를 읽지 못했거나 레코드가 손상된 경우
+     */
+    public Optional<StoredReceipt> find(long id) {
+        if (id < 1 || id > lastId) {
+            return Optional.empty();
+        }
+        long entry = entryOf(id - 1);
+        ByteBuffer segment;
+        try {
+            segment = segmentBuffer(segmentOf(entry));
+        } catch (IOException e) {
+            throw new IllegalStateException(ERROR_READ, e);
+        }
+        return Optional.of(ReceiptStoreFiles.decode(segment, offsetOf(entry), id));
+    }
+
+    /**
+     * 지금까지 저장한 영수증 수(마지막 영수증 번호)를 반환한다.
+     */
+    public long size() {
+        return lastId;
+    }
+
+    private MappedByteBuffer segmentBuffer(int number) throws IOException {
+        MappedByteBuffer segment = segments.get(number);
+        if (segment != null) {
+            return segment;
+        }
+        try (FileChannel channel = FileChannel.open(segmentPath(directory, number), StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            checkHeader(mapped);
+            MappedByteBuffer previous = segments.putIfAbsent(number, mapped);
+            if (previous != null) {
+                return previous;
+            }
+            return mapped;
+        }
+    }
+
+    private static void checkHeader(ByteBuffer segment) {
+        if (segment.limit() < ReceiptStoreFiles.SEGMENT_HEADER_BYTES
+                || segment.getInt(0) != ReceiptStoreFiles.SEGMENT_MAGIC
+                || segment.getShort(Integer.BYTES) != ReceiptStoreFiles.FORMAT_VERSION) {
+            throw new IllegalStateException(ERROR_CORRUPTED);
+        }
+    }
+
+    private long entryOf(long slot) {
+        MappedByteBuffer window = indexWindows[(int) (slot >>> ENTRIES_PER_WINDOW_SHIFT)];
+        return window.getLong((int) (slot & ENTRIES_PER_WINDOW_MASK) * INDEX_ENTRY_BYTES);
+    }
+
+    private void putEntry(long slot, long entry) throws IOException {
+        int window = (int) (slot >>> ENTRIES_PER_WINDOW_SHIFT);
+        if (window >= indexWindows.length) {
+            mapWindow(window);
+        }
+        indexWindows[window].putLong((int) (slot & ENTRIES_PER_WINDOW_MASK) * INDEX_ENTRY_BYTES, entry);
+    }
+
+    // 매핑한 구간 배열을 새 배열로 바꿔 끼우므로, 조회하는 스레드는 마지막 번호를 읽은 뒤 필요한 구간을 모두 본다
+    private void mapWindow(int lastWindow) throws IOException {
+        MappedByteBuffer[] windows = Arrays.copyOf(indexWindows, lastWindow + 1);
+        for (int window = indexWindows.length; window <= lastWindow; window++) {
+            windows[window] = indexChannel.map(FileChannel.MapMode.READ_WRITE, window * WINDOW_BYTES, WINDOW_BYTES);
+        }
+        indexWindows = windows;
+    }
+
+    private static int segmentOf(long entry) {
+        return (int) (entry >>> OFFSET_BITS);
+    }
+
+    private static int offsetOf(long entry) {
+        return (int) ((entry & OFFSET_MASK) - 1);
+    }
+
+    private static Path segmentPath(Path directory, int number) {
+        return directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * 기록한 내용을 디스크에 반영하고 저장소를 닫는다. 이미 매핑한 세그먼트는 닫은 뒤에도 조회할 수 있다.
+     */
+    @Override
+    public synchronized void close() {
+        if (directory == null || closed) {
+            return;
+        }
+        closed = true;
+        if (activeBuffer != null) {
+            activeBuffer.force();
+        }
+        for (MappedByteBuffer window : indexWindows) {
+            window.force();
+        }
+        try {
+            if (indexChannel != null) {
+                indexChannel.close();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(ERROR_IO, e);
+        }
+    }
+
+    /**
+     * 저장소에서 찾은 영수증.
+     *
+     * @param id 영수증 번호
+     * @param issuedAt 발행 시각 (초 단위)
+     * @param receipt 영수증 내용
+     */
+    public record StoredReceipt(long id, LocalDateTime issuedAt, ReceiptResponse receipt) {
+    }
+}
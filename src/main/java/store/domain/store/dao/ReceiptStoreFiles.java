@@ -0,0 +1,180 @@
+package store.domain.store.dao;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import store.domain.store.dto.response.PurchaseResponse;
+import store.domain.store.dto.response.ReceiptResponse;
+
+/**
+ * 영수증 저장소 세그먼트의 바이너리 형식을 읽고 쓴다.
+ *
+ * <p>세그먼트: 헤더(magic int, version short) 뒤에 레코드가 이어진다.
+ * 레코드는 본문 길이(int), 본문 CRC32(int), 본문 순서다.
+ * 본문은 영수증 번호, 발행 시각(UTC 기준 epoch 초), 총구매액, 행사할인, 멤버십할인, 내실돈,
+ * 구매 상품 수와 상품(이름 길이, 이름 UTF-8, 수량, 금액), 증정 상품 수와 상품 순서이며
+ * 이름을 제외한 모든 값은 zigzag 가변 길이 정수로 기록한다.
+ * 영수증의 금액과 수량은 대부분 1~3바이트에 들어간다.
+ */
+final class ReceiptStoreFiles {
+    static final int SEGMENT_MAGIC = 0x52435054;
+    static final short FORMAT_VERSION = 1;
+    static final int SEGMENT_HEADER_BYTES = Integer.BYTES + Short.BYTES;
+    static final int RECORD_HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int MAX_VARLONG_BYTES = 10;
+    private static final String ERROR_CORRUPTED = "[ERROR] 영수증 저장소 파일이 손상되었습니다.";
+
+    private ReceiptStoreFiles() {
+    }
+
+    /**
+     * 영수증 한 장을 레코드로 인코딩한다. 반환한 버퍼는 레코드 헤더부터 읽을 수 있는 상태다.
+     */
+    static ByteBuffer encode(ByteBuffer buffer, long id, LocalDateTime issuedAt, ReceiptResponse receipt) {
+        buffer.clear();
+        buffer.position(RECORD_HEADER_BYTES);
+        putVarLong(buffer, id);
+        putVarLong(buffer, issuedAt.toEpochSecond(ZoneOffset.UTC));
+        putVarLong(buffer, receipt.getTotalAmount());
+        putVarLong(buffer, receipt.getPromotionDiscountAmount());
+        putVarLong(buffer, receipt.getMembershipDiscountAmount());
+        putVarLong(buffer, receipt.getFinalAmount());
+        putItems(buffer, receipt.getItems());
+        putItems(buffer, receipt.getFreeItems());
+        int bodyLength = buffer.position() - RECORD_HEADER_BYTES;
+        buffer.putInt(0, bodyLength);
+        buffer.putInt(Integer.BYTES, crcOf(buffer, RECORD_HEADER_BYTES, bodyLength));
+        return buffer.flip();
+    }
+
+    private static void putItems(ByteBuffer buffer, List<PurchaseResponse> items) {
+        putVarLong(buffer, items.size());
+        for (PurchaseResponse item : items) {
+            byte[] name = item.getName().getBytes(StandardCharsets.UTF_8);
+            putVarLong(buffer, name.length);
+            buffer.put(name);
+            putVarLong(buffer, item.getQuantity());
+            putVarLong(buffer, item.getAmount());
+        }
+    }
+
+    /**
+     * 영수증 한 장을 인코딩했을 때의 최대 바이트 수를 반환한다. 인코딩 버퍼의 크기를 정하는 데 쓴다.
+     */
+    static int maxRecordBytes(ReceiptResponse receipt) {
+        // 번호, 시각, 금액 4개, 상품 수 2개
+        int bytes = RECORD_HEADER_BYTES + 8 * MAX_VARLONG_BYTES;
+        for (PurchaseResponse item : receipt.getItems()) {
+            bytes += maxItemBytes(item);
+        }
+        for (PurchaseResponse item : receipt.getFreeItems()) {
+            bytes += maxItemBytes(item);
+        }
+        return bytes;
+    }
+
+    // UTF-8은 char 하나를 최대 3바이트로 쓴다
+    private static int maxItemBytes(PurchaseResponse item) {
+        return 3 * MAX_VARLONG_BYTES + 3 * item.getName().length();
+    }
+
+    /**
+     * 세그먼트의 offset 위치에 있는 레코드의 본문 길이를 반환한다.
+     * 레코드 헤더나 본문이 limit을 넘거나 CRC가 맞지 않으면 -1을 반환한다.
+     */
+    static int validBodyLength(ByteBuffer segment, int offset, int limit) {
+        if (offset < SEGMENT_HEADER_BYTES || offset > limit - RECORD_HEADER_BYTES) {
+            return -1;
+        }
+        int bodyLength = segment.getInt(offset);
+        if (bodyLength <= 0 || bodyLength > limit - offset - RECORD_HEADER_BYTES) {
+            return -1;
+        }
+        if (segment.getInt(offset + Integer.BYTES) != crcOf(segment, offset + RECORD_HEADER_BYTES, bodyLength)) {
+            return -1;
+        }
+        return bodyLength;
+    }
+
+    /**
+     * offset 위치의 레코드를 읽어 영수증으로 복원한다.
+     *
+     * @throws IllegalStateException 레코드가 손상되었거나 다른 영수증 번호의 레코드인 경우
+     */
+    static ReceiptStore.StoredReceipt decode(ByteBuffer segment, int offset, long expectedId) {
+        int bodyLength = validBodyLength(segment, offset, segment.limit());
+        if (bodyLength < 0) {
+            throw new IllegalStateException(ERROR_CORRUPTED);
+        }
+        ByteBuffer body = segment.slice(offset + RECORD_HEADER_BYTES, bodyLength);
+        long id = getVarLong(body);
+        if (id != expectedId) {
+            throw new IllegalStateException(ERROR_CORRUPTED);
+        }
+        LocalDateTime issuedAt = LocalDateTime.ofEpochSecond(getVarLong(body), 0, ZoneOffset.UTC);
+        int totalAmount = getVarInt(body);
+        int promotionDiscountAmount = getVarInt(body);
+        int membershipDiscountAmount = getVarInt(body);
+        int finalAmount = getVarInt(body);
+        List<PurchaseResponse> items = getItems(body);
+        List<PurchaseResponse> freeItems = getItems(body);
+        ReceiptResponse receipt = ReceiptResponse.of(items, freeItems,
+                totalAmount, promotionDiscountAmount, membershipDiscountAmount, finalAmount).withReceiptId(id);
+        return new ReceiptStore.StoredReceipt(id, issuedAt, receipt);
+    }
+
+    private static List<PurchaseResponse> getItems(ByteBuffer body) {
+        int count = getVarInt(body);
+        List<PurchaseResponse> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int nameLength = getVarInt(body);
+            items.add(PurchaseResponse.of(decodeName(body, nameLength), getVarInt(body), getVarInt(body)));
+        }
+        return items;
+    }
+
+    private static String decodeName(ByteBuffer body, int length) {
+        byte[] name = new byte[length];
+        body.get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private static void putVarLong(ByteBuffer buffer, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            buffer.put((byte) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        buffer.put((byte) zigzag);
+    }
+
+    private static long getVarLong(ByteBuffer buffer) {
+        long zigzag = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte value = buffer.get();
+            zigzag |= (long) (value & 0x7F) << shift;
+            if (value >= 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IllegalStateException(ERROR_CORRUPTED);
+    }
+
+    private static int getVarInt(ByteBuffer buffer) {
+        long value = getVarLong(buffer);
+        if (value != (int) value) {
+            throw new IllegalStateException(ERROR_CORRUPTED);
+        }
+        return (int) value;
+    }
+
+    private static int crcOf(ByteBuffer buffer, int start, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(start, length));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,83 @@
+package store.domain.store.dao;
+
+/**
+ * 상품 슬롯 하나에 대해 재고 기록을 순서대로 접어 둔 결과.
+ * 절대 수량이 기록된 적이 있으면 그 수량에서, 없으면 상품 파일의 수량에서 차감 합계를 뺀 값이 현재 재고다.
+ */
+final class StockChange {
+    private final String name;
+    private final int slot;
+    private boolean absolute;
+    private int quantity;
+    private long removed;
+
+    private StockChange(String name, int slot) {
+        this.name = name;
+        this.slot = slot;
+    }
+
+    static StockChange of(final String name, final int slot) {
+        return new StockChange(name, slot);
+    }
+
+    static StockChange restore(
+            final String name,
+            final int slot,
+            final boolean absolute,
+            final int quantity,
+            final long removed
+    ) {
+        StockChange change = new StockChange(name, slot);
+        change.absolute = absolute;
+        change.quantity = quantity;
+        change.removed = removed;
+        return change;
+    }
+
+    void remove(int quantity) {
+        removed += quantity;
+    }
+
+    void set(int quantity) {
+        this.absolute = true;
+        this.quantity = quantity;
+        this.removed = 0;
+    }
+
+    /**
+     * 기록을 적용한 재고를 계산한다.
+     *
+     * @param baseQuantity 상품 파일에서 읽은 재고
+     * @return 기록을 모두 적용한 재고
+     */
+    long applyTo(int baseQuantity) {
+        if (absolute) {
+            return quantity - removed;
+        }
+        return baseQuantity - removed;
+    }
+
+    String name() {
+        return name;
+    }
+
+    int slot() {
+        return slot;
+    }
+
+    boolean isAbsolute() {
+        return absolute;
+    }
+
+    int quantity() {
+        return quantity;
+    }
+
+    long removed() {
+        return removed;
+    }
+
+    // 기록을 접을 때 사용하는 키
+    record Key(String name, int slot) {
+    }
+}
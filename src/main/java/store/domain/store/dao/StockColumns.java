@@ -0,0 +1,413 @@
+package store.domain.store.dao;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import store.domain.store.domain.Product;
+import store.domain.store.domain.ProductId;
+import store.domain.store.domain.StockStore;
+import store.domain.store.util.ProductRowSink;
+
+/**
+ * 상품 정보를 상품 객체 대신 열 단위의 int 배열로 보관하는 저장 공간.
+ *
+ * <p>상품명마다 번호를 붙이고, 번호마다 프로모션/일반 상품의 두 칸을 둔다(칸 번호 = 상품 번호 × 2 + 슬롯).
+ * 가격, 재고 수량, 프로모션명 번호를 칸 번호로 접근하는 각각의 열에 저장하므로
+ * 상품 수가 늘어도 상품마다 객체를 만들지 않는다. 열은 힙의 배열이나 힙 밖의 다이렉트 버퍼에 둘 수 있다.
+ *
+ * <p>조회 결과의 상품 객체는 칸을 가리키기만 하므로 재고 차감은 곧바로 열에 반영된다.
+ * 적재가 끝난 뒤에는 칸마다 상품 객체를, 번호마다 ProductId를 처음 조회할 때 한 번만 만들어 재사용한다.
+ * 상품 파일을 읽을 때는 ProductRowSink로 행의 값을 받아 상품 객체 없이 열에 바로 쓴다.
+ */
+final class StockColumns implements StockStore, ProductRowSink {
+    static final int PROMOTION = 0;
+    static final int NORMAL = 1;
+    private static final int SLOT_COUNT = 2;
+    // 프로모션명 열에서 상품이 없는 칸과 프로모션명이 null인 칸을 나타내는 값
+    private static final int ABSENT = -2;
+    private static final int NULL_LABEL = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final String ERROR_RESTORE = "[ERROR] 저장된 상품 정보가 올바르지 않습니다.";
+    private static final VarHandle VIEWS = MethodHandles.arrayElementVarHandle(Product[].class);
+
+    private final NameTable names;
+    private final IntColumn prices;
+    private final IntColumn quantities;
+    private final IntColumn labels;
+    private final List<String> labelNames;
+    private final Map<String, Integer> labelIds;
+    private byte[] firstSlots;
+    private int[] fileOrder;
+    private int fileOrderSize;
+    // 적재가 끝난 뒤의 조회 결과. 구매 작업은 상품 객체를 키로 차감을 모으므로 칸마다 먼저 등록된 객체 하나만 쓴다
+    private Product[] views;
+    private ProductId[] productIds;
+
+    private StockColumns(boolean offHeap) {
+        this.names = new NameTable();
+        this.prices = IntColumn.of(offHeap, INITIAL_CAPACITY * SLOT_COUNT);
+        this.quantities = IntColumn.of(offHeap, INITIAL_CAPACITY * SLOT_COUNT);
+        this.labels = IntColumn.of(offHeap, INITIAL_CAPACITY * SLOT_COUNT);
+        this.labelNames = new ArrayList<>();
+        this.labelIds = new HashMap<>();
+        this.firstSlots = new byte[INITIAL_CAPACITY];
+        this.fileOrder = new int[INITIAL_CAPACITY];
+    }
+
+    private StockColumns(
+            NameTable names,
+            IntColumn prices,
+            IntColumn quantities,
+            IntColumn labels,
+            List<String> labelNames,
+            int[] fileOrder
+    ) {
+        this.names = names;
+        this.prices = prices;
+        this.quantities = quantities;
+        this.labels = labels;
+        this.labelNames = new ArrayList<>(labelNames);
+        this.labelIds = new HashMap<>();
+        for (int label = 0; label < labelNames.size(); label++) {
+            labelIds.put(labelNames.get(label), label);
+        }
+        this.firstSlots = new byte[Math.max(names.size(), 1)];
+        Arrays.fill(firstSlots, (byte) -1);
+        this.fileOrder = fileOrder;
+        this.fileOrderSize = fileOrder.length;
+        createViews();
+    }
+
+    /**
+     * 빈 저장 공간을 생성한다.
+     *
+     * @param offHeap 열을 힙 밖의 다이렉트 버퍼에 둘지 여부
+     */
+    static StockColumns create(boolean offHeap) {
+        return new StockColumns(offHeap);
+    }
+
+    /**
+     * 스냅샷에 저장해 둔 열을 그대로 받아 적재가 끝난 저장 공간을 만든다.
+     * 열의 값은 칸 번호 순서이며 프로모션명 열의 값은 labelNames의 번호다.
+     *
+     * @param names 적재가 끝난 상품명 테이블
+     * @param labelNames 프로모션명 열의 번호가 가리키는 이름
+     * @param fileOrder 파일 순서대로 나열한 칸 번호
+     * @throws IllegalStateException 열의 값이 서로 맞지 않는 경우
+     */
+    static StockColumns restore(
+            final NameTable names,
+            final IntColumn prices,
+            final IntColumn quantities,
+            final IntColumn labels,
+            final List<String> labelNames,
+            final int[] fileOrder
+    ) {
+        StockColumns columns = new StockColumns(names, prices, quantities, labels, labelNames, fileOrder);
+        columns.validateRestored();
+        return columns;
+    }
+
+    // 파일 순서의 칸마다 상품이 있는지 확인하면서 먼저 등장한 슬롯을 구한다
+    private void validateRestored() {
+        int cells = names.size() * SLOT_COUNT;
+        int present = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            int label = labels.get(cell);
+            if (label < ABSENT || label >= labelNames.size()) {
+                throw new IllegalStateException(ERROR_RESTORE);
+            }
+            if (label != ABSENT) {
+                present++;
+            }
+        }
+        if (present != fileOrderSize) {
+            throw new IllegalStateException(ERROR_RESTORE);
+        }
+        for (int i = 0; i < fileOrderSize; i++) {
+            int cell = fileOrder[i];
+            if (cell < 0 || cell >= cells || !contains(cell)) {
+                throw new IllegalStateException(ERROR_RESTORE);
+            }
+            int id = cell / SLOT_COUNT;
+            if (firstSlots[id] < 0) {
+                firstSlots[id] = (byte) (cell % SLOT_COUNT);
+            }
+        }
+    }
+
+    static int slotOf(Product product) {
+        if (product.hasValidPromotion()) {
+            return PROMOTION;
+        }
+        return NORMAL;
+    }
+
+    static int cellOf(int id, int slot) {
+        return id * SLOT_COUNT + slot;
+    }
+
+    /**
+     * 상품을 열에 추가한다. 적재하는 동안 한 스레드에서만 호출해야 한다.
+     *
+     * @throws IllegalStateException 같은 상품명과 슬롯의 상품이 이미 있는 경우
+     */
+    void add(Product product) {
+        byte[] name = product.getName().getBytes(StandardCharsets.UTF_8);
+        add(name, 0, name.length, product.getPrice(), product.getQuantity(), labelIdOf(product.getPromotionName()));
+    }
+
+    @Override
+    public int promotionLabel(String promotionName) {
+        return labelIdOf(promotionName);
+    }
+
+    @Override
+    public void add(byte[] name, int nameOffset, int nameLength, int price, int quantity, int promotionLabel) {
+        int nameEnd = nameOffset + nameLength;
+        int id = names.find(name, nameOffset, nameEnd);
+        if (id < 0) {
+            id = names.add(name, nameOffset, nameEnd);
+            ensureCapacity(id + 1);
+            labels.set(cellOf(id, PROMOTION), ABSENT);
+            labels.set(cellOf(id, NORMAL), ABSENT);
+            firstSlots[id] = -1;
+        }
+        int slot = slotOf(promotionLabel);
+        int cell = cellOf(id, slot);
+        if (contains(cell)) {
+            throw new IllegalStateException(
+                    String.format("[ERROR] %s 상품 정보가 중복되었습니다.", names.nameOf(id)));
+        }
+        prices.set(cell, price);
+        quantities.set(cell, quantity);
+        labels.set(cell, promotionLabel);
+        if (firstSlots[id] < 0) {
+            firstSlots[id] = (byte) slot;
+        }
+        if (fileOrderSize == fileOrder.length) {
+            fileOrder = Arrays.copyOf(fileOrder, fileOrder.length * 2);
+        }
+        fileOrder[fileOrderSize++] = cell;
+    }
+
+    // Product.hasValidPromotion과 같은 기준으로 슬롯을 고른다
+    private int slotOf(int label) {
+        if (label != NULL_LABEL && Product.isValidPromotionName(labelNames.get(label))) {
+            return PROMOTION;
+        }
+        return NORMAL;
+    }
+
+    /**
+     * 적재를 마치고 상품명 색인을 최소 완전 해시로 바꾼다.
+     */
+    void seal() {
+        names.seal();
+        createViews();
+    }
+
+    /**
+     * 상품명의 번호를 반환한다.
+     *
+     * @return 상품 번호 (없으면 -1)
+     */
+    int idOf(CharSequence name) {
+        return names.find(name);
+    }
+
+    /**
+     * 문자열의 [start, end) 구간과 같은 상품명의 번호를 반환한다.
+     *
+     * @return 상품 번호 (없으면 -1)
+     */
+    int idOf(CharSequence name, int start, int end) {
+        return names.find(name, start, end);
+    }
+
+    /**
+     * 번호의 ProductId를 반환한다. 적재가 끝난 뒤에는 번호마다 같은 객체를 반환한다.
+     */
+    ProductId productIdOf(int id) {
+        if (productIds == null) {
+            return new ProductId(id);
+        }
+        ProductId productId = productIds[id];
+        if (productId == null) {
+            productId = new ProductId(id);
+            productIds[id] = productId;
+        }
+        return productId;
+    }
+
+    int size() {
+        return names.size();
+    }
+
+    String nameOf(int id) {
+        return names.nameOf(id);
+    }
+
+    boolean contains(int cell) {
+        return labels.get(cell) != ABSENT;
+    }
+
+    /**
+     * 파일에서 먼저 등장한 상품의 칸 번호를 반환한다.
+     */
+    int firstCell(int id) {
+        return cellOf(id, firstSlots[id]);
+    }
+
+    int totalQuantity(int id) {
+        int total = 0;
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            int cell = cellOf(id, slot);
+            if (contains(cell)) {
+                total += quantities.get(cell);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 칸을 가리키는 상품 객체를 반환한다. 적재가 끝난 뒤에는 칸마다 같은 객체를 반환한다.
+     *
+     * @param cell 상품이 있는 칸 번호
+     */
+    Product productAt(int cell) {
+        if (views == null) {
+            return createView(cell);
+        }
+        Product view = (Product) VIEWS.getAcquire(views, cell);
+        if (view != null) {
+            return view;
+        }
+        Product created = createView(cell);
+        Product witness = (Product) VIEWS.compareAndExchangeRelease(views, cell, null, created);
+        return witness == null ? created : witness;
+    }
+
+    private Product createView(int cell) {
+        String name = nameOf(cell / SLOT_COUNT);
+        return Product.backedBy(name, prices.get(cell), labelNameOf(labels.get(cell)), this, cell);
+    }
+
+    private void createViews() {
+        this.views = new Product[names.size() * SLOT_COUNT];
+        this.productIds = new ProductId[names.size()];
+    }
+
+    /**
+     * 파일 순서대로 모든 칸의 상품 객체를 반환한다.
+     */
+    List<Product> products() {
+        List<Product> products = new ArrayList<>(fileOrderSize);
+        for (int i = 0; i < fileOrderSize; i++) {
+            int cell = fileOrder[i];
+            products.add(productAt(cell));
+        }
+        return products;
+    }
+
+    /**
+     * 칸에 같은 프로모션명을 가진 상품이 있어 덮어쓸 수 있는지 확인한다.
+     */
+    boolean canReplace(int cell, Product product) {
+        return contains(cell) && Objects.equals(labelNameOf(labels.get(cell)), product.getPromotionName());
+    }
+
+    /**
+     * 칸의 가격과 재고를 덮어쓴다. canReplace로 먼저 확인해야 한다.
+     * 가격이 바뀌면 만들어 둔 상품 객체를 버려 다음 조회에서 새 가격으로 만든다.
+     */
+    void replace(int cell, Product product) {
+        if (prices.get(cell) != product.getPrice() && views != null) {
+            VIEWS.setRelease(views, cell, null);
+        }
+        prices.set(cell, product.getPrice());
+        quantities.set(cell, product.getQuantity());
+    }
+
+    /**
+     * 모든 칸의 수(상품 번호 수 × 2)를 반환한다.
+     */
+    int cellCount() {
+        return names.size() * SLOT_COUNT;
+    }
+
+    NameTable names() {
+        return names;
+    }
+
+    IntColumn prices() {
+        return prices;
+    }
+
+    IntColumn quantities() {
+        return quantities;
+    }
+
+    IntColumn labels() {
+        return labels;
+    }
+
+    List<String> labelNames() {
+        return List.copyOf(labelNames);
+    }
+
+    int fileOrderSize() {
+        return fileOrderSize;
+    }
+
+    int fileOrderAt(int index) {
+        return fileOrder[index];
+    }
+
+    void setQuantity(int cell, int quantity) {
+        quantities.set(cell, quantity);
+    }
+
+    @Override
+    public int quantity(int cell) {
+        return quantities.get(cell);
+    }
+
+    @Override
+    public boolean compareAndSetQuantity(int cell, int expected, int updated) {
+        return quantities.compareAndSet(cell, expected, updated);
+    }
+
+    private void ensureCapacity(int ids) {
+        prices.ensureCapacity(ids * SLOT_COUNT);
+        quantities.ensureCapacity(ids * SLOT_COUNT);
+        labels.ensureCapacity(ids * SLOT_COUNT);
+        if (ids > firstSlots.length) {
+            firstSlots = Arrays.copyOf(firstSlots, Math.max(ids, firstSlots.length * 2));
+        }
+    }
+
+    private int labelIdOf(String promotionName) {
+        if (promotionName == null) {
+            return NULL_LABEL;
+        }
+        return labelIds.computeIfAbsent(promotionName, name -> {
+            labelNames.add(name);
+            return labelNames.size() - 1;
+        });
+    }
+
+    private String labelNameOf(int label) {
+        if (label == NULL_LABEL) {
+            return null;
+        }
+        return labelNames.get(label);
+    }
+}
@@ -0,0 +1,517 @@
+package store.domain.store.dao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 재고 변경을 파일에 먼저 기록하는 추가 전용 저널.
+ *
+ * <p>레코드는 FileChannel에 바로 쓰고, 디스크 반영(fsync)은 별도 스레드가 N개 레코드마다 또는 T밀리초마다
+ * 한 번씩 묶어서 수행한다. 여러 계산대의 판매가 하나의 fsync를 함께 기다리므로 판매마다 fsync가 일어나지 않는다.
+ * 저장소는 awaitDurable이 돌아온 뒤에야 재고를 바꾼다. 쓰기나 fsync에 한 번이라도 실패하면 저널은 실패 상태로 남아
+ * 이후의 기록과 awaitDurable이 모두 예외를 던지므로, 디스크에 남았는지 알 수 없는 상태로 판매를 계속하지 않는다.
+ * 실패할 때는 마지막으로 반영된 위치 뒤의 기록을 잘라 내, 실패를 통보받은 판매가 재시작 후에 적용되지 않게 한다.
+ *
+ * <p>한 번의 판매에서 바뀐 재고는 {@link Batch}로 모아 레코드 하나로 기록한다. 레코드는 락 안에서 한 번에 쓰이고
+ * CRC가 레코드 전체를 덮으므로, 장바구니의 일부만 디스크에 남아 복원되는 일은 없다.
+ *
+ * <p>세그먼트가 일정 크기를 넘으면 새 세그먼트로 교체하고, 닫힌 세그먼트는 백그라운드에서 체크포인트로 합친 뒤 삭제한다.
+ * 닫힌 세그먼트에서 손상된 레코드를 만나면 합치기를 멈추고 세그먼트를 그대로 남긴 채 저널을 실패 상태로 만든다.
+ * 시작할 때는 체크포인트와 남은 세그먼트를 순서대로 접어 상품별 최종 재고를 복원한다.
+ * 기록 도중 종료되어 마지막 세그먼트 끝에 남은 잘린 레코드는 잘라 내고, 그 밖의 손상은 예외로 알린다.
+ */
+public final class StockJournal implements AutoCloseable {
+    private static final String SEGMENT_PREFIX = "stock-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT_FILE = "stock.checkpoint";
+    private static final String ERROR_IO = "[ERROR] 재고 기록을 저장하는데 실패했습니다.";
+    private static final int RECORD_BUFFER_BYTES = 4096;
+
+    private final Path directory;
+    private final Options options;
+    private final List<StockChange> recoveredChanges;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushRequested = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final ByteBuffer recordBuffer = ByteBuffer.allocate(RECORD_BUFFER_BYTES);
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stock-journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Thread flusher;
+
+    private FileChannel active;
+    private long activeIndex;
+    private long activeBytes;
+    private long durableBytes;
+    private long appendedRecords;
+    private long durableRecords;
+    private Exception failure;
+    private boolean closed;
+
+    private StockJournal(Path directory, Options options, List<StockChange> recoveredChanges, long nextIndex)
+            throws IOException {
+        this.directory = directory;
+        this.options = options;
+        this.recoveredChanges = recoveredChanges;
+        openSegment(nextIndex);
+        this.flusher = new Thread(this::flushLoop, "stock-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * 디렉터리의 체크포인트와 세그먼트를 읽어 복원할 재고를 계산하고, 새 세그먼트에 기록을 시작한다.
+     * 이전 실행에서 남은 세그먼트는 곧바로 체크포인트로 합쳐진다.
+     *
+     * @param directory 저널 디렉터리
+     * @param options 그룹 커밋과 세그먼트 설정
+     * @return 열린 저널
+     * @throws IllegalStateException 파일을 읽거나 쓰지 못했거나, 마지막 세그먼트의 끝이 아닌 곳이 손상된 경우
+     */
+    public static StockJournal open(final Path directory, final Options options) {
+        try {
+            Files.createDirectories(directory);
+            Map<StockChange.Key, StockChange> changes = new HashMap<>();
+            long lastCompacted = StockJournalFiles.readCheckpoint(directory.resolve(CHECKPOINT_FILE), changes);
+            List<Long> segments = listSegments(directory);
+            long nextIndex = lastCompacted + 1;
+            for (int i = 0; i < segments.size(); i++) {
+                long index = segments.get(i);
+                if (index > lastCompacted) {
+                    boolean tail = i == segments.size() - 1;
+                    Path segment = segmentPath(directory, index);
+                    long validBytes = StockJournalFiles.foldSegment(segment, changes, tail);
+                    if (tail) {
+                        repairTail(segment, validBytes);
+                    }
+                }
+                nextIndex = Math.max(nextIndex, index + 1);
+            }
+            StockJournal journal = new StockJournal(directory, options, List.copyOf(changes.values()), nextIndex);
+            journal.scheduleCompaction();
+            return journal;
+        } catch (IOException e) {
+            throw new IllegalStateException(ERROR_IO, e);
+        }
+    }
+
+    // 이번 실행부터 닫힌 세그먼트가 되므로, 잘린 꼬리 레코드를 지워 두어야 나중에 합칠 때 손상으로 보지 않는다
+    private static void repairTail(Path segment, long validBytes) throws IOException {
+        if (validBytes < StockJournalFiles.SEGMENT_HEADER_BYTES) {
+            Files.delete(segment);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            if (channel.size() > validBytes) {
+                channel.truncate(validBytes);
+                channel.force(true);
+            }
+        }
+    }
+
+    List<StockChange> recoveredChanges() {
+        return recoveredChanges;
+    }
+
+    /**
+     * 재고 차감을 기록한다. 디스크 반영은 awaitDurable에서 기다린다.
+     */
+    void recordRemoval(String name, int slot, int quantity) {
+        record(Batch.create().remove(name, slot, quantity));
+    }
+
+    /**
+     * 재고의 절대 수량을 기록한다.
+     */
+    void recordQuantity(String name, int slot, int quantity) {
+        record(Batch.create().set(name, slot, quantity));
+    }
+
+    /**
+     * 묶음의 변경을 레코드 하나로 기록한다. 복원할 때는 묶음 전체가 적용되거나 전혀 적용되지 않는다.
+     * 디스크 반영은 awaitDurable에서 기다린다.
+     *
+     * @param batch 기록할 변경 묶음 (비어 있으면 기록하지 않는다)
+     */
+    void record(Batch batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            checkWritable();
+            ByteBuffer buffer = recordBufferFor(batch.recordBytes());
+            int start = StockJournalFiles.beginRecord(buffer);
+            batch.encodeTo(buffer);
+            int length = StockJournalFiles.finishRecord(buffer, start);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                active.write(buffer);
+            }
+            activeBytes += length;
+            appendedRecords++;
+            if (appendedRecords - durableRecords >= options.syncEveryRecords()) {
+                flushRequested.signal();
+            }
+        } catch (IOException e) {
+            fail(e);
+            throw new IllegalStateException(ERROR_IO, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 락을 잡은 상태에서 호출된다
+    private ByteBuffer recordBufferFor(int bytes) {
+        if (bytes <= recordBuffer.capacity()) {
+            return recordBuffer.clear();
+        }
+        return ByteBuffer.allocate(bytes);
+    }
+
+    /**
+     * 지금까지 기록된 레코드가 모두 디스크에 반영될 때까지 기다린다.
+     * 기다리는 동안 다른 계산대의 기록도 같은 fsync에 함께 묶인다.
+     *
+     * @throws IllegalStateException 디스크 반영에 실패한 경우
+     */
+    public void awaitDurable() {
+        lock.lock();
+        try {
+            long target = appendedRecords;
+            while (durableRecords < target) {
+                checkFailure();
+                flushed.await();
+            }
+            checkFailure();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ERROR_IO, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        try {
+            while (flushOnce()) {
+                // 저널이 닫힐 때까지 반복한다
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean flushOnce() throws InterruptedException {
+        FileChannel channel;
+        long target;
+        long targetBytes;
+        lock.lock();
+        try {
+            if (!closed && appendedRecords - durableRecords < options.syncEveryRecords()) {
+                flushRequested.await(options.syncIntervalMillis(), TimeUnit.MILLISECONDS);
+            }
+            if (closed || failure != null) {
+                return false;
+            }
+            if (appendedRecords == durableRecords) {
+                return true;
+            }
+            channel = active;
+            target = appendedRecords;
+            targetBytes = activeBytes;
+        } finally {
+            lock.unlock();
+        }
+
+        // fsync 중에도 다른 계산대가 기록할 수 있도록 락 밖에서 반영한다
+        IOException error = null;
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            error = e;
+        }
+
+        lock.lock();
+        try {
+            if (error != null) {
+                fail(error);
+            } else if (failure == null) {
+                durableRecords = Math.max(durableRecords, target);
+                if (channel == active) {
+                    durableBytes = Math.max(durableBytes, targetBytes);
+                }
+                rollSegmentIfFull();
+            }
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    // 락을 잡은 상태에서 호출된다
+    private void rollSegmentIfFull() {
+        if (activeBytes < options.segmentBytes()) {
+            return;
+        }
+        try {
+            active.force(false);
+            durableRecords = appendedRecords;
+            durableBytes = activeBytes;
+            active.close();
+            openSegment(activeIndex + 1);
+            scheduleCompaction();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * 저널을 실패 상태로 만들고, 마지막으로 디스크에 반영된 위치 뒤의 기록을 잘라 낸다.
+     * 잘라 내지 못해도 실패 상태는 유지되며, 잘린 기록을 기다리던 판매는 모두 실패로 끝난다.
+     * 락을 잡은 상태에서 호출된다.
+     */
+    private void fail(Exception error) {
+        if (failure != null) {
+            return;
+        }
+        failure = error;
+        try {
+            active.truncate(durableBytes);
+            active.force(false);
+        } catch (IOException e) {
+            error.addSuppressed(e);
+        }
+        flushed.signalAll();
+    }
+
+    private void openSegment(long index) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath(directory, index),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(StockJournalFiles.SEGMENT_HEADER_BYTES);
+        StockJournalFiles.writeSegmentHeader(header);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+        this.active = channel;
+        this.activeIndex = index;
+        this.activeBytes = StockJournalFiles.SEGMENT_HEADER_BYTES;
+        this.durableBytes = StockJournalFiles.SEGMENT_HEADER_BYTES;
+    }
+
+    private void scheduleCompaction() {
+        long sealedBefore = activeIndex;
+        compactor.execute(() -> compact(sealedBefore));
+    }
+
+    /**
+     * 닫힌 세그먼트를 체크포인트에 합치고 삭제한다.
+     * 체크포인트를 먼저 원자적으로 교체하므로 도중에 종료되어도 기록이 사라지거나 두 번 적용되지 않는다.
+     * 세그먼트를 읽지 못하거나 손상된 레코드가 있으면 체크포인트와 세그먼트를 건드리지 않고 저널을 실패 상태로 만든다.
+     */
+    private void compact(long sealedBefore) {
+        try {
+            Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+            Map<StockChange.Key, StockChange> changes = new HashMap<>();
+            long lastCompacted = StockJournalFiles.readCheckpoint(checkpoint, changes);
+            List<Long> sealed = listSegments(directory).stream()
+                    .filter(index -> index > lastCompacted && index < sealedBefore)
+                    .toList();
+            if (sealed.isEmpty()) {
+                return;
+            }
+            for (long index : sealed) {
+                StockJournalFiles.foldSegment(segmentPath(directory, index), changes, false);
+            }
+            StockJournalFiles.writeCheckpoint(checkpoint, sealed.get(sealed.size() - 1), changes);
+            for (long index : sealed) {
+                Files.deleteIfExists(segmentPath(directory, index));
+            }
+        } catch (IOException | IllegalStateException e) {
+            lock.lock();
+            try {
+                fail(e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 저널이 실패 상태가 된 원인을 반환한다.
+     *
+     * @return 실패 원인 (실패하지 않았으면 빈 값)
+     */
+    public Optional<Exception> failure() {
+        lock.lock();
+        try {
+            return Optional.ofNullable(failure);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkWritable() {
+        if (closed) {
+            throw new IllegalStateException("[ERROR] 재고 기록이 이미 닫혔습니다.");
+        }
+        checkFailure();
+    }
+
+    private void checkFailure() {
+        if (failure != null) {
+            throw new IllegalStateException(ERROR_IO, failure);
+        }
+    }
+
+    /**
+     * 남은 레코드를 디스크에 반영하고 저널을 닫는다.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            flushRequested.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+            lock.lock();
+            try {
+                active.force(false);
+                durableRecords = appendedRecords;
+                active.close();
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            compactor.shutdown();
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (IOException e) {
+            throw new IllegalStateException(ERROR_IO, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static List<Long> listSegments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Long> indexes = new ArrayList<>();
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))
+                    .forEach(index -> indexes.add(Long.parseLong(index)));
+            indexes.sort(Long::compare);
+            return indexes;
+        }
+    }
+
+    private static Path segmentPath(Path directory, long index) {
+        return directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * 레코드 하나로 기록할 재고 변경 묶음. 한 번의 판매에서 차감한 상품들을 함께 담는다.
+     */
+    static final class Batch {
+        private final List<Entry> entries = new ArrayList<>();
+        private int entryBytes;
+
+        private Batch() {
+        }
+
+        static Batch create() {
+            return new Batch();
+        }
+
+        /**
+         * 재고 차감을 묶음에 더한다.
+         */
+        Batch remove(String name, int slot, int quantity) {
+            return add(StockJournalFiles.TYPE_REMOVE, name, slot, quantity);
+        }
+
+        /**
+         * 재고의 절대 수량을 묶음에 더한다.
+         */
+        Batch set(String name, int slot, int quantity) {
+            return add(StockJournalFiles.TYPE_SET, name, slot, quantity);
+        }
+
+        private Batch add(byte type, String name, int slot, int value) {
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            if (nameBytes.length > StockJournalFiles.MAX_NAME_BYTES) {
+                throw new IllegalArgumentException("[ERROR] 상품명이 너무 깁니다.");
+            }
+            entries.add(new Entry(type, nameBytes, slot, value));
+            entryBytes += StockJournalFiles.ENTRY_HEADER_BYTES + nameBytes.length;
+            return this;
+        }
+
+        boolean isEmpty() {
+            return entries.isEmpty();
+        }
+
+        private int recordBytes() {
+            return StockJournalFiles.RECORD_OVERHEAD_BYTES + entryBytes;
+        }
+
+        private void encodeTo(ByteBuffer buffer) {
+            for (Entry entry : entries) {
+                StockJournalFiles.encodeEntry(buffer, entry.type(), entry.name(), entry.slot(), entry.value());
+            }
+        }
+
+        private record Entry(byte type, byte[] name, int slot, int value) {
+        }
+    }
+
+    /**
+     * 그룹 커밋과 세그먼트 설정.
+     *
+     * @param syncEveryRecords 이 개수만큼 레코드가 쌓이면 곧바로 fsync한다
+     * @param syncIntervalMillis 레코드가 적어도 이 시간이 지나면 fsync한다
+     * @param segmentBytes 세그먼트를 교체하는 크기
+     */
+    public record Options(int syncEveryRecords, long syncIntervalMillis, long segmentBytes) {
+        private static final int DEFAULT_SYNC_EVERY_RECORDS = 256;
+        private static final long DEFAULT_SYNC_INTERVAL_MILLIS = 5;
+        private static final long DEFAULT_SEGMENT_BYTES = 16L * 1024 * 1024;
+
+        public Options {
+            if (syncEveryRecords < 1 || syncIntervalMillis < 1 || segmentBytes < 1) {
+                throw new IllegalArgumentException("[ERROR] 재고 기록 설정이 올바르지 않습니다.");
+            }
+        }
+
+        public static Options defaults() {
+            return new Options(DEFAULT_SYNC_EVERY_RECORDS, DEFAULT_SYNC_INTERVAL_MILLIS, DEFAULT_SEGMENT_BYTES);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package store.domain.store.dao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 재고 기록 세그먼트와 체크포인트 파일의 바이너리 형식을 읽고 쓴다.
+ *
+ * <p>세그먼트: 헤더(magic int, version short) 뒤에 레코드가 이어진다.
+ * 레코드는 항목 길이(int), 항목들, CRC32(int) 순서이고, 한 번의 판매에서 바뀐 재고를 모두 담는다.
+ * 항목은 type(byte), slot(byte), 이름 길이(unsigned short), 값(int), 이름(UTF-8) 순서다.
+ * CRC가 레코드 전체를 덮으므로 복원할 때는 레코드 단위로 전부 적용하거나 전부 버린다.
+ *
+ * <p>체크포인트: 헤더(magic int, version short), 포함된 마지막 세그먼트 번호(long), 항목 수(int),
+ * 항목(slot byte, absolute byte, 이름 길이 unsigned short, 수량 int, 차감 합계 long, 이름), 전체 CRC32(int) 순서다.
+ */
+final class StockJournalFiles {
+    static final byte TYPE_REMOVE = 1;
+    static final byte TYPE_SET = 2;
+    static final int SEGMENT_HEADER_BYTES = Integer.BYTES + Short.BYTES;
+    static final int MAX_NAME_BYTES = 0xFFFF;
+    static final int ENTRY_HEADER_BYTES = 1 + 1 + Short.BYTES + Integer.BYTES;
+    static final int RECORD_OVERHEAD_BYTES = Integer.BYTES + Integer.BYTES;
+
+    private static final int SEGMENT_MAGIC = 0x53544A31;
+    private static final int CHECKPOINT_MAGIC = 0x5354434B;
+    private static final short SEGMENT_VERSION = 2;
+    private static final short CHECKPOINT_VERSION = 1;
+    private static final int CHECKPOINT_ENTRY_HEADER_BYTES = 1 + 1 + 2 + Integer.BYTES + Long.BYTES;
+    private static final String ERROR_CORRUPTED = "[ERROR] 재고 기록 파일이 손상되었습니다.";
+
+    private StockJournalFiles() {
+    }
+
+    static void writeSegmentHeader(ByteBuffer buffer) {
+        buffer.putInt(SEGMENT_MAGIC);
+        buffer.putShort(SEGMENT_VERSION);
+    }
+
+    /**
+     * 항목 길이 자리를 비워 두고 레코드를 시작한다. 항목을 모두 쓴 뒤 finishRecord로 마친다.
+     *
+     * @return 레코드 시작 위치
+     */
+    static int beginRecord(ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.putInt(0);
+        return start;
+    }
+
+    /**
+     * 항목 하나를 버퍼에 기록한다.
+     */
+    static void encodeEntry(ByteBuffer buffer, byte type, byte[] name, int slot, int value) {
+        buffer.put(type);
+        buffer.put((byte) slot);
+        buffer.putShort((short) name.length);
+        buffer.putInt(value);
+        buffer.put(name);
+    }
+
+    /**
+     * 항목 길이를 채우고 레코드 전체의 CRC를 붙인다.
+     *
+     * @return 레코드의 바이트 수
+     */
+    static int finishRecord(ByteBuffer buffer, int start) {
+        buffer.putInt(start, buffer.position() - start - Integer.BYTES);
+        buffer.putInt(crcOf(buffer, start, buffer.position()));
+        return buffer.position() - start;
+    }
+
+    /**
+     * 세그먼트의 레코드를 순서대로 changes에 접고, 마지막으로 온전한 레코드가 끝나는 위치를 반환한다.
+     *
+     * <p>기록 도중 종료되면 파일 끝에 잘리거나 CRC가 맞지 않는 레코드가 남을 수 있다.
+     * tail이 참이면 이런 레코드가 파일 끝에 있을 때에만 무시하고 그 앞까지의 위치를 반환한다.
+     * 닫힌 세그먼트이거나 손상된 레코드 뒤에 다른 기록이 남아 있으면 손상으로 보고 예외를 던진다.
+     *
+     * @param segment 세그먼트 파일
+     * @param changes 레코드를 접을 대상
+     * @param tail 마지막으로 쓰던 세그먼트인지 여부
+     * @return 온전한 레코드가 끝나는 위치 (tail이고 헤더도 온전하지 않으면 0)
+     * @throws IllegalStateException 세그먼트가 손상된 경우
+     */
+    static long foldSegment(Path segment, Map<StockChange.Key, StockChange> changes, boolean tail)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            if (channel.size() < SEGMENT_HEADER_BYTES) {
+                if (tail) {
+                    return 0;
+                }
+                throw new IllegalStateException(ERROR_CORRUPTED);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != SEGMENT_MAGIC || buffer.getShort() != SEGMENT_VERSION) {
+                throw new IllegalStateException(ERROR_CORRUPTED);
+            }
+            while (buffer.hasRemaining()) {
+                int start = buffer.position();
+                if (!foldRecord(buffer, changes)) {
+                    if (tail && isTornTail(buffer, start)) {
+                        return start;
+                    }
+                    throw new IllegalStateException(ERROR_CORRUPTED);
+                }
+            }
+            return buffer.position();
+        }
+    }
+
+    // CRC가 맞는 레코드만 적용하고, 잘리거나 CRC가 맞지 않으면 아무것도 적용하지 않고 false를 반환한다
+    private static boolean foldRecord(ByteBuffer buffer, Map<StockChange.Key, StockChange> changes) {
+        int start = buffer.position();
+        if (buffer.remaining() < RECORD_OVERHEAD_BYTES) {
+            return false;
+        }
+        int length = buffer.getInt();
+        if (length < 0 || buffer.remaining() < length + Integer.BYTES) {
+            return false;
+        }
+        int entriesEnd = buffer.position() + length;
+        if (buffer.getInt(entriesEnd) != crcOf(buffer, start, entriesEnd)) {
+            return false;
+        }
+
+        while (buffer.position() < entriesEnd) {
+            if (entriesEnd - buffer.position() < ENTRY_HEADER_BYTES) {
+                throw new IllegalStateException(ERROR_CORRUPTED);
+            }
+            byte type = buffer.get();
+            int slot = buffer.get();
+            int nameLength = Short.toUnsignedInt(buffer.getShort());
+            int value = buffer.getInt();
+            if (entriesEnd - buffer.position() < nameLength || (type != TYPE_SET && type != TYPE_REMOVE)) {
+                throw new IllegalStateException(ERROR_CORRUPTED);
+            }
+            String name = decode(buffer, buffer.position(), nameLength);
+            buffer.position(buffer.position() + nameLength);
+            StockChange change = changes.computeIfAbsent(new StockChange.Key(name, slot),
+                    key -> StockChange.of(key.name(), key.slot()));
+            if (type == TYPE_SET) {
+                change.set(value);
+            } else {
+                change.remove(value);
+            }
+        }
+        buffer.position(entriesEnd + Integer.BYTES);
+        return true;
+    }
+
+    // 파일 끝까지 이어지는 레코드만 기록 도중 잘린 것으로 본다
+    private static boolean isTornTail(ByteBuffer buffer, int start) {
+        if (buffer.limit() - start < RECORD_OVERHEAD_BYTES) {
+            return true;
+        }
+        long length = buffer.getInt(start);
+        return length >= 0 && start + RECORD_OVERHEAD_BYTES + length >= buffer.limit();
+    }
+
+    /**
+     * 체크포인트를 읽어 changes에 채우고, 체크포인트에 포함된 마지막 세그먼트 번호를 반환한다.
+     * 체크포인트가 없으면 -1을 반환한다.
+     */
+    static long readCheckpoint(Path checkpoint, Map<StockChange.Key, StockChange> changes) throws IOException {
+        if (!Files.exists(checkpoint)) {
+            return -1;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(checkpoint));
+        int bodyEnd = buffer.limit() - Integer.BYTES;
+        if (bodyEnd < 0 || buffer.getInt(bodyEnd) != crcOf(buffer, 0, bodyEnd)) {
+            throw new IllegalStateException(ERROR_CORRUPTED);
+        }
+        if (buffer.getInt() != CHECKPOINT_MAGIC || buffer.getShort() != CHECKPOINT_VERSION) {
+            throw new IllegalStateException(ERROR_CORRUPTED);
+        }
+        long lastSegment = buffer.getLong();
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            int slot = buffer.get();
+            boolean absolute = buffer.get() != 0;
+            int nameLength = Short.toUnsignedInt(buffer.getShort());
+            int quantity = buffer.getInt();
+            long removed = buffer.getLong();
+            String name = decode(buffer, buffer.position(), nameLength);
+            buffer.position(buffer.position() + nameLength);
+            changes.put(new StockChange.Key(name, slot),
+                    StockChange.restore(name, slot, absolute, quantity, removed));
+        }
+        return lastSegment;
+    }
+
+    /**
+     * 체크포인트를 임시 파일에 기록하고 디스크에 반영한 뒤 원자적으로 교체한다.
+     */
+    static void writeCheckpoint(Path checkpoint, long lastSegment, Map<StockChange.Key, StockChange> changes)
+            throws IOException {
+        int size = Integer.BYTES + Short.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+        for (StockChange change : changes.values()) {
+            size += CHECKPOINT_ENTRY_HEADER_BYTES + change.name().getBytes(StandardCharsets.UTF_8).length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(CHECKPOINT_MAGIC);
+        buffer.putShort(CHECKPOINT_VERSION);
+        buffer.putLong(lastSegment);
+        buffer.putInt(changes.size());
+        for (StockChange change : changes.values()) {
+            byte[] name = change.name().getBytes(StandardCharsets.UTF_8);
+            buffer.put((byte) change.slot());
+            buffer.put((byte) (change.isAbsolute() ? 1 : 0));
+            buffer.putShort((short) name.length);
+            buffer.putInt(change.quantity());
+            buffer.putLong(change.removed());
+            buffer.put(name);
+        }
+        buffer.putInt(crcOf(buffer, 0, buffer.position()));
+        buffer.flip();
+
+        Path temporary = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, checkpoint, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static String decode(ByteBuffer buffer, int start, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int crcOf(ByteBuffer buffer, int start, int end) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(start, end - start));
+        return (int) crc.getValue();
+    }
+}
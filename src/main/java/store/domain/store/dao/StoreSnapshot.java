@@ -0,0 +1,403 @@
+package store.domain.store.dao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.IntBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import store.domain.store.domain.Promotion;
+
+/**
+ * 상품/프로모션 저장소의 전체 상태를 담는 바이너리 스냅샷.
+ *
+ * <p>상품 정보는 StockColumns의 열을 그대로 저장한다. 상품명은 번호 순서대로 이어 붙인 바이트와 끝 위치 배열로,
+ * 가격/재고/프로모션명 번호는 칸 번호 순서의 int 영역으로, 파일 순서는 칸 번호 배열로 기록한다.
+ * 프로모션명처럼 반복되는 문자열은 라벨 테이블에 한 번만 저장하고, 테이블의 앞부분은 열의 프로모션명 번호와 같다.
+ * 복원할 때는 파일을 메모리 매핑한 뒤 각 영역을 열에 한 번에 복사하므로 상품마다 객체를 만들거나 텍스트를 파싱하지 않는다.
+ *
+ * <p>헤더: magic(int), 형식 버전(short), 예약(short), 상품 저장소 버전(long), 프로모션 저장소 버전(long),
+ * 라벨 수(int), 열이 쓰는 라벨 수(int), 프로모션 수(int), 상품명 수(int), 파일 순서 칸 수(int), 예약(int),
+ * 각 영역의 시작 위치(long × 8: 라벨, 프로모션, 상품명 바이트, 상품명 위치, 가격, 재고, 프로모션명 번호, 파일 순서).
+ */
+public final class StoreSnapshot {
+    private static final int MAGIC = 0x5354534E;
+    private static final short FORMAT_VERSION = 2;
+    private static final int HEADER_BYTES = 112;
+    private static final int PROMOTION_RECORD_BYTES = 3 * Integer.BYTES + 2 * Long.BYTES;
+    private static final int WRITE_BUFFER_BYTES = 1024 * 1024;
+    private static final String ERROR_READ = "[ERROR] 스냅샷을 불러오는데 실패했습니다.";
+    private static final String ERROR_WRITE = "[ERROR] 스냅샷을 저장하는데 실패했습니다.";
+    private static final String ERROR_FORMAT = "[ERROR] 스냅샷 형식이 올바르지 않습니다.";
+
+    private StoreSnapshot() {
+    }
+
+    /**
+     * 두 저장소의 상태를 스냅샷 파일로 저장한다.
+     * 저장하는 동안 모든 상품의 재고 락을 잡아 재고가 일관된 시점의 상태를 기록한다.
+     * 임시 파일에 기록한 뒤 원자적으로 교체하므로 저장 도중 종료되어도 이전 스냅샷이 남는다.
+     *
+     * @param path 스냅샷 파일 경로
+     * @param productRepository 상품 저장소
+     * @param promotionRepository 프로모션 저장소
+     * @throws IllegalStateException 파일을 쓰지 못한 경우
+     */
+    public static void write(
+            final Path path,
+            final ProductRepository productRepository,
+            final PromotionRepository promotionRepository
+    ) {
+        StockColumns columns = productRepository.columns();
+        List<String> names = new ArrayList<>(columns.size());
+        for (int id = 0; id < columns.size(); id++) {
+            names.add(columns.nameOf(id));
+        }
+        productRepository.executeWithStockLock(names, () -> {
+            writeLocked(path, productRepository, promotionRepository);
+            return null;
+        });
+    }
+
+    private static void writeLocked(
+            Path path,
+            ProductRepository productRepository,
+            PromotionRepository promotionRepository
+    ) {
+        StockColumns columns = productRepository.columns();
+        List<Promotion> promotions = promotionRepository.findAll();
+        Labels labels = Labels.of(columns.labelNames(), promotions);
+        int cells = columns.cellCount();
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            SectionWriter writer = new SectionWriter(channel, HEADER_BYTES);
+            long labelsPosition = writer.position();
+            for (byte[] label : labels.encoded()) {
+                writer.putInt(label.length);
+                writer.put(label);
+            }
+            long promotionsPosition = writer.position();
+            for (Promotion promotion : promotions) {
+                writer.putInt(labels.idOf(promotion.getName()));
+                writer.putInt(promotion.getBuyCount());
+                writer.putInt(promotion.getGetCount());
+                writer.putLong(promotion.getStartDate().toEpochDay());
+                writer.putLong(promotion.getEndDate().toEpochDay());
+            }
+            NameTable names = columns.names();
+            long nameBytesPosition = writer.position();
+            writer.put(names.nameBytes());
+            long nameOffsetsPosition = writer.position();
+            writer.putInt(0);
+            for (int id = 0; id < names.size(); id++) {
+                writer.putInt(names.nameEnd(id));
+            }
+            long pricesPosition = writer.putInts(columns.prices(), cells);
+            long quantitiesPosition = writer.putInts(columns.quantities(), cells);
+            long cellLabelsPosition = writer.putInts(columns.labels(), cells);
+            long fileOrderPosition = writer.position();
+            for (int i = 0; i < columns.fileOrderSize(); i++) {
+                writer.putInt(columns.fileOrderAt(i));
+            }
+            writer.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC);
+            header.putShort(FORMAT_VERSION);
+            header.putShort((short) 0);
+            header.putLong(productRepository.getVersion());
+            header.putLong(promotionRepository.getVersion());
+            header.putInt(labels.size());
+            header.putInt(labels.columnLabelCount());
+            header.putInt(promotions.size());
+            header.putInt(names.size());
+            header.putInt(columns.fileOrderSize());
+            header.putInt(0);
+            header.putLong(labelsPosition);
+            header.putLong(promotionsPosition);
+            header.putLong(nameBytesPosition);
+            header.putLong(nameOffsetsPosition);
+            header.putLong(pricesPosition);
+            header.putLong(quantitiesPosition);
+            header.putLong(cellLabelsPosition);
+            header.putLong(fileOrderPosition);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            throw new IllegalStateException(ERROR_WRITE, e);
+        }
+        try {
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new IllegalStateException(ERROR_WRITE, e);
+        }
+    }
+
+    /**
+     * 스냅샷의 상품 정보를 열로 복원한다.
+     * 가격/재고/프로모션명 번호 영역은 매핑한 파일에서 열로 한 번에 복사하고, 상품명 색인은 해시만 다시 계산한다.
+     *
+     * @param path 스냅샷 파일 경로
+     * @param offHeap 열을 힙 밖의 다이렉트 버퍼에 둘지 여부
+     * @return 적재가 끝난 열
+     * @throws IllegalStateException 파일을 읽지 못했거나 형식이 올바르지 않은 경우
+     */
+    static StockColumns readColumns(Path path, boolean offHeap) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Header header = Header.read(channel);
+            String[] labels = readLabels(channel, header);
+            if (header.columnLabelCount() < 0 || header.columnLabelCount() > labels.length
+                    || header.nameCount() < 0 || header.nameCount() > Integer.MAX_VALUE / 2) {
+                throw new IllegalStateException(ERROR_FORMAT);
+            }
+            byte[] nameBytes = new byte[checkedSize(header.nameOffsetsPosition() - header.nameBytesPosition())];
+            map(channel, header.nameBytesPosition(), nameBytes.length).get(nameBytes);
+            int[] nameOffsets = new int[header.nameCount() + 1];
+            mapInts(channel, header.nameOffsetsPosition(), nameOffsets.length).get(nameOffsets);
+            int[] fileOrder = new int[header.cellOrderCount()];
+            mapInts(channel, header.fileOrderPosition(), fileOrder.length).get(fileOrder);
+
+            int cells = header.nameCount() * 2;
+            return StockColumns.restore(
+                    NameTable.restore(nameBytes, nameOffsets),
+                    IntColumn.copyOf(offHeap, mapInts(channel, header.pricesPosition(), cells)),
+                    IntColumn.copyOf(offHeap, mapInts(channel, header.quantitiesPosition(), cells)),
+                    IntColumn.copyOf(offHeap, mapInts(channel, header.cellLabelsPosition(), cells)),
+                    List.of(labels).subList(0, header.columnLabelCount()),
+                    fileOrder
+            );
+        } catch (IOException e) {
+            throw new IllegalStateException(ERROR_READ, e);
+        } catch (IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IllegalStateException(ERROR_FORMAT, e);
+        }
+    }
+
+    /**
+     * 스냅샷의 프로모션을 저장 순서대로 읽는다.
+     *
+     * @param path 스냅샷 파일 경로
+     * @return 프로모션 목록
+     * @throws IllegalStateException 파일을 읽지 못했거나 형식이 올바르지 않은 경우
+     */
+    static List<Promotion> readPromotions(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Header header = Header.read(channel);
+            String[] labels = readLabels(channel, header);
+            MappedByteBuffer records = map(channel, header.promotionsPosition(),
+                    (long) header.promotionCount() * PROMOTION_RECORD_BYTES);
+            List<Promotion> promotions = new ArrayList<>(header.promotionCount());
+            for (int i = 0; i < header.promotionCount(); i++) {
+                int base = i * PROMOTION_RECORD_BYTES;
+                promotions.add(Promotion.of(
+                        labels[records.getInt(base)],
+                        records.getInt(base + Integer.BYTES),
+                        records.getInt(base + 2 * Integer.BYTES),
+                        LocalDate.ofEpochDay(records.getLong(base + 3 * Integer.BYTES)),
+                        LocalDate.ofEpochDay(records.getLong(base + 3 * Integer.BYTES + Long.BYTES))
+                ));
+            }
+            return promotions;
+        } catch (IOException e) {
+            throw new IllegalStateException(ERROR_READ, e);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalStateException(ERROR_FORMAT, e);
+        }
+    }
+
+    private static String[] readLabels(FileChannel channel, Header header) throws IOException {
+        MappedByteBuffer buffer = map(channel, header.labelsPosition(),
+                header.promotionsPosition() - header.labelsPosition());
+        String[] labels = new String[header.labelCount()];
+        for (int i = 0; i < labels.length; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            labels[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return labels;
+    }
+
+    private static IntBuffer mapInts(FileChannel channel, long position, int count) throws IOException {
+        if (count < 0) {
+            throw new IllegalStateException(ERROR_FORMAT);
+        }
+        return map(channel, position, (long) count * Integer.BYTES).asIntBuffer();
+    }
+
+    private static int checkedSize(long size) {
+        if (size < 0 || size > Integer.MAX_VALUE) {
+            throw new IllegalStateException(ERROR_FORMAT);
+        }
+        return (int) size;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+        if (size < 0 || size > Integer.MAX_VALUE || position + size > channel.size()) {
+            throw new IllegalStateException(ERROR_FORMAT);
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+    }
+
+    private record Header(
+            int labelCount,
+            int columnLabelCount,
+            int promotionCount,
+            int nameCount,
+            int cellOrderCount,
+            long labelsPosition,
+            long promotionsPosition,
+            long nameBytesPosition,
+            long nameOffsetsPosition,
+            long pricesPosition,
+            long quantitiesPosition,
+            long cellLabelsPosition,
+            long fileOrderPosition
+    ) {
+        private static Header read(FileChannel channel) throws IOException {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IllegalStateException(ERROR_FORMAT);
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (buffer.getInt() != MAGIC || buffer.getShort() != FORMAT_VERSION) {
+                throw new IllegalStateException(ERROR_FORMAT);
+            }
+            buffer.getShort();
+            // 저장 당시의 저장소 버전은 진단용으로만 기록한다
+            buffer.getLong();
+            buffer.getLong();
+            int labelCount = buffer.getInt();
+            int columnLabelCount = buffer.getInt();
+            int promotionCount = buffer.getInt();
+            int nameCount = buffer.getInt();
+            int cellOrderCount = buffer.getInt();
+            buffer.getInt();
+            return new Header(labelCount, columnLabelCount, promotionCount, nameCount, cellOrderCount,
+                    buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong(),
+                    buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+        }
+    }
+
+    // 프로모션명처럼 반복되는 문자열을 번호로 바꾸는 테이블. 앞부분은 열의 프로모션명 번호와 같다
+    private static final class Labels {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<byte[]> encoded = new ArrayList<>();
+        private int columnLabelCount;
+
+        private static Labels of(List<String> columnLabels, List<Promotion> promotions) {
+            Labels labels = new Labels();
+            columnLabels.forEach(labels::add);
+            labels.columnLabelCount = labels.size();
+            promotions.forEach(promotion -> labels.add(promotion.getName()));
+            return labels;
+        }
+
+        private void add(String label) {
+            if (!ids.containsKey(label)) {
+                ids.put(label, encoded.size());
+                encoded.add(label.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        private int idOf(String label) {
+            return ids.get(label);
+        }
+
+        private List<byte[]> encoded() {
+            return encoded;
+        }
+
+        private int size() {
+            return encoded.size();
+        }
+
+        private int columnLabelCount() {
+            return columnLabelCount;
+        }
+    }
+
+    // 큰 버퍼에 모아 순서대로 기록한다
+    private static final class SectionWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+        private long position;
+
+        private SectionWriter(FileChannel channel, long start) {
+            this.channel = channel;
+            this.position = start;
+        }
+
+        private long position() {
+            return position + buffer.position();
+        }
+
+        private void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        private void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        private void put(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                ensure(1);
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        private void put(ByteBuffer bytes) throws IOException {
+            while (bytes.hasRemaining()) {
+                ensure(1);
+                int length = Math.min(buffer.remaining(), bytes.remaining());
+                buffer.put(buffer.position(), bytes, bytes.position(), length);
+                buffer.position(buffer.position() + length);
+                bytes.position(bytes.position() + length);
+            }
+        }
+
+        // 열의 값은 버퍼를 거치지 않고 파일을 매핑한 영역에 한 번에 복사한다
+        private long putInts(IntColumn column, int count) throws IOException {
+            flush();
+            long start = position;
+            long size = (long) count * Integer.BYTES;
+            if (size > 0) {
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE, start, size);
+                column.copyTo(region.asIntBuffer(), count);
+            }
+            position += size;
+            return start;
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+    }
+}
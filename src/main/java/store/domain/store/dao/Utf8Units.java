@@ -0,0 +1,64 @@
+package store.domain.store.dao;
+
+/**
+ * 문자열을 바이트 배열로 바꾸지 않고 char 단위로 UTF-8 바이트를 구한다.
+ * 결과는 String.getBytes(UTF_8)과 같으며, 짝이 없는 서로게이트는 '?' 한 바이트가 된다.
+ *
+ * <p>encode는 한 글자의 바이트를 첫 바이트부터 하위 비트에 채운 int로 반환한다.
+ * 바이트 수는 첫 바이트로 알 수 있고, 4바이트 글자만 char 두 개를 사용한다.
+ */
+final class Utf8Units {
+    private static final int REPLACEMENT = '?';
+
+    private Utf8Units() {
+    }
+
+    /**
+     * index 위치의 글자를 UTF-8로 인코딩한다. 서로게이트 쌍은 end 안에 있을 때만 한 글자로 본다.
+     */
+    static int encode(CharSequence text, int index, int end) {
+        char c = text.charAt(index);
+        if (c < 0x80) {
+            return c;
+        }
+        if (c < 0x800) {
+            return (0xC0 | c >> 6) | (0x80 | c & 0x3F) << 8;
+        }
+        if (!Character.isSurrogate(c)) {
+            return (0xE0 | c >> 12) | (0x80 | c >> 6 & 0x3F) << 8 | (0x80 | c & 0x3F) << 16;
+        }
+        if (Character.isHighSurrogate(c) && index + 1 < end && Character.isLowSurrogate(text.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(c, text.charAt(index + 1));
+            return (0xF0 | codePoint >> 18) | (0x80 | codePoint >> 12 & 0x3F) << 8
+                    | (0x80 | codePoint >> 6 & 0x3F) << 16 | (0x80 | codePoint & 0x3F) << 24;
+        }
+        return REPLACEMENT;
+    }
+
+    /**
+     * encode 결과의 바이트 수를 반환한다.
+     */
+    static int length(int encoded) {
+        int lead = encoded & 0xFF;
+        if (lead < 0x80) {
+            return 1;
+        }
+        if (lead < 0xE0) {
+            return 2;
+        }
+        if (lead < 0xF0) {
+            return 3;
+        }
+        return 4;
+    }
+
+    /**
+     * encode 결과가 사용한 char 수를 반환한다.
+     */
+    static int chars(int length) {
+        if (length == 4) {
+            return 2;
+        }
+        return 1;
+    }
+}
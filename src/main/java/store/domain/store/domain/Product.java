@@ -1,23 +1,29 @@
 package store.domain.store.domain;
 
-import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 편의점에서 판매되는 상품을 표현하는 클래스.
  * 상품의 이름, 가격, 재고 수량, 적용 가능한 프로모션 정보를 관리한다.
+ * 이름, 가격, 프로모션은 불변이며 재고 수량만 원자적으로 관리한다.
+ * 재고 수량은 상품이 직접 보관하거나, 저장소의 재고 칸을 가리켜 함께 사용한다.
  */
 public class Product {
     private final String name;
     private final int price;
-    private final int quantity;
+    private final StockStore stock;
+    private final int cell;
     private final String promotionName;
+    private final boolean validPromotion;
 
-    private Product(String name, int price, int quantity, String promotionName) {
-        validateProduct(name, price, quantity);
+    private Product(String name, int price, StockStore stock, int cell, String promotionName) {
         this.name = name;
         this.price = price;
-        this.quantity = quantity;
+        this.stock = stock;
+        this.cell = cell;
         this.promotionName = promotionName;
+        // 매 호출마다 문자열을 비교하지 않도록 생성 시 한 번만 판단한다
+        this.validPromotion = isValidPromotionName(promotionName);
     }
 
     /**
@@ -36,7 +42,30 @@ public class Product {
             final int quantity,
             final String promotionName
     ) {
-        return new Product(name, price, quantity, promotionName);
+        validateProduct(name, price, quantity);
+        return new Product(name, price, new OwnStock(quantity), 0, promotionName);
+    }
+
+    /**
+     * 저장소의 재고 칸을 사용하는 상품 객체를 생성한다.
+     * 수량은 복사하지 않으므로 같은 칸을 가리키는 상품들은 재고를 함께 사용한다.
+     * 저장소에 넣을 때 이미 검증된 값이라고 보고 다시 검증하지 않는다.
+     *
+     * @param name 상품명
+     * @param price 가격
+     * @param promotionName 프로모션 이름
+     * @param stock 재고 저장 공간
+     * @param cell 재고 칸 번호
+     * @return 생성된 상품 객체
+     */
+    public static Product backedBy(
+            final String name,
+            final int price,
+            final String promotionName,
+            final StockStore stock,
+            final int cell
+    ) {
+        return new Product(name, price, stock, cell, promotionName);
     }
 
     /**
@@ -45,43 +74,67 @@ public class Product {
      * @return 프로모션 적용 가능 여부
      */
     public boolean hasValidPromotion() {
+        return validPromotion;
+    }
+
+    /**
+     * 상품 파일의 프로모션 칸 값이 실제 프로모션을 가리키는지 확인한다.
+     * 프로모션이 없는 상품은 null이나 문자열 "null"을 가진다.
+     */
+    public static boolean isValidPromotionName(String promotionName) {
         return promotionName != null && !promotionName.equals("null");
     }
 
 
     /**
-     * 재고를 차감한 새로운 상품 객체를 반환한다.
+     * 재고를 차감한다.
      *
      * @param quantity 차감할 수량
-     * @return 재고가 차감된 새로운 상품 객체
      * @throws IllegalArgumentException 재고가 부족한 경우
      */
-    public Product removeStock(int quantity) {
-        if (!hasEnoughStock(quantity)) {
+    public void removeStock(int quantity) {
+        if (!tryRemoveStock(quantity)) {
             throw new IllegalArgumentException("[ERROR] 재고가 부족합니다.");
         }
-        return new Product(this.name, this.price, this.quantity - quantity, this.promotionName);
     }
 
-    private void validateProduct(String name, int price, int quantity) {
+    /**
+     * 재고가 충분할 때만 compare-and-set으로 재고를 차감한다.
+     * 재고는 0 미만으로 내려가지 않으며 락이나 객체 생성 없이 처리된다.
+     *
+     * @param quantity 차감할 수량
+     * @return 차감 성공 여부
+     */
+    public boolean tryRemoveStock(int quantity) {
+        int current;
+        do {
+            current = stock.quantity(cell);
+            if (current < quantity) {
+                return false;
+            }
+        } while (!stock.compareAndSetQuantity(cell, current, current - quantity));
+        return true;
+    }
+
+    private static void validateProduct(String name, int price, int quantity) {
         validateName(name);
         validatePrice(price);
         validateQuantity(quantity);
     }
 
-    private void validateName(String name) {
+    private static void validateName(String name) {
         if (name == null || name.isBlank()) {
             throw new IllegalArgumentException("[ERROR] 상품명은 비어있을 수 없습니다.");
         }
     }
 
-    private void validatePrice(int price) {
+    private static void validatePrice(int price) {
         if (price <= 0) {
             throw new IllegalArgumentException("[ERROR] 상품 가격은 0보다 커야 합니다.");
         }
     }
 
-    private void validateQuantity(int quantity) {
+    private static void validateQuantity(int quantity) {
         if (quantity < 0) {
             throw new IllegalArgumentException("[ERROR] 상품 수량은 0보다 작을 수 없습니다.");
         }
@@ -94,7 +147,7 @@ public class Product {
      * @return 재고 충분 여부
      */
     public boolean hasEnoughStock(int requestedQuantity) {
-        return this.quantity >= requestedQuantity;
+        return stock.quantity(cell) >= requestedQuantity;
     }
 
     public String getName() {
@@ -106,10 +159,29 @@ public class Product {
     }
 
     public int getQuantity() {
-        return quantity;
+        return stock.quantity(cell);
     }
 
     public String getPromotionName() {
         return promotionName;
     }
+
+    // 저장소 밖에서 만든 상품은 한 칸짜리 재고를 직접 보관한다
+    private static final class OwnStock extends AtomicInteger implements StockStore {
+        private static final long serialVersionUID = 1L;
+
+        private OwnStock(int quantity) {
+            super(quantity);
+        }
+
+        @Override
+        public int quantity(int cell) {
+            return get();
+        }
+
+        @Override
+        public boolean compareAndSetQuantity(int cell, int expected, int updated) {
+            return compareAndSet(expected, updated);
+        }
+    }
 }
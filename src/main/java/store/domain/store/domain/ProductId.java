@@ -0,0 +1,10 @@
+package store.domain.store.domain;
+
+/**
+ * 저장소가 상품명마다 붙이는 0부터 시작하는 연속된 번호.
+ * 번호를 발급한 저장소에서만 의미가 있다.
+ *
+ * @param value 상품 번호
+ */
+public record ProductId(int value) {
+}
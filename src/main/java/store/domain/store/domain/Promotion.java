@@ -67,7 +67,16 @@ public final class Promotion {
      * @return 프로모션 유효 여부
      */
     public boolean isValid(LocalDateTime dateTime) {
-        LocalDate date = dateTime.toLocalDate();
+        return isValidOn(dateTime.toLocalDate());
+    }
+
+    /**
+     * 프로모션이 주어진 날짜에 유효한지 확인한다.
+     *
+     * @param date 확인할 날짜
+     * @return 프로모션 유효 여부
+     */
+    public boolean isValidOn(LocalDate date) {
         return date.isEqual(startDate) || 
                date.isEqual(endDate) || 
                (date.isAfter(startDate) && date.isBefore(endDate));
@@ -77,11 +86,11 @@ public final class Promotion {
      * 주어진 구매 수량에 대해 무료로 제공되는 수량을 계산한다.
      *
      * @param quantity 구매 수량
-     * @param now
+     * @param now 기준 시간
      * @return 무료 제공 수량
      */
     public int calculateFreeQuantity(int quantity, LocalDateTime now) {
-        if (!isValid()) {
+        if (!isValid(now)) {
             return 0;
         }
         int promotionSets = quantity / buyCount;
@@ -1,6 +1,7 @@
 package store.domain.store.domain;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -8,6 +9,7 @@ import java.util.Optional;
 /**
  * 구매 영수증을 표현하는 클래스.
  * 구매/증정 상품 내역과 금액 정보를 포함한다.
+ * 생성 시 구매 상품을 상품명별로 한 번만 집계하고, 모든 금액 계산은 이 집계를 사용한다.
  */
 public final class Receipt {
     private static final double MEMBERSHIP_DISCOUNT_RATE = 0.3;
@@ -16,6 +18,7 @@ public final class Receipt {
     private final List<ReceiptItem> freeItems;
     private final Map<String, Promotion> promotionMap;
     private final Map<String, NormalPurchaseInfo> normalPurchaseMap;
+    private final Map<String, ItemAggregate> aggregates;
     private final int totalAmount;
     private final int promotionDiscountAmount;
     private final int membershipDiscountAmount;
@@ -32,6 +35,7 @@ public final class Receipt {
         this.freeItems = new ArrayList<>(freeItems);
         this.promotionMap = promotionMap;
         this.normalPurchaseMap = normalPurchaseMap;
+        this.aggregates = aggregateByName(this.items);
         this.totalAmount = calculateTotalAmount();
         this.promotionDiscountAmount = calculatePromotionDiscountAmount();
         this.membershipDiscountAmount = calculateMembershipDiscountAmount(hasMembership);
@@ -51,12 +55,22 @@ public final class Receipt {
         return new Receipt(items, freeItems, hasMembership, promotionMap, normalPurchaseMap);
     }
 
+    // 구매 상품을 등장 순서대로 상품명별로 집계한다
+    private static Map<String, ItemAggregate> aggregateByName(List<ReceiptItem> items) {
+        Map<String, ItemAggregate> aggregates = new LinkedHashMap<>();
+        for (ReceiptItem item : items) {
+            aggregates.computeIfAbsent(item.getName(), name -> new ItemAggregate(item.getUnitPrice()))
+                    .add(item);
+        }
+        return aggregates;
+    }
+
     /**
      * 구매 상품의 총 금액을 계산한다.
      */
     private int calculateTotalAmount() {
-        return items.stream()
-                .mapToInt(ReceiptItem::getAmount)
+        return aggregates.values().stream()
+                .mapToInt(aggregate -> aggregate.amount)
                 .sum();
     }
 
@@ -64,21 +78,14 @@ public final class Receipt {
      * 프로모션 할인 금액(증정 상품의 가치)을 계산한다.
      */
     private int calculatePromotionDiscountAmount() {
-        // 증정품 수량만큼만 할인 적용
+        // 증정 수량 * 처음 구매한 항목의 단가 = 할인 금액
         return freeItems.stream()
                 .mapToInt(item -> {
-                    // 증정품의 원래 가격 찾기
-                    ReceiptItem originalItem = items.stream()
-                            .filter(i -> i.getName().equals(item.getName()))
-                            .findFirst()
-                            .orElse(null);
-                    
-                    if (originalItem == null) {
+                    ItemAggregate aggregate = aggregates.get(item.getName());
+                    if (aggregate == null) {
                         return 0;
                     }
-                    
-                    // 증정 수량 * 단가 = 할인 금액
-                    return item.getQuantity() * originalItem.getUnitPrice();
+                    return item.getQuantity() * aggregate.firstUnitPrice;
                 })
                 .sum();
     }
@@ -101,10 +108,10 @@ public final class Receipt {
         }
 
         // 프로모션 미적용 정보가 없을 때는 기존 로직 적용
-        int discountableAmount = items.stream()
-                .filter(item -> !item.isPromotionItem())
-                .mapToInt(ReceiptItem::getAmount)
-                .sum();
+        int discountableAmount = 0;
+        for (ItemAggregate aggregate : aggregates.values()) {
+            discountableAmount += aggregate.nonPromotionAmount;
+        }
 
         int discountAmount = (int) (discountableAmount * MEMBERSHIP_DISCOUNT_RATE);
         return Math.min(discountAmount, MAX_MEMBERSHIP_DISCOUNT);
@@ -130,6 +137,16 @@ public final class Receipt {
         return new ArrayList<>(freeItems);
     }
 
+    /**
+     * 구매 상품을 상품명별로 합산한 내역을 처음 등장한 순서대로 반환한다.
+     */
+    public List<ItemSummary> getItemSummaries() {
+        List<ItemSummary> summaries = new ArrayList<>(aggregates.size());
+        aggregates.forEach((name, aggregate) ->
+                summaries.add(new ItemSummary(name, aggregate.quantity, aggregate.amount)));
+        return summaries;
+    }
+
     public int getTotalAmount() {
         return totalAmount;
     }
@@ -149,4 +166,28 @@ public final class Receipt {
     // 프로모션 미적용 정보를 담는 클래스
     public record NormalPurchaseInfo(int quantity, int amount) {
     }
+
+    // 상품명별로 합산한 구매 내역
+    public record ItemSummary(String name, int quantity, int amount) {
+    }
+
+    private static final class ItemAggregate {
+        private final int firstUnitPrice;
+        private int quantity;
+        private int amount;
+        // 멤버십 할인 대상인 프로모션 미적용 항목의 금액
+        private int nonPromotionAmount;
+
+        private ItemAggregate(int firstUnitPrice) {
+            this.firstUnitPrice = firstUnitPrice;
+        }
+
+        private void add(ReceiptItem item) {
+            quantity += item.getQuantity();
+            amount += item.getAmount();
+            if (!item.isPromotionItem()) {
+                nonPromotionAmount += item.getAmount();
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package store.domain.store.domain;
+
+/**
+ * 상품의 재고 수량을 보관하는 저장 공간.
+ * 재고는 번호로 구분되는 칸에 저장되며, 상품은 자신의 칸 번호로 수량을 읽고 차감한다.
+ */
+public interface StockStore {
+
+    /**
+     * 칸의 현재 재고 수량을 반환한다.
+     *
+     * @param cell 재고 칸 번호
+     * @return 재고 수량
+     */
+    int quantity(int cell);
+
+    /**
+     * 칸의 재고가 기대한 값일 때만 새 값으로 바꾼다.
+     *
+     * @param cell 재고 칸 번호
+     * @param expected 기대하는 현재 수량
+     * @param updated 바꿀 수량
+     * @return 변경 성공 여부
+     */
+    boolean compareAndSetQuantity(int cell, int expected, int updated);
+}
@@ -0,0 +1,38 @@
+package store.domain.store.dto.request;
+
+import java.util.List;
+
+/**
+ * 일괄 구매에 포함되는 장바구니 하나의 구매 요청 정보.
+ */
+public class CartRequest {
+    private final List<PurchaseRequest> requests;
+    private final boolean usePromotion;
+    private final boolean hasMembership;
+
+    private CartRequest(List<PurchaseRequest> requests, boolean usePromotion, boolean hasMembership) {
+        this.requests = requests;
+        this.usePromotion = usePromotion;
+        this.hasMembership = hasMembership;
+    }
+
+    public static CartRequest of(
+            final List<PurchaseRequest> requests,
+            final boolean usePromotion,
+            final boolean hasMembership
+    ) {
+        return new CartRequest(requests, usePromotion, hasMembership);
+    }
+
+    public List<PurchaseRequest> getRequests() {
+        return requests;
+    }
+
+    public boolean isUsePromotion() {
+        return usePromotion;
+    }
+
+    public boolean hasMembership() {
+        return hasMembership;
+    }
+}
@@ -1,13 +1,18 @@
 package store.domain.store.dto.request;
 
+import store.domain.store.domain.ProductId;
+
 /**
  * 상품 구매 요청 정보.
+ * 입력 단계에서 상품 번호를 찾아 두었다면 이후 단계는 상품명 대신 번호로 상품을 조회한다.
  */
 public class PurchaseRequest {
+    private final ProductId productId;
     private final String productName;
     private int quantity;
 
-    private PurchaseRequest(String productName, int quantity) {
+    private PurchaseRequest(ProductId productId, String productName, int quantity) {
+        this.productId = productId;
         this.productName = productName;
         this.quantity = quantity;
     }
@@ -16,7 +21,30 @@ public class PurchaseRequest {
             final String productName,
             final int quantity
     ) {
-        return new PurchaseRequest(productName, quantity);
+        return new PurchaseRequest(null, productName, quantity);
+    }
+
+    /**
+     * 상품 번호를 찾아 둔 구매 요청을 생성한다.
+     *
+     * @param productId 상품 번호
+     * @param productName 상품명
+     * @param quantity 수량
+     * @return 생성된 구매 요청
+     */
+    public static PurchaseRequest of(
+            final ProductId productId,
+            final String productName,
+            final int quantity
+    ) {
+        return new PurchaseRequest(productId, productName, quantity);
+    }
+
+    /**
+     * 상품 번호를 반환한다. 상품명만으로 생성된 요청이면 null이다.
+     */
+    public ProductId getProductId() {
+        return productId;
     }
 
     public String getProductName() {
@@ -0,0 +1,35 @@
+package store.domain.store.dto.response;
+
+/**
+ * 일괄 구매에서 장바구니 하나의 처리 결과.
+ * 성공하면 영수증을, 실패하면 오류 메시지를 담는다.
+ */
+public class CartPurchaseResponse {
+    private final ReceiptResponse receipt;
+    private final String errorMessage;
+
+    private CartPurchaseResponse(ReceiptResponse receipt, String errorMessage) {
+        this.receipt = receipt;
+        this.errorMessage = errorMessage;
+    }
+
+    public static CartPurchaseResponse success(final ReceiptResponse receipt) {
+        return new CartPurchaseResponse(receipt, null);
+    }
+
+    public static CartPurchaseResponse failure(final String errorMessage) {
+        return new CartPurchaseResponse(null, errorMessage);
+    }
+
+    public boolean isSuccess() {
+        return receipt != null;
+    }
+
+    public ReceiptResponse getReceipt() {
+        return receipt;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
@@ -33,6 +33,13 @@ public class ProductResponse {
         );
     }
 
+    /**
+     * 프로모션 상품만 있는 경우 함께 표시하는 일반 상품의 재고 없음 행을 생성한다.
+     */
+    public static ProductResponse outOfStock(final String name, final int price) {
+        return new ProductResponse(name, price, "재고 없음", null);
+    }
+
     public String getName() {
         return name;
     }
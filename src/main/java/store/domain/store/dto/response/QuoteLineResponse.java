@@ -0,0 +1,63 @@
+package store.domain.store.dto.response;
+
+/**
+ * 장바구니 한 줄에 대한 견적.
+ * 구매 전에 사용자에게 물어봐야 할 내용을 담는다.
+ */
+public class QuoteLineResponse {
+    private final String productName;
+    private final int quantity;
+    private final int normalPurchaseQuantity;
+    private final int additionalFreeQuantity;
+
+    private QuoteLineResponse(
+            String productName,
+            int quantity,
+            int normalPurchaseQuantity,
+            int additionalFreeQuantity
+    ) {
+        this.productName = productName;
+        this.quantity = quantity;
+        this.normalPurchaseQuantity = normalPurchaseQuantity;
+        this.additionalFreeQuantity = additionalFreeQuantity;
+    }
+
+    public static QuoteLineResponse of(
+            final String productName,
+            final int quantity,
+            final int normalPurchaseQuantity,
+            final int additionalFreeQuantity
+    ) {
+        return new QuoteLineResponse(productName, quantity, normalPurchaseQuantity, additionalFreeQuantity);
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * 프로모션 할인이 적용되지 않는 수량. 0이면 확인이 필요 없다.
+     */
+    public int getNormalPurchaseQuantity() {
+        return normalPurchaseQuantity;
+    }
+
+    /**
+     * 추가로 받을 수 있는 증정 수량. 0이면 추가 증정이 불가능하다.
+     */
+    public int getAdditionalFreeQuantity() {
+        return additionalFreeQuantity;
+    }
+
+    public boolean needsNormalPurchaseConfirm() {
+        return normalPurchaseQuantity > 0;
+    }
+
+    public boolean canAddFreeQuantity() {
+        return additionalFreeQuantity > 0;
+    }
+}
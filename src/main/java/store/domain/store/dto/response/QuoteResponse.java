@@ -0,0 +1,67 @@
+package store.domain.store.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 재고를 변경하지 않고 계산한 장바구니 견적.
+ * 줄별 확인 사항과 현재 장바구니 그대로 구매했을 때의 예상 금액을 담는다.
+ * 재고가 부족하여 구매할 수 없는 장바구니는 예상 금액이 모두 0이다.
+ */
+public class QuoteResponse {
+    private final List<QuoteLineResponse> lines;
+    private final boolean purchasable;
+    private final int totalAmount;
+    private final int promotionDiscountAmount;
+    private final int membershipDiscountAmount;
+
+    private QuoteResponse(
+            List<QuoteLineResponse> lines,
+            boolean purchasable,
+            int totalAmount,
+            int promotionDiscountAmount,
+            int membershipDiscountAmount
+    ) {
+        this.lines = new ArrayList<>(lines);
+        this.purchasable = purchasable;
+        this.totalAmount = totalAmount;
+        this.promotionDiscountAmount = promotionDiscountAmount;
+        this.membershipDiscountAmount = membershipDiscountAmount;
+    }
+
+    public static QuoteResponse of(
+            final List<QuoteLineResponse> lines,
+            final int totalAmount,
+            final int promotionDiscountAmount,
+            final int membershipDiscountAmount
+    ) {
+        return new QuoteResponse(lines, true, totalAmount, promotionDiscountAmount, membershipDiscountAmount);
+    }
+
+    public static QuoteResponse unavailable(final List<QuoteLineResponse> lines) {
+        return new QuoteResponse(lines, false, 0, 0, 0);
+    }
+
+    public List<QuoteLineResponse> getLines() {
+        return new ArrayList<>(lines);
+    }
+
+    public boolean isPurchasable() {
+        return purchasable;
+    }
+
+    public int getTotalAmount() {
+        return totalAmount;
+    }
+
+    public int getPromotionDiscountAmount() {
+        return promotionDiscountAmount;
+    }
+
+    /**
+     * 멤버십 할인을 받을 경우의 예상 할인 금액.
+     */
+    public int getMembershipDiscountAmount() {
+        return membershipDiscountAmount;
+    }
+}
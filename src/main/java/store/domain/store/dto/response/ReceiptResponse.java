@@ -1,49 +1,119 @@
 package store.domain.store.dto.response;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import store.domain.store.domain.Receipt;
+import store.domain.store.domain.Receipt.ItemSummary;
 import store.domain.store.domain.ReceiptItem;
 
 /**
  * 구매 영수증 응답.
+ * 영수증 저장소가 켜져 있으면 저장소가 붙인 영수증 번호를 함께 가진다.
  */
 public class ReceiptResponse {
+    /** 영수증 저장소에 저장하지 않은 영수증의 번호. */
+    public static final long NOT_STORED = 0;
+
     private final List<PurchaseResponse> items;
     private final List<PurchaseResponse> freeItems;
+    private final List<PurchaseResponse> groupedItems;
     private final int totalAmount;
     private final int promotionDiscountAmount;
     private final int membershipDiscountAmount;
     private final int finalAmount;
+    private final long receiptId;
 
     private ReceiptResponse(
             List<PurchaseResponse> items,
             List<PurchaseResponse> freeItems,
+            List<PurchaseResponse> groupedItems,
             int totalAmount,
             int promotionDiscountAmount,
             int membershipDiscountAmount,
-            int finalAmount
+            int finalAmount,
+            long receiptId
     ) {
         this.items = new ArrayList<>(items);
         this.freeItems = new ArrayList<>(freeItems);
+        this.groupedItems = new ArrayList<>(groupedItems);
         this.totalAmount = totalAmount;
         this.promotionDiscountAmount = promotionDiscountAmount;
         this.membershipDiscountAmount = membershipDiscountAmount;
         this.finalAmount = finalAmount;
+        this.receiptId = receiptId;
     }
 
     public static ReceiptResponse from(Receipt receipt) {
         return new ReceiptResponse(
                 convertToItemResponses(receipt.getItems()),
                 convertToItemResponses(receipt.getFreeItems()),
+                convertToSummaryResponses(receipt.getItemSummaries()),
                 receipt.getTotalAmount(),
                 receipt.getPromotionDiscountAmount(),
                 receipt.getMembershipDiscountAmount(),
-                receipt.getFinalAmount()
+                receipt.getFinalAmount(),
+                NOT_STORED
+        );
+    }
+
+    /**
+     * 저장해 둔 구매/증정 내역과 금액으로 영수증을 복원한다.
+     * 상품명별 합산 내역은 Receipt와 같이 구매 내역의 등장 순서대로 다시 집계한다.
+     */
+    public static ReceiptResponse of(
+            final List<PurchaseResponse> items,
+            final List<PurchaseResponse> freeItems,
+            final int totalAmount,
+            final int promotionDiscountAmount,
+            final int membershipDiscountAmount,
+            final int finalAmount
+    ) {
+        return new ReceiptResponse(
+                items,
+                freeItems,
+                groupByName(items),
+                totalAmount,
+                promotionDiscountAmount,
+                membershipDiscountAmount,
+                finalAmount,
+                NOT_STORED
+        );
+    }
+
+    /**
+     * 같은 내용에 영수증 번호를 붙인 영수증을 반환한다.
+     *
+     * @param receiptId 영수증 저장소가 붙인 번호
+     * @return 번호가 붙은 영수증
+     */
+    public ReceiptResponse withReceiptId(final long receiptId) {
+        return new ReceiptResponse(
+                items,
+                freeItems,
+                groupedItems,
+                totalAmount,
+                promotionDiscountAmount,
+                membershipDiscountAmount,
+                finalAmount,
+                receiptId
         );
     }
 
+    private static List<PurchaseResponse> groupByName(List<PurchaseResponse> items) {
+        Map<String, int[]> totals = new LinkedHashMap<>();
+        for (PurchaseResponse item : items) {
+            int[] total = totals.computeIfAbsent(item.getName(), name -> new int[2]);
+            total[0] += item.getQuantity();
+            total[1] += item.getAmount();
+        }
+        List<PurchaseResponse> grouped = new ArrayList<>(totals.size());
+        totals.forEach((name, total) -> grouped.add(PurchaseResponse.of(name, total[0], total[1])));
+        return grouped;
+    }
+
     private static List<PurchaseResponse> convertToItemResponses(List<ReceiptItem> items) {
         return items.stream()
                 .map(item -> PurchaseResponse.of(
@@ -54,6 +124,16 @@ public class ReceiptResponse {
                 .collect(Collectors.toList());
     }
 
+    private static List<PurchaseResponse> convertToSummaryResponses(List<ItemSummary> summaries) {
+        return summaries.stream()
+                .map(summary -> PurchaseResponse.of(
+                        summary.name(),
+                        summary.quantity(),
+                        summary.amount()
+                ))
+                .collect(Collectors.toList());
+    }
+
     public List<PurchaseResponse> getItems() {
         return new ArrayList<>(items);
     }
@@ -62,6 +142,13 @@ public class ReceiptResponse {
         return new ArrayList<>(freeItems);
     }
 
+    /**
+     * 구매 상품을 상품명별로 합산한 내역을 반환한다.
+     */
+    public List<PurchaseResponse> getGroupedItems() {
+        return new ArrayList<>(groupedItems);
+    }
+
     public int getTotalAmount() {
         return totalAmount;
     }
@@ -77,4 +164,11 @@ public class ReceiptResponse {
     public int getFinalAmount() {
         return finalAmount;
     }
+
+    /**
+     * 영수증 저장소가 붙인 번호를 반환한다. 저장하지 않은 영수증이면 NOT_STORED다.
+     */
+    public long getReceiptId() {
+        return receiptId;
+    }
 }
@@ -1,8 +1,12 @@
 package store.domain.store.presentation;
 
 import java.util.List;
+import java.util.Optional;
+import store.domain.store.dto.request.CartRequest;
 import store.domain.store.dto.request.PurchaseRequest;
+import store.domain.store.dto.response.CartPurchaseResponse;
 import store.domain.store.dto.response.ProductResponse;
+import store.domain.store.dto.response.QuoteResponse;
 import store.domain.store.dto.response.ReceiptResponse;
 import store.domain.store.service.StoreService;
 
@@ -21,10 +25,36 @@ public class StoreController {
         return instance;
     }
 
+    /**
+     * 주어진 서비스를 사용하는 별도의 컨트롤러를 생성한다.
+     *
+     * @param storeService 사용할 서비스
+     * @return 생성된 컨트롤러
+     */
+    public static StoreController of(final StoreService storeService) {
+        return new StoreController(storeService);
+    }
+
     public ReceiptResponse purchase(List<PurchaseRequest> requests, boolean usePromotion, boolean hasMembership) {
         return storeService.purchase(requests, usePromotion, hasMembership);
     }
 
+    public List<CartPurchaseResponse> purchaseBatch(List<CartRequest> carts) {
+        return storeService.purchaseBatch(carts);
+    }
+
+    public QuoteResponse quote(List<PurchaseRequest> requests) {
+        return storeService.quote(requests);
+    }
+
+    public PurchaseRequest createPurchaseRequest(CharSequence input, int nameStart, int nameEnd, int quantity) {
+        return storeService.createPurchaseRequest(input, nameStart, nameEnd, quantity);
+    }
+
+    public Optional<ReceiptResponse> findReceipt(long receiptId) {
+        return storeService.findReceipt(receiptId);
+    }
+
     public List<ProductResponse> getProducts() {
         return storeService.getProducts();
     }
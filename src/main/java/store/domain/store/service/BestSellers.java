@@ -0,0 +1,108 @@
+package store.domain.store.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 판매 수량 상위 N개 상품의 순위.
+ *
+ * <p>순위는 바꾸지 않는 배열로 보관하고 compareAndSet으로 통째로 교체한다.
+ * 순위에 들지 못하는 판매는 배열을 훑어보기만 하고 끝나므로 대부분의 기록은 락도 할당도 없이 지나간다.
+ * 판매 수량은 줄지 않으므로 같은 상품의 값이 늦게 도착해도 더 큰 값을 남긴다.
+ */
+final class BestSellers {
+    private final int limit;
+    private final AtomicReference<Ranking> ranking;
+
+    private BestSellers(int limit) {
+        this.limit = limit;
+        this.ranking = new AtomicReference<>(new Ranking(new String[0], new long[0]));
+    }
+
+    static BestSellers of(final int limit) {
+        return new BestSellers(limit);
+    }
+
+    /**
+     * 상품의 누적 판매 수량을 순위에 반영한다.
+     */
+    void offer(String name, long soldQuantity) {
+        while (true) {
+            Ranking current = ranking.get();
+            if (!current.admits(name, soldQuantity, limit)) {
+                return;
+            }
+            if (ranking.compareAndSet(current, current.with(name, soldQuantity, limit))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 판매 수량이 많은 순서의 상품명을 반환한다.
+     */
+    List<String> names() {
+        return List.of(ranking.get().names);
+    }
+
+    private record Ranking(String[] names, long[] quantities) {
+
+        boolean admits(String name, long soldQuantity, int limit) {
+            int index = indexOf(name);
+            if (index >= 0) {
+                return quantities[index] < soldQuantity;
+            }
+            return names.length < limit || quantities[names.length - 1] < soldQuantity;
+        }
+
+        // 상품을 빼고 판매 수량 순서에 맞는 자리에 다시 넣는다
+        Ranking with(String name, long soldQuantity, int limit) {
+            int index = indexOf(name);
+            String[] others = names;
+            long[] otherQuantities = quantities;
+            if (index >= 0) {
+                others = remove(names, index);
+                otherQuantities = remove(quantities, index);
+            }
+            int position = 0;
+            while (position < others.length && otherQuantities[position] >= soldQuantity) {
+                position++;
+            }
+            int size = Math.min(others.length + 1, limit);
+            String[] nextNames = new String[size];
+            long[] nextQuantities = new long[size];
+            for (int i = 0, source = 0; i < size; i++) {
+                if (i == position) {
+                    nextNames[i] = name;
+                    nextQuantities[i] = soldQuantity;
+                    continue;
+                }
+                nextNames[i] = others[source];
+                nextQuantities[i] = otherQuantities[source++];
+            }
+            return new Ranking(nextNames, nextQuantities);
+        }
+
+        private int indexOf(String name) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static String[] remove(String[] values, int index) {
+            String[] result = Arrays.copyOf(values, values.length - 1);
+            System.arraycopy(values, index + 1, result, index, values.length - index - 1);
+            return result;
+        }
+
+        private static long[] remove(long[] values, int index) {
+            long[] result = Arrays.copyOf(values, values.length - 1);
+            System.arraycopy(values, index + 1, result, index, values.length - index - 1);
+            return result;
+        }
+    }
+}
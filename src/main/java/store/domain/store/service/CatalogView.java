@@ -0,0 +1,199 @@
+package store.domain.store.service;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import store.domain.store.dao.ProductRepository;
+import store.domain.store.domain.Product;
+import store.domain.store.dto.response.ProductResponse;
+
+/**
+ * 상품 목록 화면에 표시할 행을 미리 만들어 두는 캐시.
+ * 저장소 버전이 그대로면 만들어 둔 목록을 그대로 반환하고,
+ * 바뀌었다면 변경된 상품명의 행만 다시 만든다.
+ *
+ * <p>상품명마다의 행 묶음을 일정 개수씩 블록으로 나누어 두고, 변경된 상품명이 속한 블록만 새로 만든다.
+ * 나머지 블록은 이전 목록과 공유하므로 상품이 많아도 변경 한 번에 전체 행을 복사하지 않는다.
+ */
+final class CatalogView {
+    private static final int MAX_ROWS_PER_NAME = 3;
+    static final int GROUPS_PER_BLOCK = 64;
+
+    private final ProductRepository productRepository;
+    private final Set<String> changedNames = ConcurrentHashMap.newKeySet();
+    private volatile Snapshot snapshot;
+
+    private CatalogView(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    static CatalogView of(final ProductRepository productRepository) {
+        CatalogView view = new CatalogView(productRepository);
+        productRepository.addChangeListener(view.changedNames::add);
+        return view;
+    }
+
+    /**
+     * 상품 목록을 반환한다. 반환된 목록은 수정할 수 없다.
+     */
+    List<ProductResponse> getProducts() {
+        Snapshot current = snapshot;
+        if (current != null && current.version() == productRepository.getVersion()) {
+            return current.responses();
+        }
+        return refresh();
+    }
+
+    private synchronized List<ProductResponse> refresh() {
+        // 버전을 먼저 읽어야 이후의 변경이 다음 조회에서 다시 반영된다
+        long version = productRepository.getVersion();
+        Snapshot current = snapshot;
+        if (current != null && current.version() == version) {
+            return current.responses();
+        }
+        Set<String> names = drainChangedNames();
+        if (current == null) {
+            snapshot = buildAll(version);
+        } else {
+            snapshot = update(current, version, names);
+        }
+        return snapshot.responses();
+    }
+
+    private Set<String> drainChangedNames() {
+        Set<String> names = new LinkedHashSet<>();
+        Iterator<String> iterator = changedNames.iterator();
+        while (iterator.hasNext()) {
+            names.add(iterator.next());
+            iterator.remove();
+        }
+        return names;
+    }
+
+    private Snapshot buildAll(long version) {
+        Map<String, Integer> groupIndex = new HashMap<>();
+        List<List<ProductResponse>> groups = new ArrayList<>();
+        for (Product product : productRepository.findAll()) {
+            if (groupIndex.putIfAbsent(product.getName(), groups.size()) == null) {
+                groups.add(render(product.getName()));
+            }
+        }
+        Block[] blocks = new Block[(groups.size() + GROUPS_PER_BLOCK - 1) / GROUPS_PER_BLOCK];
+        for (int i = 0; i < blocks.length; i++) {
+            int from = i * GROUPS_PER_BLOCK;
+            blocks[i] = Block.of(groups.subList(from, Math.min(from + GROUPS_PER_BLOCK, groups.size())));
+        }
+        return Snapshot.of(version, groupIndex, blocks);
+    }
+
+    private Snapshot update(Snapshot current, long version, Set<String> names) {
+        Block[] blocks = current.blocks().clone();
+        // 같은 블록의 상품명이 여러 개 바뀌어도 블록은 한 번만 복사한다
+        List<List<ProductResponse>>[] changedGroups = newGroupsArray(blocks.length);
+        for (String name : names) {
+            Integer index = current.groupIndex().get(name);
+            if (index == null) {
+                return buildAll(version);
+            }
+            int block = index / GROUPS_PER_BLOCK;
+            if (changedGroups[block] == null) {
+                changedGroups[block] = new ArrayList<>(blocks[block].groups());
+            }
+            changedGroups[block].set(index % GROUPS_PER_BLOCK, render(name));
+        }
+        for (int block = 0; block < blocks.length; block++) {
+            if (changedGroups[block] != null) {
+                blocks[block] = Block.of(changedGroups[block]);
+            }
+        }
+        return Snapshot.of(version, current.groupIndex(), blocks);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<List<ProductResponse>>[] newGroupsArray(int length) {
+        return (List<List<ProductResponse>>[]) new List<?>[length];
+    }
+
+    private List<ProductResponse> render(String name) {
+        List<ProductResponse> rows = new ArrayList<>(MAX_ROWS_PER_NAME);
+        Optional<Product> promotionProduct = productRepository.findPromotionProduct(name);
+        Optional<Product> normalProduct = productRepository.findNormalProduct(name);
+
+        promotionProduct.ifPresent(product -> {
+            rows.add(ProductResponse.from(product));
+            // 일반 상품이 없거나 재고가 0인 경우에만 재고 없음 행 추가
+            if (normalProduct.isEmpty() || normalProduct.get().getQuantity() == 0) {
+                rows.add(ProductResponse.outOfStock(name, product.getPrice()));
+            }
+        });
+        normalProduct.ifPresent(product -> rows.add(ProductResponse.from(product)));
+        return List.copyOf(rows);
+    }
+
+    /**
+     * 연속된 상품명 묶음과, 그 행을 이어 붙인 배열.
+     */
+    private record Block(List<List<ProductResponse>> groups, ProductResponse[] rows) {
+        private static Block of(List<List<ProductResponse>> groups) {
+            List<ProductResponse> rows = new ArrayList<>(groups.size() * 2);
+            groups.forEach(rows::addAll);
+            return new Block(List.copyOf(groups), rows.toArray(ProductResponse[]::new));
+        }
+    }
+
+    private record Snapshot(
+            long version,
+            Map<String, Integer> groupIndex,
+            Block[] blocks,
+            List<ProductResponse> responses
+    ) {
+        private static Snapshot of(long version, Map<String, Integer> groupIndex, Block[] blocks) {
+            return new Snapshot(version, groupIndex, blocks, new Rows(blocks));
+        }
+    }
+
+    /**
+     * 블록들의 행을 하나의 목록처럼 보여 주는 수정할 수 없는 목록.
+     */
+    private static final class Rows extends AbstractList<ProductResponse> implements RandomAccess {
+        private final Block[] blocks;
+        // blockStarts[i]는 i번째 블록의 첫 행 위치이고 마지막 값은 전체 행 수다
+        private final int[] blockStarts;
+
+        private Rows(Block[] blocks) {
+            this.blocks = blocks;
+            this.blockStarts = new int[blocks.length + 1];
+            for (int i = 0; i < blocks.length; i++) {
+                blockStarts[i + 1] = blockStarts[i] + blocks[i].rows().length;
+            }
+        }
+
+        @Override
+        public ProductResponse get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            int found = Arrays.binarySearch(blockStarts, index);
+            // 행이 없는 블록이 있으면 같은 시작 위치가 여러 번 나오므로 행이 있는 블록까지 넘어간다
+            int block = found >= 0 ? found : -found - 2;
+            while (blocks[block].rows().length <= index - blockStarts[block]) {
+                block++;
+            }
+            return blocks[block].rows()[index - blockStarts[block]];
+        }
+
+        @Override
+        public int size() {
+            return blockStarts[blocks.length];
+        }
+    }
+}
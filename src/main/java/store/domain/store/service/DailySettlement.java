@@ -0,0 +1,435 @@
+package store.domain.store.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import store.domain.store.dao.ReceiptLog;
+import store.domain.store.dao.ReceiptLog.LoggedItem;
+import store.domain.store.dao.ReceiptLog.LoggedReceipt;
+
+/**
+ * 하루치 영수증 기록 파일을 읽어 상품별, 계산대별 정산 합계를 계산한다.
+ *
+ * <p>파일을 일정 크기의 바이트 구간으로 나누고, 구간들을 fork-join으로 반씩 나누어 병렬로 집계한 뒤 합친다.
+ * 구간은 시작 위치가 구간 안에 있는 줄만 맡으므로, 줄이 구간 경계에 걸쳐 있어도 한 번만 집계된다.
+ * 구간마다 고정 크기의 읽기 버퍼 하나와 상품/계산대 수에 비례하는 합계만 두므로
+ * 영수증이 수천만 장이어도 메모리 사용량은 영수증 수와 관계없다.
+ *
+ * <p>멤버십할인과 내실돈은 영수증 단위로만 정해지므로 계산대별로 집계하고, 상품별로는 총구매액과 행사할인을 집계한다.
+ * 형식이 맞지 않는 줄(기록 도중 종료되어 잘린 마지막 줄 등)은 건너뛰고 개수를 보고한다.
+ */
+public final class DailySettlement {
+    private static final String USAGE =
+            "[ERROR] 사용법: DailySettlement [--threads N] [--chunk-mb N] <영수증 기록 파일 또는 디렉터리>...";
+    private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+    private static final int DEFAULT_CHUNK_MEGABYTES = 32;
+    private static final int READ_BUFFER_BYTES = 1 << 16;
+    private static final String HEADER_FORMAT = "==============정산=============%n파일 %d개, 영수증 %,d장, 손상된 줄 %,d개%n";
+    private static final String LANE_HEADER = "계산대\t\t영수증\t총구매액\t행사할인\t멤버십할인\t내실돈";
+    private static final String LANE_FORMAT = "%s\t\t%,d\t%,d\t-%,d\t-%,d\t%,d%n";
+    private static final String PRODUCT_HEADER = "상품명\t\t수량\t증정\t총구매액\t행사할인";
+    private static final String PRODUCT_FORMAT = "%s\t\t%,d\t%,d\t%,d\t-%,d%n";
+
+    private final int parallelism;
+    private final long chunkBytes;
+
+    private DailySettlement(int parallelism, long chunkBytes) {
+        this.parallelism = parallelism;
+        this.chunkBytes = chunkBytes;
+    }
+
+    /**
+     * 주어진 수의 스레드로 파일을 chunkBytes 크기의 구간으로 나누어 정산하는 작업을 만든다.
+     */
+    public static DailySettlement of(final int parallelism, final long chunkBytes) {
+        return new DailySettlement(parallelism, chunkBytes);
+    }
+
+    /**
+     * 영수증 기록 파일이나 디렉터리를 정산하고 결과를 출력한다.
+     * 사용법: DailySettlement [--threads N] [--chunk-mb N] &lt;영수증 기록 파일 또는 디렉터리&gt;...
+     */
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int chunkMegabytes = DEFAULT_CHUNK_MEGABYTES;
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> threads = parsePositive(args, ++i);
+                case "--chunk-mb" -> chunkMegabytes = parsePositive(args, ++i);
+                default -> files.addAll(ReceiptLog.findLogFiles(Path.of(args[i])));
+            }
+        }
+        if (files.isEmpty()) {
+            throw new IllegalArgumentException(USAGE);
+        }
+        Report report = of(threads, chunkMegabytes * BYTES_PER_MEGABYTE).settle(files);
+        System.out.print(report.format(files.size()));
+    }
+
+    /**
+     * 파일들을 정산한다.
+     *
+     * @param files 영수증 기록 파일 목록
+     * @return 정산 결과
+     * @throws IllegalStateException 파일을 읽지 못한 경우
+     */
+    public Report settle(List<Path> files) {
+        List<Chunk> chunks = split(files);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(new SettleTask(chunks, 0, chunks.size())).toReport();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private List<Chunk> split(List<Path> files) {
+        List<Chunk> chunks = new ArrayList<>();
+        for (Path file : files) {
+            long size = sizeOf(file);
+            for (long start = 0; start < size; start += chunkBytes) {
+                chunks.add(new Chunk(file, start, Math.min(size, start + chunkBytes)));
+            }
+        }
+        return chunks;
+    }
+
+    private static long sizeOf(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.size();
+        } catch (IOException e) {
+            throw new IllegalStateException("[ERROR] 영수증 기록 파일을 읽을 수 없습니다: " + file, e);
+        }
+    }
+
+    private static int parsePositive(String[] args, int index) {
+        try {
+            int value = Integer.parseInt(args[index]);
+            if (value > 0) {
+                return value;
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException(USAGE, e);
+        }
+        throw new IllegalArgumentException(USAGE);
+    }
+
+    /**
+     * 파일의 바이트 구간 [start, end). 시작 위치가 이 구간 안에 있는 줄을 맡는다.
+     */
+    private record Chunk(Path file, long start, long end) {
+    }
+
+    private static final class SettleTask extends RecursiveTask<Totals> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<Chunk> chunks;
+        private final int from;
+        private final int to;
+
+        private SettleTask(List<Chunk> chunks, int from, int to) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from <= 1) {
+                Totals totals = new Totals();
+                if (from < to) {
+                    new ChunkReader(chunks.get(from), totals).read();
+                }
+                return totals;
+            }
+            int middle = (from + to) >>> 1;
+            SettleTask left = new SettleTask(chunks, from, middle);
+            left.fork();
+            Totals right = new SettleTask(chunks, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * 구간 하나를 고정 크기 버퍼로 차례로 읽어 줄마다 집계한다.
+     */
+    private static final class ChunkReader {
+        private final Chunk chunk;
+        private final Totals totals;
+        private final ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        private byte[] line = new byte[256];
+        private int length;
+
+        private ChunkReader(Chunk chunk, Totals totals) {
+            this.chunk = chunk;
+            this.totals = totals;
+        }
+
+        void read() {
+            try (FileChannel channel = FileChannel.open(chunk.file(), StandardOpenOption.READ)) {
+                read(channel);
+            } catch (IOException e) {
+                throw new IllegalStateException("[ERROR] 영수증 기록 파일을 읽을 수 없습니다: " + chunk.file(), e);
+            }
+        }
+
+        // 구간이 파일 중간에서 시작하면 바로 앞 바이트부터 읽어 첫 줄바꿈까지 건너뛴다
+        private void read(FileChannel channel) throws IOException {
+            boolean skipping = chunk.start() > 0;
+            long offset = skipping ? chunk.start() - 1 : 0;
+            while (true) {
+                buffer.clear();
+                int read = channel.read(buffer, offset);
+                if (read < 0) {
+                    break;
+                }
+                byte[] data = buffer.array();
+                int position = 0;
+                if (skipping) {
+                    int newline = indexOfNewline(data, 0, read);
+                    if (newline < 0) {
+                        offset += read;
+                        continue;
+                    }
+                    skipping = false;
+                    position = newline + 1;
+                    if (offset + position >= chunk.end()) {
+                        return;
+                    }
+                }
+                while (position < read) {
+                    int newline = indexOfNewline(data, position, read);
+                    if (newline < 0) {
+                        append(data, position, read);
+                        break;
+                    }
+                    append(data, position, newline);
+                    accept();
+                    position = newline + 1;
+                    if (offset + position >= chunk.end()) {
+                        return;
+                    }
+                }
+                offset += read;
+            }
+            // 줄바꿈 없이 끝난 마지막 줄은 기록 도중에 잘린 줄이다
+            if (length > 0) {
+                totals.malformedLines++;
+            }
+        }
+
+        private void append(byte[] data, int from, int to) {
+            int count = to - from;
+            if (length + count > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, length + count));
+            }
+            System.arraycopy(data, from, line, length, count);
+            length += count;
+        }
+
+        private void accept() {
+            ReceiptLog.parse(line, 0, length).ifPresentOrElse(totals::add, () -> totals.malformedLines++);
+            length = 0;
+        }
+
+        private static int indexOfNewline(byte[] data, int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (data[i] == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * 구간 하나 또는 여러 구간을 합친 중간 합계.
+     */
+    private static final class Totals {
+        private final Map<String, ProductTotals> products = new HashMap<>();
+        private final Map<String, LaneTotals> lanes = new HashMap<>();
+        private long malformedLines;
+
+        void add(LoggedReceipt receipt) {
+            LaneTotals lane = lanes.computeIfAbsent(receipt.lane(), LaneTotals::new);
+            lane.receipts++;
+            lane.totalAmount += receipt.totalAmount();
+            lane.promotionDiscountAmount += receipt.promotionDiscountAmount();
+            lane.membershipDiscountAmount += receipt.membershipDiscountAmount();
+            lane.finalAmount += receipt.finalAmount();
+            for (LoggedItem item : receipt.items()) {
+                ProductTotals product = products.computeIfAbsent(item.name(), ProductTotals::new);
+                product.quantity += item.quantity();
+                product.totalAmount += item.amount();
+            }
+            for (LoggedItem item : receipt.freeItems()) {
+                ProductTotals product = products.computeIfAbsent(item.name(), ProductTotals::new);
+                product.freeQuantity += item.quantity();
+                product.promotionDiscountAmount += item.amount();
+            }
+        }
+
+        Totals merge(Totals other) {
+            other.products.forEach((name, totals) ->
+                    products.computeIfAbsent(name, ProductTotals::new).merge(totals));
+            other.lanes.forEach((name, totals) ->
+                    lanes.computeIfAbsent(name, LaneTotals::new).merge(totals));
+            malformedLines += other.malformedLines;
+            return this;
+        }
+
+        Report toReport() {
+            Map<String, LaneSettlement> laneSettlements = new TreeMap<>();
+            lanes.forEach((name, lane) -> laneSettlements.put(name, lane.toSettlement()));
+            Map<String, ProductSettlement> productSettlements = new TreeMap<>();
+            products.forEach((name, product) -> productSettlements.put(name, product.toSettlement()));
+            return new Report(laneSettlements, productSettlements, malformedLines);
+        }
+    }
+
+    private static final class ProductTotals {
+        private final String name;
+        private long quantity;
+        private long freeQuantity;
+        private long totalAmount;
+        private long promotionDiscountAmount;
+
+        private ProductTotals(String name) {
+            this.name = name;
+        }
+
+        void merge(ProductTotals other) {
+            quantity += other.quantity;
+            freeQuantity += other.freeQuantity;
+            totalAmount += other.totalAmount;
+            promotionDiscountAmount += other.promotionDiscountAmount;
+        }
+
+        ProductSettlement toSettlement() {
+            return new ProductSettlement(name, quantity, freeQuantity, totalAmount, promotionDiscountAmount);
+        }
+    }
+
+    private static final class LaneTotals {
+        private final String lane;
+        private long receipts;
+        private long totalAmount;
+        private long promotionDiscountAmount;
+        private long membershipDiscountAmount;
+        private long finalAmount;
+
+        private LaneTotals(String lane) {
+            this.lane = lane;
+        }
+
+        void merge(LaneTotals other) {
+            receipts += other.receipts;
+            totalAmount += other.totalAmount;
+            promotionDiscountAmount += other.promotionDiscountAmount;
+            membershipDiscountAmount += other.membershipDiscountAmount;
+            finalAmount += other.finalAmount;
+        }
+
+        LaneSettlement toSettlement() {
+            return new LaneSettlement(lane, receipts, totalAmount, promotionDiscountAmount,
+                    membershipDiscountAmount, finalAmount);
+        }
+    }
+
+    /**
+     * 계산대 하나의 정산.
+     *
+     * @param lane 계산대 이름
+     * @param receipts 영수증 수
+     * @param totalAmount 총구매액
+     * @param promotionDiscountAmount 행사할인
+     * @param membershipDiscountAmount 멤버십할인
+     * @param finalAmount 내실돈
+     */
+    public record LaneSettlement(
+            String lane,
+            long receipts,
+            long totalAmount,
+            long promotionDiscountAmount,
+            long membershipDiscountAmount,
+            long finalAmount
+    ) {
+    }
+
+    /**
+     * 상품 하나의 정산.
+     *
+     * @param name 상품명
+     * @param quantity 판매 수량 (증정 제외)
+     * @param freeQuantity 증정 수량
+     * @param totalAmount 총구매액
+     * @param promotionDiscountAmount 행사할인 (증정 상품 금액)
+     */
+    public record ProductSettlement(
+            String name,
+            long quantity,
+            long freeQuantity,
+            long totalAmount,
+            long promotionDiscountAmount
+    ) {
+    }
+
+    /**
+     * 정산 결과. 계산대와 상품은 이름 순서로 정렬되어 있다.
+     *
+     * @param lanes 계산대별 정산
+     * @param products 상품별 정산
+     * @param malformedLines 형식이 맞지 않아 건너뛴 줄 수
+     */
+    public record Report(
+            Map<String, LaneSettlement> lanes,
+            Map<String, ProductSettlement> products,
+            long malformedLines
+    ) {
+
+        /**
+         * 모든 계산대를 합친 정산을 반환한다.
+         */
+        public LaneSettlement total() {
+            LaneTotals total = new LaneTotals("합계");
+            lanes.values().forEach(lane -> {
+                total.receipts += lane.receipts();
+                total.totalAmount += lane.totalAmount();
+                total.promotionDiscountAmount += lane.promotionDiscountAmount();
+                total.membershipDiscountAmount += lane.membershipDiscountAmount();
+                total.finalAmount += lane.finalAmount();
+            });
+            return total.toSettlement();
+        }
+
+        String format(int fileCount) {
+            LaneSettlement total = total();
+            StringBuilder out = new StringBuilder();
+            out.append(String.format(HEADER_FORMAT, fileCount, total.receipts(), malformedLines));
+            out.append(LANE_HEADER).append(System.lineSeparator());
+            lanes.values().forEach(lane -> appendLane(out, lane));
+            appendLane(out, total);
+            out.append(PRODUCT_HEADER).append(System.lineSeparator());
+            products.values().forEach(product -> out.append(String.format(PRODUCT_FORMAT, product.name(),
+                    product.quantity(), product.freeQuantity(), product.totalAmount(),
+                    product.promotionDiscountAmount())));
+            return out.toString();
+        }
+
+        private static void appendLane(StringBuilder out, LaneSettlement lane) {
+            out.append(String.format(LANE_FORMAT, lane.lane(), lane.receipts(), lane.totalAmount(),
+                    lane.promotionDiscountAmount(), lane.membershipDiscountAmount(), lane.finalAmount()));
+        }
+    }
+}
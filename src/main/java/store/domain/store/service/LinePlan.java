@@ -0,0 +1,43 @@
+package store.domain.store.service;
+
+import java.util.Optional;
+import store.domain.store.domain.Product;
+import store.domain.store.domain.Promotion;
+import store.domain.store.domain.Receipt.NormalPurchaseInfo;
+import store.domain.store.dto.request.PurchaseRequest;
+
+/**
+ * 구매 요청 한 줄을 한 번에 해석한 결과.
+ * 재고 검증, 재고 차감, 영수증 작성은 모두 이 계획만 읽고 저장소를 다시 조회하지 않는다.
+ *
+ * @param request 원래 구매 요청
+ * @param promotionProduct 프로모션 재고 상품 (없으면 null)
+ * @param normalProduct 일반 재고 상품 (없으면 null)
+ * @param promotion 프로모션 상품에 연결된 프로모션 (없으면 null)
+ * @param promotionQuantity 진행 중인 프로모션 재고에서 차감할 수량
+ * @param normalQuantity 일반 재고에서 차감할 수량
+ * @param freeQuantity 증정 수량
+ * @param normalPurchaseInfo 프로모션 미적용 구매 정보 (없으면 null)
+ */
+record LinePlan(
+        PurchaseRequest request,
+        Product promotionProduct,
+        Product normalProduct,
+        Promotion promotion,
+        int promotionQuantity,
+        int normalQuantity,
+        int freeQuantity,
+        NormalPurchaseInfo normalPurchaseInfo
+) {
+    String productName() {
+        return request.getProductName();
+    }
+
+    Optional<Promotion> findPromotion() {
+        return Optional.ofNullable(promotion);
+    }
+
+    Optional<NormalPurchaseInfo> findNormalPurchaseInfo() {
+        return Optional.ofNullable(normalPurchaseInfo);
+    }
+}
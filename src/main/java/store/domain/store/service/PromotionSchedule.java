@@ -0,0 +1,126 @@
+package store.domain.store.service;
+
+import camp.nextstep.edu.missionutils.DateTimes;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import store.domain.store.dao.PromotionRepository;
+import store.domain.store.domain.Promotion;
+
+/**
+ * 날짜별로 진행 중인 프로모션을 미리 계산해 두는 스케줄.
+ * 날짜가 바뀌거나 프로모션이 변경되면 새 스냅샷을 만들어 원자적으로 교체한다.
+ */
+public final class PromotionSchedule {
+    private final PromotionRepository promotionRepository;
+    private final AtomicReference<ActivePromotions> current = new AtomicReference<>();
+
+    private PromotionSchedule(PromotionRepository promotionRepository) {
+        this.promotionRepository = promotionRepository;
+    }
+
+    public static PromotionSchedule from(final PromotionRepository promotionRepository) {
+        return new PromotionSchedule(promotionRepository);
+    }
+
+    /**
+     * 현재 시간을 한 번 읽어 그 시점의 프로모션 스냅샷을 반환한다.
+     */
+    public ActivePromotions now() {
+        return at(DateTimes.now());
+    }
+
+    /**
+     * 주어진 시간의 프로모션 스냅샷을 반환한다.
+     *
+     * @param now 기준 시간
+     * @return 기준 시간에 진행 중인 프로모션 스냅샷
+     */
+    public ActivePromotions at(LocalDateTime now) {
+        ActivePromotions snapshot = current.get();
+        long version = promotionRepository.getVersion();
+        if (snapshot != null && snapshot.isFor(now.toLocalDate(), version)) {
+            return snapshot.at(now);
+        }
+
+        ActivePromotions rebuilt = ActivePromotions.build(now, version, promotionRepository);
+        current.compareAndSet(snapshot, rebuilt);
+        return rebuilt;
+    }
+
+    /**
+     * 특정 날짜에 진행 중인 프로모션 목록.
+     * 같은 장바구니의 모든 줄은 하나의 스냅샷을 공유하므로 같은 시점을 기준으로 판단한다.
+     */
+    public static final class ActivePromotions {
+        private final LocalDateTime now;
+        private final long version;
+        private final Map<String, Entry> entries;
+
+        private ActivePromotions(LocalDateTime now, long version, Map<String, Entry> entries) {
+            this.now = now;
+            this.version = version;
+            this.entries = entries;
+        }
+
+        private static ActivePromotions build(LocalDateTime now, long version, PromotionRepository repository) {
+            LocalDate date = now.toLocalDate();
+            Map<String, Entry> entries = new HashMap<>();
+            for (Promotion promotion : repository.findAll()) {
+                entries.putIfAbsent(promotion.getName(), new Entry(promotion, promotion.isValidOn(date)));
+            }
+            return new ActivePromotions(now, version, entries);
+        }
+
+        private boolean isFor(LocalDate date, long version) {
+            return this.version == version && now.toLocalDate().isEqual(date);
+        }
+
+        private ActivePromotions at(LocalDateTime now) {
+            return new ActivePromotions(now, version, entries);
+        }
+
+        /**
+         * 스냅샷의 기준 시간을 반환한다.
+         */
+        public LocalDateTime now() {
+            return now;
+        }
+
+        /**
+         * 기간과 관계없이 프로모션명으로 프로모션을 조회한다.
+         */
+        public Optional<Promotion> findByName(String name) {
+            Entry entry = entries.get(name);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            return Optional.of(entry.promotion());
+        }
+
+        /**
+         * 기준 날짜에 진행 중인 프로모션만 조회한다.
+         */
+        public Optional<Promotion> findActive(String name) {
+            Entry entry = entries.get(name);
+            if (entry == null || !entry.active()) {
+                return Optional.empty();
+            }
+            return Optional.of(entry.promotion());
+        }
+
+        /**
+         * 프로모션이 기준 날짜에 진행 중인지 확인한다.
+         */
+        public boolean isActive(Promotion promotion) {
+            Entry entry = entries.get(promotion.getName());
+            return entry != null && entry.active();
+        }
+
+        private record Entry(Promotion promotion, boolean active) {
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package store.domain.store.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import store.domain.store.dao.ProductRepository;
+import store.domain.store.domain.Product;
+import store.domain.store.dto.request.PurchaseRequest;
+import store.domain.store.service.PromotionSchedule.ActivePromotions;
+
+/**
+ * 하나의 구매 작업(장바구니 하나 또는 여러 장바구니 묶음) 동안 공유되는 상태.
+ * 상품 조회 결과를 상품 번호별로 한 번만 구하고, 재고 차감은 바로 반영하지 않고 모아 두었다가
+ * commit 시점에 상품별로 한 번씩 적용한다.
+ */
+final class PurchaseContext {
+    private static final String ERROR_NOT_ENOUGH_STOCK = "[ERROR] 재고가 부족합니다.";
+
+    private final ProductRepository productRepository;
+    private final ActivePromotions promotions;
+    private final Map<Integer, ProductLookup> lookups = new HashMap<>();
+    private final Map<Product, Integer> pendingRemovals = new IdentityHashMap<>();
+    private final List<Removal> cartRemovals = new ArrayList<>();
+
+    private PurchaseContext(ProductRepository productRepository, ActivePromotions promotions) {
+        this.productRepository = productRepository;
+        this.promotions = promotions;
+    }
+
+    static PurchaseContext of(final ProductRepository productRepository, final ActivePromotions promotions) {
+        return new PurchaseContext(productRepository, promotions);
+    }
+
+    ActivePromotions promotions() {
+        return promotions;
+    }
+
+    /**
+     * 요청 상품의 진행 가능한 프로모션 상품을 반환한다.
+     *
+     * @return 프로모션 상품 (없거나 프로모션이 없으면 null)
+     */
+    Product promotionProduct(PurchaseRequest request) {
+        return lookup(idOf(request)).promotionProduct();
+    }
+
+    /**
+     * 요청 상품의 일반 상품을 반환한다.
+     *
+     * @return 일반 상품 (없으면 null)
+     */
+    Product normalProduct(PurchaseRequest request) {
+        return lookup(idOf(request)).normalProduct();
+    }
+
+    Optional<Product> findPromotionProduct(String productName) {
+        return Optional.ofNullable(lookup(productRepository.findIdByName(productName)).promotionProduct());
+    }
+
+    // 재고 락을 쥔 동안에는 상품 객체가 바뀌지 않으므로 번호별로 한 번 구한 결과를 계속 쓴다
+    private ProductLookup lookup(int id) {
+        if (id == ProductRepository.NOT_FOUND) {
+            return ProductLookup.NOT_FOUND;
+        }
+        ProductLookup lookup = lookups.get(id);
+        if (lookup == null) {
+            lookup = new ProductLookup(validPromotionProduct(id), productRepository.normalProductAt(id));
+            lookups.put(id, lookup);
+        }
+        return lookup;
+    }
+
+    private Product validPromotionProduct(int id) {
+        Product product = productRepository.promotionProductAt(id);
+        if (product == null || !product.hasValidPromotion()) {
+            return null;
+        }
+        return product;
+    }
+
+    // 입력 단계에서 번호를 찾아 둔 요청은 상품명을 다시 해시하지 않는다
+    private int idOf(PurchaseRequest request) {
+        if (request.getProductId() == null) {
+            return productRepository.findIdByName(request.getProductName());
+        }
+        return request.getProductId().value();
+    }
+
+    /**
+     * 아직 반영되지 않은 차감분을 제외한 재고를 반환한다.
+     */
+    int availableStock(Product product) {
+        return product.getQuantity() - pendingRemovals.getOrDefault(product, 0);
+    }
+
+    /**
+     * 재고 차감을 예약한다. 실제 재고는 commit 시점에 변경된다.
+     *
+     * @throws IllegalArgumentException 남은 재고가 부족한 경우
+     */
+    void removeStock(Product product, int quantity) {
+        if (availableStock(product) < quantity) {
+            throw new IllegalArgumentException(ERROR_NOT_ENOUGH_STOCK);
+        }
+        pendingRemovals.merge(product, quantity, Integer::sum);
+        cartRemovals.add(new Removal(product, quantity));
+    }
+
+    /**
+     * 새 장바구니 처리를 시작한다. 이후의 차감은 rollbackCart로 되돌릴 수 있다.
+     */
+    void beginCart() {
+        cartRemovals.clear();
+    }
+
+    /**
+     * 현재 장바구니에서 예약한 차감을 모두 취소한다.
+     */
+    void rollbackCart() {
+        cartRemovals.forEach(removal ->
+                pendingRemovals.merge(removal.product(), -removal.quantity(), Integer::sum));
+        cartRemovals.clear();
+    }
+
+    /**
+     * 예약된 차감을 상품별로 합산하여 재고에 한 번에 반영한다.
+     * 반영에 실패하면 재고는 바뀌지 않는다.
+     */
+    void commit() {
+        productRepository.removeStocks(pendingRemovals);
+        pendingRemovals.clear();
+        cartRemovals.clear();
+    }
+
+    private record ProductLookup(Product promotionProduct, Product normalProduct) {
+        private static final ProductLookup NOT_FOUND = new ProductLookup(null, null);
+    }
+
+    private record Removal(Product product, int quantity) {
+    }
+}
@@ -0,0 +1,98 @@
+package store.domain.store.service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import store.domain.store.domain.ProductId;
+import store.domain.store.dto.request.PurchaseRequest;
+
+/**
+ * 구매 단계마다 남기는 JFR 이벤트.
+ *
+ * <p>기본으로 꺼져 있으므로 녹화를 시작하기 전에는 이벤트 객체가 메서드 밖으로 나가지 않아 JIT가 생성과 호출을 모두 없앤다.
+ * 상품 번호와 상품명 문자열은 녹화 중이고 임계값을 넘어 실제로 기록할 때만 만든다.
+ * 실행 중인 프로세스에서 jcmd로 녹화를 시작하면 재시작 없이 단계별 시간을 볼 수 있다.
+ *
+ * <p>Checkout은 락 대기와 재고 기록의 디스크 반영 대기를 포함한 구매 전체이고,
+ * 그 안에서 PurchasePlan, ReceiptBuild, ReceiptResponse, StockCommit이 차례로 기록된다.
+ * Checkout 시작과 PurchasePlan 시작 사이의 간격이 재고 락을 기다린 시간이다.
+ */
+@Enabled(false)
+@StackTrace(false)
+@Category({"Store", "Purchase"})
+abstract class PurchasePhaseEvent extends Event {
+    private static final int UNRESOLVED_ID = -1;
+
+    @Label("장바구니 줄 수")
+    int cartSize;
+
+    @Label("상품 번호")
+    @Description("줄 순서대로의 상품 번호. 상품명으로만 요청된 줄은 -1이다.")
+    String productIds;
+
+    @Label("상품명")
+    String productNames;
+
+    /**
+     * 단계를 끝내고, 녹화 중이면 장바구니 정보를 채워 기록한다.
+     */
+    final void commitFor(List<PurchaseRequest> requests) {
+        end();
+        if (shouldCommit()) {
+            // 빈 장바구니로 거절된 구매도 시간은 남긴다
+            List<PurchaseRequest> lines = Objects.requireNonNullElse(requests, List.of());
+            cartSize = lines.size();
+            productIds = lines.stream()
+                    .map(PurchasePhaseEvent::idOf)
+                    .collect(Collectors.joining(","));
+            productNames = lines.stream()
+                    .map(PurchaseRequest::getProductName)
+                    .collect(Collectors.joining(","));
+            commit();
+        }
+    }
+
+    private static String idOf(PurchaseRequest request) {
+        ProductId id = request.getProductId();
+        if (id == null) {
+            return String.valueOf(UNRESOLVED_ID);
+        }
+        return String.valueOf(id.value());
+    }
+
+    @Name("store.Checkout")
+    @Label("구매")
+    @Description("락 대기와 디스크 반영 대기를 포함한 구매 호출 전체. 묶음 구매는 모든 장바구니의 줄을 합친다.")
+    static final class Checkout extends PurchasePhaseEvent {
+    }
+
+    @Name("store.PurchasePlan")
+    @Label("구매 계획")
+    @Description("재고 확인, 프로모션 판정, 정가 구매 정보 계산")
+    static final class Plan extends PurchasePhaseEvent {
+    }
+
+    @Name("store.ReceiptBuild")
+    @Label("영수증 계산")
+    @Description("프로모션/정가 구매 정보 수집, 증정 상품 표시, 금액 계산")
+    static final class ReceiptBuild extends PurchasePhaseEvent {
+    }
+
+    @Name("store.ReceiptResponse")
+    @Label("영수증 응답 생성")
+    static final class Response extends PurchasePhaseEvent {
+    }
+
+    @Name("store.StockCommit")
+    @Label("재고 반영")
+    @Description("모아 둔 재고 차감을 상품별로 적용하고 재고 기록에 남긴다")
+    static final class StockCommit extends PurchasePhaseEvent {
+    }
+}
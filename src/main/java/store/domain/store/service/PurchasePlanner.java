@@ -0,0 +1,146 @@
+package store.domain.store.service;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import store.domain.store.domain.Product;
+import store.domain.store.domain.Promotion;
+import store.domain.store.domain.Receipt.NormalPurchaseInfo;
+import store.domain.store.dto.request.PurchaseRequest;
+import store.domain.store.service.PromotionSchedule.ActivePromotions;
+
+/**
+ * 장바구니의 각 줄을 한 번씩만 해석하여 LinePlan을 만든다.
+ * 같은 장바구니 안에서 앞선 줄이 가져갈 재고를 반영하므로, 계획이 모두 만들어졌다면 차감은 실패하지 않는다.
+ * 계획을 세우는 동안에는 재고를 변경하지 않는다.
+ * 재고 부족으로 거절한 줄의 상품명은 거절 구독자에게 전달한다.
+ */
+final class PurchasePlanner {
+    private static final String ERROR_INVALID_PROMOTION = "[ERROR] 유효하지 않은 프로모션입니다.";
+    private static final String ERROR_INSUFFICIENT_STOCK = "[ERROR] 재고 수량을 초과하여 구매할 수 없습니다. 다시 입력해 주세요.";
+
+    private final PurchaseContext context;
+    private final ActivePromotions promotions;
+    private final Consumer<String> stockOutListener;
+    private final Map<Product, Integer> plannedRemovals = new IdentityHashMap<>();
+
+    private PurchasePlanner(PurchaseContext context, Consumer<String> stockOutListener) {
+        this.context = context;
+        this.promotions = context.promotions();
+        this.stockOutListener = stockOutListener;
+    }
+
+    static PurchasePlanner of(final PurchaseContext context) {
+        return new PurchasePlanner(context, productName -> {
+        });
+    }
+
+    /**
+     * 재고 부족으로 줄을 거절할 때마다 그 상품명을 받을 구독자와 함께 생성한다.
+     */
+    static PurchasePlanner of(final PurchaseContext context, final Consumer<String> stockOutListener) {
+        return new PurchasePlanner(context, stockOutListener);
+    }
+
+    /**
+     * 모든 줄의 계획을 세운다. 한 줄이라도 재고가 부족하면 예외가 발생한다.
+     *
+     * @throws IllegalArgumentException 재고가 부족하거나 프로모션 정보가 올바르지 않은 경우
+     */
+    List<LinePlan> planAll(List<PurchaseRequest> requests) {
+        return requests.stream()
+                .map(this::plan)
+                .toList();
+    }
+
+    private LinePlan plan(PurchaseRequest request) {
+        int quantity = request.getQuantity();
+        Product promotionProduct = context.promotionProduct(request);
+        Product normalProduct = context.normalProduct(request);
+        Promotion promotion = findPromotion(promotionProduct);
+        boolean active = promotion != null && promotions.isActive(promotion);
+
+        NormalPurchaseInfo normalPurchaseInfo =
+                planNormalPurchaseInfo(request, promotionProduct, normalProduct, promotion, active);
+
+        // 진행 중인 프로모션 재고를 먼저 사용하고 남은 수량은 일반 재고에서 가져온다
+        int promotionQuantity = 0;
+        if (active) {
+            promotionQuantity = Math.min(quantity, remainingStock(promotionProduct));
+        }
+        int normalQuantity = quantity - promotionQuantity;
+        if (normalQuantity > 0 && (normalProduct == null || remainingStock(normalProduct) < normalQuantity)) {
+            throw insufficientStock(request);
+        }
+
+        int freeQuantity = 0;
+        if (active && promotionQuantity > 0) {
+            freeQuantity = promotion.calculateFreeQuantity(promotionQuantity, promotions.now());
+        }
+
+        reserve(promotionProduct, promotionQuantity);
+        reserve(normalProduct, normalQuantity);
+        return new LinePlan(request, promotionProduct, normalProduct, promotion,
+                promotionQuantity, normalQuantity, freeQuantity, normalPurchaseInfo);
+    }
+
+    private Promotion findPromotion(Product promotionProduct) {
+        if (promotionProduct == null) {
+            return null;
+        }
+        return promotions.findByName(promotionProduct.getPromotionName())
+                .orElseThrow(() -> new IllegalArgumentException(ERROR_INVALID_PROMOTION));
+    }
+
+    /**
+     * 프로모션 세트로 묶이지 않아 정가로 계산되는 수량과 금액을 구한다.
+     * 장바구니를 처리하기 전의 재고를 기준으로 계산한다.
+     */
+    private NormalPurchaseInfo planNormalPurchaseInfo(
+            PurchaseRequest request,
+            Product promotionProduct,
+            Product normalProduct,
+            Promotion promotion,
+            boolean active
+    ) {
+        if (!active) {
+            return null;
+        }
+        int quantity = request.getQuantity();
+        int setSize = promotion.getBuyCount() + promotion.getGetCount();
+        int promotionSetQuantity = context.availableStock(promotionProduct) / setSize * setSize;
+        int normalQuantity = quantity - promotionSetQuantity;
+        if (normalQuantity <= 0) {
+            return null;
+        }
+
+        int totalStock = context.availableStock(promotionProduct) + stockOf(normalProduct);
+        if (totalStock < quantity) {
+            throw insufficientStock(request);
+        }
+        return new NormalPurchaseInfo(normalQuantity, normalQuantity * promotionProduct.getPrice());
+    }
+
+    private IllegalArgumentException insufficientStock(PurchaseRequest request) {
+        stockOutListener.accept(request.getProductName());
+        return new IllegalArgumentException(ERROR_INSUFFICIENT_STOCK);
+    }
+
+    private int stockOf(Product product) {
+        return Optional.ofNullable(product)
+                .map(context::availableStock)
+                .orElse(0);
+    }
+
+    private int remainingStock(Product product) {
+        return context.availableStock(product) - plannedRemovals.getOrDefault(product, 0);
+    }
+
+    private void reserve(Product product, int quantity) {
+        if (quantity > 0) {
+            plannedRemovals.merge(product, quantity, Integer::sum);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package store.domain.store.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import store.domain.store.dto.response.PurchaseResponse;
+import store.domain.store.dto.response.ReceiptResponse;
+
+/**
+ * 완료된 구매의 영수증을 받아 판매 통계를 계속 갱신한다.
+ *
+ * <p>상품별 판매 수량, 증정 수량, 판매 금액은 LongAdder로 누적하고,
+ * 판매 수량 상위 상품과 최근 1분/1시간 판매량은 각각 BestSellers와 SalesWindow가 관리한다.
+ * 기록은 LongAdder에 더하는 것이 대부분이라 다른 스레드의 구매를 기다리지 않고,
+ * 조회는 상품 하나, 상위 N개, 윈도의 구간 수만큼만 읽으므로 누적된 판매량과 관계없이 일정한 시간이 걸린다.
+ * 판매 금액은 영수증의 상품별 금액(할인 전)이고, 윈도의 금액은 할인 후 실제 결제 금액이다.
+ */
+public final class SalesAnalytics {
+    private static final int BEST_SELLER_LIMIT = 10;
+    private static final int SECONDS_PER_MINUTE = 60;
+
+    private final Map<String, ProductCounters> products = new ConcurrentHashMap<>();
+    private final BestSellers bestSellers = BestSellers.of(BEST_SELLER_LIMIT);
+    private final SalesWindow lastMinute = SalesWindow.of(1, SECONDS_PER_MINUTE);
+    private final SalesWindow lastHour = SalesWindow.of(SECONDS_PER_MINUTE, SECONDS_PER_MINUTE);
+    private final LongSupplier nanoClock;
+
+    private SalesAnalytics(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    public static SalesAnalytics create() {
+        return new SalesAnalytics(System::nanoTime);
+    }
+
+    /**
+     * 주어진 시계로 윈도를 나누는 통계를 생성한다.
+     *
+     * @param nanoClock System.nanoTime()과 같은 단조 증가 나노초 시계
+     */
+    public static SalesAnalytics withClock(final LongSupplier nanoClock) {
+        return new SalesAnalytics(nanoClock);
+    }
+
+    /**
+     * 완료된 구매 하나를 반영한다.
+     *
+     * @param receipt 구매 영수증
+     */
+    public void record(ReceiptResponse receipt) {
+        long quantity = 0;
+        for (PurchaseResponse item : receipt.getGroupedItems()) {
+            ProductCounters counters = countersOf(item.getName());
+            counters.soldQuantity.add(item.getQuantity());
+            counters.revenue.add(item.getAmount());
+            bestSellers.offer(item.getName(), counters.soldQuantity.sum());
+            quantity += item.getQuantity();
+        }
+        for (PurchaseResponse item : receipt.getFreeItems()) {
+            countersOf(item.getName()).freeQuantity.add(item.getQuantity());
+        }
+        long now = nanoClock.getAsLong();
+        lastMinute.record(now, quantity, receipt.getFinalAmount());
+        lastHour.record(now, quantity, receipt.getFinalAmount());
+    }
+
+    private ProductCounters countersOf(String name) {
+        ProductCounters counters = products.get(name);
+        if (counters != null) {
+            return counters;
+        }
+        return products.computeIfAbsent(name, ignored -> new ProductCounters());
+    }
+
+    /**
+     * 상품의 누적 판매 통계를 반환한다. 팔린 적이 없으면 모두 0이다.
+     */
+    public ProductSales productSales(String name) {
+        ProductCounters counters = products.get(name);
+        if (counters == null) {
+            return new ProductSales(name, 0, 0, 0);
+        }
+        return counters.snapshot(name);
+    }
+
+    /**
+     * 판매 수량이 많은 순서로 최대 10개 상품의 통계를 반환한다.
+     */
+    public List<ProductSales> bestSellers() {
+        return bestSellers.names().stream()
+                .map(this::productSales)
+                .toList();
+    }
+
+    /**
+     * 최근 1분 동안의 판매량을 반환한다. 1초 단위 구간으로 나누어 센다.
+     */
+    public SalesRate lastMinute() {
+        return lastMinute.snapshot(nanoClock.getAsLong());
+    }
+
+    /**
+     * 최근 1시간 동안의 판매량을 반환한다. 1분 단위 구간으로 나누어 센다.
+     */
+    public SalesRate lastHour() {
+        return lastHour.snapshot(nanoClock.getAsLong());
+    }
+
+    private static final class ProductCounters {
+        private final LongAdder soldQuantity = new LongAdder();
+        private final LongAdder freeQuantity = new LongAdder();
+        private final LongAdder revenue = new LongAdder();
+
+        private ProductSales snapshot(String name) {
+            return new ProductSales(name, soldQuantity.sum(), freeQuantity.sum(), revenue.sum());
+        }
+    }
+
+    /**
+     * 상품 하나의 누적 판매 통계.
+     *
+     * @param name 상품명
+     * @param soldQuantity 판매 수량 (증정 제외)
+     * @param freeQuantity 증정 수량
+     * @param revenue 할인 전 판매 금액
+     */
+    public record ProductSales(String name, long soldQuantity, long freeQuantity, long revenue) {
+    }
+
+    /**
+     * 슬라이딩 윈도 하나의 판매량.
+     *
+     * @param windowSeconds 윈도 길이(초)
+     * @param purchases 완료된 구매 수
+     * @param quantity 판매 수량 (증정 제외)
+     * @param paidAmount 할인 후 결제 금액
+     */
+    public record SalesRate(long windowSeconds, long purchases, long quantity, long paidAmount) {
+
+        public double purchasesPerSecond() {
+            return (double) purchases / windowSeconds;
+        }
+
+        public double quantityPerSecond() {
+            return (double) quantity / windowSeconds;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package store.domain.store.service;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import store.domain.store.service.SalesAnalytics.SalesRate;
+
+/**
+ * 최근 일정 시간의 판매량을 고정된 개수의 구간으로 나누어 원형 버퍼에 모으는 슬라이딩 윈도.
+ *
+ * <p>구간마다 자신의 시작 시각(구간 번호)을 들고 있어, 기록할 때 번호가 다르면 새 구간으로 갈아 끼운다.
+ * 새 구간은 구간 길이마다 한 번만 만들어지고, 그 외의 기록은 LongAdder에 더하기만 한다.
+ * 조회는 구간 수만큼만 읽으므로 판매량과 관계없이 일정한 시간이 걸린다.
+ * 기록이 늦게 도착해 자신의 구간이 이미 더 새로운 구간으로 바뀌었으면 엉뚱한 구간에 더하지 않고 버린 뒤 따로 센다.
+ */
+final class SalesWindow {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long bucketNanos;
+    private final AtomicReferenceArray<Bucket> buckets;
+    private final LongAdder lateRecords = new LongAdder();
+
+    private SalesWindow(long bucketNanos, int bucketCount) {
+        this.bucketNanos = bucketNanos;
+        this.buckets = new AtomicReferenceArray<>(bucketCount);
+    }
+
+    /**
+     * 구간 길이와 구간 수로 윈도를 만든다. 윈도의 길이는 구간 길이 × 구간 수다.
+     */
+    static SalesWindow of(final long bucketSeconds, final int bucketCount) {
+        return new SalesWindow(bucketSeconds * NANOS_PER_SECOND, bucketCount);
+    }
+
+    /**
+     * 완료된 구매 하나를 기록한다.
+     *
+     * @param nowNanos System.nanoTime() 기준의 현재 시각
+     * @param quantity 구매 수량
+     * @param paidAmount 결제 금액
+     */
+    void record(long nowNanos, long quantity, long paidAmount) {
+        Bucket bucket = bucketOf(Math.floorDiv(nowNanos, bucketNanos));
+        if (bucket == null) {
+            lateRecords.increment();
+            return;
+        }
+        bucket.purchases.increment();
+        bucket.quantity.add(quantity);
+        bucket.paidAmount.add(paidAmount);
+    }
+
+    // 기록의 구간을 반환한다. 같은 자리가 이미 더 새로운 구간이면 null을 반환한다
+    private Bucket bucketOf(long epoch) {
+        int index = (int) Math.floorMod(epoch, (long) buckets.length());
+        while (true) {
+            Bucket bucket = buckets.get(index);
+            if (bucket != null && bucket.epoch == epoch) {
+                return bucket;
+            }
+            // 늦게 도착한 기록이 더 새로운 구간을 되돌리지 않도록 지난 구간만 교체한다
+            if (bucket != null && bucket.epoch > epoch) {
+                return null;
+            }
+            Bucket fresh = new Bucket(epoch);
+            if (buckets.compareAndSet(index, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    /**
+     * 현재 시각에서 윈도 길이만큼 거슬러 올라간 기간의 합계를 반환한다. 진행 중인 구간을 포함한다.
+     */
+    SalesRate snapshot(long nowNanos) {
+        long currentEpoch = Math.floorDiv(nowNanos, bucketNanos);
+        long oldestEpoch = currentEpoch - buckets.length() + 1;
+        long purchases = 0;
+        long quantity = 0;
+        long paidAmount = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null && bucket.epoch >= oldestEpoch && bucket.epoch <= currentEpoch) {
+                purchases += bucket.purchases.sum();
+                quantity += bucket.quantity.sum();
+                paidAmount += bucket.paidAmount.sum();
+            }
+        }
+        long windowSeconds = bucketNanos * buckets.length() / NANOS_PER_SECOND;
+        return new SalesRate(windowSeconds, purchases, quantity, paidAmount);
+    }
+
+    /**
+     * 구간이 이미 교체되어 버린 기록 수를 반환한다.
+     */
+    long lateRecords() {
+        return lateRecords.sum();
+    }
+
+    private static final class Bucket {
+        private final long epoch;
+        private final LongAdder purchases = new LongAdder();
+        private final LongAdder quantity = new LongAdder();
+        private final LongAdder paidAmount = new LongAdder();
+
+        private Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package store.domain.store.service;
 
 import java.util.List;
+import java.util.Optional;
+import store.domain.store.dto.request.CartRequest;
 import store.domain.store.dto.request.PurchaseRequest;
+import store.domain.store.dto.response.CartPurchaseResponse;
 import store.domain.store.dto.response.ProductResponse;
+import store.domain.store.dto.response.QuoteResponse;
 import store.domain.store.dto.response.ReceiptResponse;
 
 public interface StoreService {
@@ -15,6 +19,43 @@ public interface StoreService {
      */
     ReceiptResponse purchase(List<PurchaseRequest> requests, boolean usePromotion, boolean hasMembership);
 
+    /**
+     * 여러 장바구니를 한 번에 구매하고 장바구니마다 결과를 반환한다.
+     * 한 장바구니의 실패는 다른 장바구니에 영향을 주지 않는다.
+     */
+    List<CartPurchaseResponse> purchaseBatch(List<CartRequest> carts);
+
+    /**
+     * 재고를 변경하지 않고 장바구니의 확인 사항과 예상 금액을 한 번에 계산한다.
+     */
+    QuoteResponse quote(List<PurchaseRequest> requests);
+
+    /**
+     * 입력의 [nameStart, nameEnd) 구간을 상품명으로 보고 상품 번호를 찾아 둔 구매 요청을 만든다.
+     * 상품명 구간을 잘라 새 문자열을 만들지 않고, 요청에는 저장소가 보관하는 상품명을 넣는다.
+     *
+     * @param input 상품명이 들어 있는 입력
+     * @param nameStart 상품명 시작 위치
+     * @param nameEnd 상품명 끝 위치 (포함하지 않음)
+     * @param quantity 수량
+     * @throws IllegalArgumentException 존재하지 않는 상품명인 경우
+     */
+    PurchaseRequest createPurchaseRequest(CharSequence input, int nameStart, int nameEnd, int quantity);
+
+    /**
+     * 이 서비스에서 완료된 구매의 판매 통계를 반환한다. 구매가 진행되는 동안에도 조회할 수 있다.
+     */
+    SalesAnalytics getSalesAnalytics();
+
+    /**
+     * 영수증 저장소에서 번호로 발행한 영수증을 찾는다.
+     *
+     * @param receiptId 구매할 때 받은 영수증의 번호
+     * @return 영수증, 없는 번호이거나 영수증 저장소가 꺼져 있으면 빈 값
+     * @throws IllegalStateException 저장된 영수증을 읽지 못한 경우
+     */
+    Optional<ReceiptResponse> findReceipt(long receiptId);
+
     /**
      * 현재 판매 중인 모든 상품 목록을 반환
      */
@@ -1,193 +1,430 @@
 package store.domain.store.service;
 
-import camp.nextstep.edu.missionutils.DateTimes;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import store.domain.store.dao.ProductRepository;
 import store.domain.store.dao.PromotionRepository;
+import store.domain.store.dao.ReceiptLog;
+import store.domain.store.dao.ReceiptStore;
+import store.domain.store.dao.ReceiptStore.StoredReceipt;
 import store.domain.store.domain.Product;
 import store.domain.store.domain.Promotion;
 import store.domain.store.domain.Receipt;
 import store.domain.store.domain.Receipt.NormalPurchaseInfo;
 import store.domain.store.domain.ReceiptItem;
+import store.domain.store.dto.request.CartRequest;
 import store.domain.store.dto.request.PurchaseRequest;
+import store.domain.store.dto.response.CartPurchaseResponse;
 import store.domain.store.dto.response.ProductResponse;
+import store.domain.store.dto.response.QuoteLineResponse;
+import store.domain.store.dto.response.QuoteResponse;
 import store.domain.store.dto.response.ReceiptResponse;
+import store.domain.store.service.PromotionSchedule.ActivePromotions;
+import store.global.metrics.StoreMetrics;
+import store.global.metrics.StoreMetrics.Operation;
 
 public class StoreServiceImpl implements StoreService {
-    private static final String ERROR_INVALID_PROMOTION = "[ERROR] 유효하지 않은 프로모션입니다.";
-    private static final String ERROR_INSUFFICIENT_STOCK = "[ERROR] 재고 수량을 초과하여 구매할 수 없습니다. 다시 입력해 주세요.";
     private static final String ERROR_NO_ITEMS = "[ERROR] 구매 상품이 없습니다.";
+    private static final String ERROR_PRODUCT_NOT_FOUND = "[ERROR] 존재하지 않는 상품입니다. 다시 입력해 주세요.";
 
-    private static final StoreServiceImpl instance = new StoreServiceImpl();
     private final ProductRepository productRepository;
-    private final PromotionRepository promotionRepository;
-
-    private StoreServiceImpl() {
-        this.productRepository = ProductRepository.getInstance();
-        this.promotionRepository = PromotionRepository.getInstance();
+    private final PromotionSchedule promotionSchedule;
+    private final CatalogView catalogView;
+    private final StoreMetrics metrics;
+    private final SalesAnalytics salesAnalytics;
+    private final ReceiptLog receiptLog;
+    private final ReceiptStore receiptStore;
+
+    private StoreServiceImpl(
+            ProductRepository productRepository,
+            PromotionRepository promotionRepository,
+            StoreMetrics metrics,
+            ReceiptLog receiptLog,
+            ReceiptStore receiptStore
+    ) {
+        this.productRepository = productRepository;
+        this.promotionSchedule = PromotionSchedule.from(promotionRepository);
+        this.catalogView = CatalogView.of(productRepository);
+        this.metrics = metrics;
+        this.salesAnalytics = SalesAnalytics.create();
+        this.receiptLog = receiptLog;
+        this.receiptStore = receiptStore;
+    }
+
+    // 기본 저장소와 재고 기록은 처음 사용할 때 읽는다. 별도 서비스만 만드는 도구는 읽지 않는다
+    private static class LazyHolder {
+        private static final StoreServiceImpl INSTANCE = new StoreServiceImpl(
+                ProductRepository.getInstance(),
+                PromotionRepository.getInstance(),
+                StoreMetrics.getInstance(),
+                ReceiptLog.getInstance(),
+                ReceiptStore.getInstance()
+        );
     }
 
     public static StoreServiceImpl getInstance() {
-        return instance;
+        return LazyHolder.INSTANCE;
+    }
+
+    /**
+     * 주어진 저장소를 사용하는 별도의 서비스를 생성한다.
+     * 지연 시간은 프로세스의 StoreMetrics에 합산하고, 영수증은 기록하지 않는다.
+     *
+     * @param productRepository 상품 저장소
+     * @param promotionRepository 프로모션 저장소
+     * @return 생성된 서비스
+     */
+    public static StoreServiceImpl of(
+            final ProductRepository productRepository,
+            final PromotionRepository promotionRepository
+    ) {
+        return of(productRepository, promotionRepository,
+                StoreMetrics.getInstance(), ReceiptLog.disabled(), ReceiptStore.disabled());
+    }
+
+    /**
+     * 지표 저장소와 영수증 기록까지 주어진 것을 사용하는 별도의 서비스를 생성한다.
+     * 상품 조회와 저장 횟수는 상품 저장소를 만들 때 넘긴 지표 저장소에 센다.
+     *
+     * @param productRepository 상품 저장소
+     * @param promotionRepository 프로모션 저장소
+     * @param metrics 지연 시간을 기록할 지표 저장소
+     * @param receiptLog 발행한 영수증을 한 줄씩 기록할 곳
+     * @param receiptStore 발행한 영수증에 번호를 붙여 저장할 곳
+     * @return 생성된 서비스
+     */
+    public static StoreServiceImpl of(
+            final ProductRepository productRepository,
+            final PromotionRepository promotionRepository,
+            final StoreMetrics metrics,
+            final ReceiptLog receiptLog,
+            final ReceiptStore receiptStore
+    ) {
+        return new StoreServiceImpl(productRepository, promotionRepository, metrics, receiptLog, receiptStore);
     }
 
     @Override
     public ReceiptResponse purchase(List<PurchaseRequest> requests, boolean usePromotion, boolean hasMembership) {
-        validateRequests(requests);
-        validateStockForAllRequests(requests);
-
-        ArrayList<ReceiptItem> items = new ArrayList<>();
-        ArrayList<ReceiptItem> freeItems = new ArrayList<>();
-        Map<String, Promotion> promotionMap = createPromotionMap(requests, usePromotion);
-        Map<String, NormalPurchaseInfo> normalPurchaseMap = createNormalPurchaseMap(requests);
-
-        processAllRequests(requests, items, freeItems, usePromotion);
-        markPromotionItems(items, freeItems);
-
-        return createReceiptResponse(items, freeItems, hasMembership, promotionMap, normalPurchaseMap);
+        long start = System.nanoTime();
+        PurchasePhaseEvent checkoutEvent = new PurchasePhaseEvent.Checkout();
+        checkoutEvent.begin();
+        try {
+            validateRequests(requests);
+            // 장바구니 전체가 같은 시점의 프로모션 정보를 보도록 시간을 한 번만 읽는다
+            ActivePromotions promotions = promotionSchedule.now();
+            // 장바구니의 모든 상품 재고를 잠근 뒤 확인과 차감을 한번에 처리한다
+            ReceiptResponse receipt = productRepository.executeWithStockLock(
+                    collectProductNames(requests.stream()), () -> {
+                        PurchaseContext context = PurchaseContext.of(productRepository, promotions);
+                        ReceiptResponse response =
+                                purchaseWithStockLock(requests, usePromotion, hasMembership, context);
+                        commitStock(context, requests);
+                        return response;
+                    });
+            // 판매 통계와 영수증 기록은 락을 푼 뒤에 반영해 다른 계산대의 대기 시간을 늘리지 않는다
+            return recordCompleted(receipt);
+        } finally {
+            checkoutEvent.commitFor(requests);
+            metrics.recordLatency(Operation.PURCHASE, start);
+        }
     }
 
-    private void validateRequests(List<PurchaseRequest> requests) {
-        if (requests == null || requests.isEmpty()) {
-            throw new IllegalArgumentException(ERROR_NO_ITEMS);
+    /**
+     * 여러 장바구니를 한 번의 호출로 구매한다.
+     * 묶음 전체의 상품 락을 한 번만 획득하고, 상품 조회는 상품 번호별로 한 번만 수행한다.
+     * 재고 차감은 모든 장바구니를 처리한 뒤 상품별로 합산하여 반영한다.
+     * 실패한 장바구니는 그 장바구니의 차감만 취소되고 나머지 장바구니 처리에는 영향을 주지 않는다.
+     */
+    @Override
+    public List<CartPurchaseResponse> purchaseBatch(List<CartRequest> carts) {
+        if (carts == null || carts.isEmpty()) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        PurchasePhaseEvent checkoutEvent = new PurchasePhaseEvent.Checkout();
+        checkoutEvent.begin();
+        List<PurchaseRequest> allRequests = carts.stream()
+                .map(CartRequest::getRequests)
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .toList();
+        try {
+            ActivePromotions promotions = promotionSchedule.now();
+            List<CartPurchaseResponse> responses = productRepository.executeWithStockLock(
+                    collectProductNames(allRequests.stream()), () -> {
+                        PurchaseContext context = PurchaseContext.of(productRepository, promotions);
+                        List<CartPurchaseResponse> cartResponses = new ArrayList<>(carts.size());
+                        carts.forEach(cart -> cartResponses.add(purchaseInBatch(cart, context)));
+                        commitStock(context, allRequests);
+                        return cartResponses;
+                    });
+            responses.replaceAll(response -> response.isSuccess()
+                    ? CartPurchaseResponse.success(recordCompleted(response.getReceipt()))
+                    : response);
+            return responses;
+        } finally {
+            checkoutEvent.commitFor(allRequests);
+            metrics.recordLatency(Operation.PURCHASE_BATCH, start);
         }
     }
 
-    private void validateStockForAllRequests(List<PurchaseRequest> requests) {
-        requests.forEach(this::validateTotalStock);
+    // 재고는 이미 반영되었으므로 영수증 기록에 실패해도 구매를 실패로 돌리지 않고 실패 횟수만 센다
+    // 영수증 저장소에 저장했으면 붙은 번호를 영수증에 담아 반환한다
+    private ReceiptResponse recordCompleted(ReceiptResponse receipt) {
+        salesAnalytics.record(receipt);
+        try {
+            receiptLog.append(receipt);
+        } catch (IllegalStateException e) {
+            metrics.recordReceiptRecordFailure();
+        }
+        long receiptId = ReceiptStore.NOT_STORED;
+        try {
+            receiptId = receiptStore.append(receipt);
+        } catch (IllegalStateException e) {
+            metrics.recordReceiptRecordFailure();
+        }
+        if (receiptId == ReceiptStore.NOT_STORED) {
+            return receipt;
+        }
+        return receipt.withReceiptId(receiptId);
+    }
+
+    private CartPurchaseResponse purchaseInBatch(CartRequest cart, PurchaseContext context) {
+        context.beginCart();
+        try {
+            validateRequests(cart.getRequests());
+            return CartPurchaseResponse.success(purchaseWithStockLock(
+                    cart.getRequests(),
+                    cart.isUsePromotion(),
+                    cart.hasMembership(),
+                    context
+            ));
+        } catch (IllegalArgumentException e) {
+            context.rollbackCart();
+            return CartPurchaseResponse.failure(e.getMessage());
+        }
     }
 
-    private Map<String, Promotion> createPromotionMap(List<PurchaseRequest> requests, boolean usePromotion) {
-        Map<String, Promotion> promotionMap = new HashMap<>();
-        if (usePromotion) {
-            requests.forEach(request -> addToPromotionMap(request, promotionMap));
-        }
-        return promotionMap;
+    private void commitStock(PurchaseContext context, List<PurchaseRequest> requests) {
+        PurchasePhaseEvent event = new PurchasePhaseEvent.StockCommit();
+        event.begin();
+        context.commit();
+        event.commitFor(requests);
     }
 
-    private void addToPromotionMap(PurchaseRequest request, Map<String, Promotion> promotionMap) {
-        productRepository.findPromotionProduct(request.getProductName())
-                .filter(Product::hasValidPromotion)
-                .ifPresent(product -> {
-                    promotionRepository.findByName(product.getPromotionName())
-                            .ifPresent(promotion -> promotionMap.put(request.getProductName(), promotion));
-                });
+    private Set<String> collectProductNames(Stream<PurchaseRequest> requests) {
+        return requests
+                .map(PurchaseRequest::getProductName)
+                .collect(Collectors.toSet());
     }
 
-    private Map<String, NormalPurchaseInfo> createNormalPurchaseMap(List<PurchaseRequest> requests) {
+    /**
+     * 장바구니의 각 줄을 한 번씩만 해석해 계획을 세운 뒤, 계획에 따라 재고를 차감하고 영수증을 만든다.
+     * 계획 단계에서 재고 부족이 확인되므로 차감 도중에 실패하지 않는다.
+     * 단계마다 JFR 이벤트를 남기며, 재고 부족으로 거절된 계획도 기록한다.
+     */
+    private ReceiptResponse purchaseWithStockLock(
+            List<PurchaseRequest> requests,
+            boolean usePromotion,
+            boolean hasMembership,
+            PurchaseContext context
+    ) {
+        PurchasePhaseEvent planEvent = new PurchasePhaseEvent.Plan();
+        planEvent.begin();
+        List<LinePlan> plans;
+        try {
+            plans = PurchasePlanner.of(context, metrics::recordStockOut).planAll(requests);
+        } finally {
+            planEvent.commitFor(requests);
+        }
+        plans.forEach(plan -> applyPlan(plan, context));
+
+        PurchasePhaseEvent receiptEvent = new PurchasePhaseEvent.ReceiptBuild();
+        receiptEvent.begin();
+        Receipt receipt = createReceipt(plans, usePromotion, hasMembership);
+        receiptEvent.commitFor(requests);
+
+        PurchasePhaseEvent responseEvent = new PurchasePhaseEvent.Response();
+        responseEvent.begin();
+        ReceiptResponse response = ReceiptResponse.from(receipt);
+        responseEvent.commitFor(requests);
+        return response;
+    }
+
+    /**
+     * 계획으로부터 영수증을 만든다. 재고는 변경하지 않는다.
+     */
+    private Receipt createReceipt(List<LinePlan> plans, boolean usePromotion, boolean hasMembership) {
+        List<ReceiptItem> items = new ArrayList<>(plans.size() * 2);
+        List<ReceiptItem> freeItems = new ArrayList<>();
+        Map<String, Promotion> promotionMap = new HashMap<>();
         Map<String, NormalPurchaseInfo> normalPurchaseMap = new HashMap<>();
-        requests.forEach(request -> addToNormalPurchaseMap(request, normalPurchaseMap));
-        return normalPurchaseMap;
+        for (LinePlan plan : plans) {
+            addReceiptItems(plan, items, freeItems);
+            if (usePromotion) {
+                plan.findPromotion().ifPresent(promotion -> promotionMap.put(plan.productName(), promotion));
+            }
+            plan.findNormalPurchaseInfo().ifPresent(info -> normalPurchaseMap.put(plan.productName(), info));
+        }
+        markPromotionItems(items, freeItems);
+
+        return Receipt.of(items, freeItems, hasMembership, promotionMap, normalPurchaseMap);
     }
 
-    private void addToNormalPurchaseMap(PurchaseRequest request, Map<String, NormalPurchaseInfo> normalPurchaseMap) {
-        int normalQuantity = getNormalPurchaseQuantity(request.getProductName(), request.getQuantity());
-        if (normalQuantity > 0) {
-            Product product = findProductForNormalPurchase(request);
-            int normalAmount = normalQuantity * product.getPrice();
-            normalPurchaseMap.put(request.getProductName(), 
-                new Receipt.NormalPurchaseInfo(normalQuantity, normalAmount));
+    private void validateRequests(List<PurchaseRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException(ERROR_NO_ITEMS);
         }
     }
 
-    private Product findProductForNormalPurchase(PurchaseRequest request) {
-        return productRepository.findByNameAndQuantityGreaterThanEqual(
-                request.getProductName(), request.getQuantity())
-                .orElseThrow(() -> new IllegalArgumentException(ERROR_INSUFFICIENT_STOCK));
+    // 프로모션 재고를 먼저 사용하고 남은 수량은 일반 재고에서 차감한다
+    private void applyPlan(LinePlan plan, PurchaseContext context) {
+        if (plan.promotionQuantity() > 0) {
+            context.removeStock(plan.promotionProduct(), plan.promotionQuantity());
+        }
+        if (plan.normalQuantity() > 0) {
+            context.removeStock(plan.normalProduct(), plan.normalQuantity());
+        }
     }
 
-    private void processAllRequests(
-            List<PurchaseRequest> requests,
-            List<ReceiptItem> items,
-            List<ReceiptItem> freeItems,
-            boolean usePromotion
-    ) {
-        requests.forEach(request -> processRequest(request, items, freeItems, usePromotion));
+    private void addReceiptItems(LinePlan plan, List<ReceiptItem> items, List<ReceiptItem> freeItems) {
+        if (plan.promotionQuantity() > 0) {
+            items.add(ReceiptItem.of(
+                    plan.productName(),
+                    plan.promotionQuantity(),
+                    plan.promotionProduct().getPrice()
+            ));
+        }
+        if (plan.freeQuantity() > 0) {
+            freeItems.add(ReceiptItem.createFreeItem(plan.productName(), plan.freeQuantity()));
+        }
+        if (plan.normalQuantity() > 0) {
+            items.add(ReceiptItem.of(
+                    plan.productName(),
+                    plan.normalQuantity(),
+                    plan.normalProduct().getPrice()
+            ));
+        }
     }
 
     private void markPromotionItems(List<ReceiptItem> items, List<ReceiptItem> freeItems) {
+        Set<String> freeItemNames = freeItems.stream()
+                .map(ReceiptItem::getName)
+                .collect(Collectors.toSet());
         items.stream()
-                .filter(item -> hasMatchingFreeItem(item, freeItems))
+                .filter(item -> freeItemNames.contains(item.getName()))
                 .forEach(ReceiptItem::markAsPromotionItem);
     }
 
-    private boolean hasMatchingFreeItem(ReceiptItem item, List<ReceiptItem> freeItems) {
-        return freeItems.stream()
-                .anyMatch(free -> free.getName().equals(item.getName()));
+    /**
+     * 재고를 변경하지 않고 장바구니 전체의 견적을 계산한다.
+     * 모든 줄이 같은 시점의 재고와 프로모션 정보를 기준으로 계산된다.
+     */
+    @Override
+    public QuoteResponse quote(List<PurchaseRequest> requests) {
+        long start = System.nanoTime();
+        try {
+            return quoteAll(requests);
+        } finally {
+            metrics.recordLatency(Operation.QUOTE, start);
+        }
     }
 
-    private ReceiptResponse createReceiptResponse(
-            List<ReceiptItem> items,
-            List<ReceiptItem> freeItems,
-            boolean hasMembership,
-            Map<String, Promotion> promotionMap,
-            Map<String, NormalPurchaseInfo> normalPurchaseMap
-    ) {
-        return ReceiptResponse.from(Receipt.of(
-                items, 
-                freeItems, 
-                hasMembership, 
-                promotionMap, 
-                normalPurchaseMap
-        ));
+    private QuoteResponse quoteAll(List<PurchaseRequest> requests) {
+        validateRequests(requests);
+        PurchaseContext context = createQueryContext();
+        List<QuoteLineResponse> lines = requests.stream()
+                .map(request -> quoteLine(request, context))
+                .toList();
+
+        List<LinePlan> plans;
+        try {
+            // 견적의 재고 부족은 구매 거절이 아니므로 재고 부족 지표에 세지 않는다
+            plans = PurchasePlanner.of(context).planAll(requests);
+        } catch (IllegalArgumentException e) {
+            return QuoteResponse.unavailable(lines);
+        }
+        Receipt receipt = createReceipt(plans, true, true);
+        return QuoteResponse.of(
+                lines,
+                receipt.getTotalAmount(),
+                receipt.getPromotionDiscountAmount(),
+                receipt.getMembershipDiscountAmount()
+        );
+    }
+
+    private QuoteLineResponse quoteLine(PurchaseRequest request, PurchaseContext context) {
+        Optional<Product> promotionProduct = Optional.ofNullable(context.promotionProduct(request));
+        int quantity = request.getQuantity();
+        int normalQuantity = Math.max(0, getNormalPurchaseQuantity(promotionProduct, quantity, context));
+        int freeQuantity = findValidPromotion(promotionProduct, context)
+                .filter(promotion -> isValidPromotionQuantity(quantity, promotion))
+                .filter(promotion -> hasEnoughPromotionStock(promotionProduct, quantity, promotion, context))
+                .map(Promotion::getGetCount)
+                .orElse(0);
+        return QuoteLineResponse.of(request.getProductName(), quantity, normalQuantity, freeQuantity);
+    }
+
+    /**
+     * 상품명 구간의 번호를 찾아 구매 요청을 만든다. 없는 상품명은 상품 조회 없이 바로 거부한다.
+     */
+    @Override
+    public PurchaseRequest createPurchaseRequest(CharSequence input, int nameStart, int nameEnd, int quantity) {
+        int id = productRepository.findIdByName(input, nameStart, nameEnd);
+        if (id == ProductRepository.NOT_FOUND) {
+            throw new IllegalArgumentException(ERROR_PRODUCT_NOT_FOUND);
+        }
+        return PurchaseRequest.of(productRepository.productIdOf(id), productRepository.nameOf(id), quantity);
+    }
+
+    @Override
+    public SalesAnalytics getSalesAnalytics() {
+        return salesAnalytics;
+    }
+
+    @Override
+    public Optional<ReceiptResponse> findReceipt(long receiptId) {
+        long start = System.nanoTime();
+        try {
+            return receiptStore.find(receiptId).map(StoredReceipt::receipt);
+        } finally {
+            metrics.recordLatency(Operation.FIND_RECEIPT, start);
+        }
     }
 
     @Override
     public List<ProductResponse> getProducts() {
-        List<Product> products = productRepository.findAll();
-        List<ProductResponse> responses = new ArrayList<>();
-        
-        // 모든 상품명에 대해 처리
-        products.stream()
-                .map(Product::getName)
-                .distinct()
-                .forEach(productName -> {
-                    // 프로모션 상품 처리
-                    Optional<Product> promotionProduct = products.stream()
-                            .filter(p -> p.getName().equals(productName))
-                            .filter(Product::hasValidPromotion)
-                            .findFirst();
-                    
-                    // 일반 상품 찾기
-                    Optional<Product> normalProduct = products.stream()
-                            .filter(p -> p.getName().equals(productName))
-                            .filter(p -> !p.hasValidPromotion())
-                            .findFirst();
-                    
-                    if (promotionProduct.isPresent()) {
-                        // 프로모션 상품 추가
-                        responses.add(ProductResponse.from(promotionProduct.get()));
-                        
-                        // 일반 상품이 없거나 재고가 0인 경우에만 재고 없음 버전 추가
-                        if (normalProduct.isEmpty() || normalProduct.get().getQuantity() == 0) {
-                            Product outOfStockProduct = Product.of(
-                                productName,
-                                promotionProduct.get().getPrice(),
-                                0,
-                                null
-                            );
-                            responses.add(ProductResponse.createOutOfStock(outOfStockProduct));
-                        }
-                    }
-                    
-                    // 일반 상품이 있으면 추가
-                    normalProduct.ifPresent(product -> 
-                        responses.add(ProductResponse.from(product)));
-                });
-        
-        return responses;
+        long start = System.nanoTime();
+        try {
+            return catalogView.getProducts();
+        } finally {
+            metrics.recordLatency(Operation.GET_PRODUCTS, start);
+        }
     }
 
     @Override
     public boolean canAddPromotionPurchase(String productName, int quantity) {
-        Optional<Promotion> promotion = findValidPromotion(productName);
+        long start = System.nanoTime();
+        try {
+            return canAddPromotionPurchase(createQueryContext(), productName, quantity);
+        } finally {
+            metrics.recordLatency(Operation.CAN_ADD_PROMOTION_PURCHASE, start);
+        }
+    }
+
+    private boolean canAddPromotionPurchase(PurchaseContext context, String productName, int quantity) {
+        Optional<Product> promotionProduct = context.findPromotionProduct(productName);
+        Optional<Promotion> promotion = findValidPromotion(promotionProduct, context);
         
         // 프로모션이 없거나 유효하지 않은 경우
-        if (promotion.isEmpty() || !promotion.get().isValid(DateTimes.now())) {
+        if (promotion.isEmpty()) {
             return false;
         }
         
@@ -195,44 +432,71 @@ public class StoreServiceImpl implements StoreService {
             return false;
         }
         
-        return hasEnoughPromotionStock(productName, quantity, promotion.get());
+        return hasEnoughPromotionStock(promotionProduct, quantity, promotion.get(), context);
+    }
+
+    // 재고를 변경하지 않는 조회용 컨텍스트
+    private PurchaseContext createQueryContext() {
+        return PurchaseContext.of(productRepository, promotionSchedule.now());
     }
 
-    private Optional<Promotion> findValidPromotion(String productName) {
-        return productRepository.findPromotionProduct(productName)
-                .filter(Product::hasValidPromotion)
-                .flatMap(product -> promotionRepository.findByName(product.getPromotionName()))
-                .filter(Promotion::isValid);
+    private Optional<Promotion> findValidPromotion(Optional<Product> promotionProduct, PurchaseContext context) {
+        return promotionProduct
+                .flatMap(product -> context.promotions().findActive(product.getPromotionName()));
     }
 
     private boolean isValidPromotionQuantity(int quantity, Promotion promotion) {
         return quantity % promotion.getBuyCount() == 0;
     }
 
-    private boolean hasEnoughPromotionStock(String productName, int quantity, Promotion promotion) {
+    private boolean hasEnoughPromotionStock(
+            Optional<Product> promotionProduct,
+            int quantity,
+            Promotion promotion,
+            PurchaseContext context
+    ) {
         int sets = quantity / promotion.getBuyCount();
         int totalNeeded = quantity + (sets * promotion.getGetCount());
-        return getPromotionStock(productName) >= totalNeeded;
+        return getPromotionStock(promotionProduct, context) >= totalNeeded;
     }
 
-    private int getPromotionStock(String productName) {
-        return productRepository.findPromotionProduct(productName)
-                .map(Product::getQuantity)
+    private int getPromotionStock(Optional<Product> promotionProduct, PurchaseContext context) {
+        return promotionProduct
+                .map(context::availableStock)
                 .orElse(0);
     }
 
     @Override
     public int getNormalPurchaseQuantity(String productName, int quantity) {
-        Optional<Promotion> promotion = findValidPromotion(productName);
+        long start = System.nanoTime();
+        try {
+            PurchaseContext context = createQueryContext();
+            return getNormalPurchaseQuantity(context.findPromotionProduct(productName), quantity, context);
+        } finally {
+            metrics.recordLatency(Operation.GET_NORMAL_PURCHASE_QUANTITY, start);
+        }
+    }
+
+    private int getNormalPurchaseQuantity(
+            Optional<Product> promotionProduct,
+            int quantity,
+            PurchaseContext context
+    ) {
+        Optional<Promotion> promotion = findValidPromotion(promotionProduct, context);
         if (promotion.isEmpty()) {
             return 0;
         }
         
-        return calculateNormalPurchaseQuantity(productName, quantity, promotion.get());
+        return calculateNormalPurchaseQuantity(promotionProduct, quantity, promotion.get(), context);
     }
 
-    private int calculateNormalPurchaseQuantity(String productName, int quantity, Promotion promotion) {
-        int promotionStock = getPromotionStock(productName);
+    private int calculateNormalPurchaseQuantity(
+            Optional<Product> promotionProduct,
+            int quantity,
+            Promotion promotion,
+            PurchaseContext context
+    ) {
+        int promotionStock = getPromotionStock(promotionProduct, context);
         int possibleSets = calculatePossibleSets(promotionStock, promotion);
         int promotionSetQuantity = calculatePromotionSetQuantity(possibleSets, promotion);
         return quantity - promotionSetQuantity;
@@ -248,169 +512,14 @@ public class StoreServiceImpl implements StoreService {
 
     @Override
     public int getPromotionFreeCount(String productName) {
-        return productRepository.findPromotionProduct(productName)
-                .filter(Product::hasValidPromotion)
-                .flatMap(product -> promotionRepository.findByName(product.getPromotionName()))
-                .filter(Promotion::isValid)  // 여기서 기간 체크
-                .map(Promotion::getGetCount)
-                .orElse(0);
-    }
-
-    private void processRequest(
-            PurchaseRequest request,
-            List<ReceiptItem> items,
-            List<ReceiptItem> freeItems,
-            boolean usePromotion
-    ) {
-        // 항상 프로모션 재고 먼저 확인
-        Optional<Product> promotionProduct = productRepository.findPromotionProduct(request.getProductName())
-                .filter(Product::hasValidPromotion);
-
-        if (promotionProduct.isPresent()) {
-            Promotion promotion = promotionRepository.findByName(promotionProduct.get().getPromotionName())
-                    .orElseThrow(() -> new IllegalArgumentException(ERROR_INVALID_PROMOTION));
-
-            // usePromotion이 false여도 프로모션 재고 먼저 진
-            handlePromotionPurchase(request, promotionProduct.get(), promotion, items, freeItems);
-            return;
-        }
-
-        // 프로모션 재고가 없을 때만 일반 재고 사용
-        processNormalPurchase(request, items);
-    }
-
-    private void handlePromotionPurchase(
-            PurchaseRequest request,
-            Product promotionProduct,
-            Promotion promotion,
-            List<ReceiptItem> items,
-            List<ReceiptItem> freeItems
-    ) {
-        int promotionStock = promotionProduct.getQuantity();
-        
-        if (promotionStock >= request.getQuantity()) {
-            processPromotionPurchase(request, promotionProduct, promotion, items, freeItems);
-            return;
-        }
-
-        // 프로모션 재고로 처리 가능한 만큼 처리
-        if (promotionStock > 0) {
-            processPromotionPurchase(
-                PurchaseRequest.of(request.getProductName(), promotionStock),
-                promotionProduct,
-                promotion,
-                items,
-                freeItems
-            );
-        }
-
-        // 남은 수량은 일반 재고로 처리
-        int normalQuantity = request.getQuantity() - promotionStock;
-        if (normalQuantity > 0) {
-            processNormalPurchase(
-                PurchaseRequest.of(request.getProductName(), normalQuantity),
-                items
-            );
-        }
-    }
-
-    private void processPromotionPurchase(
-            PurchaseRequest request,
-            Product promotionProduct,
-            Promotion promotion,
-            List<ReceiptItem> items,
-            List<ReceiptItem> freeItems
-    ) {
-        if (!promotion.isValid()) {
-            processNormalPurchase(request, items);
-            return;
-        }
-        
-        addPromotionPurchaseItems(request, promotionProduct, promotion, items, freeItems);
-        updatePromotionStock(promotionProduct, request.getQuantity());
-    }
-
-    private void addPromotionPurchaseItems(
-            PurchaseRequest request,
-            Product product,
-            Promotion promotion,
-            List<ReceiptItem> items,
-            List<ReceiptItem> freeItems
-    ) {
-        int quantity = Math.min(request.getQuantity(), product.getQuantity());
-        items.add(createPurchaseItem(request.getProductName(), quantity, product.getPrice()));
-        addFreeItemsIfApplicable(request.getProductName(), quantity, promotion, freeItems);
-    }
-
-    private ReceiptItem createPurchaseItem(String name, int quantity, int price) {
-        return ReceiptItem.of(name, quantity, price);
-    }
-
-    private void addFreeItemsIfApplicable(
-            String productName,
-            int quantity,
-            Promotion promotion,
-            List<ReceiptItem> freeItems
-    ) {
-        int freeQuantity = calculateFreeQuantity(productName, quantity);
-        if (freeQuantity > 0) {
-            freeItems.add(ReceiptItem.createFreeItem(productName, freeQuantity));
-        }
-    }
-
-    private int calculateFreeQuantity(String productName, int quantity) {
-        return findValidPromotion(productName)
-                .map(promotion -> promotion.calculateFreeQuantity(quantity, DateTimes.now()))
-                .orElse(0);
-    }
-
-    private void updatePromotionStock(Product product, int quantity) {
-        productRepository.save(product.removeStock(quantity));
-    }
-
-    private void processNormalPurchase(
-            PurchaseRequest request,
-            List<ReceiptItem> items
-    ) {
-        Product normalProduct = productRepository.findNormalProduct(request.getProductName())
-                .filter(p -> p.hasEnoughStock(request.getQuantity()))
-                .orElseThrow(() -> new IllegalArgumentException(ERROR_INSUFFICIENT_STOCK));
-
-        items.add(ReceiptItem.of(
-                request.getProductName(),
-                request.getQuantity(),
-                normalProduct.getPrice()
-        ));
-
-        productRepository.save(normalProduct.removeStock(request.getQuantity()));
-    }
-
-    private boolean hasValidPromotion(String productName) {
-        return productRepository.findPromotionProduct(productName)
-                .filter(Product::hasValidPromotion)
-                .isPresent();
-    }
-
-    private void validateTotalStock(PurchaseRequest request) {
-        Optional<Product> promotionProduct = productRepository.findPromotionProduct(request.getProductName())
-                .filter(Product::hasValidPromotion);
-        
-        int totalAvailableStock = 0;
-        
-        // 프로모션 재고 확인
-        if (promotionProduct.isPresent()) {
-            totalAvailableStock += promotionProduct.get().getQuantity();
-        }
-        
-        // 일반 재고 확인
-        Optional<Product> normalProduct = productRepository.findNormalProduct(request.getProductName());
-        if (normalProduct.isPresent()) {
-            totalAvailableStock += normalProduct.get().getQuantity();
-        }
-        
-        // 총 재고가 요청 수량보다 적으면 예외 발생
-        if (totalAvailableStock < request.getQuantity()) {
-            throw new IllegalArgumentException(ERROR_INSUFFICIENT_STOCK);
+        long start = System.nanoTime();
+        try {
+            PurchaseContext context = createQueryContext();
+            return findValidPromotion(context.findPromotionProduct(productName), context)
+                    .map(Promotion::getGetCount)
+                    .orElse(0);
+        } finally {
+            metrics.recordLatency(Operation.GET_PROMOTION_FREE_COUNT, start);
         }
     }
 }
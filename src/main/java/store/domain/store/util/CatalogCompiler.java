@@ -0,0 +1,152 @@
+package store.domain.store.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import store.domain.store.domain.Product;
+import store.domain.store.domain.Promotion;
+
+/**
+ * products.md와 promotions.md를 CompiledCatalog 형식의 바이너리 카탈로그로 변환한다.
+ * 문자열은 중복 없이 한 번만 저장하고, 상품의 프로모션은 문자열 번호로 참조한다.
+ */
+public final class CatalogCompiler {
+    private CatalogCompiler() {
+    }
+
+    /**
+     * 텍스트 카탈로그 파일을 컴파일하여 저장한다.
+     * 사용법: CatalogCompiler &lt;products.md&gt; &lt;promotions.md&gt; &lt;출력 파일&gt;
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("[ERROR] 사용법: CatalogCompiler <products.md> <promotions.md> <출력 파일>");
+        }
+        try (InputStream products = Files.newInputStream(Path.of(args[0]));
+                InputStream promotions = Files.newInputStream(Path.of(args[1]))) {
+            write(Path.of(args[2]), compile(ResourceLoader.loadProducts(products),
+                    ResourceLoader.loadPromotions(promotions)));
+        }
+    }
+
+    /**
+     * 상품과 프로모션 목록을 바이너리 카탈로그로 변환한다.
+     *
+     * @param products 파일 순서대로 정렬된 상품 목록
+     * @param promotions 파일 순서대로 정렬된 프로모션 목록
+     * @return 바이너리 카탈로그
+     */
+    public static byte[] compile(List<Product> products, List<Promotion> promotions) {
+        StringTable strings = new StringTable();
+        int[] productNames = new int[products.size()];
+        int[] productPromotions = new int[products.size()];
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            productNames[i] = strings.idOf(product.getName());
+            productPromotions[i] = promotionIdOf(product, strings);
+        }
+        int[] promotionNames = promotions.stream()
+                .mapToInt(promotion -> strings.idOf(promotion.getName()))
+                .toArray();
+
+        int stringOffsetsPosition = CompiledCatalog.HEADER_BYTES;
+        int stringBytesPosition = stringOffsetsPosition + (strings.size() + 1) * Integer.BYTES;
+        int promotionsPosition = stringBytesPosition + strings.byteSize();
+        int productsPosition = promotionsPosition + promotions.size() * CompiledCatalog.PROMOTION_RECORD_BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(productsPosition + products.size() * CompiledCatalog.PRODUCT_RECORD_BYTES);
+
+        buffer.putInt(CompiledCatalog.MAGIC);
+        buffer.putShort(CompiledCatalog.FORMAT_VERSION);
+        buffer.putShort((short) 0);
+        buffer.putInt(strings.size());
+        buffer.putInt(promotions.size());
+        buffer.putInt(products.size());
+        buffer.putInt(0);
+        buffer.putLong(stringOffsetsPosition);
+        buffer.putLong(stringBytesPosition);
+        buffer.putLong(promotionsPosition);
+        buffer.putLong(productsPosition);
+
+        strings.writeTo(buffer);
+        for (int i = 0; i < promotions.size(); i++) {
+            Promotion promotion = promotions.get(i);
+            buffer.putInt(promotionNames[i]);
+            buffer.putInt(promotion.getBuyCount());
+            buffer.putInt(promotion.getGetCount());
+            buffer.putLong(promotion.getStartDate().toEpochDay());
+            buffer.putLong(promotion.getEndDate().toEpochDay());
+        }
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            buffer.putInt(productNames[i]);
+            buffer.putInt(product.getPrice());
+            buffer.putInt(product.getQuantity());
+            buffer.putInt(productPromotions[i]);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * 바이너리 카탈로그를 임시 파일에 쓴 뒤 원자적으로 교체한다.
+     */
+    public static void write(Path path, byte[] catalog) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temporary, catalog);
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static int promotionIdOf(Product product, StringTable strings) {
+        if (!product.hasValidPromotion()) {
+            return CompiledCatalog.NO_PROMOTION;
+        }
+        return strings.idOf(product.getPromotionName());
+    }
+
+    private static final class StringTable {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<byte[]> values = new ArrayList<>();
+        private int byteSize;
+
+        private int idOf(String value) {
+            Integer id = ids.get(value);
+            if (id != null) {
+                return id;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            ids.put(value, values.size());
+            values.add(bytes);
+            byteSize += bytes.length;
+            return values.size() - 1;
+        }
+
+        private int size() {
+            return values.size();
+        }
+
+        private int byteSize() {
+            return byteSize;
+        }
+
+        private void writeTo(ByteBuffer buffer) {
+            int offset = 0;
+            buffer.putInt(offset);
+            for (byte[] value : values) {
+                offset += value.length;
+                buffer.putInt(offset);
+            }
+            values.forEach(buffer::put);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package store.domain.store.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import store.domain.store.domain.Product;
+import store.domain.store.domain.Promotion;
+
+/**
+ * CatalogCompiler가 만든 바이너리 카탈로그를 읽는다.
+ *
+ * <p>형식: 헤더(magic int, 버전 short, 예약 short, 문자열 수 int, 프로모션 수 int, 상품 수 int, 예약 int,
+ * 문자열 오프셋/문자열 바이트/프로모션/상품 영역의 시작 위치 long × 4) 뒤에 각 영역이 이어진다.
+ * <ul>
+ *   <li>문자열 테이블: 중복을 제거한 UTF-8 문자열. 오프셋 배열(int × (문자열 수 + 1))과 바이트 영역으로 나뉜다.</li>
+ *   <li>프로모션: 이름 번호, 구매 수량, 증정 수량(int × 3), 시작일/종료일(epoch day long × 2)</li>
+ *   <li>상품: 이름 번호, 가격, 재고, 프로모션명 번호(int × 4). 프로모션이 없으면 -1이다.</li>
+ * </ul>
+ * 모든 값이 고정 위치의 정수이므로 토큰 분리나 정수 파싱 없이 읽는다.
+ * 저장소에 적재할 때는 상품명을 검색하지 않고 레코드를 순서대로 ProductRowSink에 넘기므로 상품명 색인을 두지 않는다.
+ */
+public final class CompiledCatalog {
+    static final int MAGIC = 0x53544354;
+    static final short FORMAT_VERSION = 2;
+    static final int HEADER_BYTES = 56;
+    static final int PROMOTION_RECORD_BYTES = 3 * Integer.BYTES + 2 * Long.BYTES;
+    static final int PRODUCT_RECORD_BYTES = 4 * Integer.BYTES;
+    static final int NO_PROMOTION = -1;
+    // 텍스트 파일에서 프로모션이 없는 행을 나타내는 값
+    static final String NO_PROMOTION_NAME = "null";
+
+    private static final String ERROR_FORMAT = "[ERROR] 카탈로그 형식이 올바르지 않습니다.";
+    private static final int UNRESOLVED = Integer.MIN_VALUE;
+
+    private final ByteBuffer buffer;
+    private final int stringCount;
+    private final int promotionCount;
+    private final int productCount;
+    private final int stringOffsetsPosition;
+    private final int stringBytesPosition;
+    private final int promotionsPosition;
+    private final int productsPosition;
+    private final String[] strings;
+
+    private CompiledCatalog(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.stringCount = buffer.getInt(8);
+        this.promotionCount = buffer.getInt(12);
+        this.productCount = buffer.getInt(16);
+        this.stringOffsetsPosition = position(24);
+        this.stringBytesPosition = position(32);
+        this.promotionsPosition = position(40);
+        this.productsPosition = position(48);
+        this.strings = new String[stringCount];
+        validateSections();
+    }
+
+    /**
+     * 버퍼의 앞부분이 바이너리 카탈로그 헤더인지 확인한다.
+     *
+     * @param head 파일의 처음 바이트들
+     * @return 바이너리 카탈로그 여부
+     */
+    public static boolean isCompiled(ByteBuffer head) {
+        return head.remaining() >= Integer.BYTES && head.getInt(head.position()) == MAGIC;
+    }
+
+    /**
+     * 파일이 바이너리 카탈로그인지 앞부분만 읽어 확인한다.
+     *
+     * @param path 확인할 파일 경로
+     * @return 바이너리 카탈로그 여부
+     */
+    public static boolean isCompiled(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(head, 0);
+            return isCompiled(head.flip());
+        } catch (IOException e) {
+            throw new IllegalStateException("[ERROR] 카탈로그를 불러오는데 실패했습니다.", e);
+        }
+    }
+
+    /**
+     * 메모리에 올린 바이너리 카탈로그를 연다.
+     *
+     * @param buffer 카탈로그 전체 바이트
+     * @return 열린 카탈로그
+     * @throws IllegalStateException 형식이 올바르지 않은 경우
+     */
+    public static CompiledCatalog from(final ByteBuffer buffer) {
+        ByteBuffer view = buffer.slice();
+        if (view.limit() < HEADER_BYTES || !isCompiled(view) || view.getShort(4) != FORMAT_VERSION) {
+            throw new IllegalStateException(ERROR_FORMAT);
+        }
+        return new CompiledCatalog(view);
+    }
+
+    /**
+     * 파일을 메모리 매핑하여 바이너리 카탈로그를 연다.
+     *
+     * @param path 카탈로그 파일 경로
+     * @return 열린 카탈로그
+     * @throws IllegalStateException 파일을 읽지 못했거나 형식이 올바르지 않은 경우
+     */
+    public static CompiledCatalog open(final Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException(ERROR_FORMAT);
+            }
+            return from(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new IllegalStateException("[ERROR] 카탈로그를 불러오는데 실패했습니다.", e);
+        }
+    }
+
+    /**
+     * 모든 상품을 원본 파일 순서대로 반환한다.
+     */
+    public List<Product> products() {
+        List<Product> products = new ArrayList<>(productCount);
+        for (int i = 0; i < productCount; i++) {
+            int base = productsPosition + i * PRODUCT_RECORD_BYTES;
+            int promotion = buffer.getInt(base + 3 * Integer.BYTES);
+            products.add(Product.of(
+                    stringAt(buffer.getInt(base)),
+                    buffer.getInt(base + Integer.BYTES),
+                    buffer.getInt(base + 2 * Integer.BYTES),
+                    promotion == NO_PROMOTION ? NO_PROMOTION_NAME : stringAt(promotion)
+            ));
+        }
+        return products;
+    }
+
+    /**
+     * 모든 상품 행을 원본 파일 순서대로 sink에 넘긴다. 상품 객체나 상품명 문자열을 만들지 않는다.
+     * 문자열 영역은 한 번에 복사하고, 프로모션명은 처음 나올 때 한 번만 sink의 번호로 바꾼다.
+     * 프로모션이 없는 행은 텍스트 파일을 읽을 때와 같이 "null" 프로모션명의 번호를 받는다.
+     *
+     * @param sink 상품 행을 받을 곳
+     * @throws IllegalStateException 레코드가 올바르지 않은 경우
+     */
+    public void forEachProduct(ProductRowSink sink) {
+        int[] offsets = new int[stringCount + 1];
+        buffer.slice(stringOffsetsPosition, offsets.length * Integer.BYTES).asIntBuffer().get(offsets);
+        if (offsets[0] != 0 || offsets[stringCount] < 0
+                || stringBytesPosition + (long) offsets[stringCount] > promotionsPosition) {
+            throw new IllegalStateException(ERROR_FORMAT);
+        }
+        byte[] stringBytes = new byte[offsets[stringCount]];
+        buffer.get(stringBytesPosition, stringBytes);
+        // 문자열 번호마다 sink가 붙인 프로모션 번호
+        int[] labels = new int[stringCount];
+        Arrays.fill(labels, UNRESOLVED);
+        int noPromotionLabel = UNRESOLVED;
+        for (int i = 0; i < productCount; i++) {
+            int base = productsPosition + i * PRODUCT_RECORD_BYTES;
+            int name = buffer.getInt(base);
+            int price = buffer.getInt(base + Integer.BYTES);
+            int quantity = buffer.getInt(base + 2 * Integer.BYTES);
+            int promotion = buffer.getInt(base + 3 * Integer.BYTES);
+            validateRecord(name, price, quantity, promotion, offsets);
+            int label;
+            if (promotion == NO_PROMOTION) {
+                if (noPromotionLabel == UNRESOLVED) {
+                    noPromotionLabel = sink.promotionLabel(NO_PROMOTION_NAME);
+                }
+                label = noPromotionLabel;
+            } else {
+                if (labels[promotion] == UNRESOLVED) {
+                    labels[promotion] = sink.promotionLabel(stringAt(promotion));
+                }
+                label = labels[promotion];
+            }
+            sink.add(stringBytes, offsets[name], offsets[name + 1] - offsets[name], price, quantity, label);
+        }
+    }
+
+    private void validateRecord(int name, int price, int quantity, int promotion, int[] offsets) {
+        boolean valid = name >= 0 && name < stringCount && offsets[name] <= offsets[name + 1]
+                && price > 0 && quantity >= 0
+                && (promotion == NO_PROMOTION || promotion >= 0 && promotion < stringCount);
+        if (!valid) {
+            throw new IllegalStateException(ERROR_FORMAT);
+        }
+    }
+
+    /**
+     * 모든 프로모션을 원본 파일 순서대로 반환한다.
+     */
+    public List<Promotion> promotions() {
+        List<Promotion> promotions = new ArrayList<>(promotionCount);
+        for (int i = 0; i < promotionCount; i++) {
+            int base = promotionsPosition + i * PROMOTION_RECORD_BYTES;
+            promotions.add(Promotion.of(
+                    stringAt(buffer.getInt(base)),
+                    buffer.getInt(base + Integer.BYTES),
+                    buffer.getInt(base + 2 * Integer.BYTES),
+                    LocalDate.ofEpochDay(buffer.getLong(base + 3 * Integer.BYTES)),
+                    LocalDate.ofEpochDay(buffer.getLong(base + 3 * Integer.BYTES + Long.BYTES))
+            ));
+        }
+        return promotions;
+    }
+
+    // 같은 문자열은 한 번만 디코딩한다
+    private String stringAt(int id) {
+        String value = strings[id];
+        if (value == null) {
+            int start = stringOffset(id);
+            byte[] bytes = new byte[stringOffset(id + 1) - start];
+            buffer.get(stringBytesPosition + start, bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            strings[id] = value;
+        }
+        return value;
+    }
+
+    private int stringOffset(int id) {
+        return buffer.getInt(stringOffsetsPosition + id * Integer.BYTES);
+    }
+
+    private int position(int headerOffset) {
+        long position = buffer.getLong(headerOffset);
+        if (position < HEADER_BYTES || position > buffer.limit()) {
+            throw new IllegalStateException(ERROR_FORMAT);
+        }
+        return (int) position;
+    }
+
+    private void validateSections() {
+        boolean valid = stringCount >= 0 && promotionCount >= 0 && productCount >= 0
+                && stringOffsetsPosition + (long) (stringCount + 1) * Integer.BYTES <= stringBytesPosition
+                && promotionsPosition + (long) promotionCount * PROMOTION_RECORD_BYTES <= productsPosition
+                && productsPosition + (long) productCount * PRODUCT_RECORD_BYTES <= buffer.limit();
+        if (!valid) {
+            throw new IllegalStateException(ERROR_FORMAT);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package store.domain.store.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 파일 시스템의 products.md 형식 파일을 메모리 매핑하여 읽는 로더.
+ * 파일을 줄 단위 경계에 맞춘 청크로 나누어 병렬로 파싱하고, 파싱된 행을 파일 순서대로 전달한다.
+ * 정규식이나 String[] 없이 바이트 단위로 구분자를 찾고, 행마다 상품 객체를 만들지 않고 값만 넘긴다.
+ * 동시에 파싱 중인 청크 수를 병렬도로 제한하므로 수 GB 파일도 (청크 크기 × 병렬도)만큼의 추가 메모리로 읽을 수 있다.
+ */
+public final class MappedProductLoader {
+    private static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final int BOUNDARY_PROBE_SIZE = 4 * 1024;
+    private static final int PRODUCT_EXPECTED_COLUMNS = 4;
+    private static final int MAX_FIELD_BYTES = 1024;
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final byte DELIMITER = ',';
+    private static final byte SPACE = ' ';
+    private static final byte MINUS = '-';
+
+    private MappedProductLoader() {
+    }
+
+    /**
+     * 파일을 읽어 파싱된 상품 행을 sink에 전달한다.
+     * 전달 순서는 파일 순서와 같으며 sink는 이 메서드를 호출한 스레드에서만 호출된다.
+     *
+     * @param path 상품 파일 경로
+     * @param sink 파싱된 상품 행을 받을 곳
+     * @throws IllegalStateException 파일을 읽지 못했거나 형식이 올바르지 않은 경우
+     */
+    public static void load(Path path, ProductRowSink sink) {
+        load(path, DEFAULT_CHUNK_SIZE, Math.max(1, ForkJoinPool.getCommonPoolParallelism()), sink);
+    }
+
+    static void load(Path path, int chunkSize, int maxChunksInFlight, ProductRowSink sink) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Deque<CompletableFuture<ParsedChunk>> inFlight = new ArrayDeque<>(maxChunksInFlight);
+            long size = channel.size();
+            // 첫 줄은 헤더이므로 건너뛴다
+            long start = nextLineStart(channel, 0, size);
+            while (start < size) {
+                long end = nextLineStart(channel, Math.min(start + chunkSize, size), size);
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                // 앞선 청크가 끝나기를 기다려 전달한 뒤에 다음 청크의 파싱을 시작한다
+                if (inFlight.size() == maxChunksInFlight) {
+                    await(inFlight.poll()).applyTo(sink);
+                }
+                inFlight.add(CompletableFuture.supplyAsync(() -> new ChunkParser(chunk).parse()));
+                start = end;
+            }
+            while (!inFlight.isEmpty()) {
+                await(inFlight.poll()).applyTo(sink);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("[ERROR] 상품 정보를 불러오는데 실패했습니다.", e);
+        }
+    }
+
+    private static ParsedChunk await(CompletableFuture<ParsedChunk> parsing) {
+        try {
+            return parsing.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("[ERROR] 상품 정보를 불러오는데 실패했습니다.", e.getCause());
+        }
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        if (position >= size) {
+            return size;
+        }
+        ByteBuffer probe = ByteBuffer.allocate(BOUNDARY_PROBE_SIZE);
+        long offset = position;
+        while (offset < size) {
+            probe.clear();
+            int read = channel.read(probe, offset);
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == LINE_FEED) {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+
+    /**
+     * 파싱된 청크 하나의 행을 열 단위 배열로 담는다.
+     * 상품명은 하나의 바이트 배열에 이어 붙이고, 프로모션명은 청크 안에서 붙인 번호로 가리킨다.
+     */
+    private static final class ParsedChunk {
+        private static final int INITIAL_ROWS = 1024;
+
+        private byte[] names = new byte[INITIAL_ROWS * 16];
+        private int nameSize;
+        private int[] nameEnds = new int[INITIAL_ROWS];
+        private int[] prices = new int[INITIAL_ROWS];
+        private int[] quantities = new int[INITIAL_ROWS];
+        private int[] promotions = new int[INITIAL_ROWS];
+        private int rows;
+        private final List<String> promotionNames = new ArrayList<>();
+
+        private void addRow(ByteBuffer buffer, int nameStart, int nameLength, int price, int quantity, int promotion) {
+            if (rows == nameEnds.length) {
+                int capacity = rows * 2;
+                nameEnds = Arrays.copyOf(nameEnds, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                quantities = Arrays.copyOf(quantities, capacity);
+                promotions = Arrays.copyOf(promotions, capacity);
+            }
+            if (nameSize + nameLength > names.length) {
+                names = Arrays.copyOf(names, Math.max(nameSize + nameLength, names.length * 2));
+            }
+            buffer.get(nameStart, names, nameSize, nameLength);
+            nameSize += nameLength;
+            nameEnds[rows] = nameSize;
+            prices[rows] = price;
+            quantities[rows] = quantity;
+            promotions[rows] = promotion;
+            rows++;
+        }
+
+        // 프로모션명은 청크마다 한 번씩만 sink의 번호로 바꾼다
+        private void applyTo(ProductRowSink sink) {
+            int[] labels = new int[promotionNames.size()];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = sink.promotionLabel(promotionNames.get(i));
+            }
+            int nameStart = 0;
+            for (int row = 0; row < rows; row++) {
+                sink.add(names, nameStart, nameEnds[row] - nameStart,
+                        prices[row], quantities[row], labels[promotions[row]]);
+                nameStart = nameEnds[row];
+            }
+        }
+    }
+
+    /**
+     * 하나의 청크를 파싱한다. 청크마다 별도 인스턴스를 사용하므로 스레드 간에 공유되지 않는다.
+     */
+    private static final class ChunkParser {
+        private final ByteBuffer buffer;
+        private final byte[] scratch = new byte[MAX_FIELD_BYTES];
+        private final int[] fieldStarts = new int[PRODUCT_EXPECTED_COLUMNS];
+        private final int[] fieldEnds = new int[PRODUCT_EXPECTED_COLUMNS];
+        private final List<byte[]> promotionKeys = new ArrayList<>();
+        private final ParsedChunk parsed = new ParsedChunk();
+
+        private ChunkParser(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        private ParsedChunk parse() {
+            int limit = buffer.limit();
+            int position = 0;
+            while (position < limit) {
+                int lineEnd = indexOfLineFeed(position, limit);
+                int contentEnd = lineEnd;
+                if (contentEnd > position && buffer.get(contentEnd - 1) == CARRIAGE_RETURN) {
+                    contentEnd--;
+                }
+                parseLine(position, contentEnd);
+                position = lineEnd + 1;
+            }
+            return parsed;
+        }
+
+        private int indexOfLineFeed(int from, int limit) {
+            for (int i = from; i < limit; i++) {
+                if (buffer.get(i) == LINE_FEED) {
+                    return i;
+                }
+            }
+            return limit;
+        }
+
+        private void parseLine(int start, int end) {
+            splitFields(start, end);
+            int nameLength = fieldEnds[0] - fieldStarts[0];
+            if (nameLength > MAX_FIELD_BYTES) {
+                throw invalidFormat();
+            }
+            int price = parseInt(fieldStarts[1], fieldEnds[1]);
+            int quantity = parseInt(fieldStarts[2], fieldEnds[2]);
+            if (price <= 0 || quantity < 0) {
+                throw invalidFormat();
+            }
+            parsed.addRow(buffer, fieldStarts[0], nameLength, price, quantity, decodePromotion());
+        }
+
+        private void splitFields(int start, int end) {
+            int field = 0;
+            fieldStarts[0] = start;
+            for (int i = start; i < end; i++) {
+                if (buffer.get(i) != DELIMITER) {
+                    continue;
+                }
+                if (field == PRODUCT_EXPECTED_COLUMNS - 1) {
+                    throw invalidFormat();
+                }
+                fieldEnds[field++] = i;
+                fieldStarts[field] = i + 1;
+            }
+            if (field != PRODUCT_EXPECTED_COLUMNS - 1) {
+                throw invalidFormat();
+            }
+            fieldEnds[field] = end;
+            for (int i = 0; i < PRODUCT_EXPECTED_COLUMNS; i++) {
+                trim(i);
+            }
+        }
+
+        private void trim(int field) {
+            int start = fieldStarts[field];
+            int end = fieldEnds[field];
+            while (start < end && buffer.get(start) == SPACE) {
+                start++;
+            }
+            while (end > start && buffer.get(end - 1) == SPACE) {
+                end--;
+            }
+            if (start == end) {
+                throw invalidFormat();
+            }
+            fieldStarts[field] = start;
+            fieldEnds[field] = end;
+        }
+
+        // 프로모션명은 종류가 적으므로 청크 안에서 번호를 붙이고 행에는 번호만 남긴다
+        private int decodePromotion() {
+            int length = copyField(3);
+            for (int i = 0; i < promotionKeys.size(); i++) {
+                if (matches(promotionKeys.get(i), length)) {
+                    return i;
+                }
+            }
+            byte[] key = new byte[length];
+            System.arraycopy(scratch, 0, key, 0, length);
+            promotionKeys.add(key);
+            parsed.promotionNames.add(new String(key, StandardCharsets.UTF_8));
+            return promotionKeys.size() - 1;
+        }
+
+        private boolean matches(byte[] key, int length) {
+            if (key.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (key[i] != scratch[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int copyField(int field) {
+            int length = fieldEnds[field] - fieldStarts[field];
+            if (length > MAX_FIELD_BYTES) {
+                throw invalidFormat();
+            }
+            buffer.get(fieldStarts[field], scratch, 0, length);
+            return length;
+        }
+
+        private int parseInt(int start, int end) {
+            boolean negative = buffer.get(start) == MINUS;
+            int position = start;
+            if (negative) {
+                position++;
+            }
+            if (position == end) {
+                throw invalidFormat();
+            }
+            long value = 0;
+            for (; position < end; position++) {
+                int digit = buffer.get(position) - '0';
+                if (digit < 0 || digit > 9) {
+                    throw invalidFormat();
+                }
+                value = value * 10 + digit;
+                if (value > Integer.MAX_VALUE) {
+                    throw invalidFormat();
+                }
+            }
+            return (int) (negative ? -value : value);
+        }
+
+        private IllegalStateException invalidFormat() {
+            return new IllegalStateException("[ERROR] 상품 정보 형식이 올바르지 않습니다.");
+        }
+    }
+}
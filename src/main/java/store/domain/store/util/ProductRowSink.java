@@ -0,0 +1,30 @@
+package store.domain.store.util;
+
+/**
+ * 상품 파일을 읽는 쪽이 행마다 상품 객체를 만들지 않고 저장소에 값을 바로 넘기는 통로.
+ * 프로모션명은 처음 나올 때 한 번 번호로 바꾸고, 행에는 번호만 넘긴다.
+ * 한 번에 하나의 스레드에서만 호출해야 한다.
+ */
+public interface ProductRowSink {
+
+    /**
+     * 프로모션명의 번호를 반환한다. 같은 이름에는 항상 같은 번호를 반환한다.
+     *
+     * @param promotionName 프로모션명 (프로모션이 없는 행이면 null)
+     * @return 프로모션 번호
+     */
+    int promotionLabel(String promotionName);
+
+    /**
+     * 상품 행 하나를 추가한다.
+     *
+     * @param name 상품명 UTF-8 바이트가 들어 있는 배열
+     * @param nameOffset 상품명 시작 위치
+     * @param nameLength 상품명 바이트 수
+     * @param price 가격
+     * @param quantity 재고 수량
+     * @param promotionLabel promotionLabel로 받은 프로모션 번호
+     * @throws IllegalStateException 같은 상품명과 프로모션 여부의 행이 이미 있는 경우
+     */
+    void add(byte[] name, int nameOffset, int nameLength, int price, int quantity, int promotionLabel);
+}
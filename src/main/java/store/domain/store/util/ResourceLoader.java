@@ -2,10 +2,13 @@ package store.domain.store.util;
 
 import store.domain.store.domain.Product;
 import store.domain.store.domain.Promotion;
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
@@ -13,10 +16,13 @@ import java.util.List;
 
 /**
  * 리소스 파일에서 데이터를 읽어오는 유틸리티 클래스.
+ * 텍스트 파일과 CatalogCompiler로 만든 바이너리 카탈로그를 모두 읽을 수 있으며, 형식은 파일 앞부분으로 판별한다.
  */
 public final class ResourceLoader {
   private static final String PRODUCTS_FILE = "products.md";
   private static final String PROMOTIONS_FILE = "promotions.md";
+  private static final String COMPILED_CATALOG_FILE = "catalog.bin";
+  private static final int MAGIC_BYTES = Integer.BYTES;
   private static final String DELIMITER = ",";
   
   // Products 관련 상수
@@ -39,15 +45,31 @@ public final class ResourceLoader {
 
   /**
    * products.md 파일에서 상품 정보를 읽어 Product 객체 리스트로 반환한다.
+   * 클래스패스에 catalog.bin이 있으면 그 파일을 대신 읽는다.
    *
    * @return 상품 목록
    * @throws IllegalStateException 파일을 찾을 수 없거나 읽기에 실패한 경우
    */
   public static List<Product> loadProducts() {
+    return loadProducts(getCatalogStream(PRODUCTS_FILE));
+  }
+
+  /**
+   * 주어진 스트림에서 products.md 형식 또는 바이너리 카탈로그의 상품 정보를 읽어 Product 객체 리스트로 반환한다.
+   * 스트림은 읽은 뒤 닫힌다.
+   *
+   * @param productsStream products.md 형식 또는 바이너리 카탈로그 입력 스트림
+   * @return 상품 목록
+   * @throws IllegalStateException 읽기에 실패한 경우
+   */
+  public static List<Product> loadProducts(InputStream productsStream) {
     List<Product> products = new ArrayList<>();
     
-    try (InputStream inputStream = getResourceFileStream(PRODUCTS_FILE)) {
-      BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
+    try (InputStream inputStream = new BufferedInputStream(productsStream)) {
+      if (isCompiled(inputStream)) {
+        return readCompiled(inputStream).products();
+      }
+      BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
       skipHeader(reader);
       
       String line;
@@ -71,15 +93,31 @@ public final class ResourceLoader {
 
   /**
    * promotions.md 파일에서 프로모션 정보를 읽어 Promotion 객체 리스트로 반환한다.
+   * 클래스패스에 catalog.bin이 있으면 그 파일을 대신 읽는다.
    *
    * @return 프로모션 목록
    * @throws IllegalStateException 파일을 찾을 수 없거나 읽기에 실패한 경우
    */
   public static List<Promotion> loadPromotions() {
+    return loadPromotions(getCatalogStream(PROMOTIONS_FILE));
+  }
+
+  /**
+   * 주어진 스트림에서 promotions.md 형식 또는 바이너리 카탈로그의 프로모션 정보를 읽어 Promotion 객체 리스트로 반환한다.
+   * 스트림은 읽은 뒤 닫힌다.
+   *
+   * @param promotionsStream promotions.md 형식 또는 바이너리 카탈로그 입력 스트림
+   * @return 프로모션 목록
+   * @throws IllegalStateException 읽기에 실패한 경우
+   */
+  public static List<Promotion> loadPromotions(InputStream promotionsStream) {
     List<Promotion> promotions = new ArrayList<>();
     
-    try (InputStream inputStream = getResourceFileStream(PROMOTIONS_FILE)) {
-      BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
+    try (InputStream inputStream = new BufferedInputStream(promotionsStream)) {
+      if (isCompiled(inputStream)) {
+        return readCompiled(inputStream).promotions();
+      }
+      BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
       skipHeader(reader);
       
       String line;
@@ -106,6 +144,26 @@ public final class ResourceLoader {
     }
   }
 
+  // 클래스패스에 컴파일된 카탈로그가 있으면 텍스트 파일 대신 사용한다
+  private static InputStream getCatalogStream(String textFileName) {
+    InputStream compiled = ResourceLoader.class.getClassLoader().getResourceAsStream(COMPILED_CATALOG_FILE);
+    if (compiled != null) {
+      return compiled;
+    }
+    return getResourceFileStream(textFileName);
+  }
+
+  private static boolean isCompiled(InputStream inputStream) throws IOException {
+    inputStream.mark(MAGIC_BYTES);
+    byte[] head = inputStream.readNBytes(MAGIC_BYTES);
+    inputStream.reset();
+    return CompiledCatalog.isCompiled(ByteBuffer.wrap(head));
+  }
+
+  private static CompiledCatalog readCompiled(InputStream inputStream) throws IOException {
+    return CompiledCatalog.from(ByteBuffer.wrap(inputStream.readAllBytes()));
+  }
+
   private static InputStream getResourceFileStream(String fileName) {
     InputStream inputStream = ResourceLoader.class.getClassLoader().getResourceAsStream(fileName);
     if (inputStream == null) {
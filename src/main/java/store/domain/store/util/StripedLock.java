@@ -0,0 +1,72 @@
+package store.domain.store.util;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 키를 해시하여 고정된 개수의 락 중 하나에 대응시키는 스트라이프 락.
+ * 여러 키를 한번에 잠글 때는 항상 스트라이프 번호 오름차순으로 획득하므로 교착 상태가 발생하지 않는다.
+ */
+public final class StripedLock {
+    private static final int STRIPES_PER_PROCESSOR = 16;
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    private StripedLock(int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * 주어진 개수 이상의 2의 거듭제곱 개 스트라이프를 갖는 락을 생성한다.
+     */
+    public static StripedLock of(final int stripeCount) {
+        return new StripedLock(stripeCount);
+    }
+
+    /**
+     * 프로세서 수에 비례하는 스트라이프를 갖는 락을 생성한다.
+     */
+    public static StripedLock forAvailableProcessors() {
+        return new StripedLock(Runtime.getRuntime().availableProcessors() * STRIPES_PER_PROCESSOR);
+    }
+
+    /**
+     * 주어진 키들에 해당하는 스트라이프를 모두 잠근 상태에서 작업을 실행한다.
+     *
+     * @param keys 잠글 키 목록
+     * @param action 실행할 작업
+     * @return 작업 결과
+     */
+    public <T> T execute(Collection<String> keys, Supplier<T> action) {
+        int[] indexes = keys.stream()
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        int locked = 0;
+        try {
+            for (int index : indexes) {
+                stripes[index].lock();
+                locked++;
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    private int stripeIndex(String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
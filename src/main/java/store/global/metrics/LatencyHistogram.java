@@ -0,0 +1,135 @@
+package store.global.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 지연 시간을 고정된 구간에 세어 두는 히스토그램.
+ *
+ * <p>구간은 2의 거듭제곱마다 8개로 나누므로 백분위 값의 상대 오차는 12.5% 이하다.
+ * 구간마다 LongAdder를 두어 여러 스레드가 동시에 기록해도 서로 기다리지 않고, 기록할 때 객체를 만들지 않는다.
+ * 약 18분(2^40 나노초)을 넘는 값은 마지막 구간에 센다.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final long MAX_TRACKABLE_NANOS = (1L << 40) - 1;
+    private static final int BUCKET_COUNT = bucketIndex(MAX_TRACKABLE_NANOS) + 1;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final LongAdder[] buckets;
+    private final LongAdder totalNanos;
+
+    private LatencyHistogram() {
+        this.buckets = new LongAdder[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new LongAdder();
+        }
+        this.totalNanos = new LongAdder();
+    }
+
+    public static LatencyHistogram create() {
+        return new LatencyHistogram();
+    }
+
+    /**
+     * 지연 시간 하나를 기록한다.
+     *
+     * @param nanos 지연 시간(나노초). 음수는 0으로 기록한다.
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_TRACKABLE_NANOS);
+        buckets[bucketIndex(value)].increment();
+        totalNanos.add(value);
+    }
+
+    /**
+     * 지금까지의 기록으로 백분위 값을 계산한다.
+     * 기록 중에 읽으면 진행 중인 기록 일부가 빠질 수 있지만 각 값은 항상 기록된 값 범위 안에 있다.
+     */
+    public LatencySnapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        if (count == 0) {
+            return LatencySnapshot.EMPTY;
+        }
+        return new LatencySnapshot(
+                count,
+                totalNanos.sum() / (double) count / NANOS_PER_MILLI,
+                percentileMillis(counts, count, 50),
+                percentileMillis(counts, count, 90),
+                percentileMillis(counts, count, 99),
+                percentileMillis(counts, count, 99.9),
+                percentileMillis(counts, count, 100)
+        );
+    }
+
+    /**
+     * 기록을 모두 지운다. 지우는 도중의 기록은 남을 수도 있다.
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        totalNanos.reset();
+    }
+
+    // 구간의 상한을 백분위 값으로 사용한다(nearest-rank)
+    private static double percentileMillis(long[] counts, long count, double percentile) {
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBound(i) / NANOS_PER_MILLI;
+            }
+        }
+        return upperBound(counts.length - 1) / NANOS_PER_MILLI;
+    }
+
+    // 8 미만은 값 그대로, 그 이상은 최상위 비트 위치와 그 아래 3비트로 구간을 정한다
+    private static int bucketIndex(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        return lower + width - 1;
+    }
+
+    /**
+     * 히스토그램의 한 시점 요약. 시간 값은 모두 밀리초다.
+     *
+     * @param count 기록 수
+     * @param meanMillis 평균
+     * @param p50Millis 50번째 백분위
+     * @param p90Millis 90번째 백분위
+     * @param p99Millis 99번째 백분위
+     * @param p999Millis 99.9번째 백분위
+     * @param maxMillis 가장 큰 값이 속한 구간의 상한
+     */
+    public record LatencySnapshot(
+            long count,
+            double meanMillis,
+            double p50Millis,
+            double p90Millis,
+            double p99Millis,
+            double p999Millis,
+            double maxMillis
+    ) {
+        static final LatencySnapshot EMPTY = new LatencySnapshot(0, 0, 0, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,163 @@
+package store.global.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import store.global.metrics.LatencyHistogram.LatencySnapshot;
+
+/**
+ * 서비스 메서드의 지연 시간, 상품 저장소의 조회/저장 횟수, 상품별 재고 부족 거절 수, 영수증 기록 실패 수를 모으는 지표 저장소.
+ *
+ * <p>기록은 LongAdder에 값을 더하는 것뿐이라 여러 계산대가 동시에 기록해도 서로 기다리지 않는다.
+ * 백분위 계산처럼 비용이 드는 일은 JMX로 값을 읽을 때만 한다.
+ * 기본 인스턴스는 처음 사용할 때 플랫폼 MBean 서버에 store:type=StoreMetrics 이름으로 등록한다.
+ * 여러 매장 인스턴스를 띄운 경우(재생 도구 등)에도 기본 인스턴스를 넘기면 모든 매장의 기록이 여기에 합산되고,
+ * create로 만든 인스턴스를 넘기면 그 매장의 기록만 따로 모은다.
+ */
+public final class StoreMetrics implements StoreMetricsMXBean {
+    private static final String OBJECT_NAME = "store:type=StoreMetrics";
+
+    private final LatencyHistogram[] latencies;
+    private final LongAdder productLookups;
+    private final LongAdder productSaves;
+    private final Map<String, LongAdder> stockOuts;
+    private final LongAdder receiptRecordFailures;
+
+    private StoreMetrics() {
+        this.latencies = new LatencyHistogram[Operation.values().length];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = LatencyHistogram.create();
+        }
+        this.productLookups = new LongAdder();
+        this.productSaves = new LongAdder();
+        this.stockOuts = new ConcurrentHashMap<>();
+        this.receiptRecordFailures = new LongAdder();
+    }
+
+    private static class LazyHolder {
+        private static final StoreMetrics INSTANCE = createRegistered();
+    }
+
+    private static StoreMetrics createRegistered() {
+        StoreMetrics metrics = new StoreMetrics();
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            throw new IllegalStateException("[ERROR] 매장 지표를 JMX에 등록할 수 없습니다.", e);
+        }
+        return metrics;
+    }
+
+    /**
+     * JMX에 등록된 지표 저장소를 반환한다.
+     */
+    public static StoreMetrics getInstance() {
+        return LazyHolder.INSTANCE;
+    }
+
+    /**
+     * JMX에 등록하지 않는 별도의 지표 저장소를 생성한다. 다른 매장의 기록과 섞이지 않아야 할 때 사용한다.
+     */
+    public static StoreMetrics create() {
+        return new StoreMetrics();
+    }
+
+    /**
+     * 작업의 지연 시간을 기록한다.
+     *
+     * @param operation 작업
+     * @param startNanos 작업을 시작할 때의 System.nanoTime() 값
+     */
+    public void recordLatency(Operation operation, long startNanos) {
+        latencies[operation.ordinal()].record(System.nanoTime() - startNanos);
+    }
+
+    public void recordProductLookup() {
+        productLookups.increment();
+    }
+
+    public void recordProductSave() {
+        productSaves.increment();
+    }
+
+    /**
+     * 재고 부족으로 거절된 구매 줄을 센다.
+     */
+    public void recordStockOut(String productName) {
+        stockOuts.computeIfAbsent(productName, name -> new LongAdder()).increment();
+    }
+
+    /**
+     * 완료된 구매의 영수증을 기록하지 못한 횟수를 센다.
+     */
+    public void recordReceiptRecordFailure() {
+        receiptRecordFailures.increment();
+    }
+
+    @Override
+    public Map<String, LatencySnapshot> getLatencies() {
+        Map<String, LatencySnapshot> snapshots = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            snapshots.put(operation.methodName, latencies[operation.ordinal()].snapshot());
+        }
+        return snapshots;
+    }
+
+    @Override
+    public long getProductLookupCount() {
+        return productLookups.sum();
+    }
+
+    @Override
+    public long getProductSaveCount() {
+        return productSaves.sum();
+    }
+
+    @Override
+    public Map<String, Long> getStockOutsByProduct() {
+        Map<String, Long> counts = new TreeMap<>();
+        stockOuts.forEach((name, count) -> counts.put(name, count.sum()));
+        return counts;
+    }
+
+    @Override
+    public long getReceiptRecordFailureCount() {
+        return receiptRecordFailures.sum();
+    }
+
+    @Override
+    public void reset() {
+        for (LatencyHistogram histogram : latencies) {
+            histogram.reset();
+        }
+        productLookups.reset();
+        productSaves.reset();
+        stockOuts.clear();
+        receiptRecordFailures.reset();
+    }
+
+    /**
+     * 지연 시간을 재는 서비스 작업.
+     */
+    public enum Operation {
+        PURCHASE("purchase"),
+        PURCHASE_BATCH("purchaseBatch"),
+        QUOTE("quote"),
+        GET_PRODUCTS("getProducts"),
+        CAN_ADD_PROMOTION_PURCHASE("canAddPromotionPurchase"),
+        GET_NORMAL_PURCHASE_QUANTITY("getNormalPurchaseQuantity"),
+        GET_PROMOTION_FREE_COUNT("getPromotionFreeCount"),
+        FIND_RECEIPT("findReceipt");
+
+        private final String methodName;
+
+        Operation(String methodName) {
+            this.methodName = methodName;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package store.global.metrics;
+
+import java.util.Map;
+import store.global.metrics.LatencyHistogram.LatencySnapshot;
+
+/**
+ * JMX로 공개하는 매장 지표. 이름은 store:type=StoreMetrics 이다.
+ */
+public interface StoreMetricsMXBean {
+
+    /**
+     * 서비스 메서드별 지연 시간 요약을 반환한다. 키는 메서드 이름이다.
+     */
+    Map<String, LatencySnapshot> getLatencies();
+
+    /**
+     * 상품 저장소의 상품 조회 횟수를 반환한다.
+     */
+    long getProductLookupCount();
+
+    /**
+     * 상품 저장소의 상품 저장 횟수를 반환한다.
+     */
+    long getProductSaveCount();
+
+    /**
+     * 재고 부족으로 거절된 구매 줄의 수를 상품명별로 반환한다.
+     */
+    Map<String, Long> getStockOutsByProduct();
+
+    /**
+     * 구매는 완료되었지만 영수증 기록(ReceiptLog, ReceiptStore)에 실패한 횟수를 반환한다.
+     */
+    long getReceiptRecordFailureCount();
+
+    /**
+     * 모든 지표를 0으로 되돌린다.
+     */
+    void reset();
+}
@@ -0,0 +1,121 @@
+package store.domain.console;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+import store.domain.store.dao.ProductRepository;
+import store.domain.store.dao.PromotionRepository;
+import store.domain.store.dao.StockJournal;
+import store.domain.store.domain.Product;
+import store.domain.store.presentation.StoreController;
+import store.domain.store.service.StoreServiceImpl;
+
+@Timeout(value = 30, unit = TimeUnit.SECONDS)
+class CheckoutServerTest {
+    @TempDir
+    Path directory;
+
+    private final ProductRepository repository = ProductRepository.from(List.of(
+            Product.of("콜라", 1000, 10, "null"),
+            Product.of("물", 500, 5, "null")
+    ));
+    private CheckoutServer server;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    void 입력을_기다리는_세션이_있어도_다른_세션의_구매를_처리한다() throws Exception {
+        start();
+        try (SocketChannel waiting = connect(); SocketChannel other = connect()) {
+            send(waiting, "[콜라-3]\n");
+            awaitActiveSessions(2);
+
+            send(other, "[콜라-2],[물-1]\nN\nN\n");
+            String otherOutput = readToEnd(other);
+            send(waiting, "N\nN\n");
+            String waitingOutput = readToEnd(waiting);
+
+            assertThat(otherOutput).contains("내실돈\t\t\t 2,500");
+            assertThat(waitingOutput).contains("내실돈\t\t\t 3,000");
+        }
+
+        // 두 세션이 같은 저장소의 재고를 차감한다
+        assertThat(repository.findNormalProduct("콜라").orElseThrow().getQuantity()).isEqualTo(5);
+        assertThat(repository.findNormalProduct("물").orElseThrow().getQuantity()).isEqualTo(4);
+    }
+
+    @Test
+    void 재고_기록에_실패하면_세션에_오류를_보내고_연결을_닫는다() throws Exception {
+        StockJournal journal = StockJournal.open(directory, StockJournal.Options.defaults());
+        repository.attachJournal(journal);
+        journal.close();
+        start();
+
+        try (SocketChannel channel = connect()) {
+            send(channel, "[콜라-3]\nN\nN\n");
+
+            assertThat(readToEnd(channel)).contains("[ERROR] 재고 기록이 이미 닫혔습니다.");
+        }
+        assertThat(repository.findNormalProduct("콜라").orElseThrow().getQuantity()).isEqualTo(10);
+        awaitActiveSessions(0);
+    }
+
+    private void start() throws IOException {
+        StoreController controller = StoreController.of(
+                StoreServiceImpl.of(repository, PromotionRepository.from(List.of())));
+        server = CheckoutServer.openTcp(0, controller);
+        Thread serving = new Thread(() -> {
+            try {
+                server.serve();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        serving.setDaemon(true);
+        serving.start();
+    }
+
+    private SocketChannel connect() throws IOException {
+        return SocketChannel.open(server.address());
+    }
+
+    private void awaitActiveSessions(int count) throws InterruptedException {
+        while (server.activeSessions() != count) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void send(SocketChannel channel, String input) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    private static String readToEnd(SocketChannel channel) throws IOException {
+        channel.shutdownOutput();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        while (channel.read(buffer) >= 0) {
+            output.write(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
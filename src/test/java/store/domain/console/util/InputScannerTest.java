@@ -0,0 +1,102 @@
+package store.domain.console.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class InputScannerTest {
+    private final InputScanner scanner = InputScanner.create();
+
+    @Test
+    void 상품명_위치와_수량을_기록한다() {
+        String input = "[콜라-10],[감자칩-1]";
+
+        assertThat(scanner.scanCart(input)).isTrue();
+
+        assertThat(scanner.itemCount()).isEqualTo(2);
+        assertThat(scanner.input()).isSameAs(input);
+        assertThat(input.substring(scanner.itemNameStart(0), scanner.itemNameEnd(0))).isEqualTo("콜라");
+        assertThat(scanner.itemQuantity(0)).isEqualTo(10);
+        assertThat(scanner.itemName(1)).isEqualTo("감자칩");
+        assertThat(scanner.itemQuantity(1)).isEqualTo(1);
+        assertThat(scanner.errorPosition()).isEqualTo(InputScanner.NO_ERROR);
+    }
+
+    @Test
+    void 배열보다_많은_상품도_모두_기록한다() {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            if (i > 0) {
+                input.append(',');
+            }
+            input.append("[상품").append(i).append('-').append(i + 1).append(']');
+        }
+
+        assertThat(scanner.scanCart(input)).isTrue();
+
+        assertThat(scanner.itemCount()).isEqualTo(20);
+        assertThat(scanner.itemName(19)).isEqualTo("상품19");
+        assertThat(scanner.itemQuantity(19)).isEqualTo(20);
+    }
+
+    @Test
+    void 처음_어긋난_위치를_알려준다() {
+        assertThat(scanner.scanCart("콜라-1")).isFalse();
+        assertThat(scanner.errorPosition()).isZero();
+
+        assertThat(scanner.scanCart("[콜라-1]/[물-1]")).isFalse();
+        assertThat(scanner.errorPosition()).isEqualTo(6);
+
+        assertThat(scanner.scanCart("[-1]")).isFalse();
+        assertThat(scanner.errorPosition()).isEqualTo(1);
+
+        assertThat(scanner.scanCart("[콜라-]")).isFalse();
+        assertThat(scanner.errorPosition()).isEqualTo(4);
+
+        assertThat(scanner.scanCart("[콜라-1")).isFalse();
+        assertThat(scanner.errorPosition()).isEqualTo(5);
+
+        assertThat(scanner.scanCart("")).isFalse();
+        assertThat(scanner.errorPosition()).isZero();
+    }
+
+    @Test
+    void int_범위를_넘는_수량은_거부한다() {
+        assertThat(scanner.scanCart("[콜라-2147483647]")).isTrue();
+
+        assertThat(scanner.scanCart("[콜라-2147483648]")).isFalse();
+        assertThat(scanner.errorPosition()).isEqualTo(13);
+    }
+
+    @Test
+    void 실패한_뒤에도_다음_입력을_처음부터_읽는다() {
+        scanner.scanCart("[콜라-1],[물-1]");
+        scanner.scanCart("[콜라");
+
+        assertThat(scanner.scanCart("[물-3]")).isTrue();
+
+        assertThat(scanner.itemCount()).isEqualTo(1);
+        assertThat(scanner.itemName(0)).isEqualTo("물");
+    }
+
+    @Test
+    void Y와_N은_대소문자를_구분하지_않는다() {
+        assertThat(scanner.scanYesNo("Y")).isEqualTo(InputScanner.YES);
+        assertThat(scanner.scanYesNo("y")).isEqualTo(InputScanner.YES);
+        assertThat(scanner.scanYesNo("N")).isEqualTo(InputScanner.NO);
+        assertThat(scanner.scanYesNo("n")).isEqualTo(InputScanner.NO);
+        assertThat(scanner.errorPosition()).isEqualTo(InputScanner.NO_ERROR);
+    }
+
+    @Test
+    void 올바르지_않은_응답의_위치를_알려준다() {
+        assertThat(scanner.scanYesNo("X")).isEqualTo(InputScanner.INVALID);
+        assertThat(scanner.errorPosition()).isZero();
+
+        assertThat(scanner.scanYesNo("YES")).isEqualTo(InputScanner.INVALID);
+        assertThat(scanner.errorPosition()).isEqualTo(1);
+
+        assertThat(scanner.scanYesNo("")).isEqualTo(InputScanner.INVALID);
+        assertThat(scanner.errorPosition()).isZero();
+    }
+}
@@ -0,0 +1,58 @@
+package store.domain.console.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+
+class LineTemplateTest {
+
+    @Test
+    void String_format과_같은_줄을_만든다() {
+        String format = "- %s %,d원 %d개%s";
+        Object[] args = {"콜라", 1_000, 10, " 탄산2+1"};
+        StringBuilder out = new StringBuilder();
+
+        LineTemplate.compile(format).appendTo(out, args);
+
+        assertThat(out).hasToString(String.format(Locale.US, format, args));
+    }
+
+    @Test
+    void 퍼센트_기호와_앞뒤_문자를_그대로_쓴다() {
+        StringBuilder out = new StringBuilder("앞 ");
+
+        LineTemplate.compile("%d%% 할인%%").appendTo(out, 30);
+
+        assertThat(out).hasToString("앞 30% 할인%");
+    }
+
+    @Test
+    void 천_단위_구분_기호를_로케일과_관계없이_붙인다() {
+        long[] values = {0, 7, 999, 1_000, -1_000, 12_345_678, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (long value : values) {
+            StringBuilder out = new StringBuilder();
+
+            LineTemplate.appendGrouped(out, value);
+
+            assertThat(out).as("%d", value).hasToString(String.format(Locale.US, "%,d", value));
+        }
+    }
+
+    @Test
+    void 지원하지_않는_변환은_거부한다() {
+        assertThatThrownBy(() -> LineTemplate.compile("%f원"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("[ERROR]");
+    }
+
+    @Test
+    void 인자_수가_맞지_않으면_거부한다() {
+        LineTemplate template = LineTemplate.compile("%s\t\t%d");
+
+        assertThatThrownBy(() -> template.appendTo(new StringBuilder(), "콜라"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("[ERROR]");
+    }
+}
@@ -0,0 +1,56 @@
+package store.domain.store.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class MinimalPerfectHashTest {
+
+    @Test
+    void 문자열을_바로_해시한_값은_UTF8_바이트의_해시와_같다() {
+        for (String name : new String[]{"", "cola", "콜라", "감자칩 🍟", "a\uD800b", "\uDC00"}) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+
+            assertThat(MinimalPerfectHash.hashOf(name, 0, name.length()))
+                    .as(name)
+                    .isEqualTo(MinimalPerfectHash.hashOf(bytes));
+        }
+    }
+
+    @Test
+    void 문자열_구간의_해시는_잘라낸_문자열의_해시와_같다() {
+        String line = "[콜라-3],[물-1]";
+
+        assertThat(MinimalPerfectHash.hashOf(line, 1, 3))
+                .isEqualTo(MinimalPerfectHash.hashOf("콜라".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void 모든_키를_서로_다른_칸에_빈틈없이_배치한다() {
+        int count = 10_000;
+        long[] hashes = new long[count];
+        for (int i = 0; i < count; i++) {
+            hashes[i] = MinimalPerfectHash.hashOf(("상품" + i).getBytes(StandardCharsets.UTF_8));
+        }
+
+        MinimalPerfectHash perfectHash = MinimalPerfectHash.build(hashes);
+
+        Set<Integer> slots = new HashSet<>();
+        for (long hash : hashes) {
+            int slot = perfectHash.slotOf(hash);
+            assertThat(slot).isBetween(0, count - 1);
+            slots.add(slot);
+        }
+        assertThat(slots).hasSize(count);
+    }
+
+    @Test
+    void 키가_없으면_칸을_찾지_않는다() {
+        MinimalPerfectHash perfectHash = MinimalPerfectHash.build(new long[0]);
+
+        assertThat(perfectHash.slotOf(MinimalPerfectHash.hashOf(new byte[0]))).isEqualTo(-1);
+    }
+}
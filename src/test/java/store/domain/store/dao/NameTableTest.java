@@ -0,0 +1,93 @@
+package store.domain.store.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class NameTableTest {
+
+    @Test
+    void 적재_중과_적재_후에_같은_번호를_찾는다() {
+        NameTable table = new NameTable();
+        int cola = table.add("콜라");
+        int water = table.add("물");
+        int fries = table.add("감자칩 🍟");
+
+        assertThat(table.find("콜라")).isEqualTo(cola);
+        assertThat(table.find("감자칩 🍟")).isEqualTo(fries);
+
+        table.seal();
+
+        assertThat(table.find("콜라")).isEqualTo(cola);
+        assertThat(table.find("물")).isEqualTo(water);
+        assertThat(table.find("감자칩 🍟")).isEqualTo(fries);
+        assertThat(table.size()).isEqualTo(3);
+    }
+
+    @Test
+    void 없는_상품명은_찾지_못한다() {
+        NameTable table = new NameTable();
+        table.add("콜라");
+        table.seal();
+
+        assertThat(table.find("사이다")).isEqualTo(-1);
+        assertThat(table.find("콜")).isEqualTo(-1);
+        assertThat(table.find("콜라콜라")).isEqualTo(-1);
+        assertThat(table.find("")).isEqualTo(-1);
+    }
+
+    @Test
+    void 문자열_구간으로_찾을_수_있다() {
+        NameTable table = new NameTable();
+        int water = table.add("물");
+        table.seal();
+        String line = "[콜라-3],[물-1]";
+
+        assertThat(table.find(line, 8, 9)).isEqualTo(water);
+        assertThat(table.find(line, 8, 10)).isEqualTo(-1);
+    }
+
+    @Test
+    void 바이트와_문자열로_찾은_번호가_같다() {
+        NameTable table = new NameTable();
+        table.add("a\uD800b");
+        int fries = table.add("감자칩 🍟");
+        table.seal();
+        byte[] bytes = "감자칩 🍟".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(table.find(bytes, 0, bytes.length)).isEqualTo(fries);
+        assertThat(table.find("a?b")).isEqualTo(table.find("a\uD800b"));
+    }
+
+    @Test
+    void 적재가_끝난_뒤의_상품명은_번호마다_한_번만_만든다() {
+        NameTable table = new NameTable();
+        int cola = table.add("콜라");
+        table.seal();
+
+        assertThat(table.nameOf(cola)).isEqualTo("콜라");
+        assertThat(table.nameOf(cola)).isSameAs(table.nameOf(cola));
+    }
+
+    @Test
+    void 복원한_테이블은_저장한_번호를_유지한다() {
+        byte[] bytes = "콜라물".getBytes(StandardCharsets.UTF_8);
+
+        NameTable table = NameTable.restore(bytes, new int[]{0, 6, 9});
+
+        assertThat(table.find("콜라")).isZero();
+        assertThat(table.find("물")).isEqualTo(1);
+        assertThat(table.nameOf(1)).isEqualTo("물");
+    }
+
+    @Test
+    void 같은_이름이_두_번_있으면_복원하지_않는다() {
+        byte[] bytes = "물물".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> NameTable.restore(bytes, new int[]{0, 3, 6}))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("[ERROR]");
+    }
+}
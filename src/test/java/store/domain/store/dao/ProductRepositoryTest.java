@@ -0,0 +1,84 @@
+package store.domain.store.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import store.domain.store.domain.Product;
+import store.global.metrics.StoreMetrics;
+
+class ProductRepositoryTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void 여러_상품의_재고를_한번에_차감하고_기록한다() {
+        ProductRepository repository = repository();
+        StockJournal journal = StockJournal.open(directory, StockJournal.Options.defaults());
+        repository.attachJournal(journal);
+        Product cola = repository.findPromotionProduct("콜라").orElseThrow();
+        Product water = repository.findNormalProduct("물").orElseThrow();
+
+        repository.removeStocks(Map.of(cola, 3, water, 2));
+        journal.close();
+
+        assertThat(cola.getQuantity()).isEqualTo(7);
+        assertThat(water.getQuantity()).isEqualTo(3);
+        ProductRepository restored = repository();
+        restored.attachJournal(StockJournal.open(directory, StockJournal.Options.defaults()));
+        assertThat(restored.findPromotionProduct("콜라").orElseThrow().getQuantity()).isEqualTo(7);
+        assertThat(restored.findNormalProduct("물").orElseThrow().getQuantity()).isEqualTo(3);
+    }
+
+    @Test
+    void 재고가_부족한_상품이_있으면_아무_상품도_차감하지_않는다() {
+        ProductRepository repository = repository();
+        Product cola = repository.findPromotionProduct("콜라").orElseThrow();
+        Product water = repository.findNormalProduct("물").orElseThrow();
+
+        assertThatThrownBy(() -> repository.removeStocks(Map.of(cola, 3, water, 6)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(cola.getQuantity()).isEqualTo(10);
+        assertThat(water.getQuantity()).isEqualTo(5);
+    }
+
+    @Test
+    void 재고_기록에_실패하면_재고를_바꾸지_않는다() {
+        ProductRepository repository = repository();
+        StockJournal journal = StockJournal.open(directory, StockJournal.Options.defaults());
+        repository.attachJournal(journal);
+        Product cola = repository.findPromotionProduct("콜라").orElseThrow();
+        long version = repository.getVersion();
+        journal.close();
+
+        assertThatThrownBy(() -> repository.removeStock(cola, 3))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(cola.getQuantity()).isEqualTo(10);
+        assertThat(repository.getVersion()).isEqualTo(version);
+    }
+
+    @Test
+    void 조회와_저장_횟수는_생성할_때_받은_지표_저장소에_센다() {
+        StoreMetrics metrics = StoreMetrics.create();
+        ProductRepository repository = ProductRepository.from(List.of(Product.of("물", 500, 5, "null")), metrics);
+
+        repository.findNormalProduct("물");
+        repository.findPromotionProduct("물");
+
+        assertThat(metrics.getProductLookupCount()).isEqualTo(2);
+    }
+
+    private static ProductRepository repository() {
+        return ProductRepository.from(List.of(
+                Product.of("콜라", 1000, 10, "탄산2+1"),
+                Product.of("콜라", 1000, 10, "null"),
+                Product.of("물", 500, 5, "null")
+        ));
+    }
+}
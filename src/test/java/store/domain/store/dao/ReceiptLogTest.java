@@ -0,0 +1,74 @@
+package store.domain.store.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import store.domain.store.dao.ReceiptLog.LoggedItem;
+import store.domain.store.dao.ReceiptLog.LoggedReceipt;
+import store.domain.store.dto.response.PurchaseResponse;
+import store.domain.store.dto.response.ReceiptResponse;
+
+class ReceiptLogTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void 기록한_줄을_같은_영수증으로_읽는다() throws Exception {
+        ReceiptResponse receipt = ReceiptResponse.of(
+                List.of(PurchaseResponse.of("콜라", 3, 3000), PurchaseResponse.of("a:b;c%\t", 1, 500)),
+                List.of(PurchaseResponse.of("콜라", 1, 0)),
+                3500, 1000, 0, 2500);
+
+        try (ReceiptLog log = ReceiptLog.open(directory, "lane_2")) {
+            log.append(receipt);
+        }
+
+        List<Path> files = ReceiptLog.findLogFiles(directory);
+        assertThat(files).hasSize(1);
+        assertThat(files.get(0).getFileName()).hasToString("lane-lane_2.log");
+        byte[] bytes = Files.readAllBytes(files.get(0));
+        assertThat(bytes[bytes.length - 1]).isEqualTo((byte) '\n');
+
+        LoggedReceipt logged = ReceiptLog.parse(bytes, 0, bytes.length - 1).orElseThrow();
+        assertThat(logged.lane()).isEqualTo("lane_2");
+        assertThat(logged.totalAmount()).isEqualTo(3500);
+        assertThat(logged.promotionDiscountAmount()).isEqualTo(1000);
+        assertThat(logged.finalAmount()).isEqualTo(2500);
+        assertThat(logged.items()).containsExactly(
+                new LoggedItem("콜라", 3, 3000), new LoggedItem("a:b;c%\t", 1, 500));
+        assertThat(logged.freeItems()).containsExactly(new LoggedItem("콜라", 1, 1000));
+    }
+
+    @Test
+    void 형식이_맞지_않는_줄은_읽지_않는다() {
+        byte[] truncated = "1\t2024-01-01T10:00\t3500\t1000".getBytes(StandardCharsets.UTF_8);
+        byte[] notNumber = "1\tT\t35x0\t0\t0\t0\t콜라:1:1000\t".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(ReceiptLog.parse(truncated, 0, truncated.length)).isEmpty();
+        assertThat(ReceiptLog.parse(notNumber, 0, notNumber.length)).isEmpty();
+    }
+
+    @Test
+    void 사용할_수_없는_계산대_이름은_거부한다() {
+        assertThatThrownBy(() -> ReceiptLog.open(directory, "../1"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("[ERROR]");
+    }
+
+    @Test
+    void 기록하지_못하면_IllegalStateException을_던진다() throws Exception {
+        Path blocked = Files.createFile(directory.resolve("blocked"));
+        ReceiptResponse receipt = ReceiptResponse.of(
+                List.of(PurchaseResponse.of("콜라", 1, 1000)), List.of(), 1000, 0, 0, 1000);
+
+        assertThatThrownBy(() -> ReceiptLog.open(blocked, "1").append(receipt))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("[ERROR]");
+    }
+}
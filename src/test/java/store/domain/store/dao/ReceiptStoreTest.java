@@ -0,0 +1,129 @@
+package store.domain.store.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import store.domain.store.dao.ReceiptStore.StoredReceipt;
+import store.domain.store.dto.response.PurchaseResponse;
+import store.domain.store.dto.response.ReceiptResponse;
+
+class ReceiptStoreTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void 다시_열어도_번호로_같은_영수증을_찾고_다음_번호부터_이어서_붙인다() {
+        try (ReceiptStore store = ReceiptStore.open(directory, 1)) {
+            assertThat(store.append(receipt(1))).isEqualTo(1);
+            assertThat(store.append(receipt(2))).isEqualTo(2);
+        }
+
+        try (ReceiptStore store = ReceiptStore.open(directory, 1)) {
+            assertThat(store.size()).isEqualTo(2);
+            StoredReceipt stored = store.find(2).orElseThrow();
+            assertThat(stored.id()).isEqualTo(2);
+            assertThat(stored.receipt().getReceiptId()).isEqualTo(2);
+            assertThat(stored.receipt().getGroupedItems()).extracting(PurchaseResponse::getName)
+                    .containsExactly("콜라", "물");
+            assertThat(stored.receipt().getFinalAmount()).isEqualTo(2000);
+            assertThat(store.find(0)).isEmpty();
+            assertThat(store.find(3)).isEmpty();
+
+            assertThat(store.append(receipt(3))).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void 온전히_기록되지_않은_마지막_영수증은_버린다() throws IOException {
+        try (ReceiptStore store = ReceiptStore.open(directory, 1)) {
+            store.append(receipt(1));
+            store.append(receipt(2));
+            store.append(receipt(3));
+        }
+        flipLastWrittenByte(segments().get(0));
+
+        try (ReceiptStore store = ReceiptStore.open(directory, 1)) {
+            assertThat(store.size()).isEqualTo(2);
+            assertThat(store.find(3)).isEmpty();
+            assertThat(store.find(2).orElseThrow().receipt().getFinalAmount()).isEqualTo(2000);
+            assertThat(store.append(receipt(4))).isEqualTo(3);
+            assertThat(store.find(3).orElseThrow().receipt().getFinalAmount()).isEqualTo(4000);
+        }
+    }
+
+    @Test
+    void 세그먼트를_넘겨_기록한_영수증도_다시_열어_찾는다() throws IOException {
+        String longName = "상".repeat(100_000);
+        try (ReceiptStore store = ReceiptStore.open(directory, 1)) {
+            for (int i = 1; i <= 12; i++) {
+                store.append(ReceiptResponse.of(
+                        List.of(PurchaseResponse.of(longName, i, i * 1000)), List.of(), i * 1000, 0, 0, i * 1000));
+            }
+        }
+        assertThat(segments()).hasSizeGreaterThan(1);
+
+        try (ReceiptStore store = ReceiptStore.open(directory, 1)) {
+            assertThat(store.size()).isEqualTo(12);
+            for (int i = 1; i <= 12; i++) {
+                ReceiptResponse receipt = store.find(i).orElseThrow().receipt();
+                assertThat(receipt.getItems().get(0).getQuantity()).isEqualTo(i);
+                assertThat(receipt.getItems().get(0).getName()).isEqualTo(longName);
+            }
+        }
+    }
+
+    @Test
+    void 세그먼트_헤더가_손상되었으면_열지_않는다() throws IOException {
+        try (ReceiptStore store = ReceiptStore.open(directory, 1)) {
+            store.append(receipt(1));
+        }
+        try (FileChannel channel = FileChannel.open(segments().get(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES), 0);
+        }
+
+        assertThatThrownBy(() -> ReceiptStore.open(directory, 1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("[ERROR]");
+    }
+
+    @Test
+    void 꺼진_저장소는_기록하지_않는다() {
+        ReceiptStore store = ReceiptStore.disabled();
+
+        assertThat(store.append(receipt(1))).isEqualTo(ReceiptStore.NOT_STORED);
+        assertThat(store.find(1)).isEmpty();
+    }
+
+    private static ReceiptResponse receipt(int thousands) {
+        return ReceiptResponse.of(
+                List.of(PurchaseResponse.of("콜라", thousands, thousands * 1000), PurchaseResponse.of("물", 1, 0)),
+                List.of(), thousands * 1000, 0, 0, thousands * 1000);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".seg")).sorted().toList();
+        }
+    }
+
+    // 세그먼트는 미리 잡아 둔 크기만큼 0으로 채워져 있으므로, 0이 아닌 마지막 바이트는 마지막 레코드에 속한다
+    private static void flipLastWrittenByte(Path segment) throws IOException {
+        byte[] bytes = Files.readAllBytes(segment);
+        int last = bytes.length - 1;
+        while (bytes[last] == 0) {
+            last--;
+        }
+        bytes[last] ^= 0x7F;
+        Files.write(segment, bytes);
+    }
+}
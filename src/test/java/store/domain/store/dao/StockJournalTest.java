@@ -0,0 +1,216 @@
+package store.domain.store.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StockJournalTest {
+    private static final StockJournal.Options NO_ROLL = new StockJournal.Options(256, 5, 1024 * 1024);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void 다시_열면_기록된_재고_변경을_복원한다() {
+        try (StockJournal journal = StockJournal.open(directory, NO_ROLL)) {
+            journal.recordRemoval("콜라", StockColumns.PROMOTION, 3);
+            journal.recordRemoval("콜라", StockColumns.PROMOTION, 2);
+            journal.recordQuantity("물", StockColumns.NORMAL, 7);
+            journal.recordRemoval("물", StockColumns.NORMAL, 1);
+        }
+
+        try (StockJournal journal = StockJournal.open(directory, NO_ROLL)) {
+            assertThat(quantityOf(journal, "콜라", StockColumns.PROMOTION, 10)).isEqualTo(5);
+            assertThat(quantityOf(journal, "물", StockColumns.NORMAL, 10)).isEqualTo(6);
+        }
+    }
+
+    @Test
+    void 기록_도중_잘린_마지막_레코드는_무시한다() throws IOException {
+        try (StockJournal journal = StockJournal.open(directory, NO_ROLL)) {
+            journal.recordRemoval("콜라", StockColumns.PROMOTION, 3);
+            journal.recordRemoval("콜라", StockColumns.PROMOTION, 4);
+        }
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 2);
+        }
+
+        StockJournal reopened = StockJournal.open(directory, NO_ROLL);
+        assertThat(quantityOf(reopened, "콜라", StockColumns.PROMOTION, 10)).isEqualTo(7);
+        reopened.close();
+
+        // 잘린 레코드를 지워 두었으므로 닫힌 세그먼트로 합쳐도 손상으로 보지 않는다
+        assertThat(reopened.failure()).isEmpty();
+        try (StockJournal journal = StockJournal.open(directory, NO_ROLL)) {
+            assertThat(quantityOf(journal, "콜라", StockColumns.PROMOTION, 10)).isEqualTo(7);
+        }
+    }
+
+    @Test
+    void 마지막_레코드가_아닌_곳이_손상되면_열지_않는다() throws IOException {
+        try (StockJournal journal = StockJournal.open(directory, NO_ROLL)) {
+            journal.recordRemoval("콜라", StockColumns.PROMOTION, 3);
+            journal.recordRemoval("콜라", StockColumns.PROMOTION, 4);
+        }
+        Path segment = segments().get(0);
+        corruptFirstRecord(segment);
+        long size = Files.size(segment);
+
+        assertThatThrownBy(() -> StockJournal.open(directory, NO_ROLL))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(Files.size(segment)).isEqualTo(size);
+    }
+
+    @Test
+    void 닫힌_세그먼트가_손상되면_합치지_않고_저널을_실패_상태로_만든다() throws Exception {
+        StockJournal.Options rolling = new StockJournal.Options(1, 1, 64);
+        StockJournal journal = StockJournal.open(directory, rolling);
+        journal.recordRemoval("콜라", StockColumns.NORMAL, 1);
+        journal.awaitDurable();
+        Path segment = segments().get(0);
+        corruptFirstRecord(segment);
+
+        // 세그먼트가 교체되면 손상된 세그먼트를 합치려다 실패한다
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (journal.failure().isEmpty() && System.nanoTime() < deadline) {
+            try {
+                journal.recordRemoval("콜라", StockColumns.NORMAL, 1);
+                journal.awaitDurable();
+            } catch (IllegalStateException e) {
+                break;
+            }
+        }
+        journal.close();
+
+        assertThat(journal.failure()).containsInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> journal.recordRemoval("콜라", StockColumns.NORMAL, 1))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(segment).exists();
+        assertThat(directory.resolve("stock.checkpoint")).doesNotExist();
+    }
+
+    @Test
+    void 한_번에_기록한_묶음은_모두_복원한다() {
+        try (StockJournal journal = StockJournal.open(directory, NO_ROLL)) {
+            journal.record(StockJournal.Batch.create()
+                    .remove("콜라", StockColumns.PROMOTION, 3)
+                    .remove("물", StockColumns.NORMAL, 2));
+        }
+
+        try (StockJournal journal = StockJournal.open(directory, NO_ROLL)) {
+            assertThat(quantityOf(journal, "콜라", StockColumns.PROMOTION, 10)).isEqualTo(7);
+            assertThat(quantityOf(journal, "물", StockColumns.NORMAL, 10)).isEqualTo(8);
+        }
+    }
+
+    @Test
+    void 기록_도중_잘린_묶음은_일부도_적용하지_않는다() throws IOException {
+        try (StockJournal journal = StockJournal.open(directory, NO_ROLL)) {
+            journal.recordRemoval("콜라", StockColumns.PROMOTION, 1);
+            journal.record(StockJournal.Batch.create()
+                    .remove("콜라", StockColumns.PROMOTION, 3)
+                    .remove("물", StockColumns.NORMAL, 2));
+        }
+        // 두 번째 항목의 이름까지 남기고 CRC만 잘라 낸다
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - Integer.BYTES);
+        }
+
+        try (StockJournal journal = StockJournal.open(directory, NO_ROLL)) {
+            assertThat(quantityOf(journal, "콜라", StockColumns.PROMOTION, 10)).isEqualTo(9);
+            assertThat(journal.recoveredChanges())
+                    .noneMatch(change -> change.name().equals("물"));
+        }
+    }
+
+    @Test
+    void 닫힌_세그먼트는_체크포인트로_합치고_삭제한다() throws IOException {
+        StockJournal.Options rolling = new StockJournal.Options(1, 1, 64);
+        try (StockJournal journal = StockJournal.open(directory, rolling)) {
+            for (int i = 0; i < 50; i++) {
+                journal.recordRemoval("콜라", StockColumns.NORMAL, 1);
+                journal.awaitDurable();
+            }
+        }
+
+        // 마지막으로 쓰던 세그먼트만 남고 나머지는 체크포인트에 합쳐졌다
+        assertThat(directory.resolve("stock.checkpoint")).exists();
+        assertThat(segments()).hasSize(1);
+        try (StockJournal journal = StockJournal.open(directory, rolling)) {
+            assertThat(quantityOf(journal, "콜라", StockColumns.NORMAL, 100)).isEqualTo(50);
+        }
+    }
+
+    @Test
+    void 여러_계산대의_디스크_반영_대기를_하나의_fsync로_묶는다() throws Exception {
+        int lanes = 16;
+        long intervalMillis = 300;
+        StockJournal.Options options = new StockJournal.Options(lanes * 2, intervalMillis, 1024 * 1024);
+        ExecutorService executor = Executors.newFixedThreadPool(lanes);
+        try (StockJournal journal = StockJournal.open(directory, options)) {
+            long start = System.nanoTime();
+            List<Future<?>> waits = new ArrayList<>();
+            for (int lane = 0; lane < lanes; lane++) {
+                String name = "상품" + lane;
+                waits.add(executor.submit(() -> {
+                    journal.recordRemoval(name, StockColumns.NORMAL, 1);
+                    journal.awaitDurable();
+                }));
+            }
+            for (Future<?> wait : waits) {
+                wait.get();
+            }
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            // 계산대마다 fsync 주기를 따로 기다렸다면 16번의 주기가 걸린다
+            assertThat(elapsedMillis).isLessThan(intervalMillis * lanes / 2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long quantityOf(StockJournal journal, String name, int slot, int baseQuantity) {
+        return journal.recoveredChanges().stream()
+                .filter(change -> change.name().equals(name) && change.slot() == slot)
+                .findFirst()
+                .orElseThrow()
+                .applyTo(baseQuantity);
+    }
+
+    // 세그먼트 헤더, 레코드 길이, 항목 헤더 다음에 오는 첫 상품명의 바이트를 바꾼다
+    private static void corruptFirstRecord(Path segment) throws IOException {
+        int position = StockJournalFiles.SEGMENT_HEADER_BYTES + Integer.BYTES + StockJournalFiles.ENTRY_HEADER_BYTES;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1);
+            channel.read(buffer, position);
+            buffer.put(0, (byte) (buffer.get(0) ^ 0x5A));
+            buffer.rewind();
+            channel.write(buffer, position);
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".journal"))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
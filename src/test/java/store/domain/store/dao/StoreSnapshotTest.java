@@ -0,0 +1,97 @@
+package store.domain.store.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import store.domain.store.domain.Product;
+import store.domain.store.domain.Promotion;
+
+class StoreSnapshotTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void 저장한_상품과_재고를_파일_순서대로_복원한다() {
+        ProductRepository repository = ProductRepository.from(List.of(
+                Product.of("콜라", 1000, 10, "탄산2+1"),
+                Product.of("콜라", 1000, 10, "null"),
+                Product.of("물", 500, 5, "null"),
+                Product.of("감자칩", 1500, 5, "반짝할인")
+        ));
+        repository.removeStock(repository.findPromotionProduct("콜라").orElseThrow(), 4);
+        Path snapshot = directory.resolve("store.snapshot");
+
+        StoreSnapshot.write(snapshot, repository, promotions());
+        ProductRepository restored = ProductRepository.fromSnapshot(snapshot);
+
+        assertThat(rowsOf(restored)).containsExactly(
+                "콜라/1000/6/탄산2+1", "콜라/1000/10/null", "물/500/5/null", "감자칩/1500/5/반짝할인");
+        assertThat(restored.findNormalProduct("감자칩")).isEmpty();
+        assertThat(restored.findByNameAndQuantityGreaterThanEqual("콜라", 16).orElseThrow().getPromotionName())
+                .isEqualTo("탄산2+1");
+        assertThat(restored.findIdByName("없는상품")).isEqualTo(ProductRepository.NOT_FOUND);
+    }
+
+    @Test
+    void 복원한_저장소의_재고도_차감할_수_있다() {
+        Path snapshot = directory.resolve("store.snapshot");
+        StoreSnapshot.write(snapshot, ProductRepository.from(List.of(Product.of("물", 500, 5, "null"))),
+                promotions());
+        ProductRepository restored = ProductRepository.fromSnapshot(snapshot);
+
+        restored.removeStock(restored.findNormalProduct("물").orElseThrow(), 2);
+
+        assertThat(restored.findNormalProduct("물").orElseThrow().getQuantity()).isEqualTo(3);
+    }
+
+    @Test
+    void 프로모션을_복원한다() {
+        Path snapshot = directory.resolve("store.snapshot");
+        StoreSnapshot.write(snapshot, ProductRepository.from(List.of(Product.of("물", 500, 5, "null"))),
+                promotions());
+
+        List<Promotion> restored = StoreSnapshot.readPromotions(snapshot);
+
+        assertThat(restored).extracting(Promotion::getName).containsExactly("탄산2+1", "반짝할인");
+        assertThat(restored.get(1).getStartDate()).isEqualTo(LocalDate.of(2024, 11, 1));
+    }
+
+    @Test
+    void 빈_저장소도_저장하고_복원한다() {
+        Path snapshot = directory.resolve("store.snapshot");
+        StoreSnapshot.write(snapshot, ProductRepository.from(List.of()), promotions());
+
+        assertThat(ProductRepository.fromSnapshot(snapshot).findAll()).isEmpty();
+    }
+
+    @Test
+    void 스냅샷이_아닌_파일은_복원하지_않는다() throws IOException {
+        Path snapshot = directory.resolve("store.snapshot");
+        Files.write(snapshot, new byte[200]);
+
+        assertThatThrownBy(() -> ProductRepository.fromSnapshot(snapshot))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("[ERROR]");
+    }
+
+    private static PromotionRepository promotions() {
+        return PromotionRepository.from(List.of(
+                Promotion.of("탄산2+1", 2, 1, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)),
+                Promotion.of("반짝할인", 1, 1, LocalDate.of(2024, 11, 1), LocalDate.of(2024, 11, 30))
+        ));
+    }
+
+    private static List<String> rowsOf(ProductRepository repository) {
+        return repository.findAll().stream()
+                .map(product -> product.getName() + "/" + product.getPrice() + "/" + product.getQuantity() + "/"
+                        + product.getPromotionName())
+                .toList();
+    }
+}
@@ -0,0 +1,55 @@
+package store.domain.store.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class BestSellersTest {
+    private final BestSellers bestSellers = BestSellers.of(2);
+
+    @Test
+    void 판매_수량이_많은_순서로_정해진_개수만_남긴다() {
+        bestSellers.offer("콜라", 5);
+        bestSellers.offer("물", 3);
+        bestSellers.offer("사이다", 4);
+
+        assertThat(bestSellers.names()).containsExactly("콜라", "사이다");
+    }
+
+    @Test
+    void 밀려난_상품도_판매_수량이_늘면_다시_순위에_든다() {
+        bestSellers.offer("콜라", 5);
+        bestSellers.offer("물", 3);
+        bestSellers.offer("사이다", 4);
+        bestSellers.offer("물", 6);
+
+        assertThat(bestSellers.names()).containsExactly("물", "콜라");
+    }
+
+    @Test
+    void 순위에_있는_상품의_판매_수량이_늘면_자리를_옮긴다() {
+        bestSellers.offer("콜라", 5);
+        bestSellers.offer("물", 3);
+        bestSellers.offer("물", 8);
+
+        assertThat(bestSellers.names()).containsExactly("물", "콜라");
+    }
+
+    @Test
+    void 늦게_도착한_더_작은_판매_수량은_무시한다() {
+        bestSellers.offer("콜라", 5);
+        bestSellers.offer("물", 3);
+        bestSellers.offer("콜라", 2);
+
+        assertThat(bestSellers.names()).containsExactly("콜라", "물");
+    }
+
+    @Test
+    void 판매_수량이_같으면_먼저_오른_상품이_앞선다() {
+        bestSellers.offer("콜라", 5);
+        bestSellers.offer("물", 5);
+        bestSellers.offer("사이다", 5);
+
+        assertThat(bestSellers.names()).containsExactly("콜라", "물");
+    }
+}
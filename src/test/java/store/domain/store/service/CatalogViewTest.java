@@ -0,0 +1,79 @@
+package store.domain.store.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import store.domain.store.dao.ProductRepository;
+import store.domain.store.domain.Product;
+import store.domain.store.dto.response.ProductResponse;
+
+class CatalogViewTest {
+    private static final int PRODUCT_COUNT = CatalogView.GROUPS_PER_BLOCK * 3 + 5;
+
+    @Test
+    void 상품이_바뀌지_않으면_같은_목록을_반환한다() {
+        CatalogView view = CatalogView.of(ProductRepository.from(products()));
+
+        assertThat(view.getProducts()).isSameAs(view.getProducts());
+    }
+
+    @Test
+    void 바뀐_상품의_행만_다시_만들고_나머지_행은_그대로_둔다() {
+        ProductRepository repository = ProductRepository.from(products());
+        CatalogView view = CatalogView.of(repository);
+        List<ProductResponse> before = view.getProducts();
+
+        repository.save(Product.of("상품1", 1000, 0, "탄산2+1"));
+        repository.save(Product.of("상품" + (PRODUCT_COUNT - 1), 1000 + PRODUCT_COUNT - 1, 7, "null"));
+        List<ProductResponse> after = view.getProducts();
+
+        assertThat(rowsOf(after)).isEqualTo(rowsOf(CatalogView.of(repository).getProducts()));
+        assertThat(rowsOf(after)).contains("상품1/1000/0개/탄산2+1", "상품" + (PRODUCT_COUNT - 1) + "/" + (1000 + PRODUCT_COUNT - 1) + "/7개/null");
+        assertThat(after.get(0)).isSameAs(before.get(0));
+        assertThat(after.get(CatalogView.GROUPS_PER_BLOCK * 2)).isSameAs(before.get(CatalogView.GROUPS_PER_BLOCK * 2));
+    }
+
+    @Test
+    void 이전에_반환한_목록은_변경의_영향을_받지_않는다() {
+        ProductRepository repository = ProductRepository.from(products());
+        CatalogView view = CatalogView.of(repository);
+        List<String> before = rowsOf(view.getProducts());
+        List<ProductResponse> returned = view.getProducts();
+
+        repository.save(Product.of("상품2", 1002, 3, "null"));
+        view.getProducts();
+
+        assertThat(rowsOf(returned)).isEqualTo(before);
+    }
+
+    @Test
+    void 반환한_목록은_수정할_수_없다() {
+        List<ProductResponse> products = CatalogView.of(ProductRepository.from(products())).getProducts();
+
+        assertThatThrownBy(() -> products.remove(0)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    // 홀수 번째 상품은 프로모션 재고와 일반 재고를 함께 가진다
+    private static List<Product> products() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            if (i % 2 == 1) {
+                products.add(Product.of("상품" + i, 1000 + i, 5, "탄산2+1"));
+            }
+            products.add(Product.of("상품" + i, 1000 + i, 10, "null"));
+        }
+        return products;
+    }
+
+    private static List<String> rowsOf(List<ProductResponse> responses) {
+        List<String> rows = new ArrayList<>();
+        for (ProductResponse response : responses) {
+            rows.add(response.getName() + "/" + response.getPrice() + "/" + response.getQuantity() + "/"
+                    + response.getPromotionName());
+        }
+        return rows;
+    }
+}
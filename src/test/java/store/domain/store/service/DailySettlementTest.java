@@ -0,0 +1,75 @@
+package store.domain.store.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import store.domain.store.dao.ReceiptLog;
+import store.domain.store.dto.response.PurchaseResponse;
+import store.domain.store.dto.response.ReceiptResponse;
+import store.domain.store.service.DailySettlement.LaneSettlement;
+import store.domain.store.service.DailySettlement.ProductSettlement;
+import store.domain.store.service.DailySettlement.Report;
+
+class DailySettlementTest {
+    private static final int RECEIPTS_PER_LANE = 200;
+
+    @TempDir
+    Path directory;
+
+    private List<Path> files;
+
+    @BeforeEach
+    void 두_계산대의_영수증을_기록한다() throws IOException {
+        ReceiptResponse cola = ReceiptResponse.of(
+                List.of(PurchaseResponse.of("콜라", 3, 3000)),
+                List.of(PurchaseResponse.of("콜라", 1, 0)),
+                3000, 1000, 0, 2000);
+        ReceiptResponse water = ReceiptResponse.of(
+                List.of(PurchaseResponse.of("물", 2, 1000), PurchaseResponse.of("감자칩;대", 1, 1500)),
+                List.of(),
+                2500, 0, 750, 1750);
+        try (ReceiptLog first = ReceiptLog.open(directory, "1");
+             ReceiptLog second = ReceiptLog.open(directory, "2")) {
+            for (int i = 0; i < RECEIPTS_PER_LANE; i++) {
+                first.append(cola);
+                second.append(i % 2 == 0 ? cola : water);
+            }
+        }
+        files = ReceiptLog.findLogFiles(directory);
+        // 기록 도중 종료되어 줄바꿈 없이 잘린 마지막 줄
+        Files.write(files.get(1), "2\t2024-".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+
+    @Test
+    void 계산대별_상품별_합계를_구한다() {
+        Report report = DailySettlement.of(2, 1 << 20).settle(files);
+
+        assertThat(report.lanes().get("1")).isEqualTo(new LaneSettlement("1", 200, 600_000, 200_000, 0, 400_000));
+        assertThat(report.lanes().get("2")).isEqualTo(new LaneSettlement("2", 200, 550_000, 100_000, 75_000, 375_000));
+        assertThat(report.total().receipts()).isEqualTo(400);
+        assertThat(report.products().get("콜라")).isEqualTo(new ProductSettlement("콜라", 900, 300, 900_000, 300_000));
+        assertThat(report.products().get("감자칩;대")).isEqualTo(new ProductSettlement("감자칩;대", 100, 0, 150_000, 0));
+        assertThat(report.malformedLines()).isEqualTo(1);
+    }
+
+    @Test
+    void 구간_크기와_스레드_수와_관계없이_같은_결과를_낸다() {
+        Report expected = DailySettlement.of(1, Long.MAX_VALUE).settle(files);
+
+        for (long chunkBytes : new long[]{1, 7, 64, 1000, 4096}) {
+            for (int threads : new int[]{1, 4}) {
+                assertThat(DailySettlement.of(threads, chunkBytes).settle(files))
+                        .as("chunk %d, threads %d", chunkBytes, threads)
+                        .isEqualTo(expected);
+            }
+        }
+    }
+}
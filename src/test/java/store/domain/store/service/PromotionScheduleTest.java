@@ -0,0 +1,79 @@
+package store.domain.store.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import store.domain.store.dao.PromotionRepository;
+import store.domain.store.domain.Promotion;
+import store.domain.store.service.PromotionSchedule.ActivePromotions;
+
+class PromotionScheduleTest {
+    private static final LocalDate START = LocalDate.of(2024, 11, 1);
+    private static final LocalDate END = LocalDate.of(2024, 11, 30);
+    private static final LocalTime LAST_MOMENT = LocalTime.of(23, 59, 59);
+
+    private final PromotionRepository repository = PromotionRepository.from(List.of(
+            Promotion.of("탄산2+1", 2, 1, START, END)
+    ));
+    private final PromotionSchedule schedule = PromotionSchedule.from(repository);
+
+    @Test
+    void 시작일과_종료일에도_프로모션이_진행_중이다() {
+        assertThat(isActive(START.atStartOfDay())).isTrue();
+        assertThat(isActive(END.atTime(LAST_MOMENT))).isTrue();
+    }
+
+    @Test
+    void 시작일_전날과_종료일_다음_날에는_프로모션이_진행_중이_아니다() {
+        assertThat(isActive(START.minusDays(1).atTime(LAST_MOMENT))).isFalse();
+        assertThat(isActive(END.plusDays(1).atStartOfDay())).isFalse();
+    }
+
+    @Test
+    void 자정_전에_만든_스냅샷을_자정_이후에_다시_쓰지_않는다() {
+        ActivePromotions beforeMidnight = schedule.at(END.atTime(LAST_MOMENT));
+        ActivePromotions afterMidnight = schedule.at(END.plusDays(1).atStartOfDay());
+
+        assertThat(beforeMidnight.findActive("탄산2+1")).isPresent();
+        assertThat(afterMidnight.findActive("탄산2+1")).isEmpty();
+        assertThat(afterMidnight.findByName("탄산2+1")).isPresent();
+        assertThat(afterMidnight.now()).isEqualTo(END.plusDays(1).atStartOfDay());
+    }
+
+    @Test
+    void 자정을_넘어_시작하는_프로모션은_자정부터_진행한다() {
+        assertThat(schedule.at(START.minusDays(1).atTime(LAST_MOMENT)).findActive("탄산2+1")).isEmpty();
+        assertThat(schedule.at(START.atStartOfDay()).findActive("탄산2+1")).isPresent();
+    }
+
+    @Test
+    void 같은_날에는_기준_시간만_바꾼_스냅샷을_반환한다() {
+        LocalDateTime morning = START.atTime(9, 0);
+        LocalDateTime evening = START.atTime(21, 0);
+
+        schedule.at(morning);
+        ActivePromotions later = schedule.at(evening);
+
+        assertThat(later.now()).isEqualTo(evening);
+        assertThat(later.findActive("탄산2+1")).isPresent();
+    }
+
+    @Test
+    void 프로모션이_바뀌면_같은_날이라도_다시_계산한다() {
+        LocalDateTime noon = START.atTime(12, 0);
+        assertThat(schedule.at(noon).findActive("탄산2+1")).isPresent();
+
+        repository.save(Promotion.of("탄산2+1", 2, 1, START.plusDays(1), END));
+
+        assertThat(schedule.at(noon).findActive("탄산2+1")).isEmpty();
+    }
+
+    private boolean isActive(LocalDateTime now) {
+        Promotion promotion = repository.findByName("탄산2+1").orElseThrow();
+        return PromotionSchedule.from(repository).at(now).isActive(promotion);
+    }
+}
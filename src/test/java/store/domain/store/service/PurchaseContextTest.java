@@ -0,0 +1,81 @@
+package store.domain.store.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import store.domain.store.dao.ProductRepository;
+import store.domain.store.dao.PromotionRepository;
+import store.domain.store.domain.Product;
+import store.domain.store.domain.ProductId;
+import store.domain.store.dto.request.PurchaseRequest;
+import store.global.metrics.StoreMetrics;
+
+class PurchaseContextTest {
+    private final StoreMetrics metrics = StoreMetrics.create();
+    private final ProductRepository repository = ProductRepository.from(List.of(
+            Product.of("콜라", 1000, 10, "null"),
+            Product.of("물", 500, 5, "null")
+    ), metrics);
+    private final PurchaseContext context = PurchaseContext.of(repository,
+            PromotionSchedule.from(PromotionRepository.from(List.of())).now());
+    private final Product cola = repository.findNormalProduct("콜라").orElseThrow();
+    private final Product water = repository.findNormalProduct("물").orElseThrow();
+
+    @Test
+    void 예약한_차감은_commit_전까지_재고에_반영하지_않는다() {
+        context.beginCart();
+        context.removeStock(cola, 3);
+
+        assertThat(cola.getQuantity()).isEqualTo(10);
+        assertThat(context.availableStock(cola)).isEqualTo(7);
+    }
+
+    @Test
+    void 실패한_장바구니의_차감만_되돌리고_앞선_장바구니는_유지한다() {
+        context.beginCart();
+        context.removeStock(cola, 4);
+        context.beginCart();
+        context.removeStock(cola, 3);
+        context.removeStock(water, 2);
+        assertThatThrownBy(() -> context.removeStock(water, 4))
+                .isInstanceOf(IllegalArgumentException.class);
+        context.rollbackCart();
+
+        assertThat(context.availableStock(cola)).isEqualTo(6);
+        assertThat(context.availableStock(water)).isEqualTo(5);
+
+        context.commit();
+        assertThat(cola.getQuantity()).isEqualTo(6);
+        assertThat(water.getQuantity()).isEqualTo(5);
+    }
+
+    @Test
+    void 여러_장바구니의_차감을_상품별로_합산하여_반영한다() {
+        context.beginCart();
+        context.removeStock(cola, 2);
+        context.beginCart();
+        context.removeStock(cola, 5);
+        context.removeStock(water, 5);
+        context.commit();
+
+        assertThat(cola.getQuantity()).isEqualTo(3);
+        assertThat(water.getQuantity()).isZero();
+        assertThat(context.availableStock(cola)).isEqualTo(3);
+    }
+
+    @Test
+    void 같은_상품은_여러_줄에_나와도_한_번만_조회한다() {
+        ProductId colaId = repository.productIdOf(repository.findIdByName("콜라"));
+        long before = metrics.getProductLookupCount();
+        for (int line = 0; line < 5; line++) {
+            PurchaseRequest request = PurchaseRequest.of(colaId, "콜라", 1);
+            assertThat(context.promotionProduct(request)).isNull();
+            assertThat(context.normalProduct(request)).isSameAs(cola);
+        }
+
+        // 프로모션 상품과 일반 상품을 한 번씩 조회한다
+        assertThat(metrics.getProductLookupCount() - before).isEqualTo(2);
+    }
+}
@@ -0,0 +1,73 @@
+package store.domain.store.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import store.domain.store.dto.response.PurchaseResponse;
+import store.domain.store.dto.response.ReceiptResponse;
+import store.domain.store.service.SalesAnalytics.ProductSales;
+import store.domain.store.service.SalesAnalytics.SalesRate;
+
+class SalesAnalyticsTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final SalesAnalytics analytics = SalesAnalytics.withClock(clock::get);
+
+    @Test
+    void 상품별_판매_수량과_증정_수량과_금액을_누적한다() {
+        analytics.record(receipt(List.of(PurchaseResponse.of("콜라", 3, 3000)),
+                List.of(PurchaseResponse.of("콜라", 1, 1000)), 2000));
+        analytics.record(receipt(List.of(PurchaseResponse.of("콜라", 2, 2000)), List.of(), 2000));
+
+        assertThat(analytics.productSales("콜라")).isEqualTo(new ProductSales("콜라", 5, 1, 5000));
+        assertThat(analytics.productSales("물")).isEqualTo(new ProductSales("물", 0, 0, 0));
+    }
+
+    @Test
+    void 상위_10개_상품만_남기고_밀려난_상품도_다시_들어온다() {
+        IntStream.rangeClosed(1, 11).forEach(i ->
+                analytics.record(receipt(List.of(PurchaseResponse.of("상품" + i, i, i * 100)), List.of(), i * 100)));
+
+        assertThat(names(analytics.bestSellers())).hasSize(10)
+                .startsWith("상품11", "상품10")
+                .doesNotContain("상품1");
+
+        analytics.record(receipt(List.of(PurchaseResponse.of("상품1", 20, 2000)), List.of(), 2000));
+
+        assertThat(names(analytics.bestSellers())).hasSize(10)
+                .startsWith("상품1", "상품11")
+                .doesNotContain("상품2");
+        assertThat(analytics.bestSellers().get(0)).isEqualTo(new ProductSales("상품1", 21, 0, 2100));
+    }
+
+    @Test
+    void 최근_1분의_판매는_1분이_지나면_빠지고_1시간_동안은_남는다() {
+        analytics.record(receipt(List.of(PurchaseResponse.of("콜라", 2, 2000)), List.of(), 1800));
+        clock.set(30 * SECOND);
+        analytics.record(receipt(List.of(PurchaseResponse.of("물", 1, 500)), List.of(), 500));
+
+        assertThat(analytics.lastMinute()).isEqualTo(new SalesRate(60, 2, 3, 2300));
+
+        clock.set(70 * SECOND);
+        assertThat(analytics.lastMinute()).isEqualTo(new SalesRate(60, 1, 1, 500));
+        assertThat(analytics.lastHour()).isEqualTo(new SalesRate(3600, 2, 3, 2300));
+
+        clock.set(3600 * SECOND);
+        assertThat(analytics.lastMinute()).isEqualTo(new SalesRate(60, 0, 0, 0));
+        assertThat(analytics.lastHour()).isEqualTo(new SalesRate(3600, 0, 0, 0));
+    }
+
+    private static ReceiptResponse receipt(List<PurchaseResponse> items, List<PurchaseResponse> freeItems,
+                                           int finalAmount) {
+        int totalAmount = items.stream().mapToInt(PurchaseResponse::getAmount).sum();
+        return ReceiptResponse.of(items, freeItems, totalAmount, 0, totalAmount - finalAmount, finalAmount);
+    }
+
+    private static List<String> names(List<ProductSales> sales) {
+        return sales.stream().map(ProductSales::name).toList();
+    }
+}
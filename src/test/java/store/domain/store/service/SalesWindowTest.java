@@ -0,0 +1,49 @@
+package store.domain.store.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import store.domain.store.service.SalesAnalytics.SalesRate;
+
+class SalesWindowTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    private final SalesWindow window = SalesWindow.of(1, 60);
+
+    @Test
+    void 윈도_길이가_지난_구간은_합계에서_뺀다() {
+        window.record(0, 2, 1000);
+        window.record(30 * SECOND, 3, 1500);
+
+        assertThat(window.snapshot(59 * SECOND)).isEqualTo(new SalesRate(60, 2, 5, 2500));
+        assertThat(window.snapshot(60 * SECOND)).isEqualTo(new SalesRate(60, 1, 3, 1500));
+        assertThat(window.snapshot(90 * SECOND)).isEqualTo(new SalesRate(60, 0, 0, 0));
+    }
+
+    @Test
+    void 한_바퀴_돌아온_자리는_새_구간으로_갈아_끼운다() {
+        window.record(SECOND, 1, 100);
+        window.record(61 * SECOND, 4, 400);
+
+        assertThat(window.snapshot(61 * SECOND)).isEqualTo(new SalesRate(60, 1, 4, 400));
+    }
+
+    @Test
+    void 구간이_이미_바뀐_뒤에_도착한_기록은_새_구간에_더하지_않는다() {
+        window.record(61 * SECOND, 4, 400);
+        window.record(SECOND, 1, 100);
+
+        assertThat(window.snapshot(61 * SECOND)).isEqualTo(new SalesRate(60, 1, 4, 400));
+        assertThat(window.lateRecords()).isEqualTo(1);
+    }
+
+    @Test
+    void 같은_자리의_구간보다_새로운_기록은_늦은_기록이_아니다() {
+        window.record(SECOND, 1, 100);
+        window.record(2 * SECOND, 2, 200);
+        window.record(SECOND, 3, 300);
+
+        assertThat(window.snapshot(2 * SECOND)).isEqualTo(new SalesRate(60, 3, 6, 600));
+        assertThat(window.lateRecords()).isZero();
+    }
+}
@@ -0,0 +1,184 @@
+package store.domain.store.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import store.domain.store.dao.ProductRepository;
+import store.domain.store.dao.PromotionRepository;
+import store.domain.store.dao.ReceiptLog;
+import store.domain.store.dao.ReceiptStore;
+import store.domain.store.domain.Product;
+import store.domain.store.dto.request.CartRequest;
+import store.domain.store.dto.request.PurchaseRequest;
+import store.domain.store.dto.response.CartPurchaseResponse;
+import store.domain.store.dto.response.ReceiptResponse;
+import store.global.metrics.StoreMetrics;
+
+class StoreServiceImplTest {
+    @TempDir
+    Path directory;
+
+    private final ProductRepository repository = ProductRepository.from(List.of(
+            Product.of("콜라", 1000, 10, "null"),
+            Product.of("물", 500, 5, "null")
+    ));
+    private final StoreMetrics metrics = StoreMetrics.create();
+
+    @Test
+    void 겹치는_장바구니를_동시에_구매해도_초과_판매하지_않는다() throws Exception {
+        List<String> names = List.of("콜라", "사이다", "물", "오렌지주스");
+        ProductRepository shared = ProductRepository.from(names.stream()
+                .map(name -> Product.of(name, 1000, 200, "null"))
+                .toList());
+        StoreServiceImpl service = StoreServiceImpl.of(shared, PromotionRepository.from(List.of()),
+                metrics, ReceiptLog.disabled(), ReceiptStore.disabled());
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Map<String, Integer> sold = new HashMap<>();
+        try {
+            List<Future<List<ReceiptResponse>>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                Random random = new Random(thread);
+                boolean batch = thread % 2 == 0;
+                futures.add(executor.submit(() -> purchaseRandomCarts(service, names, random, batch)));
+            }
+            for (Future<List<ReceiptResponse>> future : futures) {
+                future.get(30, TimeUnit.SECONDS).forEach(receipt -> receipt.getItems().forEach(item ->
+                        sold.merge(item.getName(), item.getQuantity(), Integer::sum)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 수요가 재고보다 많아 거절된 구매가 생기지만, 남은 재고는 음수가 되거나 판매량과 어긋나지 않는다
+        assertThat(metrics.getStockOutsByProduct()).isNotEmpty();
+        for (String name : names) {
+            int remaining = shared.findNormalProduct(name).orElseThrow().getQuantity();
+            assertThat(remaining).isNotNegative().isEqualTo(200 - sold.getOrDefault(name, 0));
+        }
+    }
+
+    // 상품 순서를 섞은 장바구니를 구매하고 성공한 영수증을 모은다
+    private static List<ReceiptResponse> purchaseRandomCarts(
+            StoreServiceImpl service, List<String> names, Random random, boolean batch) {
+        List<ReceiptResponse> receipts = new ArrayList<>();
+        for (int round = 0; round < 300; round++) {
+            List<CartRequest> carts = new ArrayList<>();
+            for (int cart = 0; cart < (batch ? 3 : 1); cart++) {
+                List<String> shuffled = new ArrayList<>(names);
+                Collections.shuffle(shuffled, random);
+                carts.add(CartRequest.of(shuffled.subList(0, 2 + random.nextInt(names.size() - 1)).stream()
+                        .map(name -> PurchaseRequest.of(name, 1 + random.nextInt(3)))
+                        .toList(), false, false));
+            }
+            if (batch) {
+                service.purchaseBatch(carts).stream()
+                        .filter(CartPurchaseResponse::isSuccess)
+                        .forEach(response -> receipts.add(response.getReceipt()));
+                continue;
+            }
+            try {
+                receipts.add(service.purchase(carts.get(0).getRequests(), false, false));
+            } catch (IllegalArgumentException e) {
+                // 재고가 부족한 장바구니는 아무것도 차감하지 않는다
+            }
+        }
+        return receipts;
+    }
+
+    @Test
+    void 재고가_부족해_거절한_구매를_상품별로_센다() {
+        StoreServiceImpl service = StoreServiceImpl.of(repository, PromotionRepository.from(List.of()),
+                metrics, ReceiptLog.disabled(), ReceiptStore.disabled());
+
+        assertThatThrownBy(() -> service.purchase(List.of(PurchaseRequest.of("콜라", 11)), false, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.purchase(List.of(PurchaseRequest.of("콜라", 20)), false, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        List<CartPurchaseResponse> responses = service.purchaseBatch(List.of(
+                CartRequest.of(List.of(PurchaseRequest.of("물", 6)), false, false),
+                CartRequest.of(List.of(PurchaseRequest.of("물", 5)), false, false)
+        ));
+
+        assertThat(responses.get(0).isSuccess()).isFalse();
+        assertThat(responses.get(1).isSuccess()).isTrue();
+        assertThat(metrics.getStockOutsByProduct()).containsExactlyInAnyOrderEntriesOf(Map.of("콜라", 2L, "물", 1L));
+    }
+
+    @Test
+    void 영수증_기록에_실패해도_완료된_구매의_영수증을_반환한다() throws IOException {
+        StoreServiceImpl service = serviceWithBrokenLog();
+
+        ReceiptResponse receipt = service.purchase(List.of(PurchaseRequest.of("콜라", 2)), false, false);
+
+        assertThat(receipt.getFinalAmount()).isEqualTo(2000);
+        assertThat(repository.findNormalProduct("콜라").orElseThrow().getQuantity()).isEqualTo(8);
+        assertThat(metrics.getReceiptRecordFailureCount()).isEqualTo(1);
+    }
+
+    @Test
+    void 묶음_구매는_영수증_기록에_실패해도_모든_장바구니의_결과를_반환한다() throws IOException {
+        StoreServiceImpl service = serviceWithBrokenLog();
+
+        List<CartPurchaseResponse> responses = service.purchaseBatch(List.of(
+                CartRequest.of(List.of(PurchaseRequest.of("콜라", 1)), false, false),
+                CartRequest.of(List.of(PurchaseRequest.of("물", 1)), false, false)
+        ));
+
+        assertThat(responses).hasSize(2).allMatch(CartPurchaseResponse::isSuccess);
+        assertThat(metrics.getReceiptRecordFailureCount()).isEqualTo(2);
+        assertThat(service.getSalesAnalytics()).isNotNull();
+    }
+
+    @Test
+    void 영수증_저장소의_번호를_영수증에_붙이고_번호로_다시_찾는다() {
+        try (ReceiptStore receiptStore = ReceiptStore.open(directory, 1)) {
+            StoreServiceImpl service = StoreServiceImpl.of(repository, PromotionRepository.from(List.of()),
+                    metrics, ReceiptLog.disabled(), receiptStore);
+
+            ReceiptResponse first = service.purchase(List.of(PurchaseRequest.of("콜라", 1)), false, false);
+            List<CartPurchaseResponse> batch = service.purchaseBatch(List.of(
+                    CartRequest.of(List.of(PurchaseRequest.of("물", 1)), false, false),
+                    CartRequest.of(List.of(PurchaseRequest.of("물", 9)), false, false)
+            ));
+
+            assertThat(first.getReceiptId()).isEqualTo(1);
+            assertThat(batch.get(0).getReceipt().getReceiptId()).isEqualTo(2);
+            assertThat(batch.get(1).isSuccess()).isFalse();
+            assertThat(service.findReceipt(2).orElseThrow().getFinalAmount()).isEqualTo(500);
+            assertThat(service.findReceipt(3)).isEmpty();
+        }
+    }
+
+    @Test
+    void 영수증_저장소가_꺼져_있으면_번호를_붙이지_않는다() {
+        StoreServiceImpl service = StoreServiceImpl.of(repository, PromotionRepository.from(List.of()));
+
+        ReceiptResponse receipt = service.purchase(List.of(PurchaseRequest.of("콜라", 1)), false, false);
+
+        assertThat(receipt.getReceiptId()).isEqualTo(ReceiptResponse.NOT_STORED);
+        assertThat(service.findReceipt(1)).isEmpty();
+    }
+
+    // 기록 디렉터리 자리에 파일이 있어 날짜 디렉터리를 만들지 못한다
+    private StoreServiceImpl serviceWithBrokenLog() throws IOException {
+        Path blocked = Files.createFile(directory.resolve("receipts"));
+        return StoreServiceImpl.of(repository, PromotionRepository.from(List.of()),
+                metrics, ReceiptLog.open(blocked, "1"), ReceiptStore.disabled());
+    }
+}
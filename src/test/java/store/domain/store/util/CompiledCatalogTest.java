@@ -0,0 +1,103 @@
+package store.domain.store.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import store.domain.store.dao.ProductRepository;
+import store.domain.store.domain.Product;
+import store.domain.store.domain.Promotion;
+
+class CompiledCatalogTest {
+    private static final List<Product> PRODUCTS = List.of(
+            Product.of("콜라", 1000, 10, "탄산2+1"),
+            Product.of("콜라", 1000, 10, "null"),
+            Product.of("물", 500, 10, "null"),
+            Product.of("감자칩", 1500, 5, "반짝할인"),
+            Product.of("사이다", 1000, 8, "탄산2+1")
+    );
+    private static final List<Promotion> PROMOTIONS = List.of(
+            Promotion.of("탄산2+1", 2, 1, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)),
+            Promotion.of("반짝할인", 1, 1, LocalDate.of(2024, 11, 1), LocalDate.of(2024, 11, 30))
+    );
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void 컴파일한_상품과_프로모션을_원본_순서대로_읽는다() {
+        CompiledCatalog catalog = CompiledCatalog.from(ByteBuffer.wrap(CatalogCompiler.compile(PRODUCTS, PROMOTIONS)));
+
+        assertThat(catalog.products()).extracting(CompiledCatalogTest::rowOf)
+                .containsExactly("콜라/1000/10/탄산2+1", "콜라/1000/10/null", "물/500/10/null",
+                        "감자칩/1500/5/반짝할인", "사이다/1000/8/탄산2+1");
+        assertThat(catalog.promotions()).extracting(Promotion::getName).containsExactly("탄산2+1", "반짝할인");
+    }
+
+    @Test
+    void 상품_행을_sink에_넘기고_프로모션명은_처음_나올_때_한_번만_번호로_바꾼다() {
+        CompiledCatalog catalog = CompiledCatalog.from(ByteBuffer.wrap(CatalogCompiler.compile(PRODUCTS, PROMOTIONS)));
+        List<String> labelRequests = new ArrayList<>();
+        List<String> rows = new ArrayList<>();
+
+        catalog.forEachProduct(new ProductRowSink() {
+            @Override
+            public int promotionLabel(String promotionName) {
+                labelRequests.add(promotionName);
+                return labelRequests.size() - 1;
+            }
+
+            @Override
+            public void add(byte[] name, int nameOffset, int nameLength, int price, int quantity, int label) {
+                rows.add(new String(name, nameOffset, nameLength, StandardCharsets.UTF_8) + "/" + price + "/"
+                        + quantity + "/" + labelRequests.get(label));
+            }
+        });
+
+        assertThat(labelRequests).containsExactly("탄산2+1", "null", "반짝할인");
+        assertThat(rows).containsExactly("콜라/1000/10/탄산2+1", "콜라/1000/10/null", "물/500/10/null",
+                "감자칩/1500/5/반짝할인", "사이다/1000/8/탄산2+1");
+    }
+
+    @Test
+    void 바이너리_카탈로그로_만든_저장소는_텍스트로_만든_저장소와_같다() throws IOException {
+        Path text = directory.resolve("products.md");
+        StringBuilder content = new StringBuilder("name,price,quantity,promotion\n");
+        PRODUCTS.forEach(product -> content.append(rowOf(product).replace('/', ',')).append('\n'));
+        Files.writeString(text, content, StandardCharsets.UTF_8);
+        Path compiled = directory.resolve("catalog.bin");
+        CatalogCompiler.write(compiled, CatalogCompiler.compile(PRODUCTS, PROMOTIONS));
+
+        ProductRepository fromText = ProductRepository.fromFile(text);
+        ProductRepository fromCatalog = ProductRepository.fromFile(compiled);
+
+        assertThat(fromCatalog.findAll()).extracting(CompiledCatalogTest::rowOf)
+                .containsExactlyElementsOf(fromText.findAll().stream().map(CompiledCatalogTest::rowOf).toList());
+        assertThat(fromCatalog.findPromotionProduct("사이다")).isPresent();
+        assertThat(fromCatalog.findNormalProduct("사이다")).isEmpty();
+    }
+
+    @Test
+    void 형식_버전이_다르면_열지_않는다() {
+        byte[] catalog = CatalogCompiler.compile(PRODUCTS, PROMOTIONS);
+        ByteBuffer.wrap(catalog).putShort(Integer.BYTES, (short) 1);
+
+        assertThatThrownBy(() -> CompiledCatalog.from(ByteBuffer.wrap(catalog)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("[ERROR]");
+    }
+
+    private static String rowOf(Product product) {
+        return product.getName() + "/" + product.getPrice() + "/" + product.getQuantity() + "/"
+                + product.getPromotionName();
+    }
+}
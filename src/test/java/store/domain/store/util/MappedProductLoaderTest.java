@@ -0,0 +1,93 @@
+package store.domain.store.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedProductLoaderTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void 작은_청크로_나누어도_파일_순서대로_행을_전달한다() throws IOException {
+        StringBuilder content = new StringBuilder("name,price,quantity,promotion\n");
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String promotion = i % 3 == 0 ? "탄산2+1" : "null";
+            content.append("상품").append(i).append(',').append(1000 + i).append(',').append(i)
+                    .append(',').append(promotion).append('\n');
+            expected.add("상품" + i + "/" + (1000 + i) + "/" + i + "/" + promotion);
+        }
+        Path file = write(content.toString());
+
+        RecordingSink sink = new RecordingSink();
+        MappedProductLoader.load(file, 64, 2, sink);
+
+        assertThat(sink.rows).containsExactlyElementsOf(expected);
+        assertThat(sink.labels).containsOnlyKeys("탄산2+1", "null");
+    }
+
+    @Test
+    void 공백과_CRLF를_제거하고_읽는다() throws IOException {
+        Path file = write("name,price,quantity,promotion\r\n 콜라 , 1000 ,10, 탄산2+1 \r\n물,500,0,null");
+
+        RecordingSink sink = new RecordingSink();
+        MappedProductLoader.load(file, sink);
+
+        assertThat(sink.rows).containsExactly("콜라/1000/10/탄산2+1", "물/500/0/null");
+    }
+
+    @Test
+    void 형식이_올바르지_않은_행이_있으면_예외가_발생한다() throws IOException {
+        Path file = write("name,price,quantity,promotion\n콜라,1000,10,null\n사이다,천원,10,null\n");
+
+        assertThatThrownBy(() -> MappedProductLoader.load(file, new RecordingSink()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("[ERROR]");
+    }
+
+    @Test
+    void 가격이_0_이하인_행이_있으면_예외가_발생한다() throws IOException {
+        Path file = write("name,price,quantity,promotion\n콜라,0,10,null\n");
+
+        assertThatThrownBy(() -> MappedProductLoader.load(file, new RecordingSink()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("[ERROR]");
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = directory.resolve("products.md");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static final class RecordingSink implements ProductRowSink {
+        private final Map<String, Integer> labels = new HashMap<>();
+        private final List<String> labelNames = new ArrayList<>();
+        private final List<String> rows = new ArrayList<>();
+
+        @Override
+        public int promotionLabel(String promotionName) {
+            return labels.computeIfAbsent(promotionName, name -> {
+                labelNames.add(name);
+                return labelNames.size() - 1;
+            });
+        }
+
+        @Override
+        public void add(byte[] name, int nameOffset, int nameLength, int price, int quantity, int promotionLabel) {
+            rows.add(new String(name, nameOffset, nameLength, StandardCharsets.UTF_8)
+                    + "/" + price + "/" + quantity + "/" + labelNames.get(promotionLabel));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package store.domain.store.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class StripedLockTest {
+    private static final List<String> KEYS = List.of("콜라", "사이다", "물", "오렌지주스", "탄산수", "비타민워터");
+
+    @Test
+    void 여러_키를_서로_다른_순서로_잠가도_교착_없이_배타적으로_실행한다() throws Exception {
+        // 스트라이프를 적게 두어 서로 다른 키가 같은 락을 나눠 쓰게 한다
+        StripedLock lock = StripedLock.of(2);
+        int[] counters = new int[KEYS.size()];
+        int threads = 8;
+        int rounds = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        int[] expected = new int[KEYS.size()];
+        try {
+            List<Future<int[]>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                Random random = new Random(thread);
+                futures.add(executor.submit(() -> {
+                    int[] added = new int[KEYS.size()];
+                    for (int round = 0; round < rounds; round++) {
+                        List<String> keys = new ArrayList<>(KEYS);
+                        Collections.shuffle(keys, random);
+                        List<String> locked = keys.subList(0, 2 + random.nextInt(KEYS.size() - 1));
+                        lock.execute(locked, () -> {
+                            locked.forEach(key -> counters[KEYS.indexOf(key)]++);
+                            return null;
+                        });
+                        locked.forEach(key -> added[KEYS.indexOf(key)]++);
+                    }
+                    return added;
+                }));
+            }
+            for (Future<int[]> future : futures) {
+                int[] added = future.get(30, TimeUnit.SECONDS);
+                for (int i = 0; i < expected.length; i++) {
+                    expected[i] += added[i];
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 잠근 상태에서만 더했으므로 어느 키도 증가분을 잃지 않는다
+        assertThat(counters).containsExactly(expected);
+    }
+}
@@ -0,0 +1,100 @@
+package store.global.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import store.global.metrics.LatencyHistogram.LatencySnapshot;
+
+class LatencyHistogramTest {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    @Test
+    void 여덟_나노초_미만은_값_그대로_센다() {
+        for (int nanos = 0; nanos < 8; nanos++) {
+            assertThat(maxNanosOf(nanos)).isEqualTo(nanos);
+        }
+    }
+
+    @Test
+    void 구간의_상한을_값으로_쓰고_다음_값부터_새_구간에_센다() {
+        // 8~15는 1나노초, 16~31은 2나노초 너비의 구간이다
+        assertThat(maxNanosOf(8)).isEqualTo(8);
+        assertThat(maxNanosOf(15)).isEqualTo(15);
+        assertThat(maxNanosOf(16)).isEqualTo(17);
+        assertThat(maxNanosOf(17)).isEqualTo(17);
+        assertThat(maxNanosOf(18)).isEqualTo(19);
+        assertThat(maxNanosOf(31)).isEqualTo(31);
+        assertThat(maxNanosOf(32)).isEqualTo(35);
+    }
+
+    @Test
+    void 구간_상한의_상대_오차는_12_5퍼센트_이하다() {
+        for (long nanos = 1; nanos < (1L << 40); nanos = nanos * 3 + 1) {
+            long upper = maxNanosOf(nanos);
+
+            assertThat(upper).isGreaterThanOrEqualTo(nanos);
+            assertThat((double) upper).isLessThanOrEqualTo(nanos * 1.125);
+        }
+    }
+
+    @Test
+    void 백분위는_기록_수에_대한_순위로_구간을_고른다() {
+        LatencyHistogram histogram = LatencyHistogram.create();
+        record(histogram, 1, 50);
+        record(histogram, 2, 40);
+        record(histogram, 3, 9);
+        record(histogram, 7, 1);
+
+        LatencySnapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.count()).isEqualTo(100);
+        assertThat(nanos(snapshot.meanMillis())).isEqualTo(1.64);
+        assertThat(nanos(snapshot.p50Millis())).isEqualTo(1);
+        assertThat(nanos(snapshot.p90Millis())).isEqualTo(2);
+        assertThat(nanos(snapshot.p99Millis())).isEqualTo(3);
+        assertThat(nanos(snapshot.p999Millis())).isEqualTo(7);
+        assertThat(nanos(snapshot.maxMillis())).isEqualTo(7);
+    }
+
+    @Test
+    void 기록이_하나면_모든_백분위가_그_값의_구간이다() {
+        LatencyHistogram histogram = LatencyHistogram.create();
+        histogram.record(5);
+
+        LatencySnapshot snapshot = histogram.snapshot();
+
+        assertThat(nanos(snapshot.p50Millis())).isEqualTo(5);
+        assertThat(nanos(snapshot.maxMillis())).isEqualTo(5);
+    }
+
+    @Test
+    void 음수는_0으로_범위를_넘는_값은_마지막_구간에_센다() {
+        assertThat(maxNanosOf(-10)).isZero();
+        assertThat(maxNanosOf(Long.MAX_VALUE)).isEqualTo((1L << 40) - 1);
+    }
+
+    @Test
+    void 초기화하면_기록이_없는_요약을_반환한다() {
+        LatencyHistogram histogram = LatencyHistogram.create();
+        histogram.record(1_000_000);
+        histogram.reset();
+
+        assertThat(histogram.snapshot()).isEqualTo(LatencySnapshot.EMPTY);
+    }
+
+    private static long maxNanosOf(long nanos) {
+        LatencyHistogram histogram = LatencyHistogram.create();
+        histogram.record(nanos);
+        return Math.round(histogram.snapshot().maxMillis() * NANOS_PER_MILLI);
+    }
+
+    private static void record(LatencyHistogram histogram, long nanos, int times) {
+        for (int i = 0; i < times; i++) {
+            histogram.record(nanos);
+        }
+    }
+
+    private static double nanos(double millis) {
+        return Math.round(millis * NANOS_PER_MILLI * 100) / 100.0;
+    }
+}